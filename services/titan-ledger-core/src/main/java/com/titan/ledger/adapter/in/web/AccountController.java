@@ -1,11 +1,24 @@
 package com.titan.ledger.adapter.in.web;
 
+import com.titan.ledger.adapter.in.web.admission.AdmissionControlled;
+import com.titan.ledger.adapter.in.web.dto.AccountBalancesRequestDTO;
+import com.titan.ledger.adapter.in.web.dto.BalanceAtRequestDTO;
+import com.titan.ledger.adapter.in.web.dto.BatchTransferRequestDTO;
 import com.titan.ledger.adapter.in.web.dto.CreateAccountRequestDTO;
 import com.titan.ledger.adapter.in.web.dto.DepositRequestDTO;
+import com.titan.ledger.adapter.in.web.dto.EnableShardingRequestDTO;
 import com.titan.ledger.adapter.in.web.dto.TransferRequestDTO;
+import com.titan.ledger.adapter.in.web.export.ExportGate;
+import com.titan.ledger.core.service.AccountExportService;
 import com.titan.ledger.core.service.AccountQueryService;
+import com.titan.ledger.core.service.AccountReadModelService;
+import com.titan.ledger.core.service.DailySummaryService;
+import com.titan.ledger.core.service.StatementExportFormat;
+import com.titan.ledger.core.service.StatementExportService;
+import com.titan.ledger.core.usecase.BatchTransferFundsUseCase;
 import com.titan.ledger.core.usecase.CreateAccountUseCase;
 import com.titan.ledger.core.usecase.DepositUseCase;
+import com.titan.ledger.core.usecase.EnableAccountShardingUseCase;
 import com.titan.ledger.core.usecase.GetAccountBalanceUseCase;
 import com.titan.ledger.core.usecase.TransferFundsUseCase;
 import com.titan.ledger.core.usecase.dto.*; // Seus DTOs de UseCase (AccountResponse, etc)
@@ -17,16 +30,23 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -40,28 +60,90 @@ public class AccountController {
     private final DepositUseCase depositUseCase;
     private final AccountQueryService accountQueryService;
     private final TransferFundsUseCase transferFundsUseCase;
+    private final BatchTransferFundsUseCase batchTransferFundsUseCase;
+    private final EnableAccountShardingUseCase enableAccountShardingUseCase;
+    private final StatementExportService statementExportService;
+    private final AccountExportService accountExportService;
+    private final AccountReadModelService accountReadModelService;
+    private final DailySummaryService dailySummaryService;
+    private final ExportGate exportGate;
 
     public AccountController(CreateAccountUseCase createAccountUseCase,
                              GetAccountBalanceUseCase getAccountBalanceUseCase,
                              DepositUseCase depositUseCase,
                              AccountQueryService accountQueryService,
-                             TransferFundsUseCase transferFundsUseCase) {
+                             TransferFundsUseCase transferFundsUseCase,
+                             BatchTransferFundsUseCase batchTransferFundsUseCase,
+                             EnableAccountShardingUseCase enableAccountShardingUseCase,
+                             StatementExportService statementExportService,
+                             AccountExportService accountExportService,
+                             AccountReadModelService accountReadModelService,
+                             DailySummaryService dailySummaryService,
+                             ExportGate exportGate) {
         this.createAccountUseCase = createAccountUseCase;
         this.getAccountBalanceUseCase = getAccountBalanceUseCase;
         this.depositUseCase = depositUseCase;
         this.accountQueryService = accountQueryService;
         this.transferFundsUseCase = transferFundsUseCase;
+        this.batchTransferFundsUseCase = batchTransferFundsUseCase;
+        this.enableAccountShardingUseCase = enableAccountShardingUseCase;
+        this.statementExportService = statementExportService;
+        this.accountExportService = accountExportService;
+        this.accountReadModelService = accountReadModelService;
+        this.dailySummaryService = dailySummaryService;
+        this.exportGate = exportGate;
     }
 
     // --- LISTAR TODAS ---
     @GetMapping
-    @Operation(summary = "Listar todas as contas", description = "Retorna uma lista completa de todas as contas registradas no Ledger (Use com cuidado em produção).")
+    @Operation(summary = "Listar todas as contas", description = "Retorna uma lista completa de todas as contas registradas no Ledger (Use com cuidado em produção: carrega tudo em memória. Prefira /page ou /export).")
     public ResponseEntity<List<AccountResponse>> listAll() {
         return ResponseEntity.ok(accountQueryService.listAll());
     }
 
+    // --- LISTAR POR CURSOR ---
+    @GetMapping("/page")
+    @Operation(summary = "Listar contas (cursor)", description = "Contas em ordem de id, paginadas por cursor e com filtros opcionais. Sem total de registros: use nextCursor enquanto hasNext for true.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Sucesso"),
+        @ApiResponse(responseCode = "400", description = "Cursor, status ou tamanho de página inválido", content = @Content(schema = @Schema(implementation = ProblemDetail.class)))
+    })
+    public ResponseEntity<AccountSliceResponse> listPage(
+            @Parameter(description = "ACTIVE, FROZEN ou CLOSED") @RequestParam(required = false) String status,
+            @Parameter(description = "Moeda (ex: BRL)") @RequestParam(required = false) String currency,
+            @Parameter(description = "Só contas alteradas a partir deste instante (ISO-8601)") @RequestParam(required = false) Instant updatedSince,
+            @Parameter(description = "nextCursor da página anterior (omitir na primeira)") @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+
+        AccountFilter filter = AccountFilter.of(status, currency, updatedSince);
+        return ResponseEntity.ok(accountQueryService.listPage(filter, cursor, size));
+    }
+
+    // --- EXPORTAR TODAS (STREAMING) ---
+    @GetMapping("/export")
+    @Operation(summary = "Exportar contas", description = "Todas as contas que passam nos filtros, em NDJSON (uma por linha) e em streaming: a memória do servidor não depende da quantidade de contas.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Arquivo em streaming"),
+        @ApiResponse(responseCode = "400", description = "Status inválido", content = @Content(schema = @Schema(implementation = ProblemDetail.class))),
+        @ApiResponse(responseCode = "503", description = "Exportações demais em andamento", content = @Content(schema = @Schema(implementation = ProblemDetail.class)))
+    })
+    public ResponseEntity<StreamingResponseBody> exportAccounts(
+            HttpServletRequest request,
+            @Parameter(description = "ACTIVE, FROZEN ou CLOSED") @RequestParam(required = false) String status,
+            @Parameter(description = "Moeda (ex: BRL)") @RequestParam(required = false) String currency,
+            @Parameter(description = "Só contas alteradas a partir deste instante (ISO-8601)") @RequestParam(required = false) Instant updatedSince) {
+
+        AccountFilter filter = AccountFilter.of(status, currency, updatedSince);
+        StreamingResponseBody body = exportGate.admit(request, out -> accountExportService.export(filter, out));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"accounts.ndjson\"")
+                .body(body);
+    }
+
     // --- CRIAR CONTA ---
     @PostMapping
+    @AdmissionControlled
     @Operation(summary = "Criar nova conta", description = "Cria uma conta para um Client ID específico. Se já existir, retorna a existente.")
     @ApiResponses({
         @ApiResponse(responseCode = "201", description = "Conta criada com sucesso"),
@@ -81,18 +163,101 @@ public class AccountController {
 
     // --- SALDO ---
     @GetMapping("/{accountId}")
-    @Operation(summary = "Consultar Saldo", description = "Obtém o saldo atual e status de uma conta específica.")
+    @Operation(summary = "Consultar Saldo", description = "Obtém o saldo atual e status de uma conta específica. Com maxStalenessMs, aceita um saldo do read model com até esse atraso.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Sucesso"),
+        @ApiResponse(responseCode = "400", description = "maxStalenessMs negativo", content = @Content(schema = @Schema(implementation = ProblemDetail.class))),
         @ApiResponse(responseCode = "404", description = "Conta não encontrada", content = @Content(schema = @Schema(implementation = ProblemDetail.class)))
     })
-    public ResponseEntity<AccountResponse> getBalance(@PathVariable UUID accountId) {
-        AccountResponse response = getAccountBalanceUseCase.execute(accountId);
+    public ResponseEntity<AccountResponse> getBalance(
+            @PathVariable UUID accountId,
+            @Parameter(description = "Atraso máximo aceito, em ms (omitido = saldo atual)") @RequestParam(required = false) Long maxStalenessMs) {
+        AccountResponse response = maxStalenessMs == null
+                ? getAccountBalanceUseCase.execute(accountId)
+                : accountReadModelService.getBalance(accountId, Duration.ofMillis(maxStalenessMs));
         return ResponseEntity.ok(response);
     }
 
+    // --- RESUMO (READ MODEL) ---
+    @GetMapping("/{accountId}/summary")
+    @Operation(summary = "Resumo da Conta", description = "Saldo, últimos lançamentos e totais mensais. Com maxStalenessMs, sai do read model quando a projeção está dentro do atraso aceito; asOf indica até quando os dados estão em dia.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Sucesso"),
+        @ApiResponse(responseCode = "400", description = "maxStalenessMs negativo", content = @Content(schema = @Schema(implementation = ProblemDetail.class))),
+        @ApiResponse(responseCode = "404", description = "Conta não encontrada", content = @Content(schema = @Schema(implementation = ProblemDetail.class)))
+    })
+    public ResponseEntity<AccountSummaryResponse> getSummary(
+            @PathVariable UUID accountId,
+            @Parameter(description = "Atraso máximo aceito, em ms (omitido = tabelas de origem)") @RequestParam(required = false) Long maxStalenessMs) {
+        Duration maxStaleness = maxStalenessMs == null ? null : Duration.ofMillis(maxStalenessMs);
+        return ResponseEntity.ok(accountReadModelService.getSummary(accountId, maxStaleness));
+    }
+
+    // --- TOTAIS DIÁRIOS ---
+    @GetMapping("/{accountId}/daily-summary")
+    @Operation(summary = "Totais Diários", description = "Créditos, débitos e saldo de fechamento por dia (UTC) no intervalo [from, to], lidos dos totais pré-agregados. Dias sem movimento não aparecem; completeUntil indica até quando os totais estão completos.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Sucesso"),
+        @ApiResponse(responseCode = "400", description = "Intervalo inválido ou acima do limite", content = @Content(schema = @Schema(implementation = ProblemDetail.class))),
+        @ApiResponse(responseCode = "404", description = "Conta não encontrada", content = @Content(schema = @Schema(implementation = ProblemDetail.class)))
+    })
+    public ResponseEntity<DailySummaryRangeResponse> getDailySummary(
+            @PathVariable UUID accountId,
+            @Parameter(description = "Primeiro dia (yyyy-MM-dd, inclusivo)") @RequestParam LocalDate from,
+            @Parameter(description = "Último dia (yyyy-MM-dd, inclusivo)") @RequestParam LocalDate to) {
+        return ResponseEntity.ok(dailySummaryService.getDailySummary(accountId, from, to));
+    }
+
+    // --- SALDOS EM LOTE ---
+    @PostMapping("/balances")
+    @Operation(summary = "Consultar Saldos (lote)", description = "Saldo atual de várias contas numa chamada (ex: todas as contas de uma tela). Cache e banco são consultados uma vez para o lote inteiro. Ids sem conta voltam em notFound.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Sucesso"),
+        @ApiResponse(responseCode = "400", description = "Lista vazia ou acima do limite", content = @Content(schema = @Schema(implementation = ProblemDetail.class)))
+    })
+    public ResponseEntity<AccountBalancesResponse> getBalances(@RequestBody AccountBalancesRequestDTO request) {
+        return ResponseEntity.ok(accountQueryService.getBalances(request.getAccountIds()));
+    }
+
+    // --- SALDO EM UM INSTANTE ---
+    @GetMapping("/{accountId}/balance")
+    @Operation(summary = "Consultar Saldo em um instante", description = "Saldo da conta no instante informado, a partir do balance_snapshot do último lançamento até ele. Zero se não houver lançamento até lá.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Sucesso"),
+        @ApiResponse(responseCode = "404", description = "Conta não encontrada", content = @Content(schema = @Schema(implementation = ProblemDetail.class)))
+    })
+    public ResponseEntity<BalanceAtResponse> getBalanceAt(
+            @PathVariable UUID accountId,
+            @Parameter(description = "Instante da consulta (ISO-8601)") @RequestParam Instant at) {
+        return ResponseEntity.ok(accountQueryService.getBalanceAt(accountId, at));
+    }
+
+    @PostMapping("/balance-at")
+    @Operation(summary = "Consultar Saldos em um instante (lote)", description = "Saldo de várias contas no mesmo instante, em uma única consulta. Contas inexistentes não aparecem na resposta.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Sucesso"),
+        @ApiResponse(responseCode = "400", description = "Lista vazia, acima do limite ou sem instante", content = @Content(schema = @Schema(implementation = ProblemDetail.class)))
+    })
+    public ResponseEntity<List<BalanceAtResponse>> getBalancesAt(@RequestBody BalanceAtRequestDTO request) {
+        return ResponseEntity.ok(accountQueryService.getBalancesAt(request.getAccountIds(), request.getAt()));
+    }
+
+    // --- SHARDING DE SALDO (CONTAS QUENTES) ---
+    @PostMapping("/{accountId}/shards")
+    @AdmissionControlled
+    @Operation(summary = "Dividir saldo em fatias", description = "Liga o modo sharded para contas com muitos créditos concorrentes (ex: grandes lojistas). Créditos passam a cair em uma fatia sorteada e o saldo exibido continua sendo o total.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Conta sharded"),
+        @ApiResponse(responseCode = "400", description = "Quantidade de fatias inválida ou menor que a atual", content = @Content(schema = @Schema(implementation = ProblemDetail.class))),
+        @ApiResponse(responseCode = "404", description = "Conta não encontrada", content = @Content(schema = @Schema(implementation = ProblemDetail.class)))
+    })
+    public ResponseEntity<AccountResponse> enableSharding(@PathVariable UUID accountId, @RequestBody EnableShardingRequestDTO request) {
+        return ResponseEntity.ok(enableAccountShardingUseCase.execute(accountId, request.getShardCount()));
+    }
+
     // --- DEPÓSITO ---
     @PostMapping("/{accountId}/deposit")
+    @AdmissionControlled
     @Operation(summary = "Realizar Depósito (Cash-in)", description = "Adiciona fundos a uma conta. Gera uma entrada no Ledger e um evento de notificação.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Depósito realizado"),
@@ -110,6 +275,7 @@ public class AccountController {
 
     // --- TRANSFERÊNCIA ---
     @PostMapping("/transfer")
+    @AdmissionControlled
     @Operation(summary = "Realizar Transferência (P2P)", description = "Move fundos entre contas. Exige Header Idempotency-Key.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Transferência realizada"),
@@ -133,6 +299,28 @@ public class AccountController {
         return ResponseEntity.ok(new TransactionIdResponse(transactionId));
     }
 
+    // --- TRANSFERÊNCIA EM LOTE ---
+    @PostMapping("/transfer/batch")
+    @AdmissionControlled
+    @Operation(summary = "Transferências em lote", description = "Executa milhares de transferências em uma única transação. Cada item recebe seu próprio status (sucesso, saldo insuficiente, conta bloqueada), então um item inválido não desfaz o arquivo.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Lote processado. Verifique o status de cada item"),
+        @ApiResponse(responseCode = "400", description = "Lote vazio, acima do limite ou com itens malformados", content = @Content(schema = @Schema(implementation = ProblemDetail.class)))
+    })
+    public ResponseEntity<BatchTransferResult> transferBatch(@RequestBody BatchTransferRequestDTO request) {
+        List<TransferFundsCommand> commands = request.getTransfers() == null ? List.of() : request.getTransfers()
+                .stream()
+                .map(item -> new TransferFundsCommand(
+                        item.getFromAccountId(),
+                        item.getToAccountId(),
+                        item.getAmount(),
+                        item.getDescription(),
+                        item.getIdempotencyKey()))
+                .toList();
+
+        return ResponseEntity.ok(batchTransferFundsUseCase.execute(commands));
+    }
+
     // --- EXTRATO ---
     @GetMapping("/{accountId}/statement")
     @Operation(summary = "Obter Extrato", description = "Retorna o histórico de movimentações paginado.")
@@ -145,6 +333,51 @@ public class AccountController {
         return ResponseEntity.ok(statement);
     }
 
+    // --- EXTRATO POR CURSOR ---
+    @GetMapping("/{accountId}/statement/cursor")
+    @Operation(summary = "Obter Extrato (cursor)", description = "Histórico do mais recente para o mais antigo, paginado por cursor. Sem total de registros: use nextCursor enquanto hasNext for true. O custo de cada página não cresce com a profundidade.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Sucesso"),
+        @ApiResponse(responseCode = "400", description = "Cursor inválido ou tamanho de página fora do limite", content = @Content(schema = @Schema(implementation = ProblemDetail.class))),
+        @ApiResponse(responseCode = "404", description = "Conta não encontrada", content = @Content(schema = @Schema(implementation = ProblemDetail.class)))
+    })
+    public ResponseEntity<StatementSliceResponse> getStatementByCursor(
+            @PathVariable UUID accountId,
+            @Parameter(description = "nextCursor da página anterior (omitir na primeira)")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        return ResponseEntity.ok(accountQueryService.getStatementSlice(accountId, cursor, size));
+    }
+
+    // --- EXPORTAÇÃO DO EXTRATO ---
+    @GetMapping("/{accountId}/statement/export")
+    @Operation(summary = "Exportar Extrato", description = "Todo o histórico do período [from, to) em NDJSON ou CSV, em ordem cronológica. A resposta é enviada em streaming: o tamanho do período não afeta a memória do servidor.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Arquivo em streaming"),
+        @ApiResponse(responseCode = "400", description = "Período ou formato inválido", content = @Content(schema = @Schema(implementation = ProblemDetail.class))),
+        @ApiResponse(responseCode = "404", description = "Conta não encontrada", content = @Content(schema = @Schema(implementation = ProblemDetail.class))),
+        @ApiResponse(responseCode = "503", description = "Exportações demais em andamento", content = @Content(schema = @Schema(implementation = ProblemDetail.class)))
+    })
+    public ResponseEntity<StreamingResponseBody> exportStatement(
+            HttpServletRequest request,
+            @PathVariable UUID accountId,
+            @Parameter(description = "Início do período (ISO-8601, inclusivo)") @RequestParam Instant from,
+            @Parameter(description = "Fim do período (ISO-8601, exclusivo)") @RequestParam Instant to,
+            @Parameter(description = "ndjson ou csv") @RequestParam(defaultValue = "ndjson") String format) {
+
+        StatementExportFormat exportFormat = StatementExportFormat.of(format);
+        statementExportService.validate(accountId, from, to);
+
+        StreamingResponseBody body = exportGate.admit(request,
+                out -> statementExportService.export(accountId, from, to, exportFormat, out));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"statement-" + accountId + "." + exportFormat.extension() + "\"")
+                .body(body);
+    }
+
     // DTO simples para resposta de ID (pode manter aqui ou mover se quiser)
     public record TransactionIdResponse(UUID transactionId) {}
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.titan.ledger.adapter.in.web;
 
+import com.titan.ledger.adapter.in.web.admission.AdmissionControlled;
 import com.titan.ledger.core.usecase.RevertTransactionUseCase;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -29,6 +30,7 @@ public class TransactionController {
     }
 
     @PostMapping("/{id}/revert")
+    @AdmissionControlled
     @Operation(summary = "Estornar uma transação", description = "Cria uma transação reversa para anular o efeito financeiro da original. A original é marcada como REVERTED.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Estorno realizado com sucesso"),
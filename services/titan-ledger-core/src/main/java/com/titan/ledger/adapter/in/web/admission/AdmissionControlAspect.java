@@ -0,0 +1,106 @@
+package com.titan.ledger.adapter.in.web.admission;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.titan.ledger.core.domain.exception.AdmissionRejectedException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Controle de admissão na frente dos casos de uso de escrita.
+ *
+ * Limita as escritas concorrentes à fatia do pool do Hikari que é delas: quem passa do
+ * limite espera na fila do semáforo até max-wait-ms e depois recebe 503 com Retry-After,
+ * em vez de ficar pendurado esperando conexão (o que, com threads virtuais, não tem teto).
+ *
+ * Leituras, exportações, jobs e os escritores do sequenciador pegam conexões fora do portão.
+ * Por isso o padrão é o pool menos reserved-connections, e não o pool inteiro: com o portão
+ * cheio ainda sobram conexões para eles, e as escritas admitidas não esperam pelo Hikari.
+ *
+ * Fica na borda web de propósito: chamadas aninhadas (estorno -> transferência) e os
+ * escritores do sequenciador não disputam vagas, então não há auto-deadlock.
+ */
+@Aspect
+@Component
+public class AdmissionControlAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlAspect.class);
+
+    // Guarda de reentrância: um endpoint que chame outro na mesma thread não pega uma segunda vaga
+    private static final ThreadLocal<Boolean> ADMITTED = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private final int maxConcurrent;
+    private final Semaphore permits;
+    private final long maxWaitMs;
+    private final Counter rejected;
+    private final Timer waitTimer;
+
+    public AdmissionControlAspect(
+            @Value("${titan.ledger.admission.max-concurrent:0}") int configuredMaxConcurrent,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${titan.ledger.admission.reserved-connections:3}") int reservedConnections,
+            @Value("${titan.ledger.admission.max-wait-ms:200}") long maxWaitMs,
+            MeterRegistry meterRegistry) {
+        // 0 = derivar do pool; nunca menos de uma vaga, senão nenhuma escrita passa
+        int maxConcurrent = configuredMaxConcurrent > 0
+                ? configuredMaxConcurrent
+                : Math.max(1, poolSize - reservedConnections);
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxWaitMs = maxWaitMs;
+
+        Gauge.builder("titan.ledger.admission.in_flight", permits, p -> maxConcurrent - p.availablePermits())
+                .description("Operações de escrita admitidas em execução")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("titan.ledger.admission.rejected")
+                .description("Requisições recusadas por falta de vaga no banco")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("titan.ledger.admission.wait")
+                .description("Tempo na fila de admissão")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        logger.info("🚦 Controle de admissão: {} operações de escrita simultâneas (pool {}), espera máxima {}ms",
+                maxConcurrent, poolSize, maxWaitMs);
+    }
+
+    int maxConcurrent() {
+        return maxConcurrent;
+    }
+
+    @Around("@annotation(com.titan.ledger.adapter.in.web.admission.AdmissionControlled)")
+    public Object admit(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (ADMITTED.get()) {
+            return joinPoint.proceed();
+        }
+
+        long start = System.nanoTime();
+        boolean acquired = permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (!acquired) {
+            rejected.increment();
+            throw new AdmissionRejectedException("Database is saturated, retry later");
+        }
+
+        ADMITTED.set(Boolean.TRUE);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ADMITTED.remove();
+            permits.release();
+        }
+    }
+}
@@ -3,14 +3,20 @@ package com.titan.ledger.adapter.in.web.advice;
 import java.net.URI;
 import java.time.Instant;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import com.titan.ledger.core.domain.exception.AccountBlockedException;
 import com.titan.ledger.core.domain.exception.AccountNotFoundException;
+import com.titan.ledger.core.domain.exception.AdmissionRejectedException;
 import com.titan.ledger.core.domain.exception.InsufficientFundsException;
+import com.titan.ledger.core.domain.exception.TransferCommitTimeoutException;
+import com.titan.ledger.core.domain.exception.TransferQueueFullException;
 
 import io.swagger.v3.oas.annotations.Hidden;
 
@@ -28,6 +34,16 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return problem;
     }
 
+    // trata conta FROZEN/CLOSED (422 Unprocessable Entity)
+    @ExceptionHandler(AccountBlockedException.class)
+    ProblemDetail handleAccountBlocked(AccountBlockedException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+        problem.setTitle("Account Blocked");
+        problem.setType(URI.create("https://titan-ledger.com/errors/account-blocked"));
+        problem.setProperty("timestamp", Instant.now());
+        return problem;
+    }
+
     // trata conta não encontrada (404 Not Found)
     @ExceptionHandler(AccountNotFoundException.class)
     ProblemDetail handleAccountNotFound(AccountNotFoundException e) {
@@ -38,6 +54,43 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return problem;
     }
 
+    // trata fila do sequenciador cheia (503 Service Unavailable)
+    @ExceptionHandler(TransferQueueFullException.class)
+    ResponseEntity<ProblemDetail> handleTransferQueueFull(TransferQueueFullException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        problem.setTitle("Transfer Queue Full");
+        problem.setType(URI.create("https://titan-ledger.com/errors/transfer-queue-full"));
+        problem.setProperty("timestamp", Instant.now());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(problem);
+    }
+
+    // trata transferência sem resultado dentro do prazo (503 Service Unavailable): o retry com a
+    // mesma Idempotency-Key devolve o resultado se ela tiver sido gravada
+    @ExceptionHandler(TransferCommitTimeoutException.class)
+    ResponseEntity<ProblemDetail> handleTransferCommitTimeout(TransferCommitTimeoutException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        problem.setTitle("Transfer Pending");
+        problem.setType(URI.create("https://titan-ledger.com/errors/transfer-pending"));
+        problem.setProperty("timestamp", Instant.now());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(problem);
+    }
+
+    // trata fila de admissão estourada (503 Service Unavailable)
+    @ExceptionHandler(AdmissionRejectedException.class)
+    ResponseEntity<ProblemDetail> handleAdmissionRejected(AdmissionRejectedException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        problem.setTitle("Service Overloaded");
+        problem.setType(URI.create("https://titan-ledger.com/errors/overloaded"));
+        problem.setProperty("timestamp", Instant.now());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(problem);
+    }
+
     @ExceptionHandler(Exception.class)
     ProblemDetail handleGeneralError(Exception e) {
         ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR,
@@ -5,22 +5,45 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
 
-import org.springframework.boot.cache.autoconfigure.RedisCacheManagerBuilderCustomizer;
+import com.titan.ledger.adapter.out.cache.AccountBulkCache;
+import com.titan.ledger.adapter.out.cache.AccountCacheWriter;
+import com.titan.ledger.adapter.out.cache.BinaryCacheValueSerializer;
+import com.titan.ledger.adapter.out.cache.LayeredCacheManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    private static final Duration ACCOUNTS_TTL = Duration.ofMinutes(60);
+
+    // json: só Jackson; binary: codec compacto para AccountResponse e páginas de extrato (demais tipos em JSON).
+    // Nó sem o codec binário não lê payload 0xB1: ligar binary só depois que todos os nós lerem os dois formatos
+    @Value("${titan.ledger.cache.codec:json}")
+    private String codec = "json";
+
+    // TTL do preenchimento por leitura de uma conta sharded (a versão dela não muda mais)
+    @Value("${titan.ledger.cache.sharded-fill-ttl:5s}")
+    private Duration shardedFillTtl = Duration.ofSeconds(5);
+
     /**
      * ATENÇÃO: Removemos o @Bean do ObjectMapper principal.
      * Deixamos o Spring Boot configurar o ObjectMapper padrão para a API (Web).
@@ -47,11 +70,16 @@ public class CacheConfig {
         return objectMapper;
     }
 
+    // Valores já gravados em JSON continuam legíveis pelo codec binário (fallback)
+    private RedisSerializer<Object> cacheValueSerializer() {
+        GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer(redisObjectMapper());
+        return "json".equalsIgnoreCase(codec) ? json : new BinaryCacheValueSerializer(json);
+    }
+
     @Bean
     public RedisCacheConfiguration cacheConfiguration() {
         // Chamamos o método diretamente para obter a instância configurada acima
-        ObjectMapper redisMapper = redisObjectMapper();
-        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer(redisMapper);
+        RedisSerializer<Object> serializer = cacheValueSerializer();
 
         return RedisCacheConfiguration.defaultCacheConfig()
             .entryTtl(Duration.ofMinutes(10))
@@ -60,21 +88,62 @@ public class CacheConfig {
             .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer));
     }
 
+    /**
+     * L1 local (Caffeine) na frente dos caches do Redis. Com um CacheManager próprio o
+     * RedisCacheManager do auto-configure sai de cena, então ele é montado aqui (L2).
+     */
+    @Bean
+    public LayeredCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+            StringRedisTemplate redisTemplate, MeterRegistry meterRegistry,
+            @Value("${titan.ledger.cache.l1.max-size:10000}") long l1MaxSize,
+            @Value("${titan.ledger.cache.l1.ttl:10s}") Duration l1Ttl,
+            @Value("${titan.ledger.cache.early-refresh.beta:1.0}") double earlyRefreshBeta) {
+        RedisCacheManager redisCacheManager = redisCacheManager(connectionFactory);
+        redisCacheManager.initializeCaches();
+        return new LayeredCacheManager(redisCacheManager, redisTemplate, meterRegistry, l1MaxSize, l1Ttl,
+                earlyRefreshBeta, shardedFillTtl);
+    }
+
+    // Saldos gravados depois do commit; precisa do mesmo serializer e TTL do cache "accounts"
+    @Bean
+    public AccountCacheWriter accountCacheWriter(StringRedisTemplate redisTemplate, LayeredCacheManager cacheManager,
+            MeterRegistry meterRegistry) {
+        return new AccountCacheWriter(redisTemplate, cacheManager,
+                cacheValueSerializer(), ACCOUNTS_TTL, meterRegistry);
+    }
+
+    // Consulta de saldos em lote: mesmas chaves, serializer e TTL do cache "accounts"
+    @Bean
+    public AccountBulkCache accountBulkCache(StringRedisTemplate redisTemplate, LayeredCacheManager cacheManager) {
+        return new AccountBulkCache(redisTemplate, cacheManager, cacheValueSerializer(), ACCOUNTS_TTL,
+                shardedFillTtl);
+    }
+
+    // Evicts vindos de outros nós invalidam o L1 deste
     @Bean
-    public RedisCacheManagerBuilderCustomizer redisCacheManagerBuilderCustomizer() {
-        ObjectMapper redisMapper = redisObjectMapper();
-        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer(redisMapper);
+    public RedisMessageListenerContainer cacheEvictionListenerContainer(RedisConnectionFactory connectionFactory,
+            LayeredCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(LayeredCacheManager.EVICTION_CHANNEL));
+        return container;
+    }
 
-        return (builder) -> builder
+    private RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
+        RedisSerializer<Object> serializer = cacheValueSerializer();
+
+        return RedisCacheManager.builder(connectionFactory)
+            .cacheDefaults(cacheConfiguration())
             .withCacheConfiguration("accounts",
                 RedisCacheConfiguration.defaultCacheConfig()
-                    .entryTtl(Duration.ofMinutes(60))
+                    .entryTtl(ACCOUNTS_TTL)
                     .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                     .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer)))
             .withCacheConfiguration("statements",
                 RedisCacheConfiguration.defaultCacheConfig()
                     .entryTtl(Duration.ofMinutes(1))
                     .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                    .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer)));
+                    .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer)))
+            .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.titan.ledger.adapter.in.web.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.titan.ledger.adapter.out.persistence.ReadYourWritesTracker;
+import com.titan.ledger.adapter.out.persistence.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Primário + réplicas de leitura do Postgres.
+ *
+ * Sem titan.ledger.datasource.replicas, o DataSource é só o pool do primário (igual ao
+ * auto-configurado). Com réplicas, vira um LazyConnectionDataSourceProxy: a conexão física só
+ * é buscada no primeiro statement, quando o read-only da transação já é conhecido, e as
+ * transações @Transactional(readOnly = true) vão para o ReplicaRoutingDataSource.
+ *
+ * Cada réplica tem o próprio Hikari (titan-replica-N), com as métricas de pool do Micrometer
+ * (hikaricp.connections.*{pool}) ao lado das do primário (titan-primary).
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        // spring.datasource.hikari.pool-name, se existir, sobrescreve no bind
+        dataSource.setPoolName("titan-primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            ReadYourWritesTracker readYourWrites,
+            MeterRegistry meterRegistry,
+            @Value("${titan.ledger.datasource.replicas:}") List<String> replicaUrls,
+            @Value("${titan.ledger.datasource.replica-pool-size:10}") int replicaPoolSize,
+            @Value("${titan.ledger.datasource.max-replica-lag:2s}") Duration maxReplicaLag) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String name = "titan-replica-" + (replicas.size() + 1);
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(url.trim())
+                    .build();
+            replica.setPoolName(name);
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setReadOnly(true);
+            // Fora do contexto: o binder de métricas do Boot só enxerga pools que são beans
+            replica.setMetricRegistry(meterRegistry);
+            replicas.put(name, replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, maxReplicaLag, readYourWrites,
+                meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRouting) {
+        if (!replicaRouting.hasReplicas()) {
+            return primaryDataSource;
+        }
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryDataSource);
+        proxy.setReadOnlyDataSource(replicaRouting);
+        return proxy;
+    }
+}
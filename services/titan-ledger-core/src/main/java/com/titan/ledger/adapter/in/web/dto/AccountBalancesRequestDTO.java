@@ -0,0 +1,16 @@
+package com.titan.ledger.adapter.in.web.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public class AccountBalancesRequestDTO {
+    @Schema(description = "Contas consultadas (até titan.ledger.accounts.bulk.max-ids)")
+    private List<UUID> accountIds;
+
+    public AccountBalancesRequestDTO() {}
+
+    public List<UUID> getAccountIds() { return accountIds; }
+    public void setAccountIds(List<UUID> accountIds) { this.accountIds = accountIds; }
+}
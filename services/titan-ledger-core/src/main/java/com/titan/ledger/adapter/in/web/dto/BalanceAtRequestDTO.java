@@ -0,0 +1,23 @@
+package com.titan.ledger.adapter.in.web.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public class BalanceAtRequestDTO {
+    @Schema(description = "Contas consultadas (até titan.ledger.statement.balance-at.max-accounts)")
+    private List<UUID> accountIds;
+
+    @Schema(description = "Instante da consulta (ISO-8601)", example = "2026-01-31T23:59:59Z")
+    private Instant at;
+
+    public BalanceAtRequestDTO() {}
+
+    public List<UUID> getAccountIds() { return accountIds; }
+    public void setAccountIds(List<UUID> accountIds) { this.accountIds = accountIds; }
+
+    public Instant getAt() { return at; }
+    public void setAt(Instant at) { this.at = at; }
+}
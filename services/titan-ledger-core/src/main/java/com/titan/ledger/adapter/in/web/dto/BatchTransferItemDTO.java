@@ -0,0 +1,37 @@
+package com.titan.ledger.adapter.in.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Schema(description = "Uma transferência do lote")
+public class BatchTransferItemDTO {
+
+    @Schema(description = "UUID da conta que enviará o dinheiro (Débito)", example = "80d5f08a-03e3-486f-8fd0-b6584a9c19f1")
+    private UUID fromAccountId;
+
+    @Schema(description = "UUID da conta que receberá o dinheiro (Crédito)", example = "e2294b06-d0a0-4713-a4b8-e6c4fbc9f0cb")
+    private UUID toAccountId;
+
+    @Schema(description = "Valor a ser transferido. Deve ser positivo e maior que zero.", example = "100.50", type = "number", format = "double")
+    private BigDecimal amount;
+
+    @Schema(description = "Descrição curta da transação para o extrato", example = "Folha de pagamento")
+    private String description;
+
+    @Schema(description = "Chave de idempotência do item (opcional). Repetida no lote ou já processada, o item é devolvido como REPLAYED", example = "folha-2026-01-func-42")
+    private String idempotencyKey;
+
+    public BatchTransferItemDTO() {}
+
+    public UUID getFromAccountId() { return fromAccountId; }
+    public void setFromAccountId(UUID fromAccountId) { this.fromAccountId = fromAccountId; }
+    public UUID getToAccountId() { return toAccountId; }
+    public void setToAccountId(UUID toAccountId) { this.toAccountId = toAccountId; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+}
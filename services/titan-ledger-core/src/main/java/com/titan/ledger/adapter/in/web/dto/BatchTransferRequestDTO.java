@@ -0,0 +1,16 @@
+package com.titan.ledger.adapter.in.web.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Arquivo de transferências executado em uma única transação")
+public class BatchTransferRequestDTO {
+    @Schema(description = "Transferências do lote (até titan.ledger.batch.max-items)")
+    private List<BatchTransferItemDTO> transfers;
+
+    public BatchTransferRequestDTO() {}
+
+    public List<BatchTransferItemDTO> getTransfers() { return transfers; }
+    public void setTransfers(List<BatchTransferItemDTO> transfers) { this.transfers = transfers; }
+}
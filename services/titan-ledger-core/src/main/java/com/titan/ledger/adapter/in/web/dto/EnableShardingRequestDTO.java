@@ -0,0 +1,13 @@
+package com.titan.ledger.adapter.in.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public class EnableShardingRequestDTO {
+    @Schema(description = "Quantidade de fatias de saldo. Só pode aumentar.", example = "16")
+    private int shardCount;
+
+    public EnableShardingRequestDTO() {}
+
+    public int getShardCount() { return shardCount; }
+    public void setShardCount(int shardCount) { this.shardCount = shardCount; }
+}
@@ -0,0 +1,94 @@
+package com.titan.ledger.adapter.in.web.export;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.titan.ledger.core.domain.exception.AdmissionRejectedException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Teto das exportações em streaming (extrato e contas).
+ *
+ * Cada exportação segura uma conexão do Hikari do primeiro ao último byte, fora do controle
+ * de admissão das escritas. Aqui elas ganham um limite próprio, sem fila: passou de
+ * max-concurrent, 503 com Retry-After na hora. O timeout longo vale só para o request da
+ * exportação, e não para todo endpoint assíncrono da aplicação.
+ */
+@Component
+public class ExportGate {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportGate.class);
+
+    private final Semaphore permits;
+    private final Duration timeout;
+    private final Counter rejected;
+
+    public ExportGate(
+            @Value("${titan.ledger.export.max-concurrent:2}") int maxConcurrent,
+            @Value("${titan.ledger.export.timeout:30m}") Duration timeout,
+            MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrent);
+        this.timeout = timeout;
+
+        Gauge.builder("titan.ledger.export.in_flight", permits, p -> maxConcurrent - p.availablePermits())
+                .description("Exportações em streaming em andamento")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("titan.ledger.export.rejected")
+                .description("Exportações recusadas por limite de concorrência")
+                .register(meterRegistry);
+
+        logger.info("📦 Exportações: {} simultâneas, timeout {}", maxConcurrent, timeout);
+    }
+
+    /**
+     * Reserva uma vaga e devolve o corpo que a libera ao terminar. Chamado no controller,
+     * antes do primeiro byte: a recusa ainda vira um 503 com ProblemDetail.
+     */
+    public StreamingResponseBody admit(HttpServletRequest request, StreamingResponseBody body) {
+        if (!permits.tryAcquire()) {
+            rejected.increment();
+            throw new AdmissionRejectedException("Too many exports in progress, retry later");
+        }
+
+        AtomicBoolean started = new AtomicBoolean();
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        };
+
+        AsyncWebRequest asyncRequest = WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest();
+        if (asyncRequest != null) {
+            asyncRequest.setTimeout(timeout.toMillis());
+            // Se o corpo nunca chegar a rodar (executor recusou, cliente sumiu), a vaga volta aqui
+            asyncRequest.addCompletionHandler(() -> {
+                if (!started.get()) {
+                    release.run();
+                }
+            });
+        }
+
+        return out -> {
+            started.set(true);
+            try {
+                body.writeTo(out);
+            } finally {
+                release.run();
+            }
+        };
+    }
+}
@@ -0,0 +1,168 @@
+package com.titan.ledger.adapter.out.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.titan.ledger.core.usecase.dto.AccountResponse;
+
+/**
+ * Leitura e preenchimento em lote do cache "accounts", para a consulta de saldos de várias
+ * contas de uma vez: L1 de cada chave, um único MGET para o que faltou (valor e versão) e,
+ * depois que o banco devolve os misses, um pipeline de FILL_IF_UNCHANGED.
+ *
+ * Mesmas chaves e serializer do RedisCache/AccountCacheWriter ("accounts::<id>"). O
+ * preenchimento é "se ausente e a versão não mudou desde o MGET", como o miss do LayeredCache:
+ * quem atualiza um saldo existente é o write-through versionado, não uma leitura.
+ */
+public class AccountBulkCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountBulkCache.class);
+
+    private static final String CACHE = "accounts";
+
+    private final StringRedisTemplate redisTemplate;
+    private final LayeredCacheManager cacheManager;
+    private final RedisSerializer<Object> valueSerializer;
+    private final Duration ttl;
+    private final Duration shardedFillTtl;
+
+    /**
+     * @param found    só as contas encontradas no cache
+     * @param versions versão de cada miss lida no MGET ("" = sem versão); sem entrada, não preenche
+     */
+    public record Lookup(Map<UUID, AccountResponse> found, Map<UUID, String> versions) {
+    }
+
+    public AccountBulkCache(StringRedisTemplate redisTemplate, LayeredCacheManager cacheManager,
+            RedisSerializer<Object> valueSerializer, Duration ttl, Duration shardedFillTtl) {
+        this.redisTemplate = redisTemplate;
+        this.cacheManager = cacheManager;
+        this.valueSerializer = valueSerializer;
+        this.ttl = ttl;
+        this.shardedFillTtl = shardedFillTtl;
+    }
+
+    // Falha no Redis vira miss (o banco responde)
+    public Lookup getAll(Collection<UUID> accountIds) {
+        LayeredCache cache = (LayeredCache) cacheManager.getCache(CACHE);
+        Map<UUID, AccountResponse> found = new LinkedHashMap<>();
+        List<UUID> remoteIds = new ArrayList<>();
+        for (UUID accountId : accountIds) {
+            if (cache.getLocal(accountId.toString()) instanceof AccountResponse account) {
+                found.put(accountId, account);
+            } else {
+                remoteIds.add(accountId);
+            }
+        }
+        if (remoteIds.isEmpty()) {
+            return new Lookup(found, Map.of());
+        }
+
+        // Valores e versões no mesmo MGET: a versão é a que o preenchimento compara depois do banco
+        List<byte[]> values;
+        try {
+            byte[][] keys = new byte[remoteIds.size() * 2][];
+            for (int i = 0; i < remoteIds.size(); i++) {
+                keys[i] = key(remoteIds.get(i));
+                keys[remoteIds.size() + i] = versionKey(remoteIds.get(i));
+            }
+            values = redisTemplate.execute((RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(keys));
+        } catch (Exception e) {
+            logger.warn("Falha no MGET do cache de contas; {} contas vão ao banco", remoteIds.size(), e);
+            cache.recordRemoteLookups(0, remoteIds.size());
+            return new Lookup(found, Map.of());
+        }
+        if (values == null) {
+            cache.recordRemoteLookups(0, remoteIds.size());
+            return new Lookup(found, Map.of());
+        }
+
+        int hits = 0;
+        Map<UUID, String> versions = new LinkedHashMap<>();
+        for (int i = 0; i < remoteIds.size(); i++) {
+            byte[] bytes = values.get(i);
+            Object value = bytes == null ? null : deserialize(bytes);
+            if (value instanceof AccountResponse account) {
+                found.put(remoteIds.get(i), account);
+                cache.putLocal(remoteIds.get(i).toString(), account);
+                hits++;
+            } else {
+                byte[] version = values.get(remoteIds.size() + i);
+                versions.put(remoteIds.get(i), version == null ? "" : new String(version, StandardCharsets.UTF_8));
+            }
+        }
+        cache.recordRemoteLookups(hits, remoteIds.size() - hits);
+        return new Lookup(found, versions);
+    }
+
+    // Só as contas com versão lida em getAll; as demais ficam para a próxima leitura
+    public void putAllIfAbsent(Lookup lookup, Collection<AccountResponse> accounts) {
+        List<AccountResponse> values = accounts.stream()
+                .filter(account -> lookup.versions().containsKey(account.id()))
+                .toList();
+        if (values.isEmpty()) {
+            return;
+        }
+        List<Object> results;
+        try {
+            byte[] ttlMillis = bytes(Long.toString(ttl.toMillis()));
+            byte[] shardedTtlMillis = bytes(Long.toString(Math.min(ttl.toMillis(), shardedFillTtl.toMillis())));
+            results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (AccountResponse account : values) {
+                    connection.scriptingCommands().eval(AccountCacheWriter.FILL_IF_UNCHANGED, ReturnType.INTEGER, 2,
+                            key(account.id()), versionKey(account.id()),
+                            bytes(lookup.versions().get(account.id())), valueSerializer.serialize(account),
+                            ttlMillis, shardedTtlMillis);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            // Só perde o preenchimento: a próxima leitura vai ao banco de novo
+            logger.warn("Falha ao preencher o cache de contas em lote", e);
+            return;
+        }
+        // Onde o preenchimento perdeu, o Redis tem um valor possivelmente mais novo (write-through)
+        // ou a versão andou durante a consulta: o L1 fica sem a chave e a próxima leitura decide
+        LayeredCache cache = (LayeredCache) cacheManager.getCache(CACHE);
+        for (int i = 0; i < values.size(); i++) {
+            if (Long.valueOf(1L).equals(results.get(i))) {
+                cache.putLocal(values.get(i).id().toString(), values.get(i));
+            }
+        }
+    }
+
+    private Object deserialize(byte[] bytes) {
+        try {
+            return valueSerializer.deserialize(bytes);
+        } catch (Exception e) {
+            // Valor ilegível conta como miss e é regravado pelo banco
+            return null;
+        }
+    }
+
+    private static byte[] key(UUID accountId) {
+        return bytes(CACHE + "::" + accountId);
+    }
+
+    // Mesmo formato de AccountCacheWriter
+    private static byte[] versionKey(UUID accountId) {
+        return bytes(CACHE + ":version::" + accountId);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,206 @@
+package com.titan.ledger.adapter.out.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.titan.ledger.core.domain.model.Account;
+import com.titan.ledger.core.service.BalanceChange;
+import com.titan.ledger.core.usecase.dto.AccountResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Write-through do cache "accounts" depois do commit, no lugar do evict antes do commit.
+ *
+ * Cada saldo vai com a versão da linha de accounts; um script Lua só grava se a versão for
+ * maior que a última gravada, então o afterCommit atrasado de uma transação antiga não
+ * sobrescreve o saldo de uma mais nova. Tudo num único pipeline.
+ *
+ * accounts:version::<id> é a maior versão já commitada que passou pelo cache, e quem apaga
+ * o saldo também a avança (no mesmo script): senão um DEL seguido de uma leitura deixaria
+ * a chave sem versão e um write-through atrasado gravaria o saldo antigo por cima.
+ * - lote: invalida com a versão da entidade depois do flush;
+ * - sharded: o saldo vive nas fatias e a versão da linha não muda, então a versão vira
+ *   SHARDED (Long.MAX_VALUE) e nenhum write-through de antes do sharding grava mais.
+ * Leituras (get com loader do LayeredCache, AccountBulkCache) não mexem na versão: leem a
+ * versão antes de ir ao banco e só preenchem a chave ausente se ela continuar a mesma
+ * (FILL_IF_UNCHANGED). Quem carregou antes de um commit não devolve o saldo antigo depois do
+ * DEL dele; e, como SHARDED não muda mais, o preenchimento de uma conta sharded vale só pelo
+ * TTL curto de sharded-fill-ttl.
+ */
+public class AccountCacheWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountCacheWriter.class);
+
+    static final long SHARDED = Long.MAX_VALUE;
+
+    // KEYS[1] = valor, KEYS[2] = versão; ARGV[1] = valor serializado, ARGV[2] = versão, ARGV[3] = TTL (ms)
+    private static final byte[] WRITE_IF_NEWER = """
+            local current = redis.call('GET', KEYS[2])
+            if current and tonumber(current) >= tonumber(ARGV[2]) then
+                return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[3])
+            redis.call('SET', KEYS[2], ARGV[2], 'PX', ARGV[3])
+            return 1
+            """.getBytes(StandardCharsets.UTF_8);
+
+    // KEYS[1] = valor, KEYS[2] = versão; ARGV[1] = versão commitada, ARGV[2] = TTL (ms).
+    // Só uma versão estritamente maior ignora: SHARDED apaga de novo a cada movimentação
+    private static final byte[] INVALIDATE_UP_TO = """
+            local current = redis.call('GET', KEYS[2])
+            if current and tonumber(current) > tonumber(ARGV[1]) then
+                return 0
+            end
+            redis.call('SET', KEYS[2], ARGV[1], 'PX', ARGV[2])
+            redis.call('DEL', KEYS[1])
+            return 1
+            """.getBytes(StandardCharsets.UTF_8);
+
+    // KEYS[1] = valor, KEYS[2] = versão; ARGV[1] = versão lida antes da carga ('' = sem versão),
+    // ARGV[2] = valor serializado, ARGV[3] = TTL (ms), ARGV[4] = TTL (ms) enquanto a versão for SHARDED
+    static final byte[] FILL_IF_UNCHANGED = """
+            local current = redis.call('GET', KEYS[2]) or ''
+            if current ~= ARGV[1] then
+                return 0
+            end
+            local ttl = ARGV[3]
+            if current == '%d' then
+                ttl = ARGV[4]
+            end
+            if redis.call('SET', KEYS[1], ARGV[2], 'NX', 'PX', ttl) then
+                return 1
+            end
+            return 0
+            """.formatted(SHARDED).getBytes(StandardCharsets.UTF_8);
+
+
+    private final StringRedisTemplate redisTemplate;
+    private final LayeredCacheManager cacheManager;
+    private final RedisSerializer<Object> valueSerializer;
+    private final Duration ttl;
+
+    private final Counter written;
+    private final Counter superseded;
+
+    public AccountCacheWriter(StringRedisTemplate redisTemplate, LayeredCacheManager cacheManager,
+            RedisSerializer<Object> valueSerializer, Duration ttl, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.cacheManager = cacheManager;
+        this.valueSerializer = valueSerializer;
+        this.ttl = ttl;
+        this.written = meterRegistry.counter("titan.ledger.cache.write_through", "result", "written");
+        this.superseded = meterRegistry.counter("titan.ledger.cache.write_through", "result", "superseded");
+    }
+
+    /**
+     * @param accountIds contas movimentadas (têm a página 0 do extrato invalidada)
+     * @param balances   saldos novos com versão; contas movimentadas fora desta lista são sharded
+     */
+    public void writeAfterCommit(Collection<UUID> accountIds, Collection<BalanceChange> balances) {
+        List<UUID> ids = List.copyOf(accountIds);
+        List<BalanceChange> changes = List.copyOf(balances);
+        afterCommit(() -> {
+            Set<UUID> withVersion = changes.stream().map(BalanceChange::accountId).collect(Collectors.toSet());
+            Map<UUID, Long> invalidations = new LinkedHashMap<>();
+            ids.stream().filter(id -> !withVersion.contains(id)).forEach(id -> invalidations.put(id, SHARDED));
+            write(ids, changes, invalidations);
+        });
+    }
+
+    /**
+     * Invalida contas alteradas via dirty checking (lote). A versão é lida da entidade no
+     * afterCommit, quando o flush já a incrementou (ou não, se o saldo terminou igual).
+     */
+    public void invalidateAfterCommit(Collection<Account> accounts) {
+        List<Account> touched = List.copyOf(accounts);
+        afterCommit(() -> {
+            Map<UUID, Long> invalidations = new LinkedHashMap<>();
+            for (Account account : touched) {
+                invalidations.put(account.getId(), account.isSharded() || account.getVersion() == null
+                        ? SHARDED
+                        : account.getVersion());
+            }
+            write(List.copyOf(invalidations.keySet()), List.of(), invalidations);
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void write(List<UUID> accountIds, List<BalanceChange> balances, Map<UUID, Long> invalidations) {
+        List<byte[]> staleKeys = new ArrayList<>();
+        for (UUID accountId : accountIds) {
+            staleKeys.add(bytes("statements::" + accountId + "::0"));
+        }
+        byte[] ttlMillis = bytes(Long.toString(ttl.toMillis()));
+
+        try {
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (BalanceChange change : balances) {
+                    // Mesmo formato de AccountQueryService.execute
+                    AccountResponse response = new AccountResponse(change.accountId(), change.clientId(),
+                            change.currency(), change.balance(), "ACTIVE");
+                    connection.scriptingCommands().eval(WRITE_IF_NEWER, ReturnType.INTEGER, 2,
+                            bytes("accounts::" + change.accountId()),
+                            bytes("accounts:version::" + change.accountId()),
+                            valueSerializer.serialize(response),
+                            bytes(Long.toString(change.version())),
+                            ttlMillis);
+                }
+                invalidations.forEach((accountId, version) -> connection.scriptingCommands().eval(
+                        INVALIDATE_UP_TO, ReturnType.INTEGER, 2,
+                        bytes("accounts::" + accountId),
+                        bytes("accounts:version::" + accountId),
+                        bytes(Long.toString(version)),
+                        ttlMillis));
+                if (!staleKeys.isEmpty()) {
+                    connection.keyCommands().del(staleKeys.toArray(byte[][]::new));
+                }
+                return null;
+            });
+            for (int i = 0; i < balances.size(); i++) {
+                (Long.valueOf(1L).equals(results.get(i)) ? written : superseded).increment();
+            }
+        } catch (Exception e) {
+            // O commit já aconteceu; o TTL do "accounts" limita quanto tempo o saldo antigo sobrevive
+            logger.warn("Falha no write-through do cache de contas", e);
+        }
+
+        List<String> keys = accountIds.stream().map(UUID::toString).toList();
+        cacheManager.evictLocalCopies("accounts", keys);
+        cacheManager.evictLocalCopies("statements", keys.stream().map(key -> key + "::0").toList());
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,258 @@
+package com.titan.ledger.adapter.out.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.titan.ledger.core.usecase.dto.AccountResponse;
+import com.titan.ledger.core.usecase.dto.StatementEntryResponse;
+
+/**
+ * Codec binário para os valores de cache que são nossos: AccountResponse e páginas de
+ * StatementEntryResponse. Sem nome de classe nem nomes de campo no payload.
+ *
+ * Formato: [MAGIC][versão][tipo][campos na ordem do record]. UUID = dois longs,
+ * BigDecimal = escala + valor sem escala, Instant = segundos + nanos.
+ * Qualquer outro tipo (ou valor gravado em JSON antes do deploy) passa pelo fallback.
+ * Payload de uma versão desconhecida (nó mais novo) vira cache miss, não erro.
+ */
+public class BinaryCacheValueSerializer implements RedisSerializer<Object> {
+
+    // Nunca é o primeiro byte de um JSON em UTF-8
+    static final byte MAGIC = (byte) 0xB1;
+    static final byte FORMAT_VERSION = 1;
+
+    private static final byte TYPE_ACCOUNT = 1;
+    private static final byte TYPE_STATEMENT_PAGE = 2;
+
+    private static final byte ABSENT = 0;
+    private static final byte PRESENT = 1;
+    private static final byte COMPACT = 2;
+
+    private final RedisSerializer<Object> fallback;
+
+    public BinaryCacheValueSerializer(RedisSerializer<Object> fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value instanceof AccountResponse account) {
+            return encode(TYPE_ACCOUNT, out -> writeAccount(out, account));
+        }
+        if (value instanceof Page<?> page && isStatementPage(page)) {
+            return encode(TYPE_STATEMENT_PAGE, out -> writeStatementPage(out, page));
+        }
+        return fallback.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0 || bytes[0] != MAGIC) {
+            return fallback.deserialize(bytes);
+        }
+        if (bytes.length < 3 || bytes[1] > FORMAT_VERSION) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 3, bytes.length - 3))) {
+            return switch (bytes[2]) {
+                case TYPE_ACCOUNT -> readAccount(in);
+                case TYPE_STATEMENT_PAGE -> readStatementPage(in);
+                default -> null;
+            };
+        } catch (IOException e) {
+            throw new SerializationException("Could not decode cached value", e);
+        }
+    }
+
+    private static boolean isStatementPage(Page<?> page) {
+        for (Object item : page.getContent()) {
+            if (!(item instanceof StatementEntryResponse)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static byte[] encode(byte type, Writer body) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeByte(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            out.writeByte(type);
+            body.write(out);
+        } catch (IOException e) {
+            throw new SerializationException("Could not encode cached value", e);
+        }
+        return buffer.toByteArray();
+    }
+
+    // --- AccountResponse ---
+
+    private static void writeAccount(DataOutputStream out, AccountResponse account) throws IOException {
+        writeUuid(out, account.id());
+        writeString(out, account.clientId());
+        writeString(out, account.currency());
+        writeDecimal(out, account.balance());
+        writeString(out, account.status());
+    }
+
+    private static AccountResponse readAccount(DataInputStream in) throws IOException {
+        return new AccountResponse(readUuid(in), readString(in), readString(in), readDecimal(in), readString(in));
+    }
+
+    // --- Page<StatementEntryResponse> ---
+
+    private static void writeStatementPage(DataOutputStream out, Page<?> page) throws IOException {
+        Pageable pageable = page.getPageable();
+        out.writeBoolean(pageable.isPaged());
+        if (pageable.isPaged()) {
+            out.writeInt(pageable.getPageNumber());
+            out.writeInt(pageable.getPageSize());
+            List<Sort.Order> orders = pageable.getSort().toList();
+            out.writeShort(orders.size());
+            for (Sort.Order order : orders) {
+                writeString(out, order.getProperty());
+                out.writeBoolean(order.isAscending());
+            }
+        }
+        out.writeLong(page.getTotalElements());
+
+        List<?> content = page.getContent();
+        out.writeInt(content.size());
+        for (Object item : content) {
+            StatementEntryResponse entry = (StatementEntryResponse) item;
+            writeUuid(out, entry.transactionId());
+            writeString(out, entry.operationType());
+            writeDecimal(out, entry.amount());
+            writeDecimal(out, entry.balanceAfter());
+            writeString(out, entry.description());
+            writeInstant(out, entry.timestamp());
+        }
+    }
+
+    private static Page<StatementEntryResponse> readStatementPage(DataInputStream in) throws IOException {
+        Pageable pageable = Pageable.unpaged();
+        if (in.readBoolean()) {
+            int number = in.readInt();
+            int size = in.readInt();
+            int orderCount = in.readShort();
+            List<Sort.Order> orders = new ArrayList<>(orderCount);
+            for (int i = 0; i < orderCount; i++) {
+                String property = readString(in);
+                orders.add(in.readBoolean() ? Sort.Order.asc(property) : Sort.Order.desc(property));
+            }
+            pageable = PageRequest.of(number, size, Sort.by(orders));
+        }
+        long total = in.readLong();
+
+        int count = in.readInt();
+        List<StatementEntryResponse> content = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            content.add(new StatementEntryResponse(readUuid(in), readString(in), readDecimal(in), readDecimal(in),
+                    readString(in), readInstant(in)));
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    // --- Tipos primitivos (todos aceitam null) ---
+
+    private static void writeUuid(DataOutputStream out, UUID value) throws IOException {
+        out.writeByte(value == null ? ABSENT : PRESENT);
+        if (value != null) {
+            out.writeLong(value.getMostSignificantBits());
+            out.writeLong(value.getLeastSignificantBits());
+        }
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return in.readByte() == ABSENT ? null : new UUID(in.readLong(), in.readLong());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Saldos cabem em um long quase sempre (DECIMAL(19,4)); BigInteger só no caso geral
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeByte(ABSENT);
+            return;
+        }
+        BigInteger unscaled = value.unscaledValue();
+        if (unscaled.bitLength() < 64) {
+            out.writeByte(COMPACT);
+            out.writeInt(value.scale());
+            out.writeLong(unscaled.longValue());
+            return;
+        }
+        byte[] bytes = unscaled.toByteArray();
+        out.writeByte(PRESENT);
+        out.writeInt(value.scale());
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        byte kind = in.readByte();
+        if (kind == ABSENT) {
+            return null;
+        }
+        int scale = in.readInt();
+        if (kind == COMPACT) {
+            return BigDecimal.valueOf(in.readLong(), scale);
+        }
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new BigDecimal(new BigInteger(bytes), scale);
+    }
+
+    private static void writeInstant(DataOutputStream out, Instant value) throws IOException {
+        out.writeByte(value == null ? ABSENT : PRESENT);
+        if (value != null) {
+            out.writeLong(value.getEpochSecond());
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static Instant readInstant(DataInputStream in) throws IOException {
+        return in.readByte() == ABSENT ? null : Instant.ofEpochSecond(in.readLong(), in.readInt());
+    }
+}
@@ -0,0 +1,83 @@
+package com.titan.ledger.adapter.out.cache;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Camada local (por nó) na frente do Redis/Postgres para chaves de idempotência.
+ *
+ * - Cache limitado chave -> transactionId das transferências já concluídas neste nó.
+ * - Bloom filter rotativo das chaves vistas: "não" definitivo permite pular as duas
+ *   consultas remotas, que para chaves novas (quase todas) são desperdício.
+ *
+ * O Bloom só conhece chaves deste nó e desde o último restart. Um "não" aqui, portanto,
+ * não garante que a chave é inédita no cluster: quem usa ainda precisa reservar a chave
+ * no Postgres (IdempotencyRepository.reserve) antes de gravar.
+ */
+@Component
+public class IdempotencyNearCache {
+
+    private final Cache<String, UUID> cache;
+    private final RotatingBloomFilter filter;
+
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter bloomNegatives;
+    private final Counter bloomPositives;
+    private final Counter bloomFalsePositives;
+
+    public IdempotencyNearCache(
+            @Value("${titan.ledger.idempotency.near-cache.max-size:100000}") long maxSize,
+            @Value("${titan.ledger.idempotency.bloom.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${titan.ledger.idempotency.bloom.false-positive-rate:0.01}") double falsePositiveRate,
+            MeterRegistry meterRegistry) {
+        // Mesmo TTL da cópia no Redis
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofHours(24))
+                .build();
+        this.filter = new RotatingBloomFilter(expectedInsertions, falsePositiveRate);
+
+        this.cacheHits = meterRegistry.counter("titan.ledger.idempotency.near_cache", "result", "hit");
+        this.cacheMisses = meterRegistry.counter("titan.ledger.idempotency.near_cache", "result", "miss");
+        this.bloomNegatives = meterRegistry.counter("titan.ledger.idempotency.bloom", "result", "negative");
+        this.bloomPositives = meterRegistry.counter("titan.ledger.idempotency.bloom", "result", "positive");
+        this.bloomFalsePositives = meterRegistry.counter("titan.ledger.idempotency.bloom", "result", "false_positive");
+
+        Gauge.builder("titan.ledger.idempotency.bloom.insertions", filter, RotatingBloomFilter::insertionsInCurrentGeneration)
+                .description("Chaves na geração atual do Bloom filter (rotaciona ao atingir expected-insertions)")
+                .register(meterRegistry);
+    }
+
+    public UUID find(String key) {
+        UUID txId = cache.getIfPresent(key);
+        (txId != null ? cacheHits : cacheMisses).increment();
+        return txId;
+    }
+
+    public boolean mightExist(String key) {
+        boolean maybe = filter.mightContain(key);
+        (maybe ? bloomPositives : bloomNegatives).increment();
+        return maybe;
+    }
+
+    // Bloom disse "talvez", mas Redis e Postgres não conheciam a chave
+    public void recordFalsePositive() {
+        bloomFalsePositives.increment();
+    }
+
+    public void remember(String key, UUID transactionId) {
+        filter.put(key);
+        cache.put(key, transactionId);
+    }
+}
@@ -0,0 +1,334 @@
+package com.titan.ledger.adapter.out.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cache de dois níveis: L1 Caffeine no próprio nó, L2 o RedisCache de sempre.
+ *
+ * Leitura: L1 -> L2 (e popula o L1) -> loader. Escrita e evict vão para os dois níveis;
+ * a escrita no L2 é "se ausente": ela vem de um @Cacheable que leu o banco talvez antes de um
+ * commit, e quem atualiza um valor existente é o write-through versionado (AccountCacheWriter).
+ * No miss do get(key, loader) a versão é lida antes do loader e o preenchimento só acontece se
+ * ela não mudou (RefreshWriter.fill): um commit no meio da carga apagou a chave depois do commit
+ * e o valor lido pode ser o de antes dele.
+ * O evict ainda é anunciado aos outros nós (LayeredCacheManager) para que o L1 deles não fique velho.
+ * O TTL curto do L1 limita a defasagem se alguma mensagem de pub/sub se perder.
+ *
+ * get(key, loader) (@Cacheable(sync = true)) protege contra stampede:
+ * - miss: um único loader por chave neste nó; as demais requisições esperam o mesmo future.
+ * - hit: refresh antecipado probabilístico (XFetch). Perto do fim do TTL do L2, cada leitura
+ *   tem chance crescente de recarregar a chave, então a chave quente é renovada antes de
+ *   expirar em vez de todos os nós a recarregarem juntos depois. Quem é sorteado recarrega na
+ *   própria requisição: o loader é a invocação interceptada e só vale na thread dela.
+ *   A gravação no L2 é um compare-and-set (RefreshWriter) contra o valor e a versão lidos antes
+ *   da carga, para não desfazer um write-through ou evict que aconteceu no meio.
+ */
+public class LayeredCache implements Cache {
+
+    private static final Logger logger = LoggerFactory.getLogger(LayeredCache.class);
+
+    private final String name;
+    private final Cache remote;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final BiConsumer<String, Collection<String>> evictionPublisher;
+
+    // TTL do L2 para (chave, valor); Duration.ZERO desliga o refresh antecipado
+    private final BiFunction<Object, Object, Duration> remoteTtl;
+    private final double earlyRefreshBeta;
+    // null: L2 sem compare-and-set, sem refresh antecipado
+    private final RefreshWriter refreshWriter;
+    private final ConcurrentMap<String, CompletableFuture<Object>> loads = new ConcurrentHashMap<>();
+    // Quando o valor carregado por este nó expira no L2 e quanto custou carregá-lo
+    private final com.github.benmanes.caffeine.cache.Cache<String, Freshness> freshness;
+
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+    private final Counter coalesced;
+    private final Counter missLoads;
+    private final Counter earlyRefreshes;
+
+    private record Freshness(long expiresAtMillis, long loadMillis) {
+    }
+
+    // Valor e versão crus no L2 antes da carga (null = ausente)
+    record Snapshot(byte[] value, byte[] version) {
+    }
+
+    /** Gravação no L2 do que um loader leu do banco (RedisRefreshWriter). */
+    interface RefreshWriter {
+
+        Snapshot snapshot(Object key);
+
+        // Grava value só se valor e versão ainda forem os de before
+        boolean replace(Object key, Snapshot before, Object value);
+
+        // Grava value só se a chave estiver ausente e a versão ainda for a de before
+        boolean fill(Object key, Snapshot before, Object value);
+    }
+
+    LayeredCache(String name, Cache remote, com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+            BiConsumer<String, Collection<String>> evictionPublisher, MeterRegistry meterRegistry,
+            BiFunction<Object, Object, Duration> remoteTtl, double earlyRefreshBeta, RefreshWriter refreshWriter,
+            long maxSize) {
+        this.name = name;
+        this.remote = remote;
+        this.local = local;
+        this.evictionPublisher = evictionPublisher;
+        this.remoteTtl = remoteTtl;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.refreshWriter = refreshWriter;
+        this.freshness = com.github.benmanes.caffeine.cache.Caffeine.newBuilder().maximumSize(maxSize).build();
+
+        // Hit ratio por nível: hit / (hit + miss) com as mesmas tags de cache e level
+        this.l1Hits = meterRegistry.counter("titan.ledger.cache.requests", "cache", name, "level", "l1", "result", "hit");
+        this.l1Misses = meterRegistry.counter("titan.ledger.cache.requests", "cache", name, "level", "l1", "result", "miss");
+        this.l2Hits = meterRegistry.counter("titan.ledger.cache.requests", "cache", name, "level", "l2", "result", "hit");
+        this.l2Misses = meterRegistry.counter("titan.ledger.cache.requests", "cache", name, "level", "l2", "result", "miss");
+        this.coalesced = meterRegistry.counter("titan.ledger.cache.coalesced", "cache", name);
+        this.missLoads = meterRegistry.counter("titan.ledger.cache.loads", "cache", name, "type", "miss");
+        this.earlyRefreshes = meterRegistry.counter("titan.ledger.cache.loads", "cache", name, "type", "early_refresh");
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = key.toString();
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            l1Hits.increment();
+            return new SimpleValueWrapper(value);
+        }
+        l1Misses.increment();
+
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            l2Misses.increment();
+            return wrapper;
+        }
+        l2Hits.increment();
+        local.put(localKey, wrapper.get());
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            return (T) (shouldRefreshEarly(key) ? refresh(key, wrapper.get(), valueLoader) : wrapper.get());
+        }
+
+        String localKey = key.toString();
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = loads.putIfAbsent(localKey, load);
+        if (inFlight != null) {
+            coalesced.increment();
+            return (T) join(inFlight);
+        }
+        try {
+            // Versão antes do loader; sem valor nela, ninguém preencheu desde o get acima
+            Snapshot before = refreshWriter == null ? null : refreshWriter.snapshot(key);
+            // Outro loader pode ter terminado entre o get e o putIfAbsent
+            ValueWrapper loaded = before != null && before.value() == null ? null : remote.get(key);
+            Object value;
+            if (loaded != null && loaded.get() != null) {
+                value = loaded.get();
+                local.put(localKey, value);
+            } else {
+                missLoads.increment();
+                value = timedLoad(key, valueLoader);
+                fill(key, before, value);
+            }
+            load.complete(value);
+            return (T) value;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(localKey, load);
+        }
+    }
+
+    private static Object join(CompletableFuture<Object> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Object timedLoad(Object key, Callable<?> valueLoader) {
+        long start = System.currentTimeMillis();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        long now = System.currentTimeMillis();
+        Duration ttl = value == null ? Duration.ZERO : remoteTtl.apply(key, value);
+        if (ttl != null && ttl.isPositive()) {
+            freshness.put(key.toString(), new Freshness(start + ttl.toMillis(), now - start));
+        }
+        return value;
+    }
+
+    /**
+     * XFetch: recarrega quando now + loadMillis * beta * -ln(rand) >= expiresAt.
+     * Loaders caros e entradas perto de expirar têm mais chance; beta > 1 antecipa mais.
+     * Só conhece as entradas que este nó carregou (as demais seguem o TTL normal).
+     */
+    private boolean shouldRefreshEarly(Object key) {
+        if (earlyRefreshBeta <= 0 || refreshWriter == null) {
+            return false;
+        }
+        Freshness entry = freshness.getIfPresent(key.toString());
+        if (entry == null) {
+            return false;
+        }
+        double gap = entry.loadMillis() * earlyRefreshBeta * -Math.log(1 - ThreadLocalRandom.current().nextDouble());
+        return System.currentTimeMillis() + gap >= entry.expiresAtMillis();
+    }
+
+    // Um refresh por chave no nó; quem chegar durante o refresh recebe o valor atual sem esperar
+    private Object refresh(Object key, Object current, Callable<?> valueLoader) {
+        String localKey = key.toString();
+        CompletableFuture<Object> refresh = new CompletableFuture<>();
+        if (loads.putIfAbsent(localKey, refresh) != null) {
+            return current;
+        }
+        earlyRefreshes.increment();
+        freshness.invalidate(localKey);
+        try {
+            Snapshot before = refreshWriter.snapshot(key);
+            Object value = timedLoad(key, valueLoader);
+            if (value == null) {
+                refresh.complete(current);
+                return current;
+            }
+            if (before != null && refreshWriter.replace(key, before, value)) {
+                local.put(localKey, value);
+            } else {
+                // Outro escritor passou na frente: o L2 não é mais o valor que este nó carregou
+                freshness.invalidate(localKey);
+            }
+            refresh.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            // O valor em cache ainda vale até o TTL; o próximo miss carrega de novo
+            refresh.completeExceptionally(e);
+            logger.warn("Falha no refresh antecipado do cache {} para a chave {}", name, key, e);
+            return current;
+        } finally {
+            loads.remove(localKey, refresh);
+        }
+    }
+
+    private void fill(Object key, Snapshot before, Object value) {
+        if (before == null) {
+            put(key, value);
+            return;
+        }
+        if (value != null && refreshWriter.fill(key, before, value)) {
+            local.put(key.toString(), value);
+        } else {
+            // Versão mudou durante a carga: o valor vale para esta requisição, não para o cache
+            freshness.invalidate(key.toString());
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        Object stored = existing != null && existing.get() != null ? existing.get() : value;
+        if (stored != null) {
+            local.put(key.toString(), stored);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.invalidate(key.toString());
+        freshness.invalidate(key.toString());
+        evictionPublisher.accept(name, List.of(key.toString()));
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        freshness.invalidateAll();
+        evictionPublisher.accept(name, List.of(LayeredCacheManager.ALL_KEYS));
+    }
+
+    // Leitura em lote (AccountBulkCache): só o L1, com as mesmas métricas do get()
+    Object getLocal(String key) {
+        Object value = local.getIfPresent(key);
+        (value != null ? l1Hits : l1Misses).increment();
+        return value;
+    }
+
+    void putLocal(String key, Object value) {
+        local.put(key, value);
+    }
+
+    void recordRemoteLookups(int hits, int misses) {
+        l2Hits.increment(hits);
+        l2Misses.increment(misses);
+    }
+
+    // Só o L1 deste nó: o L2 já foi tratado por quem originou o evict
+    void invalidateLocal(Collection<String> keys) {
+        if (keys.contains(LayeredCacheManager.ALL_KEYS)) {
+            local.invalidateAll();
+            freshness.invalidateAll();
+        } else {
+            local.invalidateAll(keys);
+            freshness.invalidateAll(keys);
+        }
+    }
+}
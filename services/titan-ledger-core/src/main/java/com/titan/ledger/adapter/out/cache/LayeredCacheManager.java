@@ -0,0 +1,141 @@
+package com.titan.ledger.adapter.out.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * CacheManager que coloca um L1 local (Caffeine) na frente de cada cache do Redis.
+ *
+ * Evicts são publicados no canal EVICTION_CHANNEL ("nodeId|cache|k1,k2,...") e cada nó,
+ * ao receber, invalida só o próprio L1. Mensagens do próprio nó são ignoradas.
+ *
+ * Refresh antecipado (earlyRefreshBeta > 0) só vale para caches com TTL no L2 (RedisCache),
+ * que também são os únicos com o compare-and-set do RedisRefreshWriter. shardedFillTtl é o TTL
+ * do preenchimento por leitura de uma conta sharded (ver AccountCacheWriter).
+ */
+public class LayeredCacheManager implements CacheManager, MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(LayeredCacheManager.class);
+
+    public static final String EVICTION_CHANNEL = "titan:cache:evictions";
+    static final String ALL_KEYS = "*";
+
+    private final CacheManager remote;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long l1MaxSize;
+    private final Duration l1Ttl;
+    private final double earlyRefreshBeta;
+    private final Duration shardedFillTtl;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, LayeredCache> caches = new ConcurrentHashMap<>();
+
+    private final Counter evictionsPublished;
+    private final Counter evictionsReceived;
+
+    public LayeredCacheManager(CacheManager remote, StringRedisTemplate redisTemplate, MeterRegistry meterRegistry,
+            long l1MaxSize, Duration l1Ttl, double earlyRefreshBeta, Duration shardedFillTtl) {
+        this.remote = remote;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.l1MaxSize = l1MaxSize;
+        this.l1Ttl = l1Ttl;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.shardedFillTtl = shardedFillTtl;
+        this.evictionsPublished = meterRegistry.counter("titan.ledger.cache.evictions", "direction", "published");
+        this.evictionsReceived = meterRegistry.counter("titan.ledger.cache.evictions", "direction", "received");
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        LayeredCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remoteCache = remote.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> new LayeredCache(n, remoteCache,
+                Caffeine.newBuilder().maximumSize(l1MaxSize).expireAfterWrite(l1Ttl).build(),
+                this::publishEviction, meterRegistry, remoteTtl(remoteCache), earlyRefreshBeta,
+                remoteCache instanceof RedisCache redisCache
+                        ? new RedisRefreshWriter(redisTemplate, redisCache, shardedFillTtl)
+                        : null,
+                l1MaxSize));
+    }
+
+    private static BiFunction<Object, Object, Duration> remoteTtl(Cache remoteCache) {
+        if (remoteCache instanceof RedisCache redisCache) {
+            var ttlFunction = redisCache.getCacheConfiguration().getTtlFunction();
+            return ttlFunction::getTimeToLive;
+        }
+        return (key, value) -> Duration.ZERO;
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    /**
+     * Para quem já apagou as chaves direto no Redis (ex.: pipeline do lote):
+     * invalida o L1 deste nó e avisa os demais, numa única mensagem.
+     */
+    public void evictLocalCopies(String cacheName, Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        LayeredCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.invalidateLocal(keys);
+        }
+        publishEviction(cacheName, keys);
+    }
+
+    private void publishEviction(String cacheName, Collection<String> keys) {
+        try {
+            redisTemplate.convertAndSend(EVICTION_CHANNEL, nodeId + "|" + cacheName + "|" + String.join(",", keys));
+            evictionsPublished.increment();
+        } catch (Exception e) {
+            // Sem a mensagem, o L1 dos outros nós expira pelo TTL
+            logger.warn("Falha ao publicar evict do cache {} para os outros nós", cacheName, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length != 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        LayeredCache cache = caches.get(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        List<String> keys = Arrays.asList(parts[2].split(","));
+        cache.invalidateLocal(keys);
+        evictionsReceived.increment();
+    }
+}
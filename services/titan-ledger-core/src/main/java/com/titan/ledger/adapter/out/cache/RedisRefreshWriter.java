@@ -0,0 +1,102 @@
+package com.titan.ledger.adapter.out.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.util.ByteUtils;
+
+/**
+ * Gravações do LayeredCache no L2 que vêm de uma carga do banco: compare-and-set num único script Lua.
+ *
+ * O refresh só grava se nem o valor nem a versão (accounts:version::<id>, ver AccountCacheWriter)
+ * mudaram desde antes da carga, então não desfaz um write-through, um evict ou a invalidação do
+ * lote que aconteceu enquanto o loader lia o banco. O preenchimento de um miss segue a mesma regra
+ * com a chave ausente (AccountCacheWriter.FILL_IF_UNCHANGED). Caches sem chave de versão comparam
+ * só o valor.
+ */
+class RedisRefreshWriter implements LayeredCache.RefreshWriter {
+
+    // KEYS[1] = valor, KEYS[2] = versão; ARGV[1] = valor e ARGV[2] = versão antes da carga
+    // ('' = sem versão), ARGV[3] = valor novo, ARGV[4] = TTL (ms)
+    private static final byte[] REPLACE_IF_UNCHANGED = """
+            if redis.call('GET', KEYS[1]) ~= ARGV[1] then
+                return 0
+            end
+            if (redis.call('GET', KEYS[2]) or '') ~= ARGV[2] then
+                return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[3], 'PX', ARGV[4])
+            return 1
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCache cache;
+    private final Duration shardedFillTtl;
+
+    RedisRefreshWriter(StringRedisTemplate redisTemplate, RedisCache cache, Duration shardedFillTtl) {
+        this.redisTemplate = redisTemplate;
+        this.cache = cache;
+        this.shardedFillTtl = shardedFillTtl;
+    }
+
+    @Override
+    public LayeredCache.Snapshot snapshot(Object key) {
+        List<byte[]> values = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.stringCommands().mGet(valueKey(key), versionKey(key)));
+        return values == null ? null : new LayeredCache.Snapshot(values.get(0), values.get(1));
+    }
+
+    @Override
+    public boolean replace(Object key, LayeredCache.Snapshot before, Object value) {
+        RedisCacheConfiguration config = cache.getCacheConfiguration();
+        Duration ttl = config.getTtlFunction().getTimeToLive(key, value);
+        // Chave sumiu (evict) ou não expira: nada a renovar
+        if (before.value() == null || ttl == null || !ttl.isPositive()) {
+            return false;
+        }
+        byte[] serialized = ByteUtils.getBytes(config.getValueSerializationPair().write(value));
+        byte[] version = before.version() == null ? new byte[0] : before.version();
+        Long result = redisTemplate.execute((RedisCallback<Long>) connection ->
+                connection.scriptingCommands().eval(REPLACE_IF_UNCHANGED, ReturnType.INTEGER, 2,
+                        valueKey(key), versionKey(key), before.value(), version, serialized,
+                        bytes(Long.toString(ttl.toMillis()))));
+        return Long.valueOf(1L).equals(result);
+    }
+
+    @Override
+    public boolean fill(Object key, LayeredCache.Snapshot before, Object value) {
+        RedisCacheConfiguration config = cache.getCacheConfiguration();
+        Duration ttl = config.getTtlFunction().getTimeToLive(key, value);
+        if (ttl == null || !ttl.isPositive()) {
+            // Sem TTL não há PX para o script; cache sem expiração grava como antes
+            return cache.putIfAbsent(key, value) == null;
+        }
+        byte[] serialized = ByteUtils.getBytes(config.getValueSerializationPair().write(value));
+        byte[] version = before.version() == null ? new byte[0] : before.version();
+        long shardedTtl = Math.min(ttl.toMillis(), shardedFillTtl.toMillis());
+        Long result = redisTemplate.execute((RedisCallback<Long>) connection ->
+                connection.scriptingCommands().eval(AccountCacheWriter.FILL_IF_UNCHANGED, ReturnType.INTEGER, 2,
+                        valueKey(key), versionKey(key), version, serialized,
+                        bytes(Long.toString(ttl.toMillis())), bytes(Long.toString(shardedTtl))));
+        return Long.valueOf(1L).equals(result);
+    }
+
+    private byte[] valueKey(Object key) {
+        return bytes(cache.getCacheConfiguration().getKeyPrefixFor(cache.getName()) + key);
+    }
+
+    // Mesmo formato de AccountCacheWriter
+    private byte[] versionKey(Object key) {
+        return bytes(cache.getName() + ":version::" + key);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
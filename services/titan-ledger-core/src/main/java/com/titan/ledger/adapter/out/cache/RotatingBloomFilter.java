@@ -0,0 +1,127 @@
+package com.titan.ledger.adapter.out.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter com duas gerações: inserções vão para a atual e consultas olham as duas.
+ * Quando a atual atinge a capacidade, ela vira a anterior e a mais velha é descartada.
+ * Assim a taxa de falso positivo fica limitada sem nunca precisar "remover" chaves.
+ *
+ * Thread-safe sem locks no caminho quente (bits em AtomicLongArray); só a rotação sincroniza.
+ */
+public class RotatingBloomFilter {
+
+    private final long capacityPerGeneration;
+    private final int bitCount;
+    private final int hashCount;
+
+    private volatile AtomicLongArray current;
+    private volatile AtomicLongArray previous;
+    private final AtomicLong insertions = new AtomicLong();
+
+    public RotatingBloomFilter(long capacityPerGeneration, double falsePositiveRate) {
+        if (capacityPerGeneration <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid Bloom filter sizing");
+        }
+        this.capacityPerGeneration = capacityPerGeneration;
+
+        // Dimensionamento clássico: m = -n ln(p) / ln(2)^2, k = (m/n) ln(2)
+        double bits = -capacityPerGeneration * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, Math.ceil(bits)));
+        this.hashCount = Math.max(1, (int) Math.round(bitCount / (double) capacityPerGeneration * Math.log(2)));
+
+        this.current = newGeneration();
+        this.previous = newGeneration();
+    }
+
+    public boolean mightContain(String key) {
+        long h1 = fmix64(fnv1a64(key));
+        long h2 = fmix64(h1 ^ 0x9E3779B97F4A7C15L);
+        AtomicLongArray cur = current;
+        AtomicLongArray prev = previous;
+        return contains(cur, h1, h2) || contains(prev, h1, h2);
+    }
+
+    public void put(String key) {
+        long h1 = fmix64(fnv1a64(key));
+        long h2 = fmix64(h1 ^ 0x9E3779B97F4A7C15L);
+        AtomicLongArray bits = current;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = index(h1, h2, i);
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+            long old;
+            do {
+                old = bits.get(word);
+                if ((old & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, old, old | mask));
+        }
+
+        if (insertions.incrementAndGet() >= capacityPerGeneration) {
+            rotate();
+        }
+    }
+
+    public long insertionsInCurrentGeneration() {
+        return insertions.get();
+    }
+
+    public int bitCount() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    private synchronized void rotate() {
+        // Outra thread pode ter rotacionado enquanto esperávamos o monitor
+        if (insertions.get() < capacityPerGeneration) {
+            return;
+        }
+        previous = current;
+        current = newGeneration();
+        insertions.set(0);
+    }
+
+    private boolean contains(AtomicLongArray bits, long h1, long h2) {
+        for (int i = 0; i < hashCount; i++) {
+            int bit = index(h1, h2, i);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Double hashing (Kirsch-Mitzenmacher): k posições a partir de dois hashes
+    private int index(long h1, long h2, int i) {
+        return (int) Long.remainderUnsigned(h1 + i * h2, bitCount);
+    }
+
+    private AtomicLongArray newGeneration() {
+        return new AtomicLongArray((bitCount + 63) >>> 6);
+    }
+
+    private static long fnv1a64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // Finalizador do MurmurHash3: espalha bem os bits do FNV
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
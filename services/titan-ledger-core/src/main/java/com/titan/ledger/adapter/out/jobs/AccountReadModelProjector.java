@@ -0,0 +1,171 @@
+package com.titan.ledger.adapter.out.jobs;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.titan.ledger.adapter.out.persistence.AccountReadModelStore;
+import com.titan.ledger.adapter.out.persistence.AccountReadModelStore.ProjectedEntry;
+import com.titan.ledger.adapter.out.persistence.JobCheckpointStore;
+import com.titan.ledger.adapter.out.persistence.JobCheckpointStore.Checkpoint;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Mantém o read model das contas (schema read_model) direto de ledger_entries, sem depender de
+ * eventos da outbox (que são do contrato com o Kafka).
+ *
+ * Cada rodada, numa transação: trava a linha do job em job_checkpoints (um projetor por cluster),
+ * lê até batch-size lançamentos depois do checkpoint em ordem (created_at, id), aplica, relê o
+ * saldo das contas tocadas e grava o checkpoint novo. Como o checkpoint commita junto com a
+ * projeção, cada lançamento é aplicado uma única vez.
+ *
+ * Mesmo cuidado do LedgerDailyRollupJob: created_at vem da aplicação e o lançamento só fica
+ * visível no commit, então só entram lançamentos mais velhos que settle-delay. O atraso precisa
+ * cobrir a transação mais longa mais a diferença de relógio entre os nós.
+ *
+ * Um commit ainda mais tardio (lote grande, group commit do sequenciador, espera de lock) fica
+ * atrás do checkpoint. O reparo (repair()) relê a janela repair-window antes do checkpoint e
+ * aplica o que nenhuma rodada aplicou; projected_entries garante que nada soma duas vezes.
+ *
+ * titan.ledger.read_model.lag: há quanto tempo o read model está completo (complete_until).
+ * Nós que não pegam o lock só releem o checkpoint, para a métrica valer em todos.
+ */
+@Component
+@ConditionalOnProperty(name = "titan.ledger.read-model.enabled", havingValue = "true", matchIfMissing = true)
+public class AccountReadModelProjector {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountReadModelProjector.class);
+
+    private final AccountReadModelStore store;
+    private final JobCheckpointStore checkpointStore;
+    private final TransactionTemplate transaction;
+    private final Counter projectedEntries;
+    private final Counter repairedEntries;
+
+    private volatile Instant completeUntil;
+
+    @Value("${titan.ledger.read-model.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${titan.ledger.read-model.recent-entries:20}")
+    private int recentEntries = 20;
+
+    @Value("${titan.ledger.read-model.settle-delay:2m}")
+    private Duration settleDelay = Duration.ofMinutes(2);
+
+    @Value("${titan.ledger.read-model.repair-window:1h}")
+    private Duration repairWindow = Duration.ofHours(1);
+
+    public AccountReadModelProjector(AccountReadModelStore store, JobCheckpointStore checkpointStore,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.checkpointStore = checkpointStore;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.projectedEntries = Counter.builder("titan.ledger.read_model.entries")
+                .description("Lançamentos do ledger aplicados ao read model")
+                .register(meterRegistry);
+        this.repairedEntries = Counter.builder("titan.ledger.read_model.repaired")
+                .description("Lançamentos com commit tardio aplicados pelo reparo, depois do checkpoint já ter passado")
+                .register(meterRegistry);
+        Gauge.builder("titan.ledger.read_model.lag", this, AccountReadModelProjector::lagSeconds)
+                .description("Defasagem do read model: lançamentos mais novos que isso ainda não foram projetados")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${titan.ledger.read-model.poll-ms:500}")
+    public void project() {
+        try {
+            // Lote cheio: provavelmente há mais na fila, segue sem esperar o próximo poll
+            int projected;
+            do {
+                projected = Objects.requireNonNull(transaction.execute(status -> projectBatch()));
+            } while (projected >= batchSize);
+        } catch (RuntimeException e) {
+            logger.error("❌ Read model projection failed, resuming from the last checkpoint", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${titan.ledger.read-model.repair-interval-ms:300000}")
+    public void repair() {
+        try {
+            int repaired;
+            do {
+                repaired = Objects.requireNonNull(transaction.execute(status -> repairBatch()));
+            } while (repaired >= batchSize);
+        } catch (RuntimeException e) {
+            logger.error("❌ Read model repair failed, retrying on the next run", e);
+        }
+    }
+
+    int projectBatch() {
+        Optional<Checkpoint> locked = checkpointStore.lock(AccountReadModelStore.JOB_NAME);
+        if (locked.isEmpty()) {
+            // Outro nó está projetando (ou a linha do job não existe): só atualiza a métrica
+            checkpointStore.find(AccountReadModelStore.JOB_NAME)
+                    .ifPresent(state -> completeUntil = state.completeUntil());
+            return 0;
+        }
+
+        Checkpoint position = locked.get();
+        Instant before = Instant.now().minus(settleDelay);
+        List<ProjectedEntry> entries = store.loadEntries(position, before, batchSize);
+        if (!entries.isEmpty()) {
+            // O reparo pode ter aplicado parte do lote antes; o checkpoint avança pelo lote inteiro
+            List<ProjectedEntry> applied = store.applyEntries(entries, recentEntries);
+            store.refreshBalances(applied.stream().map(ProjectedEntry::accountId).distinct().toList());
+            ProjectedEntry last = entries.get(entries.size() - 1);
+            position = new Checkpoint(last.createdAt(), last.entryId());
+            projectedEntries.increment(applied.size());
+            logger.debug("Projected {} ledger entries into the read model", entries.size());
+        }
+
+        // Lote incompleto = nada mais antes de "before"; lote cheio = completo só até o último lido
+        Instant complete = entries.size() < batchSize ? before : position.at();
+        checkpointStore.save(AccountReadModelStore.JOB_NAME, position, complete);
+        completeUntil = complete;
+        return entries.size();
+    }
+
+    // Mesmo lock do projetor: reparo e projeção nunca rodam juntos
+    int repairBatch() {
+        Optional<Checkpoint> locked = checkpointStore.lock(AccountReadModelStore.JOB_NAME);
+        if (locked.isEmpty()) {
+            return 0;
+        }
+
+        Instant until = locked.get().at();
+        Instant from = until.minus(repairWindow);
+        List<ProjectedEntry> missed = store.loadMissedEntries(from, until, batchSize);
+        List<ProjectedEntry> applied = store.applyEntries(missed, recentEntries);
+        if (!applied.isEmpty()) {
+            store.refreshBalances(applied.stream().map(ProjectedEntry::accountId).distinct().toList());
+            repairedEntries.increment(applied.size());
+            logger.warn("🩹 Read model: {} lançamentos com commit tardio aplicados atrás do checkpoint", applied.size());
+        }
+        store.pruneProjected(from);
+        return missed.size();
+    }
+
+    private double lagSeconds() {
+        Instant current = completeUntil;
+        if (current == null) {
+            return Double.NaN;
+        }
+        return Math.max(0, Duration.between(current, Instant.now()).toMillis() / 1000.0);
+    }
+}
@@ -0,0 +1,108 @@
+package com.titan.ledger.adapter.out.jobs;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Manutenção das partições diárias de idempotency_keys (V8).
+ * Cria as partições dos próximos dias e dropa as que saíram inteiras da janela de retenção:
+ * expirar uma chave nunca vira DELETE (nem VACUUM depois).
+ * Limites sempre em UTC, iguais aos da migration.
+ */
+@Component
+public class IdempotencyPartitionJob {
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyPartitionJob.class);
+
+    private static final String PARENT = "idempotency_keys";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${titan.ledger.idempotency.retention-days:7}")
+    private int retentionDays = 7;
+
+    @Value("${titan.ledger.idempotency.partitions-ahead:7}")
+    private int partitionsAhead = 7;
+
+    public IdempotencyPartitionJob(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Roda no startup e depois a cada intervalo; cada passo é idempotente
+    @Scheduled(fixedDelayString = "${titan.ledger.idempotency.partition-maintenance-ms:3600000}")
+    public void maintainPartitions() {
+        maintainPartitions(LocalDate.now(ZoneOffset.UTC));
+    }
+
+    void maintainPartitions(LocalDate today) {
+        List<String> existing = listPartitions();
+
+        int created = 0;
+        for (int i = 0; i <= partitionsAhead; i++) {
+            if (createPartition(today.plusDays(i), existing)) {
+                created++;
+            }
+        }
+
+        // A partição do dia (hoje - retenção) ainda tem linhas dentro da janela; só as anteriores saem
+        LocalDate oldestKept = today.minusDays(retentionDays);
+        int dropped = 0;
+        for (String partition : existing) {
+            LocalDate day = parseDay(partition);
+            if (day != null && day.isBefore(oldestKept)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                dropped++;
+            }
+        }
+
+        if (created > 0 || dropped > 0) {
+            logger.info("🗂️ Partições de idempotência: {} criadas, {} removidas (retenção de {} dias)",
+                    created, dropped, retentionDays);
+        }
+    }
+
+    private boolean createPartition(LocalDate day, List<String> existing) {
+        String name = PARENT + "_" + day.format(SUFFIX);
+        if (existing.contains(name)) {
+            return false;
+        }
+        try {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + PARENT
+                    + " FOR VALUES FROM ('" + day + " 00:00:00+00') TO ('" + day.plusDays(1) + " 00:00:00+00')");
+            return true;
+        } catch (DataAccessException e) {
+            // Acontece se a partição default já recebeu linhas desse dia (job parado por dias)
+            logger.error("❌ Não foi possível criar a partição {}: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList("""
+                SELECT child.relname
+                FROM pg_inherits i
+                JOIN pg_class parent ON parent.oid = i.inhparent
+                JOIN pg_class child ON child.oid = i.inhrelid
+                WHERE parent.relname = ?
+                """, String.class, PARENT);
+    }
+
+    // idempotency_keys_default (e qualquer nome fora do padrão) nunca é dropada
+    private static LocalDate parseDay(String partition) {
+        String suffix = partition.substring(PARENT.length() + 1);
+        if (!suffix.matches("\\d{8}")) {
+            return null;
+        }
+        return LocalDate.parse(suffix, SUFFIX);
+    }
+}
@@ -0,0 +1,125 @@
+package com.titan.ledger.adapter.out.jobs;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.titan.ledger.adapter.out.persistence.JobCheckpointStore;
+import com.titan.ledger.adapter.out.persistence.JobCheckpointStore.Checkpoint;
+import com.titan.ledger.adapter.out.persistence.LedgerDailySummaryStore;
+import com.titan.ledger.adapter.out.persistence.LedgerDailySummaryStore.RollupBatch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Mantém ledger_daily_summary de forma incremental: cada rodada só lê os lançamentos depois
+ * do checkpoint (job_checkpoints), em lotes de batch-size, sem varrer o ledger inteiro.
+ *
+ * created_at vem da aplicação e a transação só fica visível no commit, então um lançamento
+ * pode aparecer "no passado". Por isso só entram lançamentos mais velhos que settle-delay:
+ * o atraso precisa cobrir a transação mais longa mais a diferença de relógio entre os nós.
+ *
+ * titan.ledger.rollup.lag: há quanto tempo o rollup está completo (complete_until), ou seja,
+ * o settle-delay mais o atraso de processamento.
+ */
+@Component
+public class LedgerDailyRollupJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerDailyRollupJob.class);
+
+    public static final String JOB_NAME = "ledger-daily-rollup";
+
+    private final LedgerDailySummaryStore summaryStore;
+    private final JobCheckpointStore checkpointStore;
+    private final TransactionTemplate transaction;
+    private final Counter rolledUpEntries;
+
+    private volatile Instant completeUntil;
+
+    @Value("${titan.ledger.rollup.batch-size:10000}")
+    private int batchSize = 10000;
+
+    @Value("${titan.ledger.rollup.settle-delay:2m}")
+    private Duration settleDelay = Duration.ofMinutes(2);
+
+    @Value("${titan.ledger.rollup.max-batches-per-run:100}")
+    private int maxBatchesPerRun = 100;
+
+    public LedgerDailyRollupJob(LedgerDailySummaryStore summaryStore, JobCheckpointStore checkpointStore,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.summaryStore = summaryStore;
+        this.checkpointStore = checkpointStore;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.rolledUpEntries = Counter.builder("titan.ledger.rollup.entries")
+                .description("Lançamentos agregados em ledger_daily_summary")
+                .register(meterRegistry);
+        Gauge.builder("titan.ledger.rollup.lag", this, LedgerDailyRollupJob::lagSeconds)
+                .description("Atraso de ledger_daily_summary: lançamentos mais novos que isso ainda não entraram")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${titan.ledger.rollup.interval-ms:60000}")
+    public void rollUp() {
+        long start = System.nanoTime();
+        int total = 0;
+        try {
+            // Histórico grande (primeira execução) vai em várias transações curtas
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                int entries = Objects.requireNonNull(transaction.execute(status -> rollUpBatch()));
+                total += entries;
+                if (entries < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("❌ Daily rollup failed after {} entries, resuming from the last checkpoint", total, e);
+            return;
+        }
+        if (total > 0) {
+            logger.info("📊 Daily rollup: {} entries aggregated in {} ms (complete until {})", total,
+                    (System.nanoTime() - start) / 1_000_000, completeUntil);
+        }
+    }
+
+    int rollUpBatch() {
+        Optional<Checkpoint> locked = checkpointStore.lock(JOB_NAME);
+        if (locked.isEmpty()) {
+            // Outro nó está rodando (ou a linha do job não existe): só atualiza a métrica
+            checkpointStore.find(JOB_NAME).ifPresent(state -> completeUntil = state.completeUntil());
+            return 0;
+        }
+
+        Checkpoint checkpoint = locked.get();
+        Instant before = Instant.now().minus(settleDelay);
+        Optional<RollupBatch> batch = summaryStore.rollUp(checkpoint, before, batchSize);
+        int entries = batch.map(RollupBatch::entries).orElse(0);
+        Checkpoint position = batch.map(RollupBatch::last).orElse(checkpoint);
+
+        // Lote incompleto = nada mais antes de "before"; lote cheio = completo só até o último lido
+        Instant complete = entries < batchSize ? before : position.at();
+        checkpointStore.save(JOB_NAME, position, complete);
+        completeUntil = complete;
+        rolledUpEntries.increment(entries);
+        return entries;
+    }
+
+    private double lagSeconds() {
+        Instant current = completeUntil;
+        if (current == null) {
+            return Double.NaN;
+        }
+        return Math.max(0, Duration.between(current, Instant.now()).toMillis() / 1000.0);
+    }
+}
@@ -1,83 +1,166 @@
 package com.titan.ledger.adapter.out.jobs;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.titan.ledger.adapter.out.persistence.AccountRepository;
+import com.titan.ledger.adapter.out.persistence.AccountScanReader;
+import com.titan.ledger.adapter.out.persistence.JobCheckpointStore;
+import com.titan.ledger.adapter.out.persistence.JobCheckpointStore.Checkpoint;
+import com.titan.ledger.adapter.out.persistence.JobCheckpointStore.JobState;
 import com.titan.ledger.adapter.out.persistence.LedgerRepository;
 import com.titan.ledger.core.domain.model.Account;
-
+import com.titan.ledger.core.service.AccountShardService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Reconciliação saldo x ledger em dois modos:
+ *
+ * - incremental (interval-ms): só as contas com mudança desde a última rodada (updated_at da
+ *   conta ou das fatias, ou lançamento novo), a partir do checkpoint em job_checkpoints. O custo
+ *   acompanha o volume de escrita do intervalo, não o tamanho do histórico.
+ * - completa (full-sweep-interval-ms): todas as contas, como rede de segurança para mudanças
+ *   que não passam por esses timestamps. Também roda quando não há checkpoint ou ele é mais
+ *   velho que o intervalo da varredura completa.
+ *
+ * O checkpoint é o início da rodada; a próxima olha "overlap" para trás, porque created_at e
+ * updated_at são gravados antes do commit (e a réplica pode estar atrás). Conferir uma conta
+ * duas vezes não tem efeito colateral.
+ */
 @Component
 public class ReconciliationJob {
     private static final Logger logger = LoggerFactory.getLogger(ReconciliationJob.class);
 
+    public static final String JOB_NAME = "reconciliation";
+
+    private static final String MODE_INCREMENTAL = "incremental";
+    private static final String MODE_FULL = "full";
+
     private final LedgerRepository ledgerRepository;
     private final AccountRepository accountRepository;
+    private final AccountShardService shardService;
+    private final AccountScanReader accountScanReader;
+    private final JobCheckpointStore checkpointStore;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final MeterRegistry meterRegistry;
 
     private static final int BATCH_SIZE = 1000;
 
-    public ReconciliationJob(LedgerRepository ledgerRepository, AccountRepository accountRepository) {
+    @Value("${titan.ledger.reconciliation.overlap:2m}")
+    private Duration overlap = Duration.ofMinutes(2);
+
+    @Value("${titan.ledger.reconciliation.full-sweep-interval-ms:86400000}")
+    private long fullSweepIntervalMs = 86_400_000;
+
+    public ReconciliationJob(LedgerRepository ledgerRepository, AccountRepository accountRepository,
+            AccountShardService shardService, AccountScanReader accountScanReader,
+            JobCheckpointStore checkpointStore, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
         this.ledgerRepository = ledgerRepository;
         this.accountRepository = accountRepository;
+        this.shardService = shardService;
+        this.accountScanReader = accountScanReader;
+        this.checkpointStore = checkpointStore;
+        // Só leitura: com réplicas configuradas, a varredura inteira sai do primário
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
     }
 
-    @Scheduled(fixedDelay = 60000)
+    @Scheduled(fixedDelayString = "${titan.ledger.reconciliation.interval-ms:60000}")
     public void runReconciliation() {
-        logger.info("-------Starting Account Reconciliation Job--------");
+        Instant runStart = Instant.now();
+        Instant lastComplete = checkpointStore.find(JOB_NAME)
+                .map(JobState::completeUntil)
+                .orElse(null);
+
+        if (lastComplete == null || lastComplete.isBefore(runStart.minusMillis(fullSweepIntervalMs))) {
+            logger.info("No recent reconciliation checkpoint (last complete: {}), running a full sweep", lastComplete);
+            runFullSweep();
+            return;
+        }
+
+        long start = System.nanoTime();
+        Instant since = lastComplete.minus(overlap);
+        List<UUID> changed = Objects.requireNonNull(
+                readOnlyTransaction.execute(status -> accountScanReader.findChangedSince(since)));
+
+        int totalDiscrepancies = 0;
+        for (int from = 0; from < changed.size(); from += BATCH_SIZE) {
+            List<UUID> batch = changed.subList(from, Math.min(from + BATCH_SIZE, changed.size()));
+            totalDiscrepancies += Objects.requireNonNull(readOnlyTransaction.execute(
+                    status -> checkAccounts(accountRepository.findAllById(batch))));
+        }
+
+        finish(MODE_INCREMENTAL, runStart, start, changed.size(), totalDiscrepancies);
+    }
+
+    // Primeira execução fica para a rodada incremental (sem checkpoint, ela já faz a completa)
+    @Scheduled(fixedDelayString = "${titan.ledger.reconciliation.full-sweep-interval-ms:86400000}",
+            initialDelayString = "${titan.ledger.reconciliation.full-sweep-interval-ms:86400000}")
+    public void runFullSweep() {
+        logger.info("-------Starting Account Reconciliation Job (full sweep)--------");
+        Instant runStart = Instant.now();
+        long start = System.nanoTime();
 
         int page = 0;
         int totalDiscrepancies = 0;
         Page<Account> accountPage;
 
         do {
-            accountPage = fetchPage(page);
-            List<Account> accounts = accountPage.getContent();
+            int pageNumber = page;
+            PageResult result = readOnlyTransaction.execute(status -> checkPage(pageNumber));
+            accountPage = result.accounts();
 
-            if (accounts.isEmpty())
+            if (accountPage.isEmpty())
                 break;
 
-            List<UUID> accountsIds = accounts.stream().map(Account::getId).toList();
-
-            List<LedgerRepository.BalanceSummary> ledgerBalances = ledgerRepository.getBalancesForAccounts(accountsIds);
-
-            Map<UUID, BigDecimal> calculatedMap = ledgerBalances.stream()
-                    .collect(Collectors.toMap(
-                            LedgerRepository.BalanceSummary::getAccountId,
-                            LedgerRepository.BalanceSummary::getCalculatedBalance));
-
-            for (Account account : accounts) {
-                BigDecimal currentBalance = account.getBalance();
-
-                BigDecimal realBalance = calculatedMap.getOrDefault(account.getId(), BigDecimal.ZERO);
-
-                if (currentBalance.compareTo(realBalance) != 0) {
-                    totalDiscrepancies++;
-                    handleDiscrepancy(account.getId(), currentBalance, realBalance);
-                }
-            }
-
+            totalDiscrepancies += result.discrepancies();
             page++;
 
             logger.debug("Processed page {}/{}", page, accountPage.getTotalPages());
 
         } while (accountPage.hasNext());
 
-        if (totalDiscrepancies == 0) {
-            logger.info("✅ Reconciliation finished. Checked {} accounts. System Balanced.",
-                    accountPage.getTotalElements());
+        finish(MODE_FULL, runStart, start, accountPage.getTotalElements(), totalDiscrepancies);
+    }
+
+    // Só avança o checkpoint quando a rodada terminou; se falhar, a próxima cobre a mesma janela
+    private void finish(String mode, Instant runStart, long startNanos, long checked, int discrepancies) {
+        writeTransaction.executeWithoutResult(status ->
+                checkpointStore.save(JOB_NAME, new Checkpoint(runStart, new UUID(0, 0)), runStart));
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        meterRegistry.timer("titan.ledger.reconciliation.duration", "mode", mode)
+                .record(Duration.ofNanos(elapsedNanos));
+        meterRegistry.counter("titan.ledger.reconciliation.accounts", "mode", mode).increment(checked);
+        meterRegistry.counter("titan.ledger.reconciliation.discrepancies", "mode", mode).increment(discrepancies);
+
+        if (discrepancies == 0) {
+            logger.info("✅ Reconciliation ({}) finished in {} ms. Checked {} accounts. System Balanced.",
+                    mode, elapsedNanos / 1_000_000, checked);
         } else {
-            logger.error("🚨 Reconciliation finished with {} discrepancies!", totalDiscrepancies);
+            logger.error("🚨 Reconciliation ({}) finished with {} discrepancies! Checked {} accounts in {} ms.",
+                    mode, discrepancies, checked, elapsedNanos / 1_000_000);
         }
     }
 
@@ -91,8 +174,53 @@ public class ReconciliationJob {
         // Sugestão futura: Salvar na tabela 'audit_logs'
     }
 
-    @Transactional(readOnly = true)
-    protected Page<Account> fetchPage(int page) {
+    private record PageResult(Page<Account> accounts, int discrepancies) {
+    }
+
+    // Página de contas + somas do ledger na mesma transação read-only (mesma conexão/réplica)
+    private PageResult checkPage(int page) {
+        Page<Account> accountPage = fetchPage(page);
+        return new PageResult(accountPage, checkAccounts(accountPage.getContent()));
+    }
+
+    private int checkAccounts(List<Account> accounts) {
+        if (accounts.isEmpty()) {
+            return 0;
+        }
+
+        List<UUID> accountsIds = accounts.stream().map(Account::getId).toList();
+
+        List<LedgerRepository.BalanceSummary> ledgerBalances = ledgerRepository.getBalancesForAccounts(accountsIds);
+
+        Map<UUID, BigDecimal> calculatedMap = ledgerBalances.stream()
+                .collect(Collectors.toMap(
+                        LedgerRepository.BalanceSummary::getAccountId,
+                        LedgerRepository.BalanceSummary::getCalculatedBalance));
+
+        // Contas sharded: saldo efetivo = linha principal + soma das fatias
+        Map<UUID, BigDecimal> shardBalances = shardService.shardBalances(accounts.stream()
+                .filter(Account::isSharded)
+                .map(Account::getId)
+                .toList());
+
+        int discrepancies = 0;
+        for (Account account : accounts) {
+            BigDecimal currentBalance = account.getBalance()
+                    .add(shardBalances.getOrDefault(account.getId(), BigDecimal.ZERO));
+
+            BigDecimal realBalance = calculatedMap.getOrDefault(account.getId(), BigDecimal.ZERO);
+
+            if (currentBalance.compareTo(realBalance) != 0) {
+                discrepancies++;
+                handleDiscrepancy(account.getId(), currentBalance, realBalance);
+            }
+        }
+        return discrepancies;
+    }
+
+    // Chamado de dentro da própria classe: o @Transactional(readOnly = true) que havia aqui
+    // nunca passava pelo proxy. A transação agora vem do readOnlyTransaction em runFullSweep
+    private Page<Account> fetchPage(int page) {
         return accountRepository.findAll(PageRequest.of(page, BATCH_SIZE));
     }
 }
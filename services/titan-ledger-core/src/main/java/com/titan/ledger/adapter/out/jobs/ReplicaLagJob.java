@@ -0,0 +1,27 @@
+package com.titan.ledger.adapter.out.jobs;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.titan.ledger.adapter.out.persistence.ReplicaRoutingDataSource;
+
+/**
+ * Mede o lag de replay das réplicas de leitura. Réplica acima de
+ * titan.ledger.datasource.max-replica-lag sai da rotação até alcançar o primário.
+ */
+@Component
+public class ReplicaLagJob {
+
+    private final ReplicaRoutingDataSource replicaRouting;
+
+    public ReplicaLagJob(ReplicaRoutingDataSource replicaRouting) {
+        this.replicaRouting = replicaRouting;
+    }
+
+    @Scheduled(fixedDelayString = "${titan.ledger.datasource.lag-check-ms:1000}")
+    public void refreshLag() {
+        if (replicaRouting.hasReplicas()) {
+            replicaRouting.refreshLag();
+        }
+    }
+}
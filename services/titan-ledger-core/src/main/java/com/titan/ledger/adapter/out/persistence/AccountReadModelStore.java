@@ -0,0 +1,277 @@
+package com.titan.ledger.adapter.out.persistence;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.titan.ledger.adapter.out.persistence.JobCheckpointStore.Checkpoint;
+import com.titan.ledger.core.usecase.dto.AccountResponse;
+import com.titan.ledger.core.usecase.dto.MonthlyTotalResponse;
+import com.titan.ledger.core.usecase.dto.StatementEntryResponse;
+
+/**
+ * Acesso ao schema read_model (V10): leitura do lado de consulta e escrita do
+ * AccountReadModelProjector. Tudo via JDBC, sem entidades.
+ *
+ * O projetor lê ledger_entries em ordem (created_at, id) a partir do checkpoint do job
+ * (job_checkpoints); o complete_until desse checkpoint é o watermark das leituras.
+ *
+ * Todo lançamento aplicado é registrado antes em read_model.projected_entries: o mesmo
+ * lançamento pode chegar pelo checkpoint e pelo reparo, mas só soma uma vez nos totais.
+ */
+@Component
+public class AccountReadModelStore {
+
+    public static final String JOB_NAME = "account-read-model";
+
+    // watermark: tudo criado antes dele já está projetado (EPOCH = projetor ainda não rodou)
+    public record BalanceView(AccountResponse account, Instant watermark) {
+    }
+
+    public record ProjectedEntry(UUID entryId, UUID accountId, UUID transactionId, String operationType,
+            BigDecimal amount, BigDecimal balanceAfter, String description, Instant createdAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AccountReadModelStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // --- Leitura ---
+
+    // Saldo + watermark numa ida ao banco: quem chama decide se a defasagem é aceitável
+    public Optional<BalanceView> findBalance(UUID accountId) {
+        return jdbcTemplate.query("""
+                SELECT b.account_id, b.client_id, b.currency, b.balance, c.complete_until
+                FROM read_model.account_balances b
+                CROSS JOIN job_checkpoints c
+                WHERE b.account_id = ? AND c.job_name = ?
+                """, (rs, rowNum) -> {
+                    Timestamp completeUntil = rs.getTimestamp("complete_until");
+                    return new BalanceView(
+                            new AccountResponse(rs.getObject("account_id", UUID.class), rs.getString("client_id"),
+                                    rs.getString("currency"), rs.getBigDecimal("balance"), "ACTIVE"),
+                            completeUntil == null ? Instant.EPOCH : completeUntil.toInstant());
+                }, accountId, JOB_NAME).stream().findFirst();
+    }
+
+    public List<StatementEntryResponse> findRecentEntries(UUID accountId, int limit) {
+        return jdbcTemplate.query("""
+                SELECT transaction_id, operation_type, amount, balance_after, description, created_at
+                FROM read_model.account_recent_entries
+                WHERE account_id = ?
+                ORDER BY created_at DESC, entry_id DESC
+                LIMIT ?
+                """, (rs, rowNum) -> new StatementEntryResponse(
+                        rs.getObject("transaction_id", UUID.class), rs.getString("operation_type"),
+                        rs.getBigDecimal("amount"), rs.getBigDecimal("balance_after"),
+                        rs.getString("description"), rs.getTimestamp("created_at").toInstant()),
+                accountId, limit);
+    }
+
+    public List<MonthlyTotalResponse> findMonthlyTotals(UUID accountId, LocalDate sinceMonth) {
+        return jdbcTemplate.query("""
+                SELECT month, credits, debits, entry_count
+                FROM read_model.account_monthly_totals
+                WHERE account_id = ? AND month >= ?
+                ORDER BY month DESC
+                """, (rs, rowNum) -> mapMonthlyTotal(rs), accountId, Date.valueOf(sinceMonth));
+    }
+
+    // Mesmo cálculo direto no ledger, para quando o read model está atrasado demais
+    public List<MonthlyTotalResponse> computeMonthlyTotals(UUID accountId, LocalDate sinceMonth) {
+        return jdbcTemplate.query("""
+                SELECT CAST(date_trunc('month', created_at AT TIME ZONE 'UTC') AS DATE) AS month,
+                       COALESCE(SUM(amount) FILTER (WHERE operation_type = 'CREDIT'), 0) AS credits,
+                       COALESCE(SUM(amount) FILTER (WHERE operation_type = 'DEBIT'), 0) AS debits,
+                       COUNT(*) AS entry_count
+                FROM ledger_entries
+                WHERE account_id = ? AND created_at >= ?
+                GROUP BY 1
+                ORDER BY 1 DESC
+                """, (rs, rowNum) -> mapMonthlyTotal(rs),
+                accountId, Timestamp.from(sinceMonth.atStartOfDay(ZoneOffset.UTC).toInstant()));
+    }
+
+    // --- Projeção (dentro da transação do projetor) ---
+
+    // Lançamentos depois de "after" e antes de "before", na ordem em que o checkpoint avança
+    public List<ProjectedEntry> loadEntries(Checkpoint after, Instant before, int limit) {
+        return jdbcTemplate.query("""
+                SELECT l.id, l.account_id, l.transaction_id, l.operation_type, l.amount,
+                       l.balance_snapshot, t.description, l.created_at
+                FROM ledger_entries l
+                JOIN transactions t ON t.id = l.transaction_id
+                WHERE (l.created_at, l.id) > (?, ?) AND l.created_at < ?
+                ORDER BY l.created_at, l.id
+                LIMIT ?
+                """, (rs, rowNum) -> mapEntry(rs),
+                Timestamp.from(after.at()), after.entryId(), Timestamp.from(before), limit);
+    }
+
+    // Commits tardios: lançamentos já atrás do checkpoint que nenhuma rodada aplicou
+    public List<ProjectedEntry> loadMissedEntries(Instant from, Instant until, int limit) {
+        return jdbcTemplate.query("""
+                SELECT l.id, l.account_id, l.transaction_id, l.operation_type, l.amount,
+                       l.balance_snapshot, t.description, l.created_at
+                FROM ledger_entries l
+                JOIN transactions t ON t.id = l.transaction_id
+                WHERE l.created_at >= ? AND l.created_at <= ?
+                  AND NOT EXISTS (SELECT 1 FROM read_model.projected_entries p WHERE p.entry_id = l.id)
+                ORDER BY l.created_at, l.id
+                LIMIT ?
+                """, (rs, rowNum) -> mapEntry(rs), Timestamp.from(from), Timestamp.from(until), limit);
+    }
+
+    // Fora da janela de reparo o registro não serve mais para nada
+    public int pruneProjected(Instant before) {
+        return jdbcTemplate.update("DELETE FROM read_model.projected_entries WHERE created_at < ?",
+                Timestamp.from(before));
+    }
+
+    // Devolve só os lançamentos aplicados agora (os já registrados são ignorados)
+    public List<ProjectedEntry> applyEntries(List<ProjectedEntry> candidates, int keepRecent) {
+        List<ProjectedEntry> entries = claim(candidates);
+        if (entries.isEmpty()) {
+            return entries;
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO read_model.account_recent_entries
+                    (entry_id, account_id, transaction_id, operation_type, amount, balance_after, description, created_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                ON CONFLICT (entry_id) DO NOTHING
+                """, entries, entries.size(), (ps, entry) -> {
+                    ps.setObject(1, entry.entryId());
+                    ps.setObject(2, entry.accountId());
+                    ps.setObject(3, entry.transactionId());
+                    ps.setString(4, entry.operationType());
+                    ps.setBigDecimal(5, entry.amount());
+                    ps.setBigDecimal(6, entry.balanceAfter());
+                    ps.setString(7, entry.description());
+                    ps.setTimestamp(8, Timestamp.from(entry.createdAt()));
+                });
+
+        // Soma por (conta, mês) antes: uma linha por par, não uma por lançamento
+        Map<List<Object>, BigDecimal[]> totals = new LinkedHashMap<>();
+        for (ProjectedEntry entry : entries) {
+            LocalDate month = entry.createdAt().atZone(ZoneOffset.UTC).toLocalDate().withDayOfMonth(1);
+            BigDecimal[] sums = totals.computeIfAbsent(List.of(entry.accountId(), month),
+                    key -> new BigDecimal[] { BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO });
+            int column = "CREDIT".equals(entry.operationType()) ? 0 : 1;
+            sums[column] = sums[column].add(entry.amount());
+            sums[2] = sums[2].add(BigDecimal.ONE);
+        }
+        List<Object[]> monthlyRows = new ArrayList<>(totals.size());
+        totals.forEach((key, sums) -> monthlyRows.add(new Object[] {
+                key.get(0), Date.valueOf((LocalDate) key.get(1)), sums[0], sums[1], sums[2].longValue() }));
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO read_model.account_monthly_totals (account_id, month, credits, debits, entry_count)
+                VALUES (?, ?, ?, ?, ?)
+                ON CONFLICT (account_id, month) DO UPDATE SET
+                    credits = account_monthly_totals.credits + EXCLUDED.credits,
+                    debits = account_monthly_totals.debits + EXCLUDED.debits,
+                    entry_count = account_monthly_totals.entry_count + EXCLUDED.entry_count
+                """, monthlyRows);
+
+        List<UUID> accountIds = entries.stream().map(ProjectedEntry::accountId).distinct().toList();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement("""
+                    DELETE FROM read_model.account_recent_entries d
+                    USING (
+                        SELECT entry_id,
+                               ROW_NUMBER() OVER (PARTITION BY account_id ORDER BY created_at DESC, entry_id DESC) AS rn
+                        FROM read_model.account_recent_entries
+                        WHERE account_id = ANY(?)
+                    ) ranked
+                    WHERE d.entry_id = ranked.entry_id AND ranked.rn > ?
+                    """);
+            ps.setArray(1, connection.createArrayOf("uuid", accountIds.toArray()));
+            ps.setInt(2, keepRecent);
+            return ps;
+        });
+        return entries;
+    }
+
+    private List<ProjectedEntry> claim(List<ProjectedEntry> candidates) {
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        List<UUID> claimed = jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement("""
+                    INSERT INTO read_model.projected_entries (entry_id, created_at)
+                    SELECT * FROM unnest(?::uuid[], ?::timestamptz[])
+                    ON CONFLICT (entry_id) DO NOTHING
+                    RETURNING entry_id
+                    """);
+            ps.setArray(1, connection.createArrayOf("uuid",
+                    candidates.stream().map(ProjectedEntry::entryId).toArray()));
+            ps.setArray(2, connection.createArrayOf("timestamptz",
+                    candidates.stream().map(entry -> Timestamp.from(entry.createdAt())).toArray()));
+            return ps;
+        }, (rs, rowNum) -> rs.getObject(1, UUID.class));
+        if (claimed.size() == candidates.size()) {
+            return candidates;
+        }
+        Set<UUID> fresh = new HashSet<>(claimed);
+        return candidates.stream().filter(entry -> fresh.contains(entry.entryId())).toList();
+    }
+
+    // Saldo efetivo relido da origem (linha + fatias), não somado aos lançamentos do lote
+    public void refreshBalances(Collection<UUID> accountIds) {
+        if (accountIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement("""
+                    INSERT INTO read_model.account_balances
+                        (account_id, client_id, currency, balance, last_entry_at, projected_at)
+                    SELECT a.id, a.client_id, a.currency,
+                           a.balance + COALESCE((SELECT SUM(s.balance) FROM account_balance_shards s
+                                                 WHERE s.account_id = a.id), 0),
+                           (SELECT MAX(r.created_at) FROM read_model.account_recent_entries r
+                            WHERE r.account_id = a.id),
+                           now()
+                    FROM accounts a
+                    WHERE a.id = ANY(?)
+                    ON CONFLICT (account_id) DO UPDATE SET
+                        balance = EXCLUDED.balance,
+                        last_entry_at = EXCLUDED.last_entry_at,
+                        projected_at = EXCLUDED.projected_at
+                    """);
+            ps.setArray(1, connection.createArrayOf("uuid", accountIds.toArray()));
+            return ps;
+        });
+    }
+
+    private static ProjectedEntry mapEntry(ResultSet rs) throws SQLException {
+        return new ProjectedEntry(
+                rs.getObject("id", UUID.class), rs.getObject("account_id", UUID.class),
+                rs.getObject("transaction_id", UUID.class), rs.getString("operation_type"),
+                rs.getBigDecimal("amount"), rs.getBigDecimal("balance_snapshot"),
+                rs.getString("description"), rs.getTimestamp("created_at").toInstant());
+    }
+
+    private static MonthlyTotalResponse mapMonthlyTotal(ResultSet rs) throws SQLException {
+        return new MonthlyTotalResponse(rs.getDate("month").toLocalDate(), rs.getBigDecimal("credits"),
+                rs.getBigDecimal("debits"), rs.getLong("entry_count"));
+    }
+}
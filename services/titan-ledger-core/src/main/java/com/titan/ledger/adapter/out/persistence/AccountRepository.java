@@ -1,10 +1,15 @@
 package com.titan.ledger.adapter.out.persistence;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -22,4 +27,85 @@ public interface AccountRepository extends JpaRepository<Account, UUID>{
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT a FROM Account a WHERE a.id = :id")
     Optional<Account> findByIdForUpdate(@Param("id") UUID id);
+
+    // Trava várias contas em um único round trip. O ORDER BY garante que o Postgres
+    // adquira os locks na mesma ordem global usada pela transferência unitária.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id IN :ids ORDER BY a.id")
+    List<Account> findAllByIdForUpdate(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT a.id FROM Account a WHERE a.shardCount > 0")
+    List<UUID> findShardedAccountIds();
+
+    // Visão enxuta da linha para o modo otimista. Projeção (e não entidade) para que cada
+    // releitura após um conflito venha do banco, e não do persistence context.
+    // client_id e currency vão junto para o write-through do cache de contas (AccountResponse)
+    interface BalanceSnapshot {
+        UUID getId();
+
+        String getClientId();
+
+        String getCurrency();
+
+        BigDecimal getBalance();
+
+        String getStatus();
+
+        Long getVersion();
+
+        // > 0: o saldo vive nas fatias e a linha principal não pode ser movimentada por estes caminhos
+        Integer getShardCount();
+    }
+
+    @Query(value = "SELECT id, client_id, currency, balance, status, version, shard_count FROM accounts WHERE id = :id", nativeQuery = true)
+    Optional<BalanceSnapshot> findSnapshotById(@Param("id") UUID id);
+
+    // Fallback do modo otimista depois de K conflitos: mesma projeção, mas travando a linha
+    @Query(value = "SELECT id, client_id, currency, balance, status, version, shard_count FROM accounts WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<BalanceSnapshot> lockSnapshotById(@Param("id") UUID id);
+
+    // Compare-and-set pela versão: 0 linhas afetadas = alguém escreveu depois da nossa leitura.
+    // Não lança exceção (diferente do flush de uma entidade @Version), então a transação
+    // continua utilizável para o retry.
+    @Modifying
+    @Query("""
+            UPDATE Account a
+            SET a.balance = :balance, a.version = a.version + 1, a.updatedAt = :now
+            WHERE a.id = :id AND a.version = :version
+            """)
+    int updateBalanceIfVersion(@Param("id") UUID id, @Param("balance") BigDecimal balance,
+            @Param("version") Long version, @Param("now") Instant now);
+
+    // --- Caminho atômico (titan.ledger.concurrency.mode=ATOMIC) ---
+    // Validação e escrita no mesmo statement; o saldo devolvido vira o balance_snapshot do ledger
+    // e a versão nova alimenta o write-through do cache.
+    // Vazio = regra violada (ou conta inexistente); quem chama descobre o motivo com uma leitura.
+    // shard_count = 0: uma conta que outro nó acabou de dividir em fatias não é movimentada pela
+    // linha principal (o registro local de contas sharded pode estar até um refresh atrasado).
+    // Sem @Modifying de propósito: com RETURNING o Postgres devolve um result set.
+
+    @Query(value = """
+            UPDATE accounts
+            SET balance = balance - :amount, version = version + 1, updated_at = now()
+            WHERE id = :id AND balance >= :amount AND status = 'ACTIVE' AND shard_count = 0
+            RETURNING id, client_id, currency, balance, status, version, shard_count
+            """, nativeQuery = true)
+    Optional<BalanceSnapshot> debitIfActiveAndCovered(@Param("id") UUID id, @Param("amount") BigDecimal amount);
+
+    @Query(value = """
+            UPDATE accounts
+            SET balance = balance + :amount, version = version + 1, updated_at = now()
+            WHERE id = :id AND status = 'ACTIVE' AND shard_count = 0
+            RETURNING id, client_id, currency, balance, status, version, shard_count
+            """, nativeQuery = true)
+    Optional<BalanceSnapshot> creditIfActive(@Param("id") UUID id, @Param("amount") BigDecimal amount);
+
+    // Depósito não exige conta ACTIVE (mesma regra do caminho com entidade)
+    @Query(value = """
+            UPDATE accounts
+            SET balance = balance + :amount, version = version + 1, updated_at = now()
+            WHERE id = :id AND shard_count = 0
+            RETURNING id, client_id, currency, balance, status, version, shard_count
+            """, nativeQuery = true)
+    Optional<BalanceSnapshot> credit(@Param("id") UUID id, @Param("amount") BigDecimal amount);
 }
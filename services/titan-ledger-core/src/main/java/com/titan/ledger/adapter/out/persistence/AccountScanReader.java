@@ -0,0 +1,136 @@
+package com.titan.ledger.adapter.out.persistence;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.titan.ledger.core.usecase.dto.AccountFilter;
+import com.titan.ledger.core.usecase.dto.AccountResponse;
+
+/**
+ * Varredura de contas para ferramentas operacionais, sem entidades: página por keyset
+ * (id > :after ORDER BY id, na PK) ou streaming por cursor no servidor.
+ *
+ * O saldo já soma as fatias das contas sharded, como no GET da conta.
+ * O streaming precisa de transação pelo mesmo motivo do StatementExportReader.
+ */
+@Component
+public class AccountScanReader {
+
+    private static final String SELECT = """
+            SELECT a.id, a.client_id, a.currency, a.status,
+                   CASE WHEN a.shard_count > 0
+                        THEN a.balance + COALESCE((SELECT SUM(s.balance) FROM account_balance_shards s
+                                                   WHERE s.account_id = a.id), 0)
+                        ELSE a.balance
+                   END AS balance
+            FROM accounts a
+            WHERE 1 = 1
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${titan.ledger.accounts.export.fetch-size:1000}")
+    private int fetchSize = 1000;
+
+    public AccountScanReader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<AccountResponse> page(AccountFilter filter, UUID after, int limit) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(SELECT);
+        appendFilters(sql, args, filter);
+        if (after != null) {
+            sql.append(" AND a.id > ?");
+            args.add(after);
+        }
+        sql.append(" ORDER BY a.id LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> map(rs), args.toArray());
+    }
+
+    // Várias contas por id numa única query (id = ANY(array)), sem um parâmetro por id
+    public List<AccountResponse> findByIds(Collection<UUID> accountIds) {
+        if (accountIds.isEmpty()) {
+            return List.of();
+        }
+        String sql = SELECT + " AND a.id = ANY(?)";
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setArray(1, connection.createArrayOf("uuid", accountIds.toArray()));
+            return ps;
+        }, (rs, rowNum) -> map(rs));
+    }
+
+    // Contas com qualquer mudança depois de "since": linha da conta, fatias ou lançamentos novos
+    public List<UUID> findChangedSince(Instant since) {
+        Timestamp at = Timestamp.from(since);
+        return jdbcTemplate.queryForList("""
+                SELECT id FROM accounts WHERE updated_at > ?
+                UNION
+                SELECT account_id FROM account_balance_shards WHERE updated_at > ?
+                UNION
+                SELECT account_id FROM ledger_entries WHERE created_at > ?
+                """, UUID.class, at, at, at);
+    }
+
+    public void forEach(AccountFilter filter, Consumer<AccountResponse> sink) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(SELECT);
+        appendFilters(sql, args, filter);
+        sql.append(" ORDER BY a.id");
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, rs -> {
+            sink.accept(map(rs));
+        });
+    }
+
+    // Só entram no SQL os filtros informados; valores sempre como parâmetro
+    private static void appendFilters(StringBuilder sql, List<Object> args, AccountFilter filter) {
+        if (filter.status() != null) {
+            sql.append(" AND a.status = ?");
+            args.add(filter.status());
+        }
+        if (filter.currency() != null) {
+            sql.append(" AND a.currency = ?");
+            args.add(filter.currency());
+        }
+        if (filter.updatedSince() != null) {
+            // Movimentação de conta sharded só toca as fatias, mas muda o saldo exibido
+            sql.append(" AND (a.updated_at >= ? OR (a.shard_count > 0 AND EXISTS (SELECT 1"
+                    + " FROM account_balance_shards s WHERE s.account_id = a.id AND s.updated_at >= ?)))");
+            Timestamp since = Timestamp.from(filter.updatedSince());
+            args.add(since);
+            args.add(since);
+        }
+    }
+
+    private static AccountResponse map(ResultSet rs) throws SQLException {
+        return new AccountResponse(
+                rs.getObject("id", UUID.class),
+                rs.getString("client_id"),
+                rs.getString("currency"),
+                rs.getBigDecimal("balance"),
+                rs.getString("status"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.titan.ledger.adapter.out.persistence;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.titan.ledger.core.domain.model.AccountBalanceShard;
+
+@Repository
+public interface AccountShardRepository extends JpaRepository<AccountBalanceShard, AccountBalanceShard.ShardId> {
+
+    // Crédito atômico em uma única fatia: o lock dura apenas o UPDATE e fica restrito à fatia sorteada
+    @Modifying
+    @Query(value = """
+            UPDATE account_balance_shards
+            SET balance = balance + :amount, updated_at = now()
+            WHERE account_id = :accountId AND shard_no = :shardNo
+            """, nativeQuery = true)
+    int credit(@Param("accountId") UUID accountId, @Param("shardNo") int shardNo, @Param("amount") BigDecimal amount);
+
+    // Débito condicional: só afeta a linha se a fatia sozinha cobrir o valor
+    @Modifying
+    @Query(value = """
+            UPDATE account_balance_shards
+            SET balance = balance - :amount, updated_at = now()
+            WHERE account_id = :accountId AND shard_no = :shardNo AND balance >= :amount
+            """, nativeQuery = true)
+    int debitIfCovered(@Param("accountId") UUID accountId, @Param("shardNo") int shardNo,
+            @Param("amount") BigDecimal amount);
+
+    @Query(value = "SELECT COALESCE(SUM(balance), 0) FROM account_balance_shards WHERE account_id = :accountId",
+            nativeQuery = true)
+    BigDecimal sumBalance(@Param("accountId") UUID accountId);
+
+    interface ShardBalanceSummary {
+        UUID getAccountId();
+
+        BigDecimal getShardBalance();
+    }
+
+    @Query(value = """
+            SELECT s.account_id as accountId, SUM(s.balance) as shardBalance
+            FROM account_balance_shards s
+            WHERE s.account_id IN :accountIds
+            GROUP BY s.account_id
+            """, nativeQuery = true)
+    List<ShardBalanceSummary> sumBalancesForAccounts(@Param("accountIds") Collection<UUID> accountIds);
+
+    interface ShardSlice {
+        int getShardNo();
+
+        BigDecimal getBalance();
+    }
+
+    // Caminho lento do débito fragmentado: trava todas as fatias, sempre na mesma ordem.
+    // Projeção (e não entidade) para não deixar cópias desatualizadas no persistence context
+    // depois dos UPDATEs nativos.
+    @Query(value = """
+            SELECT s.shard_no as shardNo, s.balance as balance
+            FROM account_balance_shards s
+            WHERE s.account_id = :accountId
+            ORDER BY s.shard_no
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<ShardSlice> lockAllShards(@Param("accountId") UUID accountId);
+
+    // Uma única fatia, para quem só vai creditar nela (lote)
+    @Query(value = """
+            SELECT s.shard_no as shardNo, s.balance as balance
+            FROM account_balance_shards s
+            WHERE s.account_id = :accountId AND s.shard_no = :shardNo
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<ShardSlice> lockShard(@Param("accountId") UUID accountId, @Param("shardNo") int shardNo);
+}
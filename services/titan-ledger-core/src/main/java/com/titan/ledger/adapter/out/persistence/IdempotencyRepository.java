@@ -1,11 +1,51 @@
 package com.titan.ledger.adapter.out.persistence;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.titan.ledger.core.domain.model.IdempotencyKey;
 
 @Repository
 public interface IdempotencyRepository extends JpaRepository<IdempotencyKey, String>{
-    
+
+    // Tabela particionada por dia: o filtro em createdAt limita a busca às partições da janela
+    @Query("SELECT k FROM IdempotencyKey k WHERE k.key = :key AND k.createdAt >= :since")
+    Optional<IdempotencyKey> findByKeyWithin(@Param("key") String key, @Param("since") Instant since);
+
+    @Query("SELECT k FROM IdempotencyKey k WHERE k.key IN :keys AND k.createdAt >= :since")
+    List<IdempotencyKey> findAllByKeyWithin(@Param("keys") Collection<String> keys, @Param("since") Instant since);
+
+    // A PK inclui created_at, então nenhum índice garante a unicidade de "key".
+    // Lock de transação por chave (liberado no commit/rollback), sempre na ordem do hash para não haver deadlock.
+    @Query(value = """
+            SELECT count(*) FROM (
+                SELECT pg_advisory_xact_lock(h.hash)
+                FROM (SELECT DISTINCT hashtextextended(k, 0) AS hash
+                      FROM unnest(CAST(ARRAY[:keys] AS text[])) AS k
+                      ORDER BY hash) h
+            ) locked
+            """, nativeQuery = true)
+    long lockKeys(@Param("keys") Collection<String> keys);
+
+    // Reserva a chave antes de qualquer lock de conta: 1 = esta transação venceu, 0 = já existe na janela.
+    // Chamar depois de lockKeys: quem perdeu a corrida só chega aqui após o commit do vencedor.
+    @Modifying
+    @Query(value = """
+            INSERT INTO idempotency_keys (key, response_status, response_body, created_at)
+            SELECT :key, :status, CAST(:body AS jsonb), now()
+            WHERE NOT EXISTS (
+                SELECT 1 FROM idempotency_keys WHERE key = :key AND created_at >= :since
+            )
+            """, nativeQuery = true)
+    int reserve(@Param("key") String key, @Param("status") int status, @Param("body") String body,
+            @Param("since") Instant since);
+
 }
@@ -0,0 +1,60 @@
+package com.titan.ledger.adapter.out.persistence;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Posição dos jobs incrementais (tabela job_checkpoints): o último lançamento processado,
+ * na ordem (created_at, id) de ledger_entries, e até quando o job está completo (completeUntil).
+ *
+ * lock() precisa de transação: a linha fica travada até o commit, o que impede dois nós de
+ * rodarem o mesmo job ao mesmo tempo (o segundo recebe vazio e pula a rodada).
+ */
+@Component
+public class JobCheckpointStore {
+
+    public record Checkpoint(Instant at, UUID entryId) {
+    }
+
+    public record JobState(Checkpoint position, Instant completeUntil) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JobCheckpointStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<Checkpoint> lock(String jobName) {
+        return jdbcTemplate.query("""
+                SELECT watermark_at, watermark_id FROM job_checkpoints
+                WHERE job_name = ?
+                FOR UPDATE SKIP LOCKED
+                """, (rs, rowNum) -> new Checkpoint(rs.getTimestamp("watermark_at").toInstant(),
+                        rs.getObject("watermark_id", UUID.class)), jobName).stream().findFirst();
+    }
+
+    public Optional<JobState> find(String jobName) {
+        return jdbcTemplate.query("""
+                SELECT watermark_at, watermark_id, complete_until FROM job_checkpoints WHERE job_name = ?
+                """, (rs, rowNum) -> {
+                    Timestamp completeUntil = rs.getTimestamp("complete_until");
+                    return new JobState(
+                            new Checkpoint(rs.getTimestamp("watermark_at").toInstant(),
+                                    rs.getObject("watermark_id", UUID.class)),
+                            completeUntil == null ? null : completeUntil.toInstant());
+                }, jobName).stream().findFirst();
+    }
+
+    public void save(String jobName, Checkpoint position, Instant completeUntil) {
+        jdbcTemplate.update("""
+                UPDATE job_checkpoints SET watermark_at = ?, watermark_id = ?, complete_until = ?, updated_at = now()
+                WHERE job_name = ?
+                """, Timestamp.from(position.at()), position.entryId(), Timestamp.from(completeUntil), jobName);
+    }
+}
@@ -0,0 +1,138 @@
+package com.titan.ledger.adapter.out.persistence;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.titan.ledger.core.domain.model.IdempotencyKey;
+import com.titan.ledger.core.domain.model.LedgerEntry;
+import com.titan.ledger.core.domain.model.OutboxEvent;
+import com.titan.ledger.core.domain.model.Transaction;
+
+/**
+ * Grava o "rastro" de uma ou várias transferências (transactions, ledger_entries,
+ * outbox_events, idempotency_keys) direto via JDBC, com INSERTs multi-linha.
+ *
+ * O Hibernate não agrupa esses INSERTs: os IDs vêm de GenerationType.UUID e cada save()
+ * é um statement. Aqui os IDs são atribuídos no cliente e cada tabela vira um único
+ * INSERT ... VALUES (...), (...) — um round trip por tabela (ou por bloco de
+ * titan.ledger.writer.rows-per-statement linhas, em lotes grandes).
+ *
+ * Participa da transação corrente (o JdbcTemplate usa a mesma conexão do JPA). As linhas
+ * gravadas aqui não entram no persistence context.
+ *
+ * Toda escrita no ledger passa por aqui, então é aqui que as contas tocadas entram no
+ * read-your-writes (ReadYourWritesTracker) depois do commit.
+ */
+@Component
+public class LedgerBatchWriter {
+
+    private static final String TRANSACTION_COLUMNS =
+            "transactions (id, correlation_id, description, status, created_at)";
+    private static final String TRANSACTION_ROW = "(?, ?, ?, ?, ?)";
+
+    private static final String LEDGER_COLUMNS =
+            "ledger_entries (id, transaction_id, account_id, operation_type, amount, balance_snapshot, created_at)";
+    private static final String LEDGER_ROW = "(?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String OUTBOX_COLUMNS =
+            "outbox_events (id, aggregate_type, aggregate_id, type, payload, created_at, processed)";
+    private static final String OUTBOX_ROW = "(?, ?, ?, ?, CAST(? AS jsonb), ?, ?)";
+
+    private static final String IDEMPOTENCY_COLUMNS =
+            "idempotency_keys (key, response_status, response_body, created_at)";
+    private static final String IDEMPOTENCY_ROW = "(?, ?, CAST(? AS jsonb), ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadYourWritesTracker readYourWrites;
+
+    // Postgres aceita até 65535 parâmetros por statement; 1000 linhas x 7 colunas fica bem abaixo
+    @Value("${titan.ledger.writer.rows-per-statement:1000}")
+    private int rowsPerStatement = 1000;
+
+    public LedgerBatchWriter(JdbcTemplate jdbcTemplate, ReadYourWritesTracker readYourWrites) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readYourWrites = readYourWrites;
+    }
+
+    // Grava na ordem exigida pelas FKs (transactions antes de ledger_entries)
+    public void write(List<Transaction> transactions, List<LedgerEntry> entries,
+            List<OutboxEvent> events, List<IdempotencyKey> keys) {
+        assignIds(transactions);
+        for (LedgerEntry entry : entries) {
+            if (entry.getId() == null) {
+                entry.setId(UUID.randomUUID());
+            }
+        }
+
+        insert(TRANSACTION_COLUMNS, TRANSACTION_ROW, transactions, tx -> new Object[] {
+                tx.getId(), tx.getCorrelationId(), tx.getDescription(), tx.getStatus().name(),
+                timestamp(tx.getCreatedAt()) });
+
+        insert(LEDGER_COLUMNS, LEDGER_ROW, entries, entry -> new Object[] {
+                entry.getId(), entry.getTransaction().getId(), entry.getAccount().getId(),
+                entry.getOperationType().name(), entry.getAmount(), entry.getBalanceSnapshot(),
+                timestamp(entry.getCreatedAt()) });
+
+        insert(OUTBOX_COLUMNS, OUTBOX_ROW, events, event -> new Object[] {
+                event.getId(), event.getAggregateType(), event.getAggregateId(), event.getType(),
+                event.getPayload(), timestamp(event.getCreatedAt()), event.isProcessed() });
+
+        insert(IDEMPOTENCY_COLUMNS, IDEMPOTENCY_ROW, keys, key -> new Object[] {
+                key.getKey(), key.getResponseStatus(), key.getResponseBody(), timestamp(key.getCreatedAt()) });
+
+        Set<UUID> accountIds = new LinkedHashSet<>();
+        for (LedgerEntry entry : entries) {
+            accountIds.add(entry.getAccount().getId());
+        }
+        readYourWrites.recordWrites(accountIds);
+    }
+
+    public void write(Transaction transaction, List<LedgerEntry> entries, OutboxEvent event, IdempotencyKey key) {
+        write(List.of(transaction), entries,
+                event == null ? Collections.emptyList() : List.of(event),
+                key == null ? Collections.emptyList() : List.of(key));
+    }
+
+    // UUID gerado no cliente: o ID já existe antes do INSERT, sem RETURNING nem ida ao banco
+    public void assignIds(List<Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            if (transaction.getId() == null) {
+                transaction.setId(UUID.randomUUID());
+            }
+        }
+    }
+
+    private <T> void insert(String tableAndColumns, String rowPlaceholders, List<T> rows,
+            Function<T, Object[]> binder) {
+        for (int from = 0; from < rows.size(); from += rowsPerStatement) {
+            List<T> chunk = rows.subList(from, Math.min(from + rowsPerStatement, rows.size()));
+
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(tableAndColumns).append(" VALUES ");
+            List<Object> args = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append(rowPlaceholders);
+                Collections.addAll(args, binder.apply(chunk.get(i)));
+            }
+
+            jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+    }
+
+    private static Timestamp timestamp(Instant instant) {
+        return instant == null ? null : Timestamp.from(instant);
+    }
+}
@@ -0,0 +1,95 @@
+package com.titan.ledger.adapter.out.persistence;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.titan.ledger.adapter.out.persistence.JobCheckpointStore.Checkpoint;
+import com.titan.ledger.core.usecase.dto.DailySummaryResponse;
+
+/**
+ * ledger_daily_summary (V11): totais diários por conta, mantidos pelo LedgerDailyRollupJob.
+ *
+ * rollUp() agrega um lote de lançamentos em ordem (created_at, id) e soma o resultado nas
+ * linhas existentes num único statement; o chamador grava o novo checkpoint na mesma
+ * transação, então cada lançamento entra uma única vez.
+ */
+@Component
+public class LedgerDailySummaryStore {
+
+    public record RollupBatch(int entries, Checkpoint last) {
+    }
+
+    private static final String ROLLUP_SQL = """
+            WITH batch AS (
+                SELECT id, account_id, operation_type, amount, balance_snapshot, created_at
+                FROM ledger_entries
+                WHERE (created_at, id) > (?, ?) AND created_at < ?
+                ORDER BY created_at, id
+                LIMIT ?
+            ),
+            daily AS (
+                SELECT account_id,
+                       CAST(created_at AT TIME ZONE 'UTC' AS DATE) AS day,
+                       COALESCE(SUM(amount) FILTER (WHERE operation_type = 'CREDIT'), 0) AS credits,
+                       COALESCE(SUM(amount) FILTER (WHERE operation_type = 'DEBIT'), 0) AS debits,
+                       COUNT(*) FILTER (WHERE operation_type = 'CREDIT') AS credit_count,
+                       COUNT(*) FILTER (WHERE operation_type = 'DEBIT') AS debit_count,
+                       (ARRAY_AGG(balance_snapshot ORDER BY created_at DESC, id DESC))[1] AS closing_balance,
+                       MAX(created_at) AS last_entry_at
+                FROM batch
+                GROUP BY account_id, CAST(created_at AT TIME ZONE 'UTC' AS DATE)
+            ),
+            upsert AS (
+                INSERT INTO ledger_daily_summary
+                    (account_id, day, credits, debits, credit_count, debit_count, closing_balance, last_entry_at)
+                SELECT account_id, day, credits, debits, credit_count, debit_count, closing_balance, last_entry_at
+                FROM daily
+                ON CONFLICT (account_id, day) DO UPDATE SET
+                    credits = ledger_daily_summary.credits + EXCLUDED.credits,
+                    debits = ledger_daily_summary.debits + EXCLUDED.debits,
+                    credit_count = ledger_daily_summary.credit_count + EXCLUDED.credit_count,
+                    debit_count = ledger_daily_summary.debit_count + EXCLUDED.debit_count,
+                    closing_balance = CASE WHEN EXCLUDED.last_entry_at >= ledger_daily_summary.last_entry_at
+                                           THEN EXCLUDED.closing_balance
+                                           ELSE ledger_daily_summary.closing_balance END,
+                    last_entry_at = GREATEST(ledger_daily_summary.last_entry_at, EXCLUDED.last_entry_at)
+            )
+            SELECT (SELECT COUNT(*) FROM batch) AS entries, last.created_at, last.id
+            FROM (SELECT created_at, id FROM batch ORDER BY created_at DESC, id DESC LIMIT 1) last
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LedgerDailySummaryStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Lançamentos depois de "after" e antes de "before"; vazio quando não há nada novo
+    public Optional<RollupBatch> rollUp(Checkpoint after, Instant before, int limit) {
+        return jdbcTemplate.query(ROLLUP_SQL, (rs, rowNum) -> new RollupBatch(rs.getInt("entries"),
+                        new Checkpoint(rs.getTimestamp("created_at").toInstant(), rs.getObject("id", UUID.class))),
+                Timestamp.from(after.at()), after.entryId(), Timestamp.from(before), limit)
+                .stream().findFirst();
+    }
+
+    // Intervalo fechado [from, to] de dias, na PK: um ano de uma conta = até 365 linhas
+    public List<DailySummaryResponse> findRange(UUID accountId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                SELECT day, credits, debits, credit_count, debit_count, closing_balance
+                FROM ledger_daily_summary
+                WHERE account_id = ? AND day BETWEEN ? AND ?
+                ORDER BY day
+                """, (rs, rowNum) -> new DailySummaryResponse(
+                        rs.getDate("day").toLocalDate(), rs.getBigDecimal("credits"), rs.getBigDecimal("debits"),
+                        rs.getLong("credit_count"), rs.getLong("debit_count"), rs.getBigDecimal("closing_balance")),
+                accountId, Date.valueOf(from), Date.valueOf(to));
+    }
+}
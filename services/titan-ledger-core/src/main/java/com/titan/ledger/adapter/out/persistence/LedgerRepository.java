@@ -1,12 +1,15 @@
 package com.titan.ledger.adapter.out.persistence;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,16 +17,90 @@ import org.springframework.stereotype.Repository;
 
 import com.titan.ledger.core.domain.model.LedgerEntry;
 import com.titan.ledger.core.domain.model.Transaction;
+import com.titan.ledger.core.usecase.dto.StatementEntryResponse;
 
 @Repository
 public interface LedgerRepository extends JpaRepository<LedgerEntry, UUID> {
 
-    // 1. "JOIN FETCH l.transaction" -> Carrega a descrição junto, evitando N+1
-    // queries.
-    // 2. "WHERE l.account.id" -> Filtra pelo usuário.
-    // 3. "Pageable" -> O Spring adiciona automaticamente LIMIT e OFFSET no SQL.
-    @EntityGraph(attributePaths = "transaction")
-    Page<LedgerEntry> findByAccount_Id(UUID accountId, Pageable pageable);
+    // 1. "new StatementEntryResponse(...)" -> Monta o DTO direto do SELECT: só as seis colunas
+    // da resposta, sem entidades no persistence context (nem dirty checking, nem snapshot por linha).
+    // 2. "JOIN l.transaction" -> A descrição vem no mesmo SELECT, sem N+1.
+    // 3. "Pageable" -> O Spring adiciona ORDER BY, LIMIT e OFFSET; o total vem da countQuery.
+    String STATEMENT_SOURCE = """
+            FROM LedgerEntry l JOIN l.transaction t
+            WHERE l.account.id = :accountId
+            """;
+
+    // Constante pública para o StatementReadBenchmark medir exatamente esta query.
+    String STATEMENT_PROJECTION = """
+            SELECT new com.titan.ledger.core.usecase.dto.StatementEntryResponse(
+                t.id, CAST(l.type AS String), l.amount, l.balanceSnapshot, t.description, l.createdAt)
+            """ + STATEMENT_SOURCE;
+
+    // Mesma projeção com o id do lançamento, que o cursor precisa
+    String STATEMENT_ROW_PROJECTION = """
+            SELECT new com.titan.ledger.adapter.out.persistence.StatementRow(
+                l.id, t.id, CAST(l.type AS String), l.amount, l.balanceSnapshot, t.description, l.createdAt)
+            """ + STATEMENT_SOURCE;
+
+    @Query(value = STATEMENT_PROJECTION,
+            countQuery = "SELECT count(l) FROM LedgerEntry l WHERE l.account.id = :accountId")
+    Page<StatementEntryResponse> findStatementByAccountId(@Param("accountId") UUID accountId, Pageable pageable);
+
+    // Extrato por cursor (idx_ledger_account_created_id): sem OFFSET e sem COUNT(*).
+    // Quem chama pede limit + 1 para saber se há próxima página.
+    @Query(STATEMENT_ROW_PROJECTION + """
+            ORDER BY l.createdAt DESC, l.id DESC
+            """)
+    List<StatementRow> findStatementHead(@Param("accountId") UUID accountId, Limit limit);
+
+    // "created_at <= :createdAt" delimita o range no índice; o OR desempata pelo id
+    @Query(STATEMENT_ROW_PROJECTION + """
+              AND l.createdAt <= :createdAt
+              AND (l.createdAt < :createdAt OR l.id < :entryId)
+            ORDER BY l.createdAt DESC, l.id DESC
+            """)
+    List<StatementRow> findStatementAfter(@Param("accountId") UUID accountId, @Param("createdAt") Instant createdAt,
+            @Param("entryId") UUID entryId, Limit limit);
+
+    // Saldo histórico: balance_snapshot do último lançamento até um instante
+    interface BalancePoint {
+        UUID getAccountId();
+
+        BigDecimal getBalance();
+
+        Instant getCreatedAt();
+
+        UUID getTransactionId();
+    }
+
+    // Uma descida em idx_ledger_account_created_id, independente do tamanho do histórico
+    @Query(value = """
+            SELECT l.account_id AS accountId, l.balance_snapshot AS balance,
+                   l.created_at AS createdAt, l.transaction_id AS transactionId
+            FROM ledger_entries l
+            WHERE l.account_id = :accountId AND l.created_at <= :at
+            ORDER BY l.created_at DESC, l.id DESC
+            LIMIT 1
+            """, nativeQuery = true)
+    Optional<BalancePoint> findBalanceAt(@Param("accountId") UUID accountId, @Param("at") Instant at);
+
+    // Mesma descida por conta via LATERAL, numa única query. Contas sem lançamento até "at"
+    // voltam com balance null; ids que não existem em accounts não voltam.
+    @Query(value = """
+            SELECT a.id AS accountId, p.balance_snapshot AS balance,
+                   p.created_at AS createdAt, p.transaction_id AS transactionId
+            FROM accounts a
+            LEFT JOIN LATERAL (
+                SELECT l.balance_snapshot, l.created_at, l.transaction_id
+                FROM ledger_entries l
+                WHERE l.account_id = a.id AND l.created_at <= :at
+                ORDER BY l.created_at DESC, l.id DESC
+                LIMIT 1
+            ) p ON true
+            WHERE a.id IN (:accountIds)
+            """, nativeQuery = true)
+    List<BalancePoint> findBalancesAt(@Param("accountIds") Collection<UUID> accountIds, @Param("at") Instant at);
 
     interface BalanceSummary {
         UUID getAccountId();
@@ -0,0 +1,126 @@
+package com.titan.ledger.adapter.out.persistence;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read-your-writes com réplicas: contas escritas por este nó nos últimos
+ * titan.ledger.datasource.read-your-writes-window ficam "presas" ao primário.
+ *
+ * As escritas são registradas no afterCommit (LedgerBatchWriter, criação de conta). Quem lê
+ * abre um pin antes do primeiro statement da transação read-only; o ReplicaRoutingDataSource
+ * consulta o pin na hora de pegar a conexão física (o LazyConnectionDataSourceProxy só busca
+ * a conexão no primeiro statement).
+ *
+ * Só vale para escritas feitas neste nó: uma leitura em outro nó logo depois da escrita ainda
+ * pode ver a réplica atrasada (limitada por titan.ledger.datasource.max-replica-lag).
+ * Por isso leituras que preenchem o cache compartilhado (Redis, TTL de até uma hora) usam
+ * pinPrimary(): um valor lido da réplica ficaria no cache muito além desse limite.
+ * Sem réplicas configuradas, tudo aqui é no-op.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    public interface Pin extends AutoCloseable {
+        Pin NONE = () -> { };
+
+        @Override
+        void close();
+    }
+
+    private final boolean enabled;
+    private final Cache<UUID, Boolean> recentWrites;
+    private final ThreadLocal<Boolean> pinned = new ThreadLocal<>();
+    private final Counter pins;
+    private final Counter cacheFillPins;
+
+    public ReadYourWritesTracker(
+            @Value("${titan.ledger.datasource.replicas:}") List<String> replicaUrls,
+            @Value("${titan.ledger.datasource.read-your-writes-window:5s}") Duration window,
+            @Value("${titan.ledger.datasource.read-your-writes-max-accounts:100000}") long maxAccounts,
+            MeterRegistry meterRegistry) {
+        this.enabled = replicaUrls.stream().anyMatch(url -> !url.isBlank());
+        this.recentWrites = Caffeine.newBuilder()
+                .maximumSize(maxAccounts)
+                .expireAfterWrite(window)
+                .build();
+        this.pins = Counter.builder("titan.ledger.datasource.read_your_writes.pins")
+                .description("Leituras mandadas ao primário porque a conta foi escrita há pouco neste nó")
+                .register(meterRegistry);
+        this.cacheFillPins = Counter.builder("titan.ledger.datasource.cache_fill.pins")
+                .description("Leituras mandadas ao primário porque o resultado vai para o cache compartilhado")
+                .register(meterRegistry);
+    }
+
+    // A janela começa quando o dado fica visível no primário; rollback não prende nada
+    public void recordWrites(Collection<UUID> accountIds) {
+        if (!enabled || accountIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remember(accountIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(accountIds);
+            }
+        });
+    }
+
+    public Pin pinIfRecentlyWritten(UUID accountId) {
+        if (!enabled || accountId == null || recentWrites.getIfPresent(accountId) == null) {
+            return Pin.NONE;
+        }
+        return pin();
+    }
+
+    // Loaders de cache: sempre o primário, independente de escritas recentes
+    public Pin pinPrimary() {
+        if (!enabled) {
+            return Pin.NONE;
+        }
+        cacheFillPins.increment();
+        return open();
+    }
+
+    public boolean isPinned() {
+        return pinned.get() != null;
+    }
+
+    private Pin pin() {
+        pins.increment();
+        return open();
+    }
+
+    private Pin open() {
+        // Pins aninhados: só quem abriu o primeiro limpa a thread
+        boolean outermost = pinned.get() == null;
+        pinned.set(Boolean.TRUE);
+        return () -> {
+            if (outermost) {
+                pinned.remove();
+            }
+        };
+    }
+
+    private void remember(Collection<UUID> accountIds) {
+        for (UUID accountId : accountIds) {
+            recentWrites.put(accountId, Boolean.TRUE);
+        }
+    }
+}
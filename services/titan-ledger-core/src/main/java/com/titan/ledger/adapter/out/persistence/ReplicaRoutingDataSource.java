@@ -0,0 +1,190 @@
+package com.titan.ledger.adapter.out.persistence;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * DataSource das transações read-only (LazyConnectionDataSourceProxy.setReadOnlyDataSource).
+ *
+ * Escolhe uma réplica em round-robin entre as que estão dentro de
+ * titan.ledger.datasource.max-replica-lag. Cai no primário quando a thread está presa por
+ * read-your-writes (ReadYourWritesTracker) ou quando nenhuma réplica está em dia.
+ *
+ * O lag é medido por refreshLag() (ReplicaLagJob); até a primeira medição, e sempre que a
+ * réplica não responde, o lag é infinito e ela fica fora da rotação.
+ *
+ * Sem WAL receiver em streaming (primário fora, replicação quebrada) a réplica também conta
+ * como atraso infinito: receive e replay param no mesmo LSN e, sem isso, ela pareceria em dia
+ * para sempre. Ler pg_stat_wal_receiver exige pg_read_all_stats; sem o papel, status vem nulo
+ * e a réplica fica fora da rotação.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // NULL = sem receiver em streaming ou sem mensagem do primário há mais de wal_sender_timeout
+    // (60s por padrão; o primário manda keepalive antes disso mesmo ocioso).
+    // Réplica conectada sem WAL pendente = lag 0, mesmo com o primário ocioso (replay_timestamp antigo)
+    static final String LAG_SQL = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN NOT EXISTS (
+                    SELECT 1 FROM pg_stat_wal_receiver
+                    WHERE status = 'streaming' AND last_msg_receipt_time > now() - interval '60 seconds'
+                ) THEN NULL
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END
+            """;
+
+    private static final int LAG_QUERY_TIMEOUT_SECONDS = 2;
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final Counter routed;
+        private volatile double lagSeconds = Double.POSITIVE_INFINITY;
+
+        private Replica(String name, DataSource dataSource, Counter routed) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.routed = routed;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final double maxLagSeconds;
+    private final ReadYourWritesTracker readYourWrites;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter routedPinned;
+    private final Counter routedLagging;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag,
+            ReadYourWritesTracker readYourWrites, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.readYourWrites = readYourWrites;
+
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource, routedCounter(meterRegistry, name, "replica"));
+            this.replicas.add(replica);
+            Gauge.builder("titan.ledger.datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Atraso de replay da réplica em segundos (infinito = fora do ar ou ainda não medido)")
+                    .baseUnit("seconds")
+                    .tag("target", name)
+                    .register(meterRegistry);
+        });
+
+        this.routedPinned = routedCounter(meterRegistry, "primary", "read_your_writes");
+        this.routedLagging = routedCounter(meterRegistry, "primary", "replica_lag");
+    }
+
+    private static Counter routedCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("titan.ledger.datasource.routed")
+                .description("Transações read-only por destino da conexão")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    public boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route().getConnection(username, password);
+    }
+
+    DataSource route() {
+        if (readYourWrites.isPinned()) {
+            routedPinned.increment();
+            return primary;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.lagSeconds <= maxLagSeconds) {
+                replica.routed.increment();
+                return replica.dataSource;
+            }
+        }
+        routedLagging.increment();
+        return primary;
+    }
+
+    public void refreshLag() {
+        for (Replica replica : replicas) {
+            double previous = replica.lagSeconds;
+            replica.lagSeconds = measureLag(replica);
+            boolean wasHealthy = previous <= maxLagSeconds;
+            boolean healthy = replica.lagSeconds <= maxLagSeconds;
+            if (wasHealthy && !healthy) {
+                logger.warn("⚠️ Replica {} left the read rotation (lag: {}s)", replica.name, replica.lagSeconds);
+            } else if (!wasHealthy && healthy) {
+                logger.info("✅ Replica {} back in the read rotation (lag: {}s)", replica.name, replica.lagSeconds);
+            }
+        }
+    }
+
+    private static double measureLag(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(LAG_QUERY_TIMEOUT_SECONDS);
+            try (ResultSet rs = statement.executeQuery(LAG_SQL)) {
+                if (!rs.next()) {
+                    return Double.POSITIVE_INFINITY;
+                }
+                double lag = rs.getDouble(1);
+                return rs.wasNull() ? Double.POSITIVE_INFINITY : lag;
+            }
+        } catch (SQLException e) {
+            logger.debug("Could not measure lag of replica {}: {}", replica.name, e.getMessage());
+            return Double.POSITIVE_INFINITY;
+        }
+    }
+
+    // Os pools das réplicas são criados para este DataSource (DataSourceConfig) e morrem com ele
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    // Usado pelos testes para simular a medição sem banco
+    void recordLag(String name, double lagSeconds) {
+        for (Replica replica : replicas) {
+            if (replica.name.equals(name)) {
+                replica.lagSeconds = lagSeconds;
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.titan.ledger.adapter.out.persistence;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.titan.ledger.core.usecase.dto.StatementEntryResponse;
+
+/**
+ * Lê o extrato de uma conta linha a linha para exportação, sem entidades e sem
+ * acumular o resultado: cada linha vai direto para o consumidor.
+ *
+ * O driver do Postgres só usa cursor no servidor (busca em blocos de fetch-size)
+ * com autocommit desligado, então quem chama precisa estar dentro de uma transação.
+ * Fora dela o driver carrega o ResultSet inteiro em memória.
+ */
+@Component
+public class StatementExportReader {
+
+    // Ordem crescente: idx_ledger_account_created_id percorrido de trás para frente
+    private static final String SQL = """
+            SELECT l.transaction_id, l.operation_type, l.amount, l.balance_snapshot, l.created_at, t.description
+            FROM ledger_entries l
+            JOIN transactions t ON t.id = l.transaction_id
+            WHERE l.account_id = ? AND l.created_at >= ? AND l.created_at < ?
+            ORDER BY l.created_at, l.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${titan.ledger.statement.export.fetch-size:1000}")
+    private int fetchSize = 1000;
+
+    public StatementExportReader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void forEachEntry(UUID accountId, Instant from, Instant to, Consumer<StatementEntryResponse> sink) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SQL, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setObject(1, accountId);
+            ps.setTimestamp(2, Timestamp.from(from));
+            ps.setTimestamp(3, Timestamp.from(to));
+            return ps;
+        }, rs -> {
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            sink.accept(new StatementEntryResponse(
+                    rs.getObject("transaction_id", UUID.class),
+                    rs.getString("operation_type"),
+                    rs.getBigDecimal("amount"),
+                    rs.getBigDecimal("balance_snapshot"),
+                    rs.getString("description"),
+                    createdAt == null ? null : createdAt.toInstant()));
+        });
+    }
+}
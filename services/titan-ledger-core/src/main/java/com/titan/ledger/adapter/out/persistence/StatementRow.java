@@ -0,0 +1,19 @@
+package com.titan.ledger.adapter.out.persistence;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import com.titan.ledger.core.usecase.dto.StatementEntryResponse;
+
+/**
+ * Linha do extrato por cursor: as colunas da resposta mais o id do lançamento,
+ * que junto com createdAt forma o cursor da próxima página.
+ */
+public record StatementRow(UUID entryId, UUID transactionId, String operationType, BigDecimal amount,
+        BigDecimal balanceAfter, String description, Instant createdAt) {
+
+    public StatementEntryResponse toResponse() {
+        return new StatementEntryResponse(transactionId, operationType, amount, balanceAfter, description, createdAt);
+    }
+}
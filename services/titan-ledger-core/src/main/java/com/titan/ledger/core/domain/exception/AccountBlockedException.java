@@ -0,0 +1,8 @@
+package com.titan.ledger.core.domain.exception;
+
+// Conta FROZEN ou CLOSED não movimenta saldo
+public class AccountBlockedException extends RuntimeException {
+    public AccountBlockedException(String message) {
+        super(message);
+    }
+}
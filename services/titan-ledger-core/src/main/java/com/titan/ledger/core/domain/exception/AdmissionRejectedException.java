@@ -0,0 +1,7 @@
+package com.titan.ledger.core.domain.exception;
+
+public class AdmissionRejectedException extends RuntimeException {
+    public AdmissionRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.titan.ledger.core.domain.exception;
+
+// O resultado não chegou a tempo; a transferência pode ainda ser gravada (retry com a mesma Idempotency-Key)
+public class TransferCommitTimeoutException extends RuntimeException {
+    public TransferCommitTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package com.titan.ledger.core.domain.exception;
+
+public class TransferQueueFullException extends RuntimeException {
+    public TransferQueueFullException(String message) {
+        super(message);
+    }
+}
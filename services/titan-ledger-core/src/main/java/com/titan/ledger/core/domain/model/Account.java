@@ -11,7 +11,9 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
 @Table(name = "accounts")
@@ -40,6 +42,16 @@ public class Account {
     @Column(nullable = false)
     private AccountStatus status;
 
+    // 0 = conta comum. > 0 = saldo dividido em N linhas de account_balance_shards
+    @Column(name = "shard_count", nullable = false)
+    private int shardCount;
+
+    // Toda escrita incrementa a versão (inclusive no caminho pessimista), então leitores
+    // otimistas detectam qualquer alteração concorrente
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public Account() {
     }
 
@@ -108,6 +120,29 @@ public class Account {
         this.status = status;
     }
 
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public void setShardCount(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    // Caminhos por entidade (pessimista, depósito, lote, sharding); os UPDATEs nativos já gravam
+    // updated_at = now(). A reconciliação incremental e o filtro updatedSince dependem disso
+    @PreUpdate
+    void touch() {
+        this.updatedAt = Instant.now();
+    }
+
+    public boolean isSharded() {
+        return this.shardCount > 0;
+    }
+
     public boolean canTransact() {
         return this.status == AccountStatus.ACTIVE;
     }
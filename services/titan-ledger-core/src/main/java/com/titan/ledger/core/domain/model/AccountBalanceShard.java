@@ -0,0 +1,97 @@
+package com.titan.ledger.core.domain.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+/**
+ * Uma fatia do saldo de uma conta sharded. O saldo efetivo da conta é
+ * accounts.balance + soma de todas as fatias.
+ */
+@Entity
+@Table(name = "account_balance_shards")
+@IdClass(AccountBalanceShard.ShardId.class)
+public class AccountBalanceShard {
+
+    @Id
+    @Column(name = "account_id", nullable = false)
+    private UUID accountId;
+
+    @Id
+    @Column(name = "shard_no", nullable = false)
+    private int shardNo;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal balance;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    public AccountBalanceShard() {
+    }
+
+    public AccountBalanceShard(UUID accountId, int shardNo, BigDecimal balance) {
+        this.accountId = accountId;
+        this.shardNo = shardNo;
+        this.balance = balance;
+        this.updatedAt = Instant.now();
+    }
+
+    public UUID getAccountId() {
+        return accountId;
+    }
+
+    public int getShardNo() {
+        return shardNo;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+        this.updatedAt = Instant.now();
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public static class ShardId implements Serializable {
+        private UUID accountId;
+        private int shardNo;
+
+        public ShardId() {
+        }
+
+        public ShardId(UUID accountId, int shardNo) {
+            this.accountId = accountId;
+            this.shardNo = shardNo;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ShardId other)) {
+                return false;
+            }
+            return shardNo == other.shardNo && Objects.equals(accountId, other.accountId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(accountId, shardNo);
+        }
+    }
+}
@@ -14,6 +14,7 @@ import jakarta.persistence.Table;
 @Table(name = "idempotency_keys")
 public class IdempotencyKey {
 
+    // Identidade lógica: a PK física é (key, created_at) porque a tabela é particionada por dia
     @Id
     @Column(nullable = false)
     private String key;
@@ -0,0 +1,69 @@
+package com.titan.ledger.core.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.titan.ledger.adapter.out.persistence.AccountScanReader;
+import com.titan.ledger.core.usecase.dto.AccountFilter;
+
+/**
+ * Substituto do GET /api/v1/accounts para ferramentas operacionais: todas as contas
+ * (filtradas) em NDJSON, uma por linha, lidas por cursor no servidor e escritas direto
+ * na resposta. Memória constante, sem a lista de entidades do listAll().
+ */
+@Service
+public class AccountExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountExportService.class);
+
+    private final AccountScanReader reader;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper mapper;
+
+    public AccountExportService(AccountScanReader reader, PlatformTransactionManager transactionManager) {
+        this.reader = reader;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        this.mapper = new ObjectMapper();
+        this.mapper.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    public void export(AccountFilter filter, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        long start = System.nanoTime();
+        long[] rows = {0};
+        try (SequenceWriter lines = mapper.writer().withRootValueSeparator("\n").writeValues(writer)) {
+            readOnlyTransaction.executeWithoutResult(status -> reader.forEach(filter, account -> {
+                try {
+                    lines.write(account);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            }));
+        } catch (UncheckedIOException e) {
+            logger.warn("⚠️ Exportação de contas interrompida após {} linhas", rows[0]);
+            throw e.getCause();
+        }
+        if (rows[0] > 0) {
+            writer.write('\n');
+        }
+        writer.flush();
+        logger.info("📄 Contas exportadas: {} linhas em {} ms", rows[0], (System.nanoTime() - start) / 1_000_000);
+    }
+}
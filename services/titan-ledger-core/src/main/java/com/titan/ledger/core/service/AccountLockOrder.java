@@ -0,0 +1,29 @@
+package com.titan.ledger.core.service;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Ordem global de aquisição de locks de conta.
+ * Compara os UUIDs como bytes sem sinal, exatamente como o Postgres ordena o tipo
+ * uuid. Assim, travar em Java (um a um) ou via "ORDER BY a.id ... FOR UPDATE"
+ * produz a mesma sequência e nenhum caminho gera deadlock contra o outro.
+ *
+ * Contas sharded: primeiro as linhas principais (accounts), depois as fatias
+ * (account_balance_shards), também por conta nesta ordem e, dentro da conta, por shard_no.
+ * Uma transação nunca pede a linha principal depois de já ter travado uma fatia.
+ */
+final class AccountLockOrder {
+
+    static final Comparator<UUID> COMPARATOR = (a, b) -> {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    };
+
+    private AccountLockOrder() {
+    }
+
+    static boolean isBefore(UUID a, UUID b) {
+        return COMPARATOR.compare(a, b) < 0;
+    }
+}
@@ -1,23 +1,41 @@
 package com.titan.ledger.core.service;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.titan.ledger.adapter.out.cache.AccountBulkCache;
 import com.titan.ledger.adapter.out.persistence.AccountRepository;
+import com.titan.ledger.adapter.out.persistence.AccountScanReader;
 import com.titan.ledger.adapter.out.persistence.LedgerRepository;
+import com.titan.ledger.adapter.out.persistence.ReadYourWritesTracker;
+import com.titan.ledger.adapter.out.persistence.StatementRow;
 import com.titan.ledger.core.domain.exception.AccountNotFoundException;
 import com.titan.ledger.core.domain.model.Account;
-import com.titan.ledger.core.domain.model.LedgerEntry;
 import com.titan.ledger.core.usecase.GetAccountBalanceUseCase;
+import com.titan.ledger.core.usecase.dto.AccountBalancesResponse;
+import com.titan.ledger.core.usecase.dto.AccountCursor;
+import com.titan.ledger.core.usecase.dto.AccountFilter;
 import com.titan.ledger.core.usecase.dto.AccountResponse;
+import com.titan.ledger.core.usecase.dto.AccountSliceResponse;
+import com.titan.ledger.core.usecase.dto.BalanceAtResponse;
+import com.titan.ledger.core.usecase.dto.StatementCursor;
 import com.titan.ledger.core.usecase.dto.StatementEntryResponse;
+import com.titan.ledger.core.usecase.dto.StatementSliceResponse;
 
 
 @Service
@@ -27,38 +45,132 @@ public class AccountQueryService implements GetAccountBalanceUseCase {
 
     private final AccountRepository accountRepository;
     private final LedgerRepository ledgerRepository;
+    private final AccountShardService shardService;
+    private final AccountScanReader accountScanReader;
+    private final AccountBulkCache accountBulkCache;
+    private final ReadYourWritesTracker readYourWrites;
+
+    @Value("${titan.ledger.statement.max-page-size:200}")
+    private int maxPageSize = 200;
+
+    @Value("${titan.ledger.accounts.max-page-size:1000}")
+    private int maxAccountPageSize = 1000;
+
+    @Value("${titan.ledger.accounts.bulk.max-ids:2000}")
+    private int maxBulkIds = 2000;
+
+    @Value("${titan.ledger.statement.balance-at.max-accounts:5000}")
+    private int maxBalanceAtAccounts = 5000;
 
     
-    public AccountQueryService(AccountRepository accountRepository, LedgerRepository ledgerRepository) {
+    public AccountQueryService(AccountRepository accountRepository, LedgerRepository ledgerRepository,
+            AccountShardService shardService, AccountScanReader accountScanReader, AccountBulkCache accountBulkCache,
+            ReadYourWritesTracker readYourWrites) {
         this.accountRepository = accountRepository;
         this.ledgerRepository = ledgerRepository;
+        this.shardService = shardService;
+        this.accountScanReader = accountScanReader;
+        this.accountBulkCache = accountBulkCache;
+        this.readYourWrites = readYourWrites;
     }
 
 
+    // Leituras por conta abrem um pin antes do primeiro statement: com réplicas, a conexão
+    // (primário ou réplica) só é escolhida ali (ver DataSourceConfig). Loaders de cache vão sempre
+    // ao primário: o valor fica no Redis por até uma hora, bem mais que o lag aceito da réplica
     @Override
-    @Cacheable(value = "account", key = "#accountId", unless = "#result == null")
+    // Mesmo nome dos caches que TransferService/DepositService atualizam (AccountCacheWriter).
+    // sync: um único loader por chave no nó (LayeredCache); execute nunca retorna null
+    @Cacheable(value = "accounts", key = "#accountId", sync = true)
     public AccountResponse execute(UUID accountId) {
         // Using standard repo, for now
-
-        return accountRepository.findById(accountId)
-                .map(this::mapToResponse)
-                .orElseThrow(() -> new AccountNotFoundException("Account not found"));
+        try (ReadYourWritesTracker.Pin pin = readYourWrites.pinPrimary()) {
+            return accountRepository.findById(accountId)
+                    .map(account -> mapToResponse(account, shardService.effectiveBalance(account)))
+                    .orElseThrow(() -> new AccountNotFoundException("Account not found"));
+        }
     }
 
 
+    /**
+     * Saldo de várias contas com custo quase fixo: L1, um MGET no Redis, uma query
+     * (id = ANY) para os misses e um pipeline que devolve os misses ao cache.
+     * Mesmos valores que execute() cacheia, então as duas rotas compartilham o cache.
+     */
+    public AccountBalancesResponse getBalances(List<UUID> accountIds) {
+        if (accountIds == null || accountIds.isEmpty()) {
+            throw new IllegalArgumentException("accountIds must not be empty");
+        }
+        LinkedHashSet<UUID> distinct = new LinkedHashSet<>(accountIds);
+        if (distinct.size() > maxBulkIds) {
+            throw new IllegalArgumentException("Request exceeds the maximum of " + maxBulkIds + " accounts");
+        }
+
+        AccountBulkCache.Lookup cached = accountBulkCache.getAll(distinct);
+        Map<UUID, AccountResponse> found = new HashMap<>(cached.found());
+        List<UUID> misses = distinct.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!misses.isEmpty()) {
+            List<AccountResponse> loaded;
+            try (ReadYourWritesTracker.Pin pin = readYourWrites.pinPrimary()) {
+                loaded = accountScanReader.findByIds(misses).stream()
+                    // status fixo como no execute(): o valor em cache precisa ser o mesmo pelas duas rotas
+                    .map(row -> new AccountResponse(row.id(), row.clientId(), row.currency(), row.balance(), "ACTIVE"))
+                    .toList();
+            }
+            accountBulkCache.putAllIfAbsent(cached, loaded);
+            loaded.forEach(account -> found.put(account.id(), account));
+        }
+
+        List<AccountResponse> accounts = new ArrayList<>(found.size());
+        List<UUID> notFound = new ArrayList<>();
+        for (UUID id : distinct) {
+            AccountResponse account = found.get(id);
+            if (account != null) {
+                accounts.add(account);
+            } else {
+                notFound.add(id);
+            }
+        }
+        return new AccountBalancesResponse(accounts, notFound);
+    }
+
     public List<AccountResponse> listAll(){
-        return accountRepository.findAll()
+        List<Account> accounts = accountRepository.findAll();
+
+        // Soma das fatias das contas sharded em uma única query
+        Map<UUID, BigDecimal> shardBalances = shardService.shardBalances(accounts.stream()
+            .filter(Account::isSharded)
+            .map(Account::getId)
+            .toList());
+
+        return accounts
             .stream()
-            .map(this::mapToResponse)
+            .map(account -> mapToResponse(account,
+                account.getBalance().add(shardBalances.getOrDefault(account.getId(), BigDecimal.ZERO))))
             .collect(Collectors.toList());
     }
     
-    private AccountResponse mapToResponse(Account account) {
+    // Listagem por cursor (keyset na PK): cada página custa o mesmo, sem carregar entidades
+    public AccountSliceResponse listPage(AccountFilter filter, String cursor, int size) {
+        if (size < 1 || size > maxAccountPageSize) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + maxAccountPageSize);
+        }
+        UUID after = cursor == null || cursor.isBlank() ? null : AccountCursor.decode(cursor).lastId();
+
+        List<AccountResponse> rows = accountScanReader.page(filter, after, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<AccountResponse> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? new AccountCursor(page.get(page.size() - 1).id()).encode() : null;
+
+        return new AccountSliceResponse(page, page.size(), hasNext, nextCursor);
+    }
+
+    private AccountResponse mapToResponse(Account account, BigDecimal balance) {
         return new AccountResponse(
             account.getId(),
             account.getClientId(),
             account.getCurrency(),
-            account.getBalance(),
+            balance,
             "ACTIVE"
         );
     }
@@ -67,28 +179,108 @@ public class AccountQueryService implements GetAccountBalanceUseCase {
     @Cacheable(
         value = "statements",
         key = "#accountId + '::' + #pageable.pageNumber",
-        condition = "pageable.pageNumber == 0",
-        unless = "#result.isEmpty"
+        condition = "#pageable.pageNumber == 0",
+        unless = "#result.empty"
     )
     public Page<StatementEntryResponse> getStatement(UUID accountId, Pageable pageable){
+        // Só a página 0 é cacheada; as demais podem sair da réplica
+        try (ReadYourWritesTracker.Pin pin = pageable.getPageNumber() == 0
+                ? readYourWrites.pinPrimary()
+                : readYourWrites.pinIfRecentlyWritten(accountId)) {
+            if (!accountRepository.existsById(accountId)) {
+                throw new AccountNotFoundException("Account not found");
+            }
 
-        if (!accountRepository.existsById(accountId)) {
-            throw new AccountNotFoundException("Account not found");
+            return ledgerRepository.findStatementByAccountId(accountId, pageable);
+        }
+    }
+
+    /**
+     * Extrato por cursor (keyset): cada página custa o mesmo, seja a primeira ou a milésima.
+     * cursor null = mais recentes. Sem cache: só a primeira página do extrato paginado é cacheada.
+     */
+    public StatementSliceResponse getStatementSlice(UUID accountId, String cursor, int size) {
+        if (size < 1 || size > maxPageSize) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + maxPageSize);
+        }
+
+        // Uma linha a mais só para saber se existe próxima página
+        Limit limit = Limit.of(size + 1);
+        List<StatementRow> entries;
+        try (ReadYourWritesTracker.Pin pin = readYourWrites.pinIfRecentlyWritten(accountId)) {
+            if (cursor == null || cursor.isBlank()) {
+                entries = ledgerRepository.findStatementHead(accountId, limit);
+            } else {
+                StatementCursor position = StatementCursor.decode(cursor);
+                entries = ledgerRepository.findStatementAfter(accountId, position.createdAt(), position.entryId(), limit);
+            }
+
+            // Extrato vazio e conta inexistente precisam de respostas diferentes
+            if (entries.isEmpty() && !accountRepository.existsById(accountId)) {
+                throw new AccountNotFoundException("Account not found");
+            }
+        }
+
+        boolean hasNext = entries.size() > size;
+        List<StatementRow> page = hasNext ? entries.subList(0, size) : entries;
+        String nextCursor = null;
+        if (hasNext) {
+            StatementRow last = page.get(page.size() - 1);
+            nextCursor = new StatementCursor(last.createdAt(), last.entryId()).encode();
         }
 
-        return ledgerRepository.findByAccount_Id(accountId, pageable)
-            .map(this::mapToStatementResponse);
+        return new StatementSliceResponse(
+            page.stream().map(StatementRow::toResponse).toList(),
+            page.size(),
+            hasNext,
+            nextCursor);
     }
 
-    private StatementEntryResponse mapToStatementResponse(LedgerEntry entry) {
-        return new StatementEntryResponse(
-            entry.getTransaction().getId(),
-            entry.getOperationType().name(),
-            entry.getAmount(),
-            entry.getBalanceSnapshot(),
-            entry.getTransaction().getDescription(),
-            entry.getCreatedAt()
-        );
+    /**
+     * Saldo em um instante: balance_snapshot do último lançamento com created_at <= at.
+     * Em contas sharded o snapshot é a soma das fatias lida no momento do lançamento
+     * (ver AccountShardService), não o saldo exato em "at".
+     */
+    public BalanceAtResponse getBalanceAt(UUID accountId, Instant at) {
+        try (ReadYourWritesTracker.Pin pin = readYourWrites.pinIfRecentlyWritten(accountId)) {
+            return ledgerRepository.findBalanceAt(accountId, at)
+                .map(point -> toBalanceAt(accountId, at, point))
+                .orElseGet(() -> {
+                    if (!accountRepository.existsById(accountId)) {
+                        throw new AccountNotFoundException("Account not found");
+                    }
+                    return new BalanceAtResponse(accountId, at, BigDecimal.ZERO, null, null);
+                });
+        }
+    }
+
+    // Lote (auditoria): uma única query com LATERAL; contas inexistentes ficam de fora da resposta
+    public List<BalanceAtResponse> getBalancesAt(List<UUID> accountIds, Instant at) {
+        if (accountIds == null || accountIds.isEmpty()) {
+            throw new IllegalArgumentException("accountIds must not be empty");
+        }
+        if (at == null) {
+            throw new IllegalArgumentException("'at' is required");
+        }
+        LinkedHashSet<UUID> distinct = new LinkedHashSet<>(accountIds);
+        if (distinct.size() > maxBalanceAtAccounts) {
+            throw new IllegalArgumentException("Request exceeds the maximum of " + maxBalanceAtAccounts + " accounts");
+        }
+
+        Map<UUID, LedgerRepository.BalancePoint> points = ledgerRepository.findBalancesAt(distinct, at).stream()
+            .collect(Collectors.toMap(LedgerRepository.BalancePoint::getAccountId, point -> point));
+
+        return distinct.stream()
+            .filter(points::containsKey)
+            .map(id -> toBalanceAt(id, at, points.get(id)))
+            .toList();
+    }
+
+    private static BalanceAtResponse toBalanceAt(UUID accountId, Instant at, LedgerRepository.BalancePoint point) {
+        if (point.getBalance() == null) {
+            return new BalanceAtResponse(accountId, at, BigDecimal.ZERO, null, null);
+        }
+        return new BalanceAtResponse(accountId, at, point.getBalance(), point.getCreatedAt(), point.getTransactionId());
     }
 
 }
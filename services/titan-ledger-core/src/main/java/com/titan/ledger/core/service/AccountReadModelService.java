@@ -0,0 +1,103 @@
+package com.titan.ledger.core.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.titan.ledger.adapter.out.persistence.AccountReadModelStore;
+import com.titan.ledger.adapter.out.persistence.AccountReadModelStore.BalanceView;
+import com.titan.ledger.core.usecase.dto.AccountResponse;
+import com.titan.ledger.core.usecase.dto.AccountSummaryResponse;
+import com.titan.ledger.core.usecase.dto.StatementEntryResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Leituras com defasagem limitada: quem chama informa quanto atraso aceita (maxStaleness) e
+ * a resposta sai do read model (schema read_model) se a projeção estiver dentro desse limite.
+ * Senão, ou se a conta ainda não foi projetada, cai nas leituras normais do AccountQueryService
+ * (cache + tabelas de origem). maxStaleness null = sempre a leitura normal.
+ *
+ * A defasagem é medida pelo watermark da projeção, então inclui o atraso da réplica quando a
+ * leitura sai de uma.
+ *
+ * Sem transação própria: o fallback precisa abrir a do AccountQueryService, que prende ao
+ * primário as leituras que preenchem o cache. Dentro de uma transação já com conexão (a do
+ * findBalance) esse pin não teria efeito.
+ */
+@Service
+public class AccountReadModelService {
+
+    private final AccountReadModelStore store;
+    private final AccountQueryService accountQueryService;
+    private final Counter readModelReads;
+    private final Counter fallbackReads;
+
+    @Value("${titan.ledger.read-model.recent-entries:20}")
+    private int recentEntries = 20;
+
+    @Value("${titan.ledger.read-model.summary-months:12}")
+    private int summaryMonths = 12;
+
+    public AccountReadModelService(AccountReadModelStore store, AccountQueryService accountQueryService,
+            MeterRegistry meterRegistry) {
+        this.store = store;
+        this.accountQueryService = accountQueryService;
+        this.readModelReads = meterRegistry.counter("titan.ledger.read_model.reads", "source", "read_model");
+        this.fallbackReads = meterRegistry.counter("titan.ledger.read_model.reads", "source", "source_tables");
+    }
+
+    public AccountResponse getBalance(UUID accountId, Duration maxStaleness) {
+        Optional<BalanceView> view = freshView(accountId, maxStaleness);
+        if (view.isPresent()) {
+            readModelReads.increment();
+            return view.get().account();
+        }
+        fallbackReads.increment();
+        return accountQueryService.execute(accountId);
+    }
+
+    // Saldo, últimos lançamentos e totais dos últimos summary-months meses (contando o atual)
+    public AccountSummaryResponse getSummary(UUID accountId, Duration maxStaleness) {
+        LocalDate sinceMonth = LocalDate.now(ZoneOffset.UTC)
+                .withDayOfMonth(1)
+                .minusMonths(summaryMonths - 1L);
+
+        Optional<BalanceView> view = freshView(accountId, maxStaleness);
+        if (view.isPresent()) {
+            readModelReads.increment();
+            return new AccountSummaryResponse(
+                    view.get().account(),
+                    store.findRecentEntries(accountId, recentEntries),
+                    store.findMonthlyTotals(accountId, sinceMonth),
+                    view.get().watermark());
+        }
+
+        fallbackReads.increment();
+        Instant asOf = Instant.now();
+        AccountResponse account = accountQueryService.execute(accountId);
+        List<StatementEntryResponse> entries = accountQueryService.getStatementSlice(accountId, null, recentEntries)
+                .content();
+        return new AccountSummaryResponse(account, entries, store.computeMonthlyTotals(accountId, sinceMonth), asOf);
+    }
+
+    private Optional<BalanceView> freshView(UUID accountId, Duration maxStaleness) {
+        if (maxStaleness == null) {
+            return Optional.empty();
+        }
+        if (maxStaleness.isNegative()) {
+            throw new IllegalArgumentException("maxStaleness must not be negative");
+        }
+        Instant oldestAccepted = Instant.now().minus(maxStaleness);
+        return store.findBalance(accountId)
+                .filter(view -> !view.watermark().isBefore(oldestAccepted));
+    }
+}
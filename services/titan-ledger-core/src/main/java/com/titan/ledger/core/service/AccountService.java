@@ -1,10 +1,12 @@
 package com.titan.ledger.core.service;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.stereotype.Service;
 
 import com.titan.ledger.adapter.out.persistence.AccountRepository;
+import com.titan.ledger.adapter.out.persistence.ReadYourWritesTracker;
 import com.titan.ledger.core.domain.model.Account;
 import com.titan.ledger.core.usecase.CreateAccountUseCase;
 import com.titan.ledger.core.usecase.dto.AccountResponse;
@@ -16,9 +18,11 @@ import jakarta.transaction.Transactional;
 public class AccountService implements CreateAccountUseCase {
 
     private final AccountRepository accountRepository;
+    private final ReadYourWritesTracker readYourWrites;
 
-    public AccountService(AccountRepository accountRepository) {
+    public AccountService(AccountRepository accountRepository, ReadYourWritesTracker readYourWrites) {
         this.accountRepository = accountRepository;
+        this.readYourWrites = readYourWrites;
     }
 
     @Override
@@ -36,6 +40,8 @@ public class AccountService implements CreateAccountUseCase {
         Account newAccount = new Account(command.clientId(), command.currency());
 
         Account savedAccount = accountRepository.save(newAccount);
+        // O GET logo depois da criação não pode cair numa réplica que ainda não tem a conta
+        readYourWrites.recordWrites(List.of(savedAccount.getId()));
 
         return mapToResponse(savedAccount, "CREATED");
 
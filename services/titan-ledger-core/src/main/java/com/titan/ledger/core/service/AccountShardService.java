@@ -0,0 +1,200 @@
+package com.titan.ledger.core.service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.titan.ledger.adapter.out.persistence.AccountRepository;
+import com.titan.ledger.adapter.out.persistence.AccountShardRepository;
+import com.titan.ledger.core.domain.exception.AccountNotFoundException;
+import com.titan.ledger.core.domain.exception.InsufficientFundsException;
+import com.titan.ledger.core.domain.model.Account;
+import com.titan.ledger.core.domain.model.AccountBalanceShard;
+import com.titan.ledger.core.usecase.EnableAccountShardingUseCase;
+import com.titan.ledger.core.usecase.dto.AccountResponse;
+
+/**
+ * Saldo dividido em fatias para contas quentes.
+ *
+ * Créditos caem em uma fatia sorteada (o lock fica restrito a ela e dura só o UPDATE);
+ * débitos tentam as fatias em ordem e, se nenhuma cobre o valor sozinha, travam todas
+ * e consomem na sequência. Quem lê o saldo sempre enxerga accounts.balance + soma das
+ * fatias, então a divisão é invisível para o cliente.
+ *
+ * O balance_snapshot gravado no ledger para uma conta sharded é a soma das fatias lida
+ * logo após o UPDATE: reflete os créditos já commitados por outras transações, mas não
+ * segue uma ordem total como nas contas comuns.
+ */
+@Service
+public class AccountShardService implements EnableAccountShardingUseCase {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountShardService.class);
+
+    private final AccountRepository accountRepository;
+    private final AccountShardRepository shardRepository;
+
+    // Contas sabidamente sharded: permite pular o SELECT FOR UPDATE da linha principal.
+    // Sharding só é ligado (nunca desligado), então um "sim" aqui nunca fica errado.
+    private final Set<UUID> knownSharded = ConcurrentHashMap.newKeySet();
+
+    @Value("${titan.ledger.sharding.max-shards:64}")
+    private int maxShards = 64;
+
+    public AccountShardService(AccountRepository accountRepository, AccountShardRepository shardRepository) {
+        this.accountRepository = accountRepository;
+        this.shardRepository = shardRepository;
+    }
+
+    @Override
+    @Transactional
+    public AccountResponse execute(UUID accountId, int shardCount) {
+        if (shardCount < 1 || shardCount > maxShards) {
+            throw new IllegalArgumentException("Shard count must be between 1 and " + maxShards);
+        }
+
+        Account account = accountRepository.findByIdForUpdate(accountId)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found"));
+
+        if (shardCount < account.getShardCount()) {
+            throw new IllegalArgumentException("Shard count can only grow (current: " + account.getShardCount() + ")");
+        }
+
+        for (int shardNo = account.getShardCount(); shardNo < shardCount; shardNo++) {
+            shardRepository.save(new AccountBalanceShard(accountId, shardNo, BigDecimal.ZERO));
+        }
+
+        // Move o saldo da linha principal para a fatia 0: a partir daqui accounts.balance fica zerado
+        if (account.getBalance().signum() != 0) {
+            shardRepository.flush();
+            shardRepository.credit(accountId, 0, account.getBalance());
+            account.setBalance(BigDecimal.ZERO);
+        }
+        account.setShardCount(shardCount);
+        accountRepository.save(account);
+        knownSharded.add(accountId);
+
+        logger.info("🧩 Conta {} agora usa {} fatias de saldo", accountId, shardCount);
+
+        return new AccountResponse(account.getId(), account.getClientId(), account.getCurrency(),
+                shardRepository.sumBalance(accountId), "SHARDED");
+    }
+
+    public boolean isKnownSharded(UUID accountId) {
+        return knownSharded.contains(accountId);
+    }
+
+    // Sharding ligado em outro nó e descoberto antes do próximo refreshKnownSharded
+    public void rememberSharded(UUID accountId) {
+        knownSharded.add(accountId);
+    }
+
+    /**
+     * Credita uma fatia sorteada e devolve o saldo efetivo após o crédito.
+     */
+    public BigDecimal credit(Account account, BigDecimal amount) {
+        return credit(account, ThreadLocalRandom.current().nextInt(account.getShardCount()), amount);
+    }
+
+    /**
+     * Credita a fatia indicada (a travada por lockCreditShard) e devolve o saldo efetivo.
+     */
+    public BigDecimal credit(Account account, int shardNo, BigDecimal amount) {
+        shardRepository.credit(account.getId(), shardNo, amount);
+        return effectiveBalance(account);
+    }
+
+    /**
+     * Debita tentando as fatias em ordem; devolve o saldo efetivo após o débito.
+     */
+    public BigDecimal debit(Account account, BigDecimal amount) {
+        for (int shardNo = 0; shardNo < account.getShardCount(); shardNo++) {
+            if (shardRepository.debitIfCovered(account.getId(), shardNo, amount) == 1) {
+                return effectiveBalance(account);
+            }
+        }
+        return debitAcrossShards(account, amount);
+    }
+
+    /**
+     * Trava todas as fatias da conta (ORDER BY shard_no). Quem debita a mesma conta várias
+     * vezes na transação (lote) trava antes, na ordem global, para não misturar a ordem das fatias.
+     */
+    public void lockShards(UUID accountId) {
+        shardRepository.lockAllShards(accountId);
+    }
+
+    /**
+     * Sorteia e trava uma única fatia para os créditos da transação; devolve o número dela.
+     * Quem só credita a conta (lote) usa sempre essa fatia em credit(account, shardNo, amount).
+     */
+    public int lockCreditShard(Account account) {
+        int shardNo = ThreadLocalRandom.current().nextInt(account.getShardCount());
+        shardRepository.lockShard(account.getId(), shardNo);
+        return shardNo;
+    }
+
+    private BigDecimal debitAcrossShards(Account account, BigDecimal amount) {
+        List<AccountShardRepository.ShardSlice> shards = shardRepository.lockAllShards(account.getId());
+
+        BigDecimal total = shards.stream()
+                .map(AccountShardRepository.ShardSlice::getBalance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (total.compareTo(amount) < 0) {
+            throw new InsufficientFundsException("Insufficient funds");
+        }
+
+        BigDecimal remaining = amount;
+        for (AccountShardRepository.ShardSlice shard : shards) {
+            if (remaining.signum() == 0) {
+                break;
+            }
+            BigDecimal taken = shard.getBalance().min(remaining);
+            if (taken.signum() > 0) {
+                // Fatias já travadas acima: o débito condicional sempre afeta a linha
+                shardRepository.debitIfCovered(account.getId(), shard.getShardNo(), taken);
+                remaining = remaining.subtract(taken);
+            }
+        }
+
+        return account.getBalance().add(total.subtract(amount));
+    }
+
+    public BigDecimal effectiveBalance(Account account) {
+        if (!account.isSharded()) {
+            return account.getBalance();
+        }
+        return account.getBalance().add(shardRepository.sumBalance(account.getId()));
+    }
+
+    /**
+     * Soma das fatias por conta, em uma única query. Contas sem fatias não aparecem no mapa.
+     */
+    public Map<UUID, BigDecimal> shardBalances(Collection<UUID> accountIds) {
+        if (accountIds.isEmpty()) {
+            return Map.of();
+        }
+        return shardRepository.sumBalancesForAccounts(accountIds).stream()
+                .collect(Collectors.toMap(
+                        AccountShardRepository.ShardBalanceSummary::getAccountId,
+                        AccountShardRepository.ShardBalanceSummary::getShardBalance));
+    }
+
+    @Scheduled(fixedDelayString = "${titan.ledger.sharding.registry-refresh-ms:30000}")
+    public void refreshKnownSharded() {
+        // Outros nós podem ter ligado o sharding; sem isso só perderíamos a otimização do lock
+        knownSharded.addAll(accountRepository.findShardedAccountIds());
+    }
+}
@@ -0,0 +1,29 @@
+package com.titan.ledger.core.service;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import com.titan.ledger.adapter.out.persistence.AccountRepository.BalanceSnapshot;
+import com.titan.ledger.core.domain.model.Account;
+
+/**
+ * Saldo gravado por uma operação e a versão que a linha de accounts terá depois do commit.
+ * Alimenta o write-through do cache de contas: a versão impede que uma escrita atrasada
+ * (afterCommit de outra transação) sobrescreva uma mais nova.
+ */
+public record BalanceChange(UUID accountId, String clientId, String currency, BigDecimal balance, long version) {
+
+    // Entidade alterada no persistence context: o flush incrementa o @Version exatamente uma vez
+    // (entidade ainda não persistida entra com versão 0 e o INSERT não incrementa)
+    public static BalanceChange pendingFlush(Account account) {
+        long version = account.getVersion() == null ? 0 : account.getVersion() + 1;
+        return new BalanceChange(account.getId(), account.getClientId(), account.getCurrency(),
+                account.getBalance(), version);
+    }
+
+    // Linha já gravada pelo banco (UPDATE ... RETURNING)
+    public static BalanceChange written(BalanceSnapshot snapshot) {
+        return new BalanceChange(snapshot.getId(), snapshot.getClientId(), snapshot.getCurrency(),
+                snapshot.getBalance(), snapshot.getVersion());
+    }
+}
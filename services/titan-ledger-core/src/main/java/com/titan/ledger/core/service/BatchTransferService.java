@@ -0,0 +1,403 @@
+package com.titan.ledger.core.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.titan.ledger.adapter.out.cache.IdempotencyNearCache;
+import com.titan.ledger.adapter.out.cache.AccountCacheWriter;
+import com.titan.ledger.adapter.out.persistence.AccountRepository;
+import com.titan.ledger.adapter.out.persistence.IdempotencyRepository;
+import com.titan.ledger.adapter.out.persistence.LedgerBatchWriter;
+import com.titan.ledger.core.domain.exception.InsufficientFundsException;
+import com.titan.ledger.core.domain.model.Account;
+import com.titan.ledger.core.domain.model.IdempotencyKey;
+import com.titan.ledger.core.domain.model.LedgerEntry;
+import com.titan.ledger.core.domain.model.OperationType;
+import com.titan.ledger.core.domain.model.OutboxEvent;
+import com.titan.ledger.core.domain.model.Transaction;
+import com.titan.ledger.core.domain.model.TransactionStatus;
+import com.titan.ledger.core.usecase.BatchTransferFundsUseCase;
+import com.titan.ledger.core.usecase.dto.BatchTransferItemResult;
+import com.titan.ledger.core.usecase.dto.BatchTransferItemResult.Status;
+import com.titan.ledger.core.usecase.dto.BatchTransferResult;
+import com.titan.ledger.core.usecase.dto.TransferFundsCommand;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Executa um arquivo inteiro de transferências (folha, liquidação de lojistas) em uma
+ * única transação de banco.
+ *
+ * Todas as contas envolvidas são travadas uma única vez, na ordem global de
+ * {@link AccountLockOrder}, e cada item é validado em memória contra o saldo corrente.
+ * Itens inválidos recebem seu próprio status e não gravam nada, então uma linha ruim
+ * não derruba o arquivo. Os INSERTs saem em INSERTs multi-linha (LedgerBatchWriter) e os
+ * UPDATEs de saldo em batches JDBC no flush do Hibernate (ver hibernate.jdbc.batch_size).
+ */
+@Service
+public class BatchTransferService implements BatchTransferFundsUseCase {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchTransferService.class);
+
+    // Mantém o IN (...) de cada SELECT FOR UPDATE em um tamanho razoável
+    private static final int LOCK_CHUNK_SIZE = 1000;
+
+    private final AccountRepository accountRepository;
+    private final IdempotencyRepository idempotencyRepository;
+    private final LedgerBatchWriter ledgerWriter;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final TransferEventFactory eventFactory;
+    private final AccountShardService shardService;
+    private final IdempotencyNearCache nearCache;
+    private final AccountCacheWriter cacheWriter;
+
+    @Value("${titan.ledger.batch.max-items:5000}")
+    private int maxItems = 5000;
+
+    @Value("${titan.ledger.idempotency.retention-days:7}")
+    private int retentionDays = 7;
+
+    public BatchTransferService(AccountRepository accountRepository,
+            IdempotencyRepository idempotencyRepository,
+            LedgerBatchWriter ledgerWriter,
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            TransferEventFactory eventFactory,
+            AccountShardService shardService,
+            IdempotencyNearCache nearCache,
+            AccountCacheWriter cacheWriter) {
+        this.accountRepository = accountRepository;
+        this.idempotencyRepository = idempotencyRepository;
+        this.ledgerWriter = ledgerWriter;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.eventFactory = eventFactory;
+        this.shardService = shardService;
+        this.nearCache = nearCache;
+        this.cacheWriter = cacheWriter;
+    }
+
+    @Override
+    @Transactional
+    public BatchTransferResult execute(List<TransferFundsCommand> commands) {
+        if (commands == null || commands.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one transfer");
+        }
+        if (commands.size() > maxItems) {
+            throw new IllegalArgumentException("Batch exceeds the maximum of " + maxItems + " transfers");
+        }
+
+        logger.info("📦 Iniciando lote de {} transferências", commands.size());
+
+        // 1. Chaves já processadas (um único SELECT para o lote inteiro)
+        Map<String, UUID> processedKeys = findProcessedKeys(commands);
+
+        // 2. Trava todas as contas uma única vez, em ordem global
+        LockedAccounts locked = lockAccounts(commands);
+        Map<UUID, Account> accounts = locked.accounts();
+
+        // 3. Valida item a item contra o saldo corrente em memória
+        BatchTransferItemResult[] results = new BatchTransferItemResult[commands.size()];
+        Map<String, Integer> firstIndexByKey = new HashMap<>();
+        List<Integer> repeatedIndexes = new ArrayList<>();
+        List<AcceptedTransfer> accepted = new ArrayList<>();
+
+        for (int i = 0; i < commands.size(); i++) {
+            TransferFundsCommand command = commands.get(i);
+            String key = command.idempotencyKey();
+
+            if (key != null) {
+                UUID existingTxId = processedKeys.get(key);
+                if (existingTxId != null) {
+                    results[i] = new BatchTransferItemResult(i, key, Status.REPLAYED, existingTxId,
+                            "Idempotency key already processed");
+                    continue;
+                }
+                if (firstIndexByKey.putIfAbsent(key, i) != null) {
+                    // Resolvido depois que a primeira ocorrência tiver seu resultado final
+                    repeatedIndexes.add(i);
+                    continue;
+                }
+            }
+
+            Account fromAccount = accounts.get(command.fromAccountId());
+            Account toAccount = accounts.get(command.toAccountId());
+
+            if (fromAccount == null) {
+                results[i] = failure(i, key, Status.ACCOUNT_NOT_FOUND, "Source account not found");
+            } else if (toAccount == null) {
+                results[i] = failure(i, key, Status.ACCOUNT_NOT_FOUND, "Target account not found");
+            } else if (!fromAccount.canTransact()) {
+                results[i] = failure(i, key, Status.ACCOUNT_BLOCKED, "Source account is " + fromAccount.getStatus());
+            } else if (!toAccount.canTransact()) {
+                results[i] = failure(i, key, Status.ACCOUNT_BLOCKED, "Target account is " + toAccount.getStatus());
+            } else if (!fromAccount.isSharded() && fromAccount.getBalance().compareTo(command.amount()) < 0) {
+                results[i] = failure(i, key, Status.INSUFFICIENT_FUNDS, "Insufficient funds");
+            } else {
+                BigDecimal newSourceBalance;
+                if (fromAccount.isSharded()) {
+                    try {
+                        newSourceBalance = shardService.debit(fromAccount, command.amount());
+                    } catch (InsufficientFundsException e) {
+                        results[i] = failure(i, key, Status.INSUFFICIENT_FUNDS, e.getMessage());
+                        continue;
+                    }
+                } else {
+                    newSourceBalance = fromAccount.getBalance().subtract(command.amount());
+                    fromAccount.setBalance(newSourceBalance);
+                }
+
+                BigDecimal newTargetBalance;
+                Integer creditShard = locked.creditShards().get(toAccount.getId());
+                if (creditShard != null) {
+                    newTargetBalance = shardService.credit(toAccount, creditShard, command.amount());
+                } else if (toAccount.isSharded()) {
+                    // Também debitada no lote: todas as fatias já estão travadas
+                    newTargetBalance = shardService.credit(toAccount, command.amount());
+                } else {
+                    newTargetBalance = toAccount.getBalance().add(command.amount());
+                    toAccount.setBalance(newTargetBalance);
+                }
+
+                Transaction transaction = new Transaction(UUID.randomUUID().toString(), command.description());
+                transaction.setStatus(TransactionStatus.COMPLETED);
+
+                accepted.add(new AcceptedTransfer(i, command, transaction, fromAccount, toAccount,
+                        newSourceBalance, newTargetBalance));
+            }
+        }
+
+        // 4. Gravação em batch: UUIDs atribuídos no cliente e um INSERT multi-linha por tabela
+        persist(accepted);
+
+        for (AcceptedTransfer transfer : accepted) {
+            results[transfer.index()] = new BatchTransferItemResult(transfer.index(),
+                    transfer.command().idempotencyKey(), Status.COMPLETED, transfer.transaction().getId(), null);
+        }
+
+        // Chave repetida dentro do próprio arquivo: devolve o mesmo resultado da primeira ocorrência
+        for (int i : repeatedIndexes) {
+            String key = commands.get(i).idempotencyKey();
+            BatchTransferItemResult first = results[firstIndexByKey.get(key)];
+            Status status = first.status() == Status.COMPLETED ? Status.REPLAYED : first.status();
+            results[i] = new BatchTransferItemResult(i, key, status, first.transactionId(), first.message());
+        }
+
+        afterCommit(accepted);
+
+        BatchTransferResult result = summarize(results);
+        logger.info("✅ Lote finalizado. Sucesso: {} | Falhas: {}", result.succeeded(), result.failed());
+        return result;
+    }
+
+    private Map<String, UUID> findProcessedKeys(List<TransferFundsCommand> commands) {
+        List<String> keys = commands.stream()
+                .map(TransferFundsCommand::idempotencyKey)
+                .filter(key -> key != null)
+                .distinct()
+                .toList();
+
+        Map<String, UUID> processed = new HashMap<>();
+        if (keys.isEmpty()) {
+            return processed;
+        }
+
+        // Serializa com transferências concorrentes das mesmas chaves (não há índice único em "key")
+        idempotencyRepository.lockKeys(keys);
+        Instant since = Instant.now().minus(Duration.ofDays(retentionDays));
+        for (IdempotencyKey existing : idempotencyRepository.findAllByKeyWithin(keys, since)) {
+            processed.put(existing.getKey(),
+                    UUID.fromString(eventFactory.extractTransactionId(existing.getResponseBody())));
+        }
+        return processed;
+    }
+
+    private LockedAccounts lockAccounts(List<TransferFundsCommand> commands) {
+        TreeSet<UUID> ids = new TreeSet<>(AccountLockOrder.COMPARATOR);
+        Set<UUID> debited = new HashSet<>();
+        for (TransferFundsCommand command : commands) {
+            ids.add(command.fromAccountId());
+            ids.add(command.toAccountId());
+            debited.add(command.fromAccountId());
+        }
+
+        Map<UUID, Account> accounts = new HashMap<>(ids.size() * 2);
+
+        List<UUID> ordered = new ArrayList<>(ids);
+
+        // Contas sharded não travam a linha principal (o saldo delas vive nas fatias)
+        List<UUID> sharded = ids.stream().filter(shardService::isKnownSharded).toList();
+        if (!sharded.isEmpty()) {
+            ids.removeAll(sharded);
+            accountRepository.findAllById(sharded).forEach(account -> accounts.put(account.getId(), account));
+        }
+
+        // Os blocos são faixas contíguas da lista ordenada, então a ordem global se mantém
+        List<UUID> sorted = new ArrayList<>(ids);
+        for (int from = 0; from < sorted.size(); from += LOCK_CHUNK_SIZE) {
+            List<UUID> chunk = sorted.subList(from, Math.min(from + LOCK_CHUNK_SIZE, sorted.size()));
+            for (Account account : accountRepository.findAllByIdForUpdate(chunk)) {
+                accounts.put(account.getId(), account);
+            }
+        }
+
+        // Depois das linhas principais, só as fatias que o lote usa, na ordem (conta, fatia):
+        // conta debitada trava todas (o débito pode passar por qualquer uma), conta só creditada
+        // trava uma fatia sorteada e recebe todos os créditos do lote nela. Travar no meio dos
+        // itens misturaria a ordem das fatias e cruzaria com outra transação
+        Map<UUID, Integer> creditShards = new HashMap<>();
+        for (UUID accountId : ordered) {
+            Account account = accounts.get(accountId);
+            if (account == null || !account.isSharded()) {
+                continue;
+            }
+            if (debited.contains(accountId)) {
+                shardService.lockShards(accountId);
+            } else {
+                creditShards.put(accountId, shardService.lockCreditShard(account));
+            }
+        }
+        return new LockedAccounts(accounts, creditShards);
+    }
+
+    private void persist(List<AcceptedTransfer> accepted) {
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<Transaction> transactions = accepted.stream().map(AcceptedTransfer::transaction).toList();
+        ledgerWriter.assignIds(transactions);
+
+        List<LedgerEntry> entries = new ArrayList<>(accepted.size() * 2);
+        List<OutboxEvent> events = new ArrayList<>(accepted.size());
+        List<IdempotencyKey> keys = new ArrayList<>(accepted.size());
+
+        for (AcceptedTransfer transfer : accepted) {
+            TransferFundsCommand command = transfer.command();
+            entries.add(new LedgerEntry(transfer.transaction(), transfer.from(), OperationType.DEBIT,
+                    command.amount(), transfer.newSourceBalance()));
+            entries.add(new LedgerEntry(transfer.transaction(), transfer.to(), OperationType.CREDIT,
+                    command.amount(), transfer.newTargetBalance()));
+
+            events.add(eventFactory.transferCreated(transfer.transaction(), transfer.from().getId(),
+                    transfer.to().getId(), command.amount()));
+
+            if (command.idempotencyKey() != null) {
+                keys.add(new IdempotencyKey(command.idempotencyKey(), 200,
+                        eventFactory.idempotencyResponse(transfer.transaction().getId())));
+            }
+        }
+
+        ledgerWriter.write(transactions, entries, events, keys);
+        // Os saldos das contas travadas são gravados pelo dirty checking no commit (UPDATEs em batch)
+    }
+
+    // Redis só é tocado depois do commit: se a transação falhar, nenhuma chave aponta para um ID inexistente
+    private void afterCommit(List<AcceptedTransfer> accepted) {
+        if (accepted.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        Map<String, String> idempotencyEntries = new HashMap<>();
+        for (AcceptedTransfer transfer : accepted) {
+            if (transfer.command().idempotencyKey() != null) {
+                idempotencyEntries.put("idem::" + transfer.command().idempotencyKey(),
+                        transfer.transaction().getId().toString());
+            }
+        }
+        Map<UUID, Account> touched = new LinkedHashMap<>();
+        for (AcceptedTransfer transfer : accepted) {
+            touched.putIfAbsent(transfer.from().getId(), transfer.from());
+            touched.putIfAbsent(transfer.to().getId(), transfer.to());
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accepted.stream()
+                        .filter(transfer -> transfer.command().idempotencyKey() != null)
+                        .forEach(transfer -> nearCache.remember(transfer.command().idempotencyKey(),
+                                transfer.transaction().getId()));
+                if (idempotencyEntries.isEmpty()) {
+                    return;
+                }
+                try {
+                    // Um único pipeline em vez de um round trip por chave
+                    redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                        StringRedisConnection redis = (StringRedisConnection) connection;
+                        Expiration ttl = Expiration.from(24, TimeUnit.HOURS);
+                        idempotencyEntries.forEach((key, txId) -> redis.set(key, txId, ttl, SetOption.upsert()));
+                        return null;
+                    });
+                } catch (Exception e) {
+                    // O Postgres continua sendo a fonte da verdade para idempotência
+                    logger.warn("Falha ao atualizar o Redis após o lote", e);
+                }
+            }
+        });
+
+        // Saldos e página 0 do extrato: invalidação versionada (a versão sai da entidade depois
+        // do flush), para um write-through atrasado de outra transação não regravar saldo antigo
+        cacheWriter.invalidateAfterCommit(touched.values());
+    }
+
+    private BatchTransferResult summarize(BatchTransferItemResult[] results) {
+        Map<Status, Integer> byStatus = new EnumMap<>(Status.class);
+        int succeeded = 0;
+        for (BatchTransferItemResult result : results) {
+            byStatus.merge(result.status(), 1, Integer::sum);
+            if (result.isSuccessful()) {
+                succeeded++;
+            }
+        }
+        byStatus.forEach((status, count) -> meterRegistry
+                .counter("titan.ledger.transfer.batch.items", "status", status.name())
+                .increment(count));
+
+        return new BatchTransferResult(results.length, succeeded, results.length - succeeded, List.of(results));
+    }
+
+    private static BatchTransferItemResult failure(int index, String key, Status status, String message) {
+        return new BatchTransferItemResult(index, key, status, null, message);
+    }
+
+    // creditShards: fatia travada de cada conta sharded que o lote só credita
+    private record LockedAccounts(Map<UUID, Account> accounts, Map<UUID, Integer> creditShards) {
+    }
+
+    private record AcceptedTransfer(
+            int index,
+            TransferFundsCommand command,
+            Transaction transaction,
+            Account from,
+            Account to,
+            BigDecimal newSourceBalance,
+            BigDecimal newTargetBalance) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.titan.ledger.core.service;
+
+/**
+ * Estratégia de escrita do saldo em accounts (titan.ledger.concurrency.mode).
+ */
+public enum ConcurrencyMode {
+    // SELECT FOR UPDATE na leitura e save via entidade (comportamento original)
+    PESSIMISTIC,
+    // Leitura sem lock e UPDATE condicionado à versão, com retries e fallback pessimista
+    OPTIMISTIC,
+    // UPDATE condicional com RETURNING: sem hidratar entidades, lock dura só o statement
+    ATOMIC
+}
@@ -0,0 +1,67 @@
+package com.titan.ledger.core.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.titan.ledger.adapter.out.jobs.LedgerDailyRollupJob;
+import com.titan.ledger.adapter.out.persistence.AccountRepository;
+import com.titan.ledger.adapter.out.persistence.JobCheckpointStore;
+import com.titan.ledger.adapter.out.persistence.JobCheckpointStore.JobState;
+import com.titan.ledger.adapter.out.persistence.LedgerDailySummaryStore;
+import com.titan.ledger.core.domain.exception.AccountNotFoundException;
+import com.titan.ledger.core.usecase.dto.DailySummaryRangeResponse;
+import com.titan.ledger.core.usecase.dto.DailySummaryResponse;
+
+/**
+ * Totais diários de uma conta a partir de ledger_daily_summary: um ano custa no máximo 365
+ * linhas lidas pela PK, em vez de agregar todos os lançamentos do período.
+ *
+ * Os totais ficam atrás do ledger (settle-delay + intervalo do LedgerDailyRollupJob);
+ * completeUntil diz até onde a resposta está completa.
+ */
+@Service
+@Transactional(readOnly = true)
+public class DailySummaryService {
+
+    private final LedgerDailySummaryStore summaryStore;
+    private final JobCheckpointStore checkpointStore;
+    private final AccountRepository accountRepository;
+
+    @Value("${titan.ledger.rollup.max-days:366}")
+    private int maxDays = 366;
+
+    public DailySummaryService(LedgerDailySummaryStore summaryStore, JobCheckpointStore checkpointStore,
+            AccountRepository accountRepository) {
+        this.summaryStore = summaryStore;
+        this.checkpointStore = checkpointStore;
+        this.accountRepository = accountRepository;
+    }
+
+    // Intervalo fechado [from, to], dias em UTC
+    public DailySummaryRangeResponse getDailySummary(UUID accountId, LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("from and to are required and from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) + 1 > maxDays) {
+            throw new IllegalArgumentException("Range must not exceed " + maxDays + " days");
+        }
+
+        List<DailySummaryResponse> days = summaryStore.findRange(accountId, from, to);
+        // Período sem movimento e conta inexistente precisam de respostas diferentes
+        if (days.isEmpty() && !accountRepository.existsById(accountId)) {
+            throw new AccountNotFoundException("Account not found");
+        }
+
+        Instant completeUntil = checkpointStore.find(LedgerDailyRollupJob.JOB_NAME)
+                .map(JobState::completeUntil)
+                .orElse(null);
+        return new DailySummaryRangeResponse(accountId, days, completeUntil);
+    }
+}
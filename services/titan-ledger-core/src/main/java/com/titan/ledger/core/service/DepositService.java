@@ -1,20 +1,23 @@
 package com.titan.ledger.core.service;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.titan.ledger.adapter.out.cache.AccountCacheWriter;
 import com.titan.ledger.adapter.out.persistence.AccountRepository;
-import com.titan.ledger.adapter.out.persistence.LedgerRepository;
-import com.titan.ledger.adapter.out.persistence.TransactionRepository;
+import com.titan.ledger.adapter.out.persistence.LedgerBatchWriter;
 import com.titan.ledger.core.domain.exception.AccountNotFoundException;
 import com.titan.ledger.core.domain.model.Account;
 import com.titan.ledger.core.domain.model.LedgerEntry;
 import com.titan.ledger.core.domain.model.OperationType;
 import com.titan.ledger.core.domain.model.Transaction;
 import com.titan.ledger.core.domain.model.TransactionStatus;
+import com.titan.ledger.core.service.OptimisticAccountUpdater.Operation;
 import com.titan.ledger.core.usecase.DepositUseCase;
 import com.titan.ledger.core.usecase.dto.DepositCommand;
 
@@ -22,40 +25,63 @@ import com.titan.ledger.core.usecase.dto.DepositCommand;
 public class DepositService implements DepositUseCase{
     
     private final AccountRepository accountRepository;
-    private final TransactionRepository transactionRepository;
-    private final LedgerRepository ledgerRepository;
+    private final LedgerBatchWriter ledgerWriter;
+    private final AccountShardService shardService;
+    private final OptimisticAccountUpdater optimisticUpdater;
+    private final AccountCacheWriter cacheWriter;
+
+    @Value("${titan.ledger.concurrency.mode:PESSIMISTIC}")
+    private ConcurrencyMode mode = ConcurrencyMode.PESSIMISTIC;
 
     
-    public DepositService(AccountRepository accountRepository, TransactionRepository transactionRepository,
-            LedgerRepository ledgerRepository) {
+    public DepositService(AccountRepository accountRepository, LedgerBatchWriter ledgerWriter,
+            AccountShardService shardService,
+            OptimisticAccountUpdater optimisticUpdater,
+            AccountCacheWriter cacheWriter) {
         this.accountRepository = accountRepository;
-        this.transactionRepository = transactionRepository;
-        this.ledgerRepository = ledgerRepository;
+        this.ledgerWriter = ledgerWriter;
+        this.shardService = shardService;
+        this.optimisticUpdater = optimisticUpdater;
+        this.cacheWriter = cacheWriter;
     }
 
 
     @Override
     @Transactional
     public void execute(DepositCommand command) {
-        // Buscar conta
-        Account account = accountRepository.findById(command.accountId())
-                .orElseThrow(() -> new AccountNotFoundException("Account not found"));
-        
+        // Credita a conta (antes da transação, para que conta inexistente não gere nada)
+        Account account;
+        BigDecimal newBalance;
+        BalanceChange change = creditMainRow(command);
+        if (change != null) {
+            newBalance = change.balance();
+            account = accountRepository.getReferenceById(command.accountId());
+        } else {
+            // Sharded: crédito em uma fatia, sem travar a linha principal.
+            // Comum: lock da linha, senão dois depósitos simultâneos perdem um dos créditos.
+            account = (shardService.isKnownSharded(command.accountId())
+                    ? accountRepository.findById(command.accountId())
+                    : accountRepository.findByIdForUpdate(command.accountId()))
+                    .orElseThrow(() -> new AccountNotFoundException("Account not found"));
+
+            if (account.isSharded()) {
+                newBalance = shardService.credit(account, command.amount());
+            } else {
+                newBalance = account.getBalance().add(command.amount());
+                account.setBalance(newBalance);
+                accountRepository.save(account);
+                change = BalanceChange.pendingFlush(account);
+            }
+        }
+
         // Criar transação
         Transaction transaction = new Transaction(
             UUID.randomUUID().toString(),
             command.description() != null ? command.description() : "Cash-in"
         );
         transaction.setStatus(TransactionStatus.COMPLETED);
-        transactionRepository.save(transaction);
-
-        // Atualiza o saldo
-        BigDecimal newBalance = account.getBalance().add(command.amount());
 
-        account.setBalance(newBalance);
-        accountRepository.save(account);
-
-        // grava no ledger como credito
+        // grava transação + crédito no ledger (um INSERT por tabela)
         LedgerEntry ledgerEntry = new LedgerEntry(
             transaction,
             account,
@@ -63,6 +89,33 @@ public class DepositService implements DepositUseCase{
             command.amount(),
             newBalance
         );
-        ledgerRepository.save(ledgerEntry);
+        ledgerWriter.write(transaction, List.of(ledgerEntry), null, null);
+
+        // Sharded (change == null) só invalida: o saldo efetivo depende das fatias
+        cacheWriter.writeAfterCommit(List.of(command.accountId()), change == null ? List.of() : List.of(change));
+    }
+
+    // ATOMIC/OPTIMISTIC sem lock: null = seguir pelo caminho com entidade (PESSIMISTIC ou sharded).
+    // O registro de contas sharded é local e pode estar um refresh atrasado; se outro nó acabou de
+    // ligar o sharding, nada foi escrito e o crédito cai para as fatias.
+    private BalanceChange creditMainRow(DepositCommand command) {
+        UUID accountId = command.accountId();
+        if (mode == ConcurrencyMode.PESSIMISTIC || shardService.isKnownSharded(accountId)) {
+            return null;
+        }
+        try {
+            if (mode == ConcurrencyMode.ATOMIC) {
+                return accountRepository.credit(accountId, command.amount())
+                        .map(BalanceChange::written)
+                        .orElseThrow(() -> accountRepository.findSnapshotById(accountId).isPresent()
+                                ? new StaleShardRegistryException(accountId)
+                                : new AccountNotFoundException("Account not found"));
+            }
+            return optimisticUpdater.apply(accountId, Operation.DEPOSIT, "Account not found",
+                    snapshot -> snapshot.getBalance().add(command.amount()));
+        } catch (StaleShardRegistryException e) {
+            shardService.rememberSharded(accountId);
+            return null;
+        }
     }
 }
@@ -0,0 +1,133 @@
+package com.titan.ledger.core.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.titan.ledger.adapter.out.persistence.AccountRepository;
+import com.titan.ledger.adapter.out.persistence.AccountRepository.BalanceSnapshot;
+import com.titan.ledger.core.domain.exception.AccountNotFoundException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Escrita otimista de saldo: lê sem lock, calcula o novo saldo e grava com
+ * UPDATE ... WHERE version = :lida. Em conflito relê só a conta afetada e tenta de novo
+ * com backoff exponencial com jitter; depois de max-retries conflitos, trava a linha
+ * (SELECT FOR UPDATE) e grava com a garantia do lock.
+ *
+ * Deve ser chamado dentro de uma transação. O backoff dorme com a transação aberta,
+ * por isso os valores padrão são de poucos milissegundos.
+ *
+ * Só vale para contas não sharded: um snapshot com shard_count > 0 lança
+ * StaleShardRegistryException (ligar o sharding incrementa a versão, então o CAS de uma
+ * leitura anterior também falha e a releitura enxerga as fatias).
+ */
+@Component
+public class OptimisticAccountUpdater {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticAccountUpdater.class);
+
+    public enum Operation {
+        TRANSFER("transfer"),
+        DEPOSIT("deposit");
+
+        private final String tag;
+
+        Operation(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private record Counters(Counter conflicts, Counter retries, Counter fallbacks) {
+    }
+
+    private final AccountRepository accountRepository;
+    private final Map<Operation, Counters> counters = new EnumMap<>(Operation.class);
+
+    @Value("${titan.ledger.concurrency.optimistic.max-retries:3}")
+    private int maxRetries = 3;
+
+    @Value("${titan.ledger.concurrency.optimistic.backoff-ms:2}")
+    private long backoffMs = 2;
+
+    public OptimisticAccountUpdater(AccountRepository accountRepository, MeterRegistry meterRegistry) {
+        this.accountRepository = accountRepository;
+        // Registrados uma vez: o caminho de conflito não consulta o registry a cada evento
+        for (Operation operation : Operation.values()) {
+            counters.put(operation, new Counters(
+                    meterRegistry.counter("titan.ledger.optimistic.conflicts", "operation", operation.tag),
+                    meterRegistry.counter("titan.ledger.optimistic.retries", "operation", operation.tag),
+                    meterRegistry.counter("titan.ledger.optimistic.fallbacks", "operation", operation.tag)));
+        }
+    }
+
+    /**
+     * @param rule valida o snapshot (pode lançar exceções de negócio) e devolve o novo saldo
+     * @return o saldo gravado e a versão nova da linha
+     */
+    public BalanceChange apply(UUID accountId, Operation operation, String notFoundMessage,
+            Function<BalanceSnapshot, BigDecimal> rule) {
+        Counters metrics = counters.get(operation);
+        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+            BalanceSnapshot snapshot = accountRepository.findSnapshotById(accountId)
+                    .orElseThrow(() -> new AccountNotFoundException(notFoundMessage));
+            requireUnsharded(snapshot);
+
+            BigDecimal newBalance = rule.apply(snapshot);
+            if (accountRepository.updateBalanceIfVersion(accountId, newBalance, snapshot.getVersion(), Instant.now()) == 1) {
+                return written(snapshot, newBalance);
+            }
+
+            metrics.conflicts().increment();
+            if (attempt < maxRetries) {
+                metrics.retries().increment();
+                backoff(attempt);
+            }
+        }
+
+        // Conta disputada demais para o modo otimista: trava e grava sem chance de conflito
+        logger.warn("🔒 {} conflitos seguidos na conta {}, usando lock pessimista", maxRetries + 1, accountId);
+        metrics.fallbacks().increment();
+
+        BalanceSnapshot locked = accountRepository.lockSnapshotById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(notFoundMessage));
+        requireUnsharded(locked);
+        BigDecimal newBalance = rule.apply(locked);
+        accountRepository.updateBalanceIfVersion(accountId, newBalance, locked.getVersion(), Instant.now());
+        return written(locked, newBalance);
+    }
+
+    private static void requireUnsharded(BalanceSnapshot snapshot) {
+        if (snapshot.getShardCount() != null && snapshot.getShardCount() > 0) {
+            throw new StaleShardRegistryException(snapshot.getId());
+        }
+    }
+
+    // O CAS acabou de incrementar a versão lida
+    private static BalanceChange written(BalanceSnapshot snapshot, BigDecimal newBalance) {
+        return new BalanceChange(snapshot.getId(), snapshot.getClientId(), snapshot.getCurrency(),
+                newBalance, snapshot.getVersion() + 1);
+    }
+
+    private void backoff(int attempt) {
+        // Jitter "full": espera aleatória em [0, base * 2^tentativa] para desalinhar os concorrentes
+        long ceiling = backoffMs << attempt;
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during optimistic retry backoff", e);
+        }
+    }
+}
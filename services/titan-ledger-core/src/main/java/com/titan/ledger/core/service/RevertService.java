@@ -13,7 +13,6 @@ import com.titan.ledger.core.domain.model.OperationType;
 import com.titan.ledger.core.domain.model.Transaction;
 import com.titan.ledger.core.domain.model.TransactionStatus;
 import com.titan.ledger.core.usecase.RevertTransactionUseCase;
-import com.titan.ledger.core.usecase.TransferFundsUseCase;
 import com.titan.ledger.core.usecase.dto.TransferFundsCommand;
 
 
@@ -22,13 +21,15 @@ public class RevertService implements RevertTransactionUseCase {
 
     private final TransactionRepository transactionRepository;
     private final LedgerRepository ledgerRepository;
-    private final TransferFundsUseCase transferFundsUseCase;
+    // Usa o TransferService direto (e não o motor configurado): o estorno precisa rodar
+    // dentro desta mesma transação, junto com a mudança de status da original
+    private final TransferService transferService;
 
     public RevertService(TransactionRepository transactionRepository, LedgerRepository ledgerRepository,
-            TransferFundsUseCase transferFundsUseCase) {
+            TransferService transferService) {
         this.transactionRepository = transactionRepository;
         this.ledgerRepository = ledgerRepository;
-        this.transferFundsUseCase = transferFundsUseCase;
+        this.transferService = transferService;
     }
 
     @Override
@@ -71,7 +72,7 @@ public class RevertService implements RevertTransactionUseCase {
         );
 
         // Isso vai gerar Account Update, Ledger Entry, Outbox Event, Cache Evict... TUDO!
-        UUID revertedTxId = transferFundsUseCase.execute(revertCommand);
+        UUID revertedTxId = transferService.execute(revertCommand);
 
 
         // atualizar status do original
@@ -0,0 +1,248 @@
+package com.titan.ledger.core.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import com.titan.ledger.core.domain.exception.AccountBlockedException;
+import com.titan.ledger.core.domain.exception.AccountNotFoundException;
+import com.titan.ledger.core.domain.exception.InsufficientFundsException;
+import com.titan.ledger.core.domain.exception.TransferCommitTimeoutException;
+import com.titan.ledger.core.domain.exception.TransferQueueFullException;
+import com.titan.ledger.core.service.TransferIdempotency.Result;
+import com.titan.ledger.core.usecase.BatchTransferFundsUseCase;
+import com.titan.ledger.core.usecase.TransferFundsUseCase;
+import com.titan.ledger.core.usecase.dto.BatchTransferItemResult;
+import com.titan.ledger.core.usecase.dto.BatchTransferResult;
+import com.titan.ledger.core.usecase.dto.TransferFundsCommand;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Motor alternativo de transferências: um único escritor por partição de contas.
+ *
+ * Cada transferência vai para a partição da sua conta "dona" (a menor das duas na
+ * {@link AccountLockOrder}). O escritor da partição drena tudo que acumulou na fila e
+ * grava o grupo em uma única transação (group commit) via {@link BatchTransferFundsUseCase}.
+ * O chamador só recebe o resultado depois do commit.
+ *
+ * Não é single-writer por conta: só a conta dona escolhe a partição, então a outra conta de
+ * uma transferência pode estar sendo gravada ao mesmo tempo pelo escritor de outra partição
+ * (ou por lote, depósito e estorno, que não passam por aqui). O ganho é o group commit; a
+ * consistência continua vindo dos locks de linha, que o lote toma na ordem global. Dois
+ * escritores que tocam a mesma conta esperam um pelo outro, mas nunca em ordem cruzada.
+ *
+ * Replay, single-flight e métricas de latência são os mesmos do TransferService
+ * ({@link TransferIdempotency}). Sem resultado em timeout-ms, o chamador recebe 503
+ * (TransferCommitTimeoutException) e repete com a mesma Idempotency-Key.
+ *
+ * Ativado com titan.ledger.transfer.engine=sequencer (padrão: locking, o TransferService).
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "titan.ledger.transfer.engine", havingValue = "sequencer")
+public class SequencedTransferService implements TransferFundsUseCase {
+
+    private static final Logger logger = LoggerFactory.getLogger(SequencedTransferService.class);
+
+    private final BatchTransferFundsUseCase batchTransferFundsUseCase;
+    private final TransferIdempotency idempotency;
+    private final TransferMetrics metrics;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${titan.ledger.sequencer.partitions:8}")
+    private int partitionCount = 8;
+
+    @Value("${titan.ledger.sequencer.queue-capacity:4096}")
+    private int queueCapacity = 4096;
+
+    @Value("${titan.ledger.sequencer.max-group-size:500}")
+    private int maxGroupSize = 500;
+
+    @Value("${titan.ledger.sequencer.timeout-ms:10000}")
+    private long timeoutMs = 10000;
+
+    private Partition[] partitions;
+    private DistributionSummary groupSize;
+
+    public SequencedTransferService(BatchTransferFundsUseCase batchTransferFundsUseCase,
+            TransferIdempotency idempotency, TransferMetrics metrics, MeterRegistry meterRegistry) {
+        this.batchTransferFundsUseCase = batchTransferFundsUseCase;
+        this.idempotency = idempotency;
+        this.metrics = metrics;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        groupSize = DistributionSummary.builder("titan.ledger.transfer.sequencer.group.size")
+                .description("Transferências gravadas por commit do sequenciador")
+                .register(meterRegistry);
+
+        partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            Partition partition = new Partition(i, new ArrayBlockingQueue<>(queueCapacity));
+            Gauge.builder("titan.ledger.transfer.sequencer.queue.depth", partition.queue, BlockingQueue::size)
+                    .tag("partition", String.valueOf(i))
+                    .register(meterRegistry);
+            partition.writer = Thread.ofPlatform()
+                    .name("transfer-sequencer-" + i)
+                    .daemon()
+                    .start(() -> runWriter(partition));
+            partitions[i] = partition;
+        }
+
+        logger.info("🧵 Sequenciador de transferências ativo com {} partições", partitionCount);
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (Partition partition : partitions) {
+            partition.running = false;
+            partition.writer.interrupt();
+        }
+        for (Partition partition : partitions) {
+            try {
+                partition.writer.join(timeoutMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<PendingTransfer> leftovers = new ArrayList<>();
+            partition.queue.drainTo(leftovers);
+            leftovers.forEach(pending -> pending.future()
+                    .completeExceptionally(new TransferQueueFullException("Transfer sequencer is shutting down")));
+        }
+    }
+
+    @Override
+    public UUID execute(TransferFundsCommand command) {
+        return idempotency.execute(command, this::submit);
+    }
+
+    private Result submit(TransferFundsCommand command) {
+        PendingTransfer pending = new PendingTransfer(command, new CompletableFuture<>());
+        Partition partition = partitionFor(command);
+
+        // Fila cheia = backpressure imediato; não deixamos a thread HTTP pendurada
+        if (!partition.queue.offer(pending)) {
+            throw new TransferQueueFullException("Transfer queue for partition " + partition.index + " is full");
+        }
+
+        Result result = metrics.time(TransferMetrics.Stage.SEQUENCER_WAIT, () -> await(pending));
+        if (!result.replayed()) {
+            metrics.recordSuccess(command.amount());
+        }
+        return result;
+    }
+
+    private Result await(PendingTransfer pending) {
+        try {
+            return pending.future().get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Transfer failed", e.getCause());
+        } catch (TimeoutException e) {
+            // O item pode ainda ser gravado; o retry com a mesma Idempotency-Key devolve o resultado
+            throw new TransferCommitTimeoutException("Timed out waiting for transfer commit", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransferCommitTimeoutException("Interrupted while waiting for transfer commit", e);
+        }
+    }
+
+    private Partition partitionFor(TransferFundsCommand command) {
+        UUID home = AccountLockOrder.isBefore(command.fromAccountId(), command.toAccountId())
+                ? command.fromAccountId()
+                : command.toAccountId();
+        return partitions[Math.floorMod(home.hashCode(), partitions.length)];
+    }
+
+    private void runWriter(Partition partition) {
+        List<PendingTransfer> group = new ArrayList<>(maxGroupSize);
+        while (partition.running) {
+            try {
+                PendingTransfer first = partition.queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                partition.queue.drainTo(group, maxGroupSize - 1);
+
+                commitGroup(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // Nunca deixa o escritor morrer: a partição ficaria parada para sempre
+                logger.error("❌ Erro inesperado no escritor da partição {}", partition.index, e);
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commitGroup(List<PendingTransfer> group) {
+        groupSize.record(group.size());
+        try {
+            BatchTransferResult result = batchTransferFundsUseCase.execute(
+                    group.stream().map(PendingTransfer::command).toList());
+            for (BatchTransferItemResult item : result.items()) {
+                complete(group.get(item.index()), item);
+            }
+        } catch (RuntimeException e) {
+            if (group.size() == 1) {
+                group.get(0).future().completeExceptionally(e);
+                return;
+            }
+            // Um item "envenenado" derrubou o grupo inteiro: regrava um a um para isolar o culpado
+            logger.warn("⚠️ Group commit de {} itens falhou, regravando individualmente: {}", group.size(), e.getMessage());
+            for (PendingTransfer pending : group) {
+                commitGroup(List.of(pending));
+            }
+        }
+    }
+
+    private void complete(PendingTransfer pending, BatchTransferItemResult item) {
+        switch (item.status()) {
+            case COMPLETED -> pending.future().complete(new Result(item.transactionId(), false));
+            case REPLAYED -> pending.future().complete(new Result(item.transactionId(), true));
+            case INSUFFICIENT_FUNDS -> pending.future().completeExceptionally(new InsufficientFundsException(item.message()));
+            case ACCOUNT_NOT_FOUND -> pending.future().completeExceptionally(new AccountNotFoundException(item.message()));
+            case ACCOUNT_BLOCKED -> pending.future().completeExceptionally(new AccountBlockedException(item.message()));
+        }
+    }
+
+    private record PendingTransfer(TransferFundsCommand command, CompletableFuture<Result> future) {
+    }
+
+    private static final class Partition {
+        private final int index;
+        private final BlockingQueue<PendingTransfer> queue;
+        private volatile boolean running = true;
+        private Thread writer;
+
+        private Partition(int index, BlockingQueue<PendingTransfer> queue) {
+            this.index = index;
+            this.queue = queue;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.titan.ledger.core.service;
+
+import java.util.UUID;
+
+/**
+ * A conta virou sharded em outro nó depois do último refresh do registro local
+ * (AccountShardService.isKnownSharded). Sinal interno dos caminhos ATOMIC/OPTIMISTIC, que só
+ * escrevem na linha principal de contas não sharded: quem captura registra a conta e refaz a
+ * operação pelo caminho das fatias.
+ */
+class StaleShardRegistryException extends RuntimeException {
+
+    private final UUID accountId;
+
+    StaleShardRegistryException(UUID accountId) {
+        super("Account " + accountId + " was sharded after the last registry refresh");
+        this.accountId = accountId;
+    }
+
+    UUID accountId() {
+        return accountId;
+    }
+}
@@ -0,0 +1,156 @@
+package com.titan.ledger.core.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.titan.ledger.adapter.out.persistence.AccountRepository;
+import com.titan.ledger.adapter.out.persistence.ReadYourWritesTracker;
+import com.titan.ledger.adapter.out.persistence.StatementExportReader;
+import com.titan.ledger.core.domain.exception.AccountNotFoundException;
+import com.titan.ledger.core.usecase.dto.StatementEntryResponse;
+
+/**
+ * Exportação do extrato completo de um período (NDJSON ou CSV) em streaming.
+ *
+ * Memória constante: as linhas saem do cursor do Postgres (StatementExportReader) direto
+ * para o OutputStream da resposta, sem lista intermediária. A conexão fica presa durante
+ * toda a exportação, numa transação read-only aberta aqui (e não na thread do request,
+ * já que o StreamingResponseBody roda depois do controller retornar); quantas exportações
+ * seguram conexão ao mesmo tempo é decidido na borda web (ExportGate). Com réplicas
+ * configuradas, a exportação sai de uma réplica, salvo conta escrita há pouco neste nó.
+ */
+@Service
+public class StatementExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementExportService.class);
+
+    private static final String CSV_HEADER = "transaction_id,operation_type,amount,balance_after,description,timestamp";
+
+    private final StatementExportReader reader;
+    private final AccountRepository accountRepository;
+    private final ReadYourWritesTracker readYourWrites;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper mapper;
+
+    public StatementExportService(StatementExportReader reader, AccountRepository accountRepository,
+            ReadYourWritesTracker readYourWrites, PlatformTransactionManager transactionManager) {
+        this.reader = reader;
+        this.accountRepository = accountRepository;
+        this.readYourWrites = readYourWrites;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        // Mesmo formato JSON da API: datas ISO-8601, sem fechar o stream a cada linha
+        this.mapper = new ObjectMapper();
+        this.mapper.registerModule(new JavaTimeModule());
+        this.mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.mapper.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    // Chamado antes de começar a responder: depois do primeiro byte não dá mais para devolver 404/400
+    public void validate(UUID accountId, Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        if (!accountRepository.existsById(accountId)) {
+            throw new AccountNotFoundException("Account not found");
+        }
+    }
+
+    public void export(UUID accountId, Instant from, Instant to, StatementExportFormat format, OutputStream out)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        long start = System.nanoTime();
+        long[] rows = {0};
+        try {
+            if (format == StatementExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+                stream(accountId, from, to, entry -> {
+                    writeCsvLine(writer, entry);
+                    rows[0]++;
+                });
+            } else {
+                try (SequenceWriter lines = mapper.writer().withRootValueSeparator("\n").writeValues(writer)) {
+                    stream(accountId, from, to, entry -> {
+                        writeJsonLine(lines, entry);
+                        rows[0]++;
+                    });
+                }
+                if (rows[0] > 0) {
+                    writer.write('\n');
+                }
+            }
+        } catch (UncheckedIOException e) {
+            // Normalmente o cliente fechou a conexão no meio do download
+            logger.warn("⚠️ Exportação do extrato da conta {} interrompida após {} linhas", accountId, rows[0]);
+            throw e.getCause();
+        }
+        writer.flush();
+        logger.info("📄 Extrato da conta {} exportado ({}): {} linhas em {} ms", accountId, format, rows[0],
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void stream(UUID accountId, Instant from, Instant to, Consumer<StatementEntryResponse> sink) {
+        try (ReadYourWritesTracker.Pin pin = readYourWrites.pinIfRecentlyWritten(accountId)) {
+            readOnlyTransaction.executeWithoutResult(status -> reader.forEachEntry(accountId, from, to, sink));
+        }
+    }
+
+    private static void writeJsonLine(SequenceWriter lines, StatementEntryResponse entry) {
+        try {
+            lines.write(entry);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeCsvLine(Writer writer, StatementEntryResponse entry) {
+        try {
+            writer.write(String.valueOf(entry.transactionId()));
+            writer.write(',');
+            writer.write(entry.operationType());
+            writer.write(',');
+            writer.write(entry.amount().toPlainString());
+            writer.write(',');
+            writer.write(entry.balanceAfter().toPlainString());
+            writer.write(',');
+            writer.write(csvField(entry.description()));
+            writer.write(',');
+            writer.write(entry.timestamp() == null ? "" : entry.timestamp().toString());
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // RFC 4180: aspas quando há vírgula, aspas ou quebra de linha; aspas internas dobradas
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,85 @@
+package com.titan.ledger.core.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.titan.ledger.core.domain.model.OutboxEvent;
+import com.titan.ledger.core.domain.model.Transaction;
+
+/**
+ * Monta os eventos da Outbox e as respostas de idempotência das transferências.
+ * Compartilhado entre a transferência unitária e o lote para que o JSON publicado
+ * no Kafka seja idêntico nos dois caminhos.
+ */
+@Component
+public class TransferEventFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferEventFactory.class);
+
+    // Mapper exclusivo para gerar JSON limpo na Outbox (sem tipos Java)
+    private final ObjectMapper eventMapper;
+
+    public TransferEventFactory() {
+        this.eventMapper = new ObjectMapper();
+        this.eventMapper.registerModule(new JavaTimeModule()); // Suporte a Instant
+        this.eventMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS); // Datas como ISO-8601 String
+    }
+
+    public OutboxEvent transferCreated(Transaction transaction, UUID fromAccountId, UUID toAccountId,
+            BigDecimal amount) {
+        try {
+            TransferCreatedEvent eventPayload = new TransferCreatedEvent(
+                    transaction.getId().toString(),
+                    fromAccountId.toString(),
+                    toAccountId.toString(),
+                    amount,
+                    transaction.getCreatedAt());
+
+            // Usa o eventMapper local para gerar JSON limpo: {"amount": 100.00}
+            String jsonPayload = eventMapper.writeValueAsString(eventPayload);
+
+            return new OutboxEvent(
+                    "ACCOUNT",
+                    fromAccountId.toString(),
+                    "TRANSFER_CREATED",
+                    jsonPayload);
+
+        } catch (Exception e) {
+            // Se falhar a serialização, rollback em tudo para garantir consistência
+            logger.error("❌ Erro ao serializar evento Outbox", e);
+            throw new RuntimeException("Failed to create outbox event", e);
+        }
+    }
+
+    public String idempotencyResponse(UUID transactionId) {
+        return String.format("{\"transactionId\": \"%s\"}", transactionId);
+    }
+
+    public String extractTransactionId(String json) {
+        try {
+            // Maneira robusta: lê o JSON real
+            return eventMapper.readTree(json).get("transactionId").asText();
+        } catch (Exception e) {
+            logger.warn("Falha ao fazer parse do JSON de idempotência antigo, tentando fallback manual", e);
+            // Fallback para o seu método antigo se falhar
+            return json.replace("{\"transactionId\": \"", "").replace("\"}", "");
+        }
+    }
+
+    // Record interno para representar o Payload do evento
+    record TransferCreatedEvent(
+            String transactionId,
+            String fromAccountId,
+            String toAccountId,
+            BigDecimal amount,
+            Instant timestamp) {
+    }
+}
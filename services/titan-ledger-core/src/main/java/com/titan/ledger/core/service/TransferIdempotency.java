@@ -0,0 +1,218 @@
+package com.titan.ledger.core.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.titan.ledger.adapter.out.cache.IdempotencyNearCache;
+import com.titan.ledger.adapter.out.persistence.IdempotencyRepository;
+import com.titan.ledger.core.usecase.dto.TransferFundsCommand;
+
+/**
+ * Frente comum dos motores de transferência unitária (TransferService e SequencedTransferService):
+ * consulta de idempotência em camadas (cache local -> Bloom -> Redis -> Postgres), single-flight
+ * por chave neste nó e a latência por resultado (TransferMetrics).
+ *
+ * Entre nós quem decide o vencedor continua sendo a reserva da chave no Postgres, feita pelo motor.
+ */
+@Component
+public class TransferIdempotency {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferIdempotency.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final IdempotencyRepository idempotencyRepository;
+    private final IdempotencyNearCache nearCache;
+    private final TransferEventFactory eventFactory;
+    private final TransferMetrics metrics;
+
+    // Single-flight: transferências em andamento neste nó, por chave de idempotência
+    private final ConcurrentMap<String, CompletableFuture<UUID>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${titan.ledger.idempotency.in-flight-wait-ms:5000}")
+    private long inFlightWaitMs = 5000;
+
+    @Value("${titan.ledger.idempotency.retention-days:7}")
+    private int retentionDays = 7;
+
+    /** O que o motor devolve: replayed = outra requisição já tinha gravado a chave. */
+    public record Result(UUID transactionId, boolean replayed) {
+    }
+
+    public TransferIdempotency(StringRedisTemplate redisTemplate, IdempotencyRepository idempotencyRepository,
+            IdempotencyNearCache nearCache, TransferEventFactory eventFactory, TransferMetrics metrics) {
+        this.redisTemplate = redisTemplate;
+        this.idempotencyRepository = idempotencyRepository;
+        this.nearCache = nearCache;
+        this.eventFactory = eventFactory;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Replay, espera pela mesma chave em andamento ou engine. O single-flight só libera quem
+     * está esperando quando o engine retorna, e o engine só retorna depois do commit.
+     */
+    public UUID execute(TransferFundsCommand command, Function<TransferFundsCommand, Result> engine) {
+        long start = System.nanoTime();
+        TransferMetrics.Outcome outcome = TransferMetrics.Outcome.SUCCESS;
+        try {
+            // 1. IDEMPOTENCY CHECK (cache local -> Bloom -> Redis -> Postgres)
+            UUID replayed = findProcessedTransfer(command);
+            if (replayed != null) {
+                outcome = TransferMetrics.Outcome.REPLAY;
+                return replayed;
+            }
+
+            // 2. SINGLE-FLIGHT: a mesma chave já em processamento neste nó -> espera o resultado dela
+            String key = command.idempotencyKey();
+            CompletableFuture<UUID> flight = null;
+            if (key != null) {
+                CompletableFuture<UUID> mine = new CompletableFuture<>();
+                CompletableFuture<UUID> leader = inFlight.putIfAbsent(key, mine);
+                if (leader == null) {
+                    flight = mine;
+                } else {
+                    UUID coalesced = awaitInFlight(key, leader);
+                    if (coalesced != null) {
+                        metrics.recordCoalesced(true);
+                        outcome = TransferMetrics.Outcome.REPLAY;
+                        return coalesced;
+                    }
+                }
+            }
+
+            try {
+                Result result = engine.apply(command);
+                if (result.replayed()) {
+                    metrics.recordCoalesced(false);
+                    outcome = TransferMetrics.Outcome.REPLAY;
+                }
+                if (flight != null) {
+                    flight.complete(result.transactionId());
+                }
+                return result.transactionId();
+            } catch (RuntimeException e) {
+                if (flight != null) {
+                    flight.completeExceptionally(e);
+                }
+                throw e;
+            } finally {
+                if (flight != null) {
+                    inFlight.remove(key, flight);
+                }
+            }
+        } catch (RuntimeException e) {
+            outcome = TransferMetrics.Outcome.of(e);
+            throw e;
+        } finally {
+            metrics.recordTransfer(outcome, start);
+        }
+    }
+
+    private UUID findProcessedTransfer(TransferFundsCommand command) {
+        String key = command.idempotencyKey();
+        if (key == null) {
+            return null;
+        }
+        return metrics.time(TransferMetrics.Stage.IDEMPOTENCY_LOOKUP, () -> {
+            UUID local = nearCache.find(key);
+            if (local != null) {
+                return local;
+            }
+
+            // "Não" do Bloom: chave nunca vista neste nó, pula Redis e Postgres (o caso comum)
+            if (!nearCache.mightExist(key)) {
+                return null;
+            }
+
+            UUID persisted = findPersistedTransfer(key);
+            if (persisted == null) {
+                nearCache.recordFalsePositive();
+            }
+            return persisted;
+        });
+    }
+
+    // Quem chega depois recebe o mesmo resultado (ou a mesma exceção) do primeiro.
+    // Se o primeiro demorar demais, segue sozinho: a reserva no banco ainda decide quem vence.
+    private UUID awaitInFlight(String key, CompletableFuture<UUID> leader) {
+        try {
+            return leader.get(inFlightWaitMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("In-flight transfer failed", e.getCause());
+        } catch (TimeoutException e) {
+            logger.warn("⏳ Transferência com a chave {} ainda em andamento após {} ms; seguindo sem esperar",
+                    key, inFlightWaitMs);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for in-flight transfer", e);
+        }
+    }
+
+    /** Redis e depois Postgres; quem encontra a chave aquece o cache local. */
+    public UUID findPersistedTransfer(String key) {
+        String cachedTxId = redisTemplate.opsForValue().get("idem::" + key);
+        if (cachedTxId != null) {
+            UUID txId = UUID.fromString(cachedTxId);
+            nearCache.remember(key, txId);
+            return txId;
+        }
+
+        // Check Postgres (Fallback)
+        return idempotencyRepository.findByKeyWithin(key, retentionWindowStart())
+                .map(existing -> {
+                    UUID txId = UUID.fromString(eventFactory.extractTransactionId(existing.getResponseBody()));
+                    cacheIdempotencyKey(key, txId.toString());
+                    nearCache.remember(key, txId);
+                    return txId;
+                })
+                .orElse(null);
+    }
+
+    // Redis e cache local só conhecem a chave depois do commit: um rollback não deixa
+    // replay apontando para uma transação que não existe
+    public void rememberAfterCommit(String key, UUID txId) {
+        Runnable remember = () -> {
+            cacheIdempotencyKey(key, txId.toString());
+            nearCache.remember(key, txId);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remember.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember.run();
+            }
+        });
+    }
+
+    // Chaves mais antigas que a retenção estão expiradas, mesmo antes do job dropar a partição
+    public Instant retentionWindowStart() {
+        return Instant.now().minus(Duration.ofDays(retentionDays));
+    }
+
+    private void cacheIdempotencyKey(String key, String txId) {
+        redisTemplate.opsForValue().set("idem::" + key, txId, 24, TimeUnit.HOURS);
+    }
+}
@@ -0,0 +1,184 @@
+package com.titan.ledger.core.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.titan.ledger.core.domain.exception.AccountBlockedException;
+import com.titan.ledger.core.domain.exception.AccountNotFoundException;
+import com.titan.ledger.core.domain.exception.InsufficientFundsException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Métricas da transferência unitária, registradas uma única vez no startup
+ * (nada de Counter.builder(...).register() por requisição).
+ *
+ * titan.ledger.transfer.stage{stage}: tempo de cada estágio do pipeline.
+ * balance_update inclui o lock_wait das contas travadas.
+ * titan.ledger.transfer.latency{outcome}: tempo total do execute(), do lookup de idempotência
+ * ao retorno, incluindo o commit: o TransactionTemplate commita dentro do execute(). O commit
+ * também tem estágio próprio (flush + COMMIT), para separar quanto dele pesa na latência.
+ */
+@Component
+public class TransferMetrics {
+
+    public enum Stage {
+        IDEMPOTENCY_LOOKUP("idempotency_lookup"),
+        IDEMPOTENCY_RESERVE("idempotency_reserve"),
+        LOCK_WAIT("lock_wait"),
+        BALANCE_UPDATE("balance_update"),
+        OUTBOX_SERIALIZATION("outbox_serialization"),
+        LEDGER_WRITE("ledger_write"),
+        COMMIT("commit"),
+        // Sequenciador: da entrada na fila ao resultado do group commit
+        SEQUENCER_WAIT("sequencer_wait");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public enum Outcome {
+        SUCCESS("success"),
+        REPLAY("idempotent_replay"),
+        INSUFFICIENT_FUNDS("insufficient_funds"),
+        BLOCKED("blocked"),
+        NOT_FOUND("not_found"),
+        ERROR("error");
+
+        private final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+
+        public static Outcome of(RuntimeException e) {
+            if (e instanceof InsufficientFundsException) {
+                return INSUFFICIENT_FUNDS;
+            }
+            if (e instanceof AccountNotFoundException) {
+                return NOT_FOUND;
+            }
+            if (e instanceof AccountBlockedException) {
+                return BLOCKED;
+            }
+            // Inclui as IllegalStateException de infraestrutura (single-flight, reserva ilegível)
+            return ERROR;
+        }
+    }
+
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<Outcome, Timer> latencyTimers = new EnumMap<>(Outcome.class);
+    private final Counter transferCount;
+    private final Counter transferAmount;
+    private final Counter coalescedInNode;
+    private final Counter coalescedByReservation;
+
+    public TransferMetrics(MeterRegistry meterRegistry) {
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("titan.ledger.transfer.stage")
+                    .description("Tempo de cada estágio da transferência")
+                    .tag("stage", stage.tag)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(100_000))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(meterRegistry));
+        }
+        for (Outcome outcome : Outcome.values()) {
+            latencyTimers.put(outcome, Timer.builder("titan.ledger.transfer.latency")
+                    .description("Tempo total da transferência por resultado")
+                    .tag("outcome", outcome.tag)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(100_000))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(meterRegistry));
+        }
+
+        this.transferCount = Counter.builder("titan.ledger.transfer.count")
+                .description("Number of successful transfers")
+                .register(meterRegistry);
+        this.transferAmount = Counter.builder("titan.ledger.transfer.amount.total")
+                .register(meterRegistry);
+        this.coalescedInNode = Counter.builder("titan.ledger.idempotency.coalesced")
+                .description("Requisições duplicadas respondidas sem reprocessar")
+                .tag("scope", "node")
+                .register(meterRegistry);
+        this.coalescedByReservation = Counter.builder("titan.ledger.idempotency.coalesced")
+                .description("Requisições duplicadas respondidas sem reprocessar")
+                .tag("scope", "reservation")
+                .register(meterRegistry);
+    }
+
+    public <T> T time(Stage stage, Supplier<T> work) {
+        TransferStageEvent event = new TransferStageEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            stageTimers.get(stage).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            commitEvent(event, stage.tag, null);
+        }
+    }
+
+    public void recordTransfer(Outcome outcome, long startNanos) {
+        latencyTimers.get(outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSuccess(BigDecimal amount) {
+        transferCount.increment();
+        transferAmount.increment(amount.doubleValue());
+    }
+
+    // node: esperou o future de outra requisição deste nó; reservation: perdeu a reserva no banco
+    public void recordCoalesced(boolean inNode) {
+        (inNode ? coalescedInNode : coalescedByReservation).increment();
+    }
+
+    // Mede do beforeCommit ao afterCommit: flush do Hibernate + COMMIT no Postgres
+    public void timeCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private TransferStageEvent event;
+            private long start;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                event = new TransferStageEvent();
+                event.begin();
+                start = System.nanoTime();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (event == null) {
+                    return;
+                }
+                stageTimers.get(Stage.COMMIT).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                commitEvent(event, Stage.COMMIT.tag, status == STATUS_COMMITTED ? "committed" : "rolled_back");
+            }
+        });
+    }
+
+    private static void commitEvent(TransferStageEvent event, String stage, String outcome) {
+        if (event.shouldCommit()) {
+            event.stage = stage;
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+}
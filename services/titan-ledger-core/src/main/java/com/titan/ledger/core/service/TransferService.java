@@ -1,40 +1,38 @@
 package com.titan.ledger.core.service;
 
 import java.math.BigDecimal;
-import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Caching;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.titan.ledger.adapter.out.cache.AccountCacheWriter;
 import com.titan.ledger.adapter.out.persistence.AccountRepository;
 import com.titan.ledger.adapter.out.persistence.IdempotencyRepository;
-import com.titan.ledger.adapter.out.persistence.LedgerRepository;
-import com.titan.ledger.adapter.out.persistence.OutboxRepository;
-import com.titan.ledger.adapter.out.persistence.TransactionRepository;
+import com.titan.ledger.adapter.out.persistence.LedgerBatchWriter;
+import com.titan.ledger.core.domain.exception.AccountBlockedException;
 import com.titan.ledger.core.domain.exception.AccountNotFoundException;
 import com.titan.ledger.core.domain.exception.InsufficientFundsException;
 import com.titan.ledger.core.domain.model.Account;
-import com.titan.ledger.core.domain.model.IdempotencyKey;
+import com.titan.ledger.core.domain.model.AccountStatus;
 import com.titan.ledger.core.domain.model.LedgerEntry;
 import com.titan.ledger.core.domain.model.OperationType;
 import com.titan.ledger.core.domain.model.OutboxEvent;
 import com.titan.ledger.core.domain.model.Transaction;
 import com.titan.ledger.core.domain.model.TransactionStatus;
+import com.titan.ledger.core.service.OptimisticAccountUpdater.Operation;
+import com.titan.ledger.core.service.TransferIdempotency.Result;
 import com.titan.ledger.core.usecase.TransferFundsUseCase;
 import com.titan.ledger.core.usecase.dto.TransferFundsCommand;
 
-import io.micrometer.core.instrument.Counter;
-import io.micrometer.core.instrument.MeterRegistry;
 // import io.micrometer.tracing.Span;
 // import io.micrometer.tracing.Tracer;
 
@@ -44,115 +42,106 @@ public class TransferService implements TransferFundsUseCase {
     private static final Logger logger = LoggerFactory.getLogger(TransferService.class);
 
     private final AccountRepository accountRepository;
-    private final TransactionRepository transactionRepository;
-    private final LedgerRepository ledgerRepository;
     private final IdempotencyRepository idempotencyRepository;
-    private final OutboxRepository outboxRepository; // Repositório da Outbox
-    private final StringRedisTemplate redisTemplate;
-    private final MeterRegistry meterRegistry;
-
-    // Mapper exclusivo para gerar JSON limpo na Outbox (sem tipos Java)
-    private final ObjectMapper eventMapper;
+    private final LedgerBatchWriter ledgerWriter;
+    private final TransferMetrics metrics;
+    private final TransferEventFactory eventFactory;
+    private final AccountShardService shardService;
+    private final OptimisticAccountUpdater optimisticUpdater;
+    private final TransferIdempotency idempotency;
+    private final AccountCacheWriter cacheWriter;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${titan.ledger.concurrency.mode:PESSIMISTIC}")
+    private ConcurrencyMode mode = ConcurrencyMode.PESSIMISTIC;
 
     public TransferService(AccountRepository accountRepository,
-            TransactionRepository transactionRepository,
-            LedgerRepository ledgerRepository,
             IdempotencyRepository idempotencyRepository,
-            OutboxRepository outboxRepository,
-            StringRedisTemplate redisTemplate,
-            MeterRegistry meterRegistry) {
+            LedgerBatchWriter ledgerWriter,
+            TransferMetrics metrics,
+            TransferEventFactory eventFactory,
+            AccountShardService shardService,
+            OptimisticAccountUpdater optimisticUpdater,
+            TransferIdempotency idempotency,
+            AccountCacheWriter cacheWriter,
+            PlatformTransactionManager transactionManager) {
         this.accountRepository = accountRepository;
-        this.transactionRepository = transactionRepository;
-        this.ledgerRepository = ledgerRepository;
         this.idempotencyRepository = idempotencyRepository;
-        this.outboxRepository = outboxRepository;
-        this.redisTemplate = redisTemplate;
-        this.meterRegistry = meterRegistry;
-
-        // Configuração Manual do Mapper para garantir JSON interoperável (Limpo)
-        this.eventMapper = new ObjectMapper();
-        this.eventMapper.registerModule(new JavaTimeModule()); // Suporte a Instant
-        this.eventMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS); // Datas como ISO-8601 String
-
+        this.ledgerWriter = ledgerWriter;
+        this.metrics = metrics;
+        this.eventFactory = eventFactory;
+        this.shardService = shardService;
+        this.optimisticUpdater = optimisticUpdater;
+        this.idempotency = idempotency;
+        this.cacheWriter = cacheWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
+    // Fronteira transacional programática (TransactionTemplate): o single-flight só libera
+    // quem está esperando depois do commit, nunca com a transação ainda aberta
     @Override
-    @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "accounts", key = "#command.fromAccountId()"),
-            @CacheEvict(value = "accounts", key = "#command.toAccountId()"),
-            @CacheEvict(value = "statements", key = "#command.fromAccountId() + '::0'"),
-            @CacheEvict(value = "statements", key = "#command.toAccountId() + '::0'")
-    })
     public UUID execute(TransferFundsCommand command) {
         logger.info("💸 Iniciando Transferência. From: {} | To: {} | Valor: {}",
                 command.fromAccountId(), command.toAccountId(), command.amount());
-        // 1. IDEMPOTENCY CHECK (Redis Primeiro)
-        if (command.idempotencyKey() != null) {
-            String cachedTxId = redisTemplate.opsForValue().get("idem::" + command.idempotencyKey());
-            if (cachedTxId != null) {
-                return UUID.fromString(cachedTxId);
-            }
+        return idempotency.execute(command, this::processInTransaction);
+    }
 
-            // Check Postgres (Fallback)
-            return idempotencyRepository.findById(command.idempotencyKey())
-                    .map(existing -> {
-                        String uuid = extractUuidFromJson(existing.getResponseBody());
-                        cacheIdempotencyKey(command.idempotencyKey(), uuid);
-                        return UUID.fromString(uuid);
-                    })
-                    .orElseGet(() -> processNewTransfer(command));
+    private Result processInTransaction(TransferFundsCommand command) {
+        // Dentro da transação de quem chamou (estorno), o template só participa: a falha marca a
+        // transação externa como rollback-only e a reserva de idempotência continua visível
+        boolean joined = TransactionSynchronizationManager.isActualTransactionActive();
+        try {
+            return transactionTemplate.execute(status -> processNewTransfer(command));
+        } catch (StaleShardRegistryException e) {
+            shardService.rememberSharded(e.accountId());
+            if (joined) {
+                // Quem chamou desfaz tudo; a próxima tentativa já sai pelas fatias
+                throw e;
+            }
+            // Transação própria: já foi desfeita inteira (reserva de idempotência e primeiro UPDATE)
+            logger.warn("🧩 Conta {} virou sharded em outro nó, refazendo a transferência pelas fatias",
+                    e.accountId());
+            return transactionTemplate.execute(status -> processNewTransfer(command));
         }
-
-        return processNewTransfer(command);
     }
 
-    private UUID processNewTransfer(TransferFundsCommand command) {
-        // --- LOGICA DE NEGOCIO (Lock Pessimista) ---
-        UUID firstLockId = command.fromAccountId().compareTo(command.toAccountId()) < 0
-                ? command.fromAccountId()
-                : command.toAccountId();
-        UUID secondLockId = command.fromAccountId().compareTo(command.toAccountId()) < 0
-                ? command.toAccountId()
-                : command.fromAccountId();
-
-        Account account1 = accountRepository.findByIdForUpdate(firstLockId)
-                .orElseThrow(() -> new AccountNotFoundException("Source account not found"));
-        Account account2 = accountRepository.findByIdForUpdate(secondLockId)
-                .orElseThrow(() -> new AccountNotFoundException("Target account not found"));
+    private Result processNewTransfer(TransferFundsCommand command) {
+        // ID atribuído no cliente: a reserva de idempotência já sai com a resposta final
+        UUID transactionId = UUID.randomUUID();
 
-        Account fromAccount = command.fromAccountId().equals(account1.getId()) ? account1 : account2;
-        Account toAccount = command.toAccountId().equals(account1.getId()) ? account1 : account2;
-
-        if (!fromAccount.canTransact()) {
-            throw new IllegalStateException("Source account is " + fromAccount.getStatus());
-        }
-        if (!toAccount.canTransact()) {
-            throw new IllegalStateException("Target account is " + toAccount.getStatus());
+        // --- RESERVA DE IDEMPOTÊNCIA (antes de qualquer lock de conta) ---
+        // Entre nós, o lock da chave + INSERT condicional decide o vencedor: quem perde espera o commit
+        // do outro e então encontra a linha dele
+        if (command.idempotencyKey() != null) {
+            boolean reserved = metrics.time(TransferMetrics.Stage.IDEMPOTENCY_RESERVE, () -> {
+                idempotencyRepository.lockKeys(List.of(command.idempotencyKey()));
+                return idempotencyRepository.reserve(command.idempotencyKey(), 200,
+                        eventFactory.idempotencyResponse(transactionId), idempotency.retentionWindowStart()) == 1;
+            });
+            if (!reserved) {
+                UUID existing = idempotency.findPersistedTransfer(command.idempotencyKey());
+                if (existing == null) {
+                    throw new IllegalStateException("Idempotency key reserved but not readable: " + command.idempotencyKey());
+                }
+                logger.info("🔁 Chave {} já processada por outra requisição. Replay de {}", command.idempotencyKey(), existing);
+                return new Result(existing, true);
+            }
         }
 
-        if (fromAccount.getBalance().compareTo(command.amount()) < 0) {
-            throw new InsufficientFundsException("Insufficient funds");
-        }
+        Movement movement = metrics.time(TransferMetrics.Stage.BALANCE_UPDATE, () -> switch (mode) {
+            case OPTIMISTIC -> moveOptimistic(command);
+            case ATOMIC -> moveAtomic(command);
+            case PESSIMISTIC -> movePessimistic(command);
+        });
 
         // --- TRANSAÇÃO E LEDGER ---
         Transaction transaction = new Transaction(UUID.randomUUID().toString(), command.description());
         transaction.setStatus(TransactionStatus.COMPLETED);
-        transactionRepository.save(transaction);
-
-        BigDecimal newSourceBalance = fromAccount.getBalance().subtract(command.amount());
-        BigDecimal newTargetBalance = toAccount.getBalance().add(command.amount());
-
-        fromAccount.setBalance(newSourceBalance);
-        toAccount.setBalance(newTargetBalance);
-
-        accountRepository.save(fromAccount);
-        accountRepository.save(toAccount);
+        transaction.setId(transactionId);
 
-        ledgerRepository.save(
-                new LedgerEntry(transaction, fromAccount, OperationType.DEBIT, command.amount(), newSourceBalance));
-        ledgerRepository.save(
-                new LedgerEntry(transaction, toAccount, OperationType.CREDIT, command.amount(), newTargetBalance));
+        List<LedgerEntry> entries = List.of(
+                new LedgerEntry(transaction, movement.from(), OperationType.DEBIT, command.amount(), movement.newSourceBalance()),
+                new LedgerEntry(transaction, movement.to(), OperationType.CREDIT, command.amount(), movement.newTargetBalance()));
 
         // Span currentSpan = tracer.currentSpan();
         // if (currentSpan != null) {
@@ -160,73 +149,186 @@ public class TransferService implements TransferFundsUseCase {
         // currentSpan.tag("business.amount", command.amount().toString());
         // }
 
-        logger.info("✅ Transação Realizada com Sucesso! ID: {}", transaction.getId());
         // --- OUTBOX PATTERN (Salvar Evento Limpo) ---
-        try {
-            TransferCreatedEvent eventPayload = new TransferCreatedEvent(
-                    transaction.getId().toString(),
-                    fromAccount.getId().toString(),
-                    toAccount.getId().toString(),
-                    command.amount(),
-                    transaction.getCreatedAt());
+        OutboxEvent event = metrics.time(TransferMetrics.Stage.OUTBOX_SERIALIZATION, () -> eventFactory.transferCreated(
+                transaction, command.fromAccountId(), command.toAccountId(), command.amount()));
+
+        // Um INSERT multi-linha por tabela, em vez de um save() por linha.
+        // A linha de idempotência já foi gravada pela reserva.
+        metrics.time(TransferMetrics.Stage.LEDGER_WRITE, () -> {
+            ledgerWriter.write(transaction, entries, event, null);
+            return null;
+        });
+        logger.info("✅ Transação Realizada com Sucesso! ID: {}", transaction.getId());
 
-            // Usa o eventMapper local para gerar JSON limpo: {"amount": 100.00}
-            String jsonPayload = eventMapper.writeValueAsString(eventPayload);
+        if (command.idempotencyKey() != null) {
+            idempotency.rememberAfterCommit(command.idempotencyKey(), transaction.getId());
+        }
+        // Saldos novos vão para o cache depois do commit (em vez de evict antes dele)
+        cacheWriter.writeAfterCommit(List.of(command.fromAccountId(), command.toAccountId()), movement.balances());
 
-            OutboxEvent outboxEvent = new OutboxEvent(
-                    "ACCOUNT",
-                    fromAccount.getId().toString(),
-                    "TRANSFER_CREATED",
-                    jsonPayload);
+        metrics.recordSuccess(command.amount());
+        metrics.timeCommit();
 
-            outboxRepository.save(outboxEvent);
+        return new Result(transaction.getId(), false);
+    }
 
-        } catch (Exception e) {
-            // Se falhar a serialização, rollback em tudo para garantir consistência
+    private Movement movePessimistic(TransferFundsCommand command) {
+        // --- LOGICA DE NEGOCIO (Lock Pessimista) ---
+        // Mesma ordem global usada pelo lote (AccountLockOrder) para evitar deadlock entre os dois caminhos
+        boolean fromFirst = AccountLockOrder.isBefore(command.fromAccountId(), command.toAccountId());
+        UUID firstLockId = fromFirst ? command.fromAccountId() : command.toAccountId();
+        UUID secondLockId = fromFirst ? command.toAccountId() : command.fromAccountId();
 
-            logger.error("❌ Erro ao serializar evento Outbox", e);
-            throw new RuntimeException("Failed to create outbox event", e);
+        Account account1 = metrics.time(TransferMetrics.Stage.LOCK_WAIT, () -> loadForTransfer(firstLockId))
+                .orElseThrow(() -> new AccountNotFoundException(fromFirst ? "Source account not found" : "Target account not found"));
+        Account account2 = metrics.time(TransferMetrics.Stage.LOCK_WAIT, () -> loadForTransfer(secondLockId))
+                .orElseThrow(() -> new AccountNotFoundException(fromFirst ? "Target account not found" : "Source account not found"));
+
+        Account fromAccount = command.fromAccountId().equals(account1.getId()) ? account1 : account2;
+        Account toAccount = command.toAccountId().equals(account1.getId()) ? account1 : account2;
+
+        if (!fromAccount.canTransact()) {
+            throw new AccountBlockedException("Source account is " + fromAccount.getStatus());
+        }
+        if (!toAccount.canTransact()) {
+            throw new AccountBlockedException("Target account is " + toAccount.getStatus());
         }
 
-        // --- SAVE IDEMPOTENCY ---
-        if (command.idempotencyKey() != null) {
-            String jsonBody = String.format("{\"transactionId\": \"%s\"}", transaction.getId());
-            idempotencyRepository.save(new IdempotencyKey(command.idempotencyKey(), 200, jsonBody));
-            cacheIdempotencyKey(command.idempotencyKey(), transaction.getId().toString());
+        if (!fromAccount.isSharded() && fromAccount.getBalance().compareTo(command.amount()) < 0) {
+            throw new InsufficientFundsException("Insufficient funds");
         }
 
-        Counter.builder("titan.ledger.transfer.count")
-                .description("Number of successful transfers")
-                .register(meterRegistry)
-                .increment();
+        // Contas sharded movimentam uma fatia de saldo; as demais, a própria linha travada.
+        // As fatias também seguem a ordem global: duas transferências opostas entre contas
+        // sharded travariam a fatia de uma e esperariam a da outra
+        BigDecimal newSourceBalance = null;
+        BigDecimal newTargetBalance = null;
+        for (Account account : List.of(account1, account2)) {
+            if (account == fromAccount) {
+                newSourceBalance = fromAccount.isSharded()
+                        ? shardService.debit(fromAccount, command.amount())
+                        : fromAccount.getBalance().subtract(command.amount());
+            } else {
+                newTargetBalance = toAccount.isSharded()
+                        ? shardService.credit(toAccount, command.amount())
+                        : toAccount.getBalance().add(command.amount());
+            }
+        }
 
-        meterRegistry.counter("titan.ledger.transfer.amount.total")
-                .increment(command.amount().doubleValue());
+        // Sharded fica fora do write-through: o saldo efetivo depende das fatias, sem versão própria
+        List<BalanceChange> balances = new ArrayList<>(2);
+        if (!fromAccount.isSharded()) {
+            fromAccount.setBalance(newSourceBalance);
+            accountRepository.save(fromAccount);
+            balances.add(BalanceChange.pendingFlush(fromAccount));
+        }
+        if (!toAccount.isSharded()) {
+            toAccount.setBalance(newTargetBalance);
+            accountRepository.save(toAccount);
+            balances.add(BalanceChange.pendingFlush(toAccount));
+        }
 
-        return transaction.getId();
+        return new Movement(fromAccount, toAccount, newSourceBalance, newTargetBalance, balances);
     }
 
-    private void cacheIdempotencyKey(String key, String txId) {
-        redisTemplate.opsForValue().set("idem::" + key, txId, 24, TimeUnit.HOURS);
+    private Movement moveOptimistic(TransferFundsCommand command) {
+        UUID fromId = command.fromAccountId();
+        UUID toId = command.toAccountId();
+
+        // Contas sharded já não travam a linha principal; seguem pelo caminho das fatias
+        if (shardService.isKnownSharded(fromId) || shardService.isKnownSharded(toId)) {
+            return movePessimistic(command);
+        }
+
+        BigDecimal amount = command.amount();
+        BalanceChange source = null;
+        BalanceChange target = null;
+
+        // O UPDATE também trava a linha até o commit: gravamos na ordem global para não cruzar
+        // com o caminho pessimista nem com outra transferência otimista
+        boolean fromFirst = AccountLockOrder.isBefore(fromId, toId);
+        for (UUID accountId : fromFirst ? List.of(fromId, toId) : List.of(toId, fromId)) {
+            if (accountId.equals(fromId)) {
+                source = optimisticUpdater.apply(fromId, Operation.TRANSFER, "Source account not found", snapshot -> {
+                    if (!AccountStatus.ACTIVE.name().equals(snapshot.getStatus())) {
+                        throw new AccountBlockedException("Source account is " + snapshot.getStatus());
+                    }
+                    if (snapshot.getBalance().compareTo(amount) < 0) {
+                        throw new InsufficientFundsException("Insufficient funds");
+                    }
+                    return snapshot.getBalance().subtract(amount);
+                });
+            } else {
+                target = optimisticUpdater.apply(toId, Operation.TRANSFER, "Target account not found", snapshot -> {
+                    if (!AccountStatus.ACTIVE.name().equals(snapshot.getStatus())) {
+                        throw new AccountBlockedException("Target account is " + snapshot.getStatus());
+                    }
+                    return snapshot.getBalance().add(amount);
+                });
+            }
+        }
+
+        // Referências sem SELECT: o ledger só precisa da FK
+        return new Movement(accountRepository.getReferenceById(fromId), accountRepository.getReferenceById(toId),
+                source.balance(), target.balance(), List.of(source, target));
     }
 
-    private String extractUuidFromJson(String json) {
-        try {
-            // Maneira robusta: lê o JSON real
-            return eventMapper.readTree(json).get("transactionId").asText();
-        } catch (Exception e) {
-            logger.warn("Falha ao fazer parse do JSON de idempotência antigo, tentando fallback manual", e);
-            // Fallback para o seu método antigo se falhar
-            return json.replace("{\"transactionId\": \"", "").replace("\"}", "");
+    private Movement moveAtomic(TransferFundsCommand command) {
+        UUID fromId = command.fromAccountId();
+        UUID toId = command.toAccountId();
+
+        if (shardService.isKnownSharded(fromId) || shardService.isKnownSharded(toId)) {
+            return movePessimistic(command);
+        }
+
+        BalanceChange source = null;
+        BalanceChange target = null;
+
+        // Cada UPDATE trava a linha até o commit, então seguimos a ordem global.
+        // Se o segundo falhar, a exceção desfaz o primeiro junto com a transação.
+        boolean fromFirst = AccountLockOrder.isBefore(fromId, toId);
+        for (UUID accountId : fromFirst ? List.of(fromId, toId) : List.of(toId, fromId)) {
+            if (accountId.equals(fromId)) {
+                source = accountRepository.debitIfActiveAndCovered(fromId, command.amount())
+                        .map(BalanceChange::written)
+                        .orElseThrow(() -> rejection(fromId, "Source", true));
+            } else {
+                target = accountRepository.creditIfActive(toId, command.amount())
+                        .map(BalanceChange::written)
+                        .orElseThrow(() -> rejection(toId, "Target", false));
+            }
         }
+
+        return new Movement(accountRepository.getReferenceById(fromId), accountRepository.getReferenceById(toId),
+                source.balance(), target.balance(), List.of(source, target));
+    }
+
+    // O UPDATE condicional não diz qual regra falhou; uma leitura (só no caminho de erro) classifica
+    private RuntimeException rejection(UUID accountId, String role, boolean debit) {
+        return accountRepository.findSnapshotById(accountId)
+                .<RuntimeException>map(snapshot -> {
+                    if (snapshot.getShardCount() != null && snapshot.getShardCount() > 0) {
+                        return new StaleShardRegistryException(accountId);
+                    }
+                    if (!AccountStatus.ACTIVE.name().equals(snapshot.getStatus())) {
+                        return new AccountBlockedException(role + " account is " + snapshot.getStatus());
+                    }
+                    return debit
+                            ? new InsufficientFundsException("Insufficient funds")
+                            : new IllegalStateException(role + " account rejected the update");
+                })
+                .orElseGet(() -> new AccountNotFoundException(role + " account not found"));
+    }
+
+    // Conta sharded não trava a linha principal: é justamente esse lock que vira gargalo
+    private Optional<Account> loadForTransfer(UUID accountId) {
+        return shardService.isKnownSharded(accountId)
+                ? accountRepository.findById(accountId)
+                : accountRepository.findByIdForUpdate(accountId);
     }
 
-    // Record interno para representar o Payload do evento
-    record TransferCreatedEvent(
-            String transactionId,
-            String fromAccountId,
-            String toAccountId,
-            BigDecimal amount,
-            Instant timestamp) {
+    private record Movement(Account from, Account to, BigDecimal newSourceBalance, BigDecimal newTargetBalance,
+            List<BalanceChange> balances) {
     }
 }
\ No newline at end of file
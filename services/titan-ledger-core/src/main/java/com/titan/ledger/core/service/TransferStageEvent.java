@@ -0,0 +1,27 @@
+package com.titan.ledger.core.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR com os mesmos estágios dos Timers de {@link TransferMetrics}.
+ * Permite cruzar um pico de p99 com GC, safepoints e threads bloqueadas na mesma gravação
+ * (jcmd <pid> JFR.start). Desligado, o custo é só a checagem de isEnabled().
+ */
+@Name("com.titan.ledger.TransferStage")
+@Label("Transfer Stage")
+@Category({ "Titan Ledger", "Transfer" })
+@Description("Tempo gasto em um estágio de uma transferência")
+@StackTrace(false)
+class TransferStageEvent extends Event {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Outcome")
+    String outcome;
+}
@@ -0,0 +1,10 @@
+package com.titan.ledger.core.usecase;
+
+import java.util.List;
+
+import com.titan.ledger.core.usecase.dto.BatchTransferResult;
+import com.titan.ledger.core.usecase.dto.TransferFundsCommand;
+
+public interface BatchTransferFundsUseCase {
+    BatchTransferResult execute(List<TransferFundsCommand> commands);
+}
@@ -0,0 +1,9 @@
+package com.titan.ledger.core.usecase;
+
+import java.util.UUID;
+
+import com.titan.ledger.core.usecase.dto.AccountResponse;
+
+public interface EnableAccountShardingUseCase {
+    AccountResponse execute(UUID accountId, int shardCount);
+}
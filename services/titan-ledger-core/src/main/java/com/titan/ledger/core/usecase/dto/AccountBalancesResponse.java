@@ -0,0 +1,11 @@
+package com.titan.ledger.core.usecase.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+// Saldos na ordem pedida; ids sem conta vão para notFound em vez de derrubar o lote
+public record AccountBalancesResponse(
+        List<AccountResponse> accounts,
+        List<UUID> notFound) {
+
+}
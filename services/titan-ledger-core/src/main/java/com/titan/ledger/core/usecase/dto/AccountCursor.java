@@ -0,0 +1,24 @@
+package com.titan.ledger.core.usecase.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posição na listagem de contas: o último id entregue (ORDER BY id).
+ * Para o cliente é uma string opaca (base64url), como o StatementCursor.
+ */
+public record AccountCursor(UUID lastId) {
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static AccountCursor decode(String token) {
+        try {
+            return new AccountCursor(UUID.fromString(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid account cursor");
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.titan.ledger.core.usecase.dto;
+
+import java.time.Instant;
+import java.util.Locale;
+
+import com.titan.ledger.core.domain.model.AccountStatus;
+
+// Filtros opcionais (null = sem filtro) da listagem paginada e da exportação de contas
+public record AccountFilter(
+        String status,
+        String currency,
+        Instant updatedSince) {
+
+    // Normaliza o que vem da query string; status desconhecido vira 400 (IllegalArgumentException)
+    public static AccountFilter of(String status, String currency, Instant updatedSince) {
+        String normalizedStatus = null;
+        if (status != null && !status.isBlank()) {
+            try {
+                normalizedStatus = AccountStatus.valueOf(status.trim().toUpperCase(Locale.ROOT)).name();
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown account status: " + status);
+            }
+        }
+        String normalizedCurrency = currency == null || currency.isBlank() ? null : currency.trim().toUpperCase(Locale.ROOT);
+        return new AccountFilter(normalizedStatus, normalizedCurrency, updatedSince);
+    }
+}
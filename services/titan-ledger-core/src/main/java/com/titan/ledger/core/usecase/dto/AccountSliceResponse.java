@@ -0,0 +1,12 @@
+package com.titan.ledger.core.usecase.dto;
+
+import java.util.List;
+
+// Página da listagem de contas por cursor: sem total, só se há mais (nextCursor é null na última)
+public record AccountSliceResponse(
+        List<AccountResponse> content,
+        int size,
+        boolean hasNext,
+        String nextCursor) {
+
+}
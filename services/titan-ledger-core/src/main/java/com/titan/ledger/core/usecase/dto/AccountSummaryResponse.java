@@ -0,0 +1,13 @@
+package com.titan.ledger.core.usecase.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+// Resumo da conta; asOf = até quando os dados refletem todos os lançamentos (watermark do read model)
+public record AccountSummaryResponse(
+        AccountResponse account,
+        List<StatementEntryResponse> recentEntries,
+        List<MonthlyTotalResponse> monthlyTotals,
+        Instant asOf) {
+
+}
@@ -0,0 +1,14 @@
+package com.titan.ledger.core.usecase.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public record BalanceAtResponse(
+        UUID accountId,
+        Instant at, // instante consultado
+        BigDecimal balance, // balance_snapshot do último lançamento até "at" (zero se não houver)
+        Instant asOf, // quando esse lançamento aconteceu (null se não houver)
+        UUID transactionId) {
+
+}
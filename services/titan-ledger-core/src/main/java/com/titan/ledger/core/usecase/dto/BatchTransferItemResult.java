@@ -0,0 +1,23 @@
+package com.titan.ledger.core.usecase.dto;
+
+import java.util.UUID;
+
+public record BatchTransferItemResult(
+        int index, // posição do item no arquivo enviado
+        String idempotencyKey,
+        Status status,
+        UUID transactionId, // preenchido apenas em COMPLETED e REPLAYED
+        String message) {
+
+    public enum Status {
+        COMPLETED,
+        REPLAYED, // chave de idempotência já processada, devolve a transação original
+        INSUFFICIENT_FUNDS,
+        ACCOUNT_BLOCKED,
+        ACCOUNT_NOT_FOUND
+    }
+
+    public boolean isSuccessful() {
+        return status == Status.COMPLETED || status == Status.REPLAYED;
+    }
+}
@@ -0,0 +1,11 @@
+package com.titan.ledger.core.usecase.dto;
+
+import java.util.List;
+
+public record BatchTransferResult(
+        int total,
+        int succeeded,
+        int failed,
+        List<BatchTransferItemResult> items) {
+
+}
@@ -0,0 +1,14 @@
+package com.titan.ledger.core.usecase.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+// Dias sem movimento não aparecem (o saldo de fechamento é o do último dia listado antes deles).
+// completeUntil: lançamentos até esse instante já estão nos totais; dias depois dele podem estar parciais
+public record DailySummaryRangeResponse(
+        UUID accountId,
+        List<DailySummaryResponse> days,
+        Instant completeUntil) {
+
+}
@@ -0,0 +1,14 @@
+package com.titan.ledger.core.usecase.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record DailySummaryResponse(
+        LocalDate day, // UTC
+        BigDecimal credits,
+        BigDecimal debits,
+        long creditCount,
+        long debitCount,
+        BigDecimal closingBalance) { // balance_snapshot do último lançamento do dia
+
+}
@@ -0,0 +1,12 @@
+package com.titan.ledger.core.usecase.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record MonthlyTotalResponse(
+        LocalDate month, // primeiro dia do mês, em UTC
+        BigDecimal credits,
+        BigDecimal debits,
+        long entryCount) {
+
+}
@@ -0,0 +1,12 @@
+package com.titan.ledger.core.usecase.dto;
+
+import java.util.List;
+
+// Página do extrato por cursor: sem total, só se há mais (nextCursor é null na última)
+public record StatementSliceResponse(
+        List<StatementEntryResponse> content,
+        int size,
+        boolean hasNext,
+        String nextCursor) {
+
+}
@@ -0,0 +1,75 @@
+-- Read model (CQRS) das contas: saldo atual, últimos lançamentos e totais mensais, desnormalizados
+-- em um schema próprio. Só o AccountReadModelProjector escreve aqui, lendo ledger_entries direto
+-- (a outbox é do contrato com o Kafka); transferências e depósitos continuam travando apenas
+-- accounts/ledger_entries.
+CREATE SCHEMA IF NOT EXISTS read_model;
+
+CREATE TABLE read_model.account_balances (
+    account_id UUID PRIMARY KEY,
+    client_id VARCHAR(255) NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    balance DECIMAL(19, 4) NOT NULL, -- Já soma as fatias das contas sharded
+    last_entry_at TIMESTAMP WITH TIME ZONE,
+    projected_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Só os últimos titan.ledger.read-model.recent-entries lançamentos de cada conta
+CREATE TABLE read_model.account_recent_entries (
+    entry_id UUID PRIMARY KEY,
+    account_id UUID NOT NULL,
+    transaction_id UUID NOT NULL,
+    operation_type VARCHAR(10) NOT NULL,
+    amount DECIMAL(19, 4) NOT NULL,
+    balance_after DECIMAL(19, 4) NOT NULL,
+    description VARCHAR(255),
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_rm_recent_entries_account
+    ON read_model.account_recent_entries (account_id, created_at DESC, entry_id DESC);
+
+-- Mês em UTC (primeiro dia do mês)
+CREATE TABLE read_model.account_monthly_totals (
+    account_id UUID NOT NULL,
+    month DATE NOT NULL,
+    credits DECIMAL(19, 4) NOT NULL DEFAULT 0.0000,
+    debits DECIMAL(19, 4) NOT NULL DEFAULT 0.0000,
+    entry_count BIGINT NOT NULL DEFAULT 0,
+
+    CONSTRAINT pk_account_monthly_totals PRIMARY KEY (account_id, month)
+);
+
+-- Lançamentos já somados nos totais mensais, só dentro da janela de reparo
+-- (titan.ledger.read-model.repair-window): o reparo relê essa janela e não soma nada duas vezes
+CREATE TABLE read_model.projected_entries (
+    entry_id UUID PRIMARY KEY,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_rm_projected_entries_created ON read_model.projected_entries (created_at);
+
+-- Posição dos jobs incrementais: (watermark_at, watermark_id) = último lançamento já processado;
+-- complete_until = tudo criado antes desse instante já foi processado.
+-- A linha do job também serve de lock entre nós (SELECT ... FOR UPDATE SKIP LOCKED).
+CREATE TABLE job_checkpoints (
+    job_name VARCHAR(100) PRIMARY KEY,
+    watermark_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    watermark_id UUID NOT NULL,
+    complete_until TIMESTAMP WITH TIME ZONE,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Varredura incremental em ordem (created_at, id) a partir do watermark
+CREATE INDEX idx_ledger_created_id ON ledger_entries (created_at, id);
+
+-- Saldos vêm de accounts (linha + fatias); lançamentos recentes e totais mensais são
+-- montados pelo projetor, que começa do zero e reprocessa o histórico em lotes. Até alcançar
+-- o presente, as leituras com maxStalenessMs caem nas tabelas de origem.
+INSERT INTO read_model.account_balances (account_id, client_id, currency, balance, last_entry_at)
+SELECT a.id, a.client_id, a.currency,
+       a.balance + COALESCE((SELECT SUM(s.balance) FROM account_balance_shards s WHERE s.account_id = a.id), 0),
+       NULL
+FROM accounts a;
+
+INSERT INTO job_checkpoints (job_name, watermark_at, watermark_id)
+VALUES ('account-read-model', TIMESTAMP WITH TIME ZONE '1970-01-01 00:00:00+00', '00000000-0000-0000-0000-000000000000');
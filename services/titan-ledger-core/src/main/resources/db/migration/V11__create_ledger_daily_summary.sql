@@ -0,0 +1,19 @@
+-- Totais diários por conta, mantidos de forma incremental pelo LedgerDailyRollupJob.
+-- Dia em UTC; só existem linhas para dias com movimento.
+CREATE TABLE ledger_daily_summary (
+    account_id UUID NOT NULL,
+    day DATE NOT NULL,
+    credits DECIMAL(19, 4) NOT NULL DEFAULT 0.0000,
+    debits DECIMAL(19, 4) NOT NULL DEFAULT 0.0000,
+    credit_count BIGINT NOT NULL DEFAULT 0,
+    debit_count BIGINT NOT NULL DEFAULT 0,
+    closing_balance DECIMAL(19, 4) NOT NULL, -- balance_snapshot do último lançamento do dia
+    last_entry_at TIMESTAMP WITH TIME ZONE NOT NULL,
+
+    CONSTRAINT pk_ledger_daily_summary PRIMARY KEY (account_id, day)
+);
+
+-- Começa do zero: a primeira execução processa o histórico em lotes
+-- (job_checkpoints e idx_ledger_created_id vêm do V10)
+INSERT INTO job_checkpoints (job_name, watermark_at, watermark_id)
+VALUES ('ledger-daily-rollup', TIMESTAMP WITH TIME ZONE '1970-01-01 00:00:00+00', '00000000-0000-0000-0000-000000000000');
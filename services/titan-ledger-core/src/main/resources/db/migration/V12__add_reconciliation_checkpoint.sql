@@ -0,0 +1,8 @@
+-- Reconciliação incremental: complete_until = início da última rodada concluída.
+-- NULL = nunca rodou, a primeira rodada é uma varredura completa.
+INSERT INTO job_checkpoints (job_name, watermark_at, watermark_id)
+VALUES ('reconciliation', TIMESTAMP WITH TIME ZONE '1970-01-01 00:00:00+00', '00000000-0000-0000-0000-000000000000');
+
+-- Contas alteradas desde o checkpoint (lançamentos usam idx_ledger_created_id, do V10)
+CREATE INDEX idx_accounts_updated_at ON accounts (updated_at);
+CREATE INDEX idx_account_shards_updated_at ON account_balance_shards (updated_at);
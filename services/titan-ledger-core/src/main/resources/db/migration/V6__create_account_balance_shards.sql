@@ -0,0 +1,15 @@
+-- Contas "sharded": o saldo de contas muito quentes (grandes lojistas) é dividido em N linhas
+-- para que créditos concorrentes não disputem o mesmo row lock em accounts.
+-- shard_count = 0 significa conta comum (saldo inteiro em accounts.balance).
+ALTER TABLE accounts
+ADD COLUMN shard_count INT NOT NULL DEFAULT 0;
+
+CREATE TABLE account_balance_shards (
+    account_id UUID NOT NULL,
+    shard_no INT NOT NULL,
+    balance DECIMAL(19, 4) NOT NULL DEFAULT 0.0000 CHECK (balance >= 0),
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_account_balance_shards PRIMARY KEY (account_id, shard_no),
+    CONSTRAINT fk_shard_account FOREIGN KEY (account_id) REFERENCES accounts(id)
+);
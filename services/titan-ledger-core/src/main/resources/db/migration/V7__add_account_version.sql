@@ -0,0 +1,4 @@
+-- Versão da linha para o modo otimista (titan.ledger.concurrency.mode=OPTIMISTIC):
+-- escritas conferem a versão lida em vez de segurar um SELECT FOR UPDATE.
+ALTER TABLE accounts
+ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,43 @@
+-- idempotency_keys passa a ser particionada por dia em created_at.
+-- Expirar vira DROP da partição do dia (sem DELETE em massa nem VACUUM depois),
+-- e as buscas com created_at >= início da janela só tocam as partições recentes.
+-- Partições futuras e remoção das expiradas: IdempotencyPartitionJob.
+--
+-- A PK precisa conter a chave de partição, então a unicidade de "key" deixa de ser
+-- garantida por índice: a aplicação serializa cada chave com pg_advisory_xact_lock
+-- e só insere se ela não existir dentro da janela de retenção.
+ALTER TABLE idempotency_keys RENAME TO idempotency_keys_legacy;
+ALTER TABLE idempotency_keys_legacy RENAME CONSTRAINT idempotency_keys_pkey TO idempotency_keys_legacy_pkey;
+
+CREATE TABLE idempotency_keys (
+    key VARCHAR(255) NOT NULL,
+    response_status INT NOT NULL,
+    response_body JSONB,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (key, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Rede de segurança: se o job parar de criar partições, as escritas não falham
+CREATE TABLE idempotency_keys_default PARTITION OF idempotency_keys DEFAULT;
+
+-- Dias e limites sempre em UTC, iguais aos que o job cria. current_date segue o TimeZone da
+-- sessão e, perto da meia-noite, escolheria um dia a mais ou a menos que o job.
+DO $$
+DECLARE
+    today DATE := (now() AT TIME ZONE 'UTC')::date;
+    day DATE;
+BEGIN
+    FOR day IN SELECT generate_series(today - 7, today + 7, interval '1 day')::date LOOP
+        EXECUTE format('CREATE TABLE idempotency_keys_%s PARTITION OF idempotency_keys FOR VALUES FROM (%L) TO (%L)',
+                to_char(day, 'YYYYMMDD'), day::text || ' 00:00:00+00', (day + 1)::text || ' 00:00:00+00');
+    END LOOP;
+END $$;
+
+-- Só o que ainda está dentro da retenção padrão (7 dias) é copiado
+INSERT INTO idempotency_keys (key, response_status, response_body, created_at)
+SELECT key, response_status, response_body, COALESCE(created_at, CURRENT_TIMESTAMP)
+FROM idempotency_keys_legacy
+WHERE created_at IS NULL OR created_at >= ((now() AT TIME ZONE 'UTC')::date - 7) AT TIME ZONE 'UTC';
+
+DROP TABLE idempotency_keys_legacy;
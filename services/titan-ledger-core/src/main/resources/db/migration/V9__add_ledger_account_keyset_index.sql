@@ -0,0 +1,10 @@
+-- Extrato por cursor (keyset): WHERE account_id = ? AND (created_at, id) < (?, ?)
+-- ORDER BY created_at DESC, id DESC LIMIT n. O índice entrega as linhas já na ordem,
+-- então a página 1000 custa o mesmo que a primeira, sem OFFSET nem COUNT(*).
+-- INCLUDE cobre as colunas do lançamento (a descrição ainda vem de transactions).
+CREATE INDEX idx_ledger_account_created_id
+    ON ledger_entries (account_id, created_at DESC, id DESC)
+    INCLUDE (transaction_id, operation_type, amount, balance_snapshot);
+
+-- Prefixo do índice acima
+DROP INDEX IF EXISTS idx_ledger_account;
@@ -0,0 +1,92 @@
+package com.titan.ledger.adapter.in.web.admission;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.titan.ledger.adapter.in.web.advice.GlobalExceptionHandler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AdmissionControlAspectTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void releaseHolder() {
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should answer 503 with Retry-After when every write slot stays busy past max-wait")
+    void shouldRejectWhenSaturated() throws Exception {
+        MockMvc mvc = mvc(new AdmissionControlAspect(1, 10, 3, 20, meterRegistry));
+
+        // Primeira escrita segura a única vaga até o fim do teste
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> {
+            try {
+                mvc.perform(post("/slow"));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        mvc.perform(post("/slow"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.title").value("Service Overloaded"));
+        assertThat(meterRegistry.counter("titan.ledger.admission.rejected").count()).isEqualTo(1);
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Should size the gate to the pool minus the connections reserved for reads and jobs")
+    void shouldLeaveReservedConnectionsOutsideTheGate() {
+        assertThat(new AdmissionControlAspect(0, 10, 3, 200, meterRegistry).maxConcurrent()).isEqualTo(7);
+        assertThat(new AdmissionControlAspect(0, 2, 3, 200, meterRegistry).maxConcurrent()).isEqualTo(1);
+        assertThat(new AdmissionControlAspect(4, 10, 3, 200, meterRegistry).maxConcurrent()).isEqualTo(4);
+    }
+
+    private MockMvc mvc(AdmissionControlAspect aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new SlowController());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return MockMvcBuilders.standaloneSetup((Object) factory.getProxy())
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @RestController
+    public class SlowController {
+
+        @AdmissionControlled
+        @PostMapping("/slow")
+        public String slow() throws InterruptedException {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.titan.ledger.adapter.in.web.export;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.titan.ledger.core.domain.exception.AdmissionRejectedException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ExportGateTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExportGate gate = new ExportGate(1, Duration.ofMinutes(30), meterRegistry);
+
+    @Test
+    @DisplayName("Should refuse a second export while one holds the only slot, and admit again after it ends")
+    void shouldLimitConcurrentExports() throws Exception {
+        StreamingResponseBody first = gate.admit(new MockHttpServletRequest(),
+                out -> out.write("ok".getBytes(StandardCharsets.UTF_8)));
+
+        assertThatThrownBy(() -> gate.admit(new MockHttpServletRequest(), out -> { }))
+                .isInstanceOf(AdmissionRejectedException.class);
+        assertThat(meterRegistry.counter("titan.ledger.export.rejected").count()).isEqualTo(1);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        first.writeTo(out);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("ok");
+
+        gate.admit(new MockHttpServletRequest(), o -> { });
+    }
+
+    @Test
+    @DisplayName("Should apply the export timeout to this request only and free the slot if the body never runs")
+    void shouldSetTimeoutPerRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        AsyncWebRequest asyncRequest = mock(AsyncWebRequest.class);
+        WebAsyncUtils.getAsyncManager(request).setAsyncWebRequest(asyncRequest);
+
+        gate.admit(request, out -> { });
+
+        verify(asyncRequest).setTimeout(Duration.ofMinutes(30).toMillis());
+        ArgumentCaptor<Runnable> completion = ArgumentCaptor.forClass(Runnable.class);
+        // O primeiro handler é o do próprio WebAsyncManager
+        verify(asyncRequest, times(2)).addCompletionHandler(completion.capture());
+
+        // Request terminou sem o corpo rodar: a vaga volta
+        completion.getAllValues().get(1).run();
+        gate.admit(new MockHttpServletRequest(), out -> { });
+    }
+}
@@ -0,0 +1,68 @@
+package com.titan.ledger.adapter.out.cache;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import com.titan.ledger.core.usecase.dto.AccountResponse;
+import com.titan.ledger.core.usecase.dto.StatementEntryResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BinaryCacheValueSerializerTest {
+
+    private final GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+    private final BinaryCacheValueSerializer serializer = new BinaryCacheValueSerializer(json);
+
+    @Test
+    @DisplayName("Should round-trip AccountResponse, including large and null decimals")
+    void shouldRoundTripAccount() {
+        AccountResponse small = new AccountResponse(UUID.randomUUID(), "client-1", "BRL", new BigDecimal("1234.5600"), "ACTIVE");
+        AccountResponse huge = new AccountResponse(UUID.randomUUID(), "ção", "USD",
+                new BigDecimal("123456789012345678901234567890.1234"), null);
+
+        assertThat(serializer.deserialize(serializer.serialize(small))).isEqualTo(small);
+        assertThat(serializer.deserialize(serializer.serialize(huge))).isEqualTo(huge);
+    }
+
+    @Test
+    @DisplayName("Should round-trip a statement page with its pageable and total")
+    void shouldRoundTripStatementPage() {
+        List<StatementEntryResponse> content = List.of(
+                new StatementEntryResponse(UUID.randomUUID(), "DEBIT", new BigDecimal("10.00"),
+                        new BigDecimal("90.0000"), "Pix", Instant.parse("2026-10-18T10:15:30.123456789Z")),
+                new StatementEntryResponse(UUID.randomUUID(), "CREDIT", new BigDecimal("100.00"),
+                        new BigDecimal("100.0000"), null, Instant.parse("2026-10-17T08:00:00Z")));
+        Page<StatementEntryResponse> page = new PageImpl<>(content,
+                PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt")), 42);
+
+        @SuppressWarnings("unchecked")
+        Page<StatementEntryResponse> decoded = (Page<StatementEntryResponse>) serializer.deserialize(serializer.serialize(page));
+
+        assertThat(decoded.getContent()).isEqualTo(content);
+        assertThat(decoded.getPageable()).isEqualTo(page.getPageable());
+        assertThat(decoded.getTotalElements()).isEqualTo(42);
+    }
+
+    @Test
+    @DisplayName("Should read values written by the JSON serializer and treat unknown format versions as a miss")
+    void shouldStayCompatible() {
+        AccountResponse account = new AccountResponse(UUID.randomUUID(), "client-1", "BRL", BigDecimal.TEN, "ACTIVE");
+        byte[] legacy = json.serialize(account);
+        assertThat(serializer.deserialize(legacy)).isEqualTo(account);
+
+        byte[] binary = serializer.serialize(account);
+        assertThat(binary.length).isLessThan(legacy.length / 2);
+        binary[1] = BinaryCacheValueSerializer.FORMAT_VERSION + 1;
+        assertThat(serializer.deserialize(binary)).isNull();
+    }
+}
@@ -0,0 +1,121 @@
+package com.titan.ledger.adapter.out.cache;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.titan.ledger.adapter.in.web.config.CacheConfig;
+import com.titan.ledger.core.usecase.dto.AccountResponse;
+import com.titan.ledger.core.usecase.dto.StatementEntryResponse;
+
+/**
+ * Codec binário x GenericJackson2JsonRedisSerializer (mesmo ObjectMapper do CacheConfig).
+ *
+ * Rodar:
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *       com.titan.ledger.adapter.out.cache.CacheCodecBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheCodecBenchmark {
+
+    private RedisSerializer<Object> json;
+    private RedisSerializer<Object> binary;
+
+    private AccountResponse account;
+    private Page<StatementEntryResponse> statementPage;
+    private byte[] accountJson;
+    private byte[] accountBinary;
+    private byte[] pageJson;
+    private byte[] pageBinary;
+
+    @Setup
+    public void setup() {
+        json = new GenericJackson2JsonRedisSerializer(new CacheConfig().redisObjectMapper());
+        binary = new BinaryCacheValueSerializer(json);
+
+        account = new AccountResponse(UUID.randomUUID(), "merchant-42", "BRL", new BigDecimal("15234.7700"), "ACTIVE");
+        List<StatementEntryResponse> entries = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            entries.add(new StatementEntryResponse(UUID.randomUUID(), i % 2 == 0 ? "DEBIT" : "CREDIT",
+                    new BigDecimal("12.50"), new BigDecimal("1000.0000").add(BigDecimal.valueOf(i)),
+                    "Pix #" + i, Instant.now().minusSeconds(i * 60L)));
+        }
+        statementPage = new PageImpl<>(entries, PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt")), 500);
+
+        accountJson = json.serialize(account);
+        accountBinary = binary.serialize(account);
+        pageJson = json.serialize(statementPage);
+        pageBinary = binary.serialize(statementPage);
+        System.out.printf("Payload AccountResponse: json=%d bytes, binary=%d bytes%n", accountJson.length, accountBinary.length);
+        System.out.printf("Payload extrato (20 itens): json=%d bytes, binary=%d bytes%n", pageJson.length, pageBinary.length);
+    }
+
+    @Benchmark
+    public byte[] accountSerializeJson() {
+        return json.serialize(account);
+    }
+
+    @Benchmark
+    public byte[] accountSerializeBinary() {
+        return binary.serialize(account);
+    }
+
+    @Benchmark
+    public Object accountDeserializeJson() {
+        return json.deserialize(accountJson);
+    }
+
+    @Benchmark
+    public Object accountDeserializeBinary() {
+        return binary.deserialize(accountBinary);
+    }
+
+    @Benchmark
+    public byte[] statementSerializeJson() {
+        return json.serialize(statementPage);
+    }
+
+    @Benchmark
+    public byte[] statementSerializeBinary() {
+        return binary.serialize(statementPage);
+    }
+
+    // PageImpl não tem construtor para o Jackson: a leitura em JSON falha, só o binário é medido
+    @Benchmark
+    public Object statementDeserializeBinary() {
+        return binary.deserialize(pageBinary);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CacheCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+}
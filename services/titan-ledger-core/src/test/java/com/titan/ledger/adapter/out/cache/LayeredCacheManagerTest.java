@@ -0,0 +1,207 @@
+package com.titan.ledger.adapter.out.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LayeredCacheManagerTest {
+
+    @Mock private StringRedisTemplate redisTemplate;
+    @Mock private LayeredCache.RefreshWriter refreshWriter;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrentMapCacheManager remote = new ConcurrentMapCacheManager("accounts");
+    private LayeredCacheManager cacheManager;
+
+    @BeforeEach
+    void setup() {
+        cacheManager = new LayeredCacheManager(remote, redisTemplate, meterRegistry, 100, Duration.ofMinutes(1), 1.0,
+                Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Should serve repeated reads from L1 after the first L2 hit")
+    void shouldPromoteL2HitsToL1() {
+        remote.getCache("accounts").put("acc-1", "balance-100");
+        Cache cache = cacheManager.getCache("accounts");
+
+        assertThat(cache.get("acc-1").get()).isEqualTo("balance-100");
+        // Some do L2: a segunda leitura só pode vir do L1
+        remote.getCache("accounts").evict("acc-1");
+        assertThat(cache.get("acc-1").get()).isEqualTo("balance-100");
+
+        assertThat(count("l1", "hit")).isEqualTo(1);
+        assertThat(count("l1", "miss")).isEqualTo(1);
+        assertThat(count("l2", "hit")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should broadcast evictions and drop L1 copies only on messages from other nodes")
+    void shouldInvalidateL1FromOtherNodes() {
+        Cache cache = cacheManager.getCache("accounts");
+        cache.put("acc-1", "old");
+        cache.evict("acc-1");
+
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(LayeredCacheManager.EVICTION_CHANNEL), published.capture());
+        assertThat(published.getValue()).endsWith("|accounts|acc-1");
+
+        // Própria mensagem de volta: ignorada
+        cache.put("acc-2", "stale");
+        String ownNode = published.getValue().substring(0, published.getValue().indexOf('|'));
+        cacheManager.onMessage(message(ownNode + "|accounts|acc-2"), null);
+        remote.getCache("accounts").evict("acc-2");
+        assertThat(cache.get("acc-2")).isNotNull();
+
+        cacheManager.onMessage(message("other-node|accounts|acc-2"), null);
+        assertThat(cache.get("acc-2")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should run a single loader per key when concurrent misses hit the same node")
+    void shouldCoalesceConcurrentLoads() throws Exception {
+        Cache cache = cacheManager.getCache("accounts");
+        AtomicInteger loaderCalls = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> cache.get("acc-1", () -> {
+                    loaderCalls.incrementAndGet();
+                    loaderStarted.countDown();
+                    releaseLoader.await();
+                    return "balance-100";
+                })));
+            }
+            assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            // Espera as outras três requisições ficarem presas no future do loader
+            while (meterRegistry.get("titan.ledger.cache.coalesced").counter().count() < 3) {
+                Thread.sleep(5);
+            }
+            releaseLoader.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("balance-100");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loaderCalls.get()).isEqualTo(1);
+        assertThat(remote.getCache("accounts").get("acc-1").get()).isEqualTo("balance-100");
+    }
+
+    @Test
+    @DisplayName("Should refresh an expiring entry on the caller thread and write it through the compare-and-set")
+    void shouldRefreshEarlyOnCallerThread() throws Exception {
+        LayeredCache cache = expiringCache();
+        loadOnMiss(cache, "balance-100");
+        Thread.sleep(5);
+
+        LayeredCache.Snapshot before = new LayeredCache.Snapshot(new byte[] {1}, null);
+        when(refreshWriter.snapshot("acc-1")).thenReturn(before);
+        when(refreshWriter.replace("acc-1", before, "balance-150")).thenReturn(true);
+        Thread caller = Thread.currentThread();
+        List<Thread> loaderThreads = new ArrayList<>();
+
+        String value = cache.get("acc-1", () -> {
+            loaderThreads.add(Thread.currentThread());
+            return "balance-150";
+        });
+
+        assertThat(value).isEqualTo("balance-150");
+        assertThat(loaderThreads).containsExactly(caller);
+        assertThat(cache.get("acc-1").get()).isEqualTo("balance-150");
+        assertThat(meterRegistry.get("titan.ledger.cache.loads").tags("type", "early_refresh").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep L1 untouched when another writer changed L2 during the refresh")
+    void shouldNotOverwriteWhenCompareAndSetFails() throws Exception {
+        LayeredCache cache = expiringCache();
+        loadOnMiss(cache, "balance-100");
+        Thread.sleep(5);
+
+        when(refreshWriter.snapshot("acc-1")).thenReturn(new LayeredCache.Snapshot(new byte[] {1}, null));
+        when(refreshWriter.replace(eq("acc-1"), any(), eq("balance-150"))).thenReturn(false);
+
+        assertThat(cache.get("acc-1", () -> "balance-150")).isEqualTo("balance-150");
+        assertThat(cache.get("acc-1").get()).isEqualTo("balance-100");
+    }
+
+    @Test
+    @DisplayName("Should not cache a miss load when the version moved while the loader read the database")
+    void shouldSkipFillWhenVersionMovedDuringLoad() {
+        LayeredCache cache = expiringCache();
+        LayeredCache.Snapshot before = new LayeredCache.Snapshot(null, "7".getBytes(StandardCharsets.UTF_8));
+        when(refreshWriter.snapshot("acc-1")).thenReturn(before);
+        when(refreshWriter.fill("acc-1", before, "balance-100")).thenReturn(false);
+
+        assertThat(cache.get("acc-1", () -> "balance-100")).isEqualTo("balance-100");
+
+        // Nem L1 nem L2: a próxima leitura carrega de novo
+        assertThat(cache.get("acc-1")).isNull();
+        verify(refreshWriter).fill("acc-1", before, "balance-100");
+    }
+
+    // Miss com a chave ausente no L2 e preenchimento aceito
+    private void loadOnMiss(LayeredCache cache, String value) {
+        LayeredCache.Snapshot absent = new LayeredCache.Snapshot(null, null);
+        when(refreshWriter.snapshot("acc-1")).thenReturn(absent);
+        when(refreshWriter.fill("acc-1", absent, value)).thenReturn(true);
+        cache.get("acc-1", () -> value);
+    }
+
+    // TTL de 1 ms no L2: depois de uma pausa curta todo hit sorteia o refresh
+    private LayeredCache expiringCache() {
+        return new LayeredCache("accounts", new ConcurrentMapCache("accounts"),
+                Caffeine.newBuilder().maximumSize(100).build(), (name, keys) -> { }, meterRegistry,
+                (key, value) -> Duration.ofMillis(1), 1.0, refreshWriter, 100);
+    }
+
+    private double count(String level, String result) {
+        return meterRegistry.get("titan.ledger.cache.requests")
+                .tags("cache", "accounts", "level", level, "result", result).counter().count();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(LayeredCacheManager.EVICTION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,48 @@
+package com.titan.ledger.adapter.out.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RotatingBloomFilterTest {
+
+    @Test
+    @DisplayName("Should never report a false negative and keep false positives near the target rate")
+    void shouldHaveNoFalseNegatives() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 9_000; i++) {
+            filter.put("key-" + i);
+        }
+
+        for (int i = 0; i < 9_000; i++) {
+            assertThat(filter.mightContain("key-" + i)).isTrue();
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    @DisplayName("Should keep the previous generation after a rotation and drop it on the next one")
+    void shouldRotateGenerations() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(100, 0.001);
+        filter.put("old-key");
+        for (int i = 0; i < 99; i++) {
+            filter.put("first-" + i);
+        }
+        assertThat(filter.insertionsInCurrentGeneration()).isZero();
+        assertThat(filter.mightContain("old-key")).isTrue();
+
+        for (int i = 0; i < 100; i++) {
+            filter.put("second-" + i);
+        }
+        assertThat(filter.mightContain("second-0")).isTrue();
+        assertThat(filter.mightContain("old-key")).isFalse();
+    }
+}
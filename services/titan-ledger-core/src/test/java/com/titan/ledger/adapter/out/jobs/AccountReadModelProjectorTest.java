@@ -0,0 +1,149 @@
+package com.titan.ledger.adapter.out.jobs;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.titan.ledger.adapter.out.persistence.AccountReadModelStore;
+import com.titan.ledger.adapter.out.persistence.AccountReadModelStore.ProjectedEntry;
+import com.titan.ledger.adapter.out.persistence.JobCheckpointStore;
+import com.titan.ledger.adapter.out.persistence.JobCheckpointStore.Checkpoint;
+import com.titan.ledger.adapter.out.persistence.JobCheckpointStore.JobState;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccountReadModelProjectorTest {
+
+    private static final String JOB = AccountReadModelStore.JOB_NAME;
+
+    @Mock private AccountReadModelStore store;
+    @Mock private JobCheckpointStore checkpointStore;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccountReadModelProjector projector;
+
+    private final Checkpoint start = new Checkpoint(Instant.parse("2026-10-01T00:00:00Z"), new UUID(0, 0));
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        projector = new AccountReadModelProjector(store, checkpointStore, transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(projector, "batchSize", 3);
+    }
+
+    @Test
+    @DisplayName("Should apply ledger entries after the checkpoint and mark the read model complete up to the settle cutoff")
+    void shouldProjectPartialBatchUpToCutoff() {
+        ProjectedEntry first = entry(alice, "DEBIT", "2026-10-01T00:00:01Z");
+        ProjectedEntry last = entry(bob, "CREDIT", "2026-10-01T00:00:02Z");
+        when(checkpointStore.lock(JOB)).thenReturn(Optional.of(start));
+        when(store.loadEntries(eq(start), any(Instant.class), eq(3))).thenReturn(List.of(first, last));
+        when(store.applyEntries(List.of(first, last), 20)).thenReturn(List.of(first, last));
+
+        Instant before = Instant.now().minus(Duration.ofMinutes(2));
+        assertThat(projector.projectBatch()).isEqualTo(2);
+
+        verify(store).applyEntries(List.of(first, last), 20);
+        verify(store).refreshBalances(List.of(alice, bob));
+        ArgumentCaptor<Instant> complete = ArgumentCaptor.forClass(Instant.class);
+        verify(checkpointStore).save(eq(JOB), eq(new Checkpoint(last.createdAt(), last.entryId())), complete.capture());
+        // Lote incompleto: completo até o corte do settle-delay, não só até o último lançamento
+        assertThat(complete.getValue()).isAfterOrEqualTo(before).isBefore(Instant.now());
+        assertThat(meterRegistry.get("titan.ledger.read_model.entries").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should only be complete up to the last entry read when the batch is full")
+    void shouldStopCompletenessAtLastEntryOfFullBatch() {
+        List<ProjectedEntry> entries = List.of(
+                entry(alice, "DEBIT", "2026-10-01T00:00:01Z"),
+                entry(bob, "CREDIT", "2026-10-01T00:00:01Z"),
+                entry(alice, "CREDIT", "2026-10-01T00:00:03Z"));
+        when(checkpointStore.lock(JOB)).thenReturn(Optional.of(start));
+        when(store.loadEntries(eq(start), any(Instant.class), eq(3))).thenReturn(entries);
+        when(store.applyEntries(entries, 20)).thenReturn(entries);
+
+        projector.projectBatch();
+
+        ProjectedEntry last = entries.get(2);
+        verify(store).refreshBalances(List.of(alice, bob));
+        verify(checkpointStore).save(JOB, new Checkpoint(last.createdAt(), last.entryId()), last.createdAt());
+    }
+
+    @Test
+    @DisplayName("Should leave the projection to the node holding the checkpoint lock")
+    void shouldSkipWhenAnotherNodeHoldsTheLock() {
+        Instant complete = Instant.now().minusSeconds(7);
+        when(checkpointStore.lock(JOB)).thenReturn(Optional.empty());
+        when(checkpointStore.find(JOB)).thenReturn(Optional.of(new JobState(start, complete)));
+
+        assertThat(projector.projectBatch()).isZero();
+
+        verify(store, never()).loadEntries(any(), any(), any(Integer.class));
+        verify(checkpointStore, never()).save(any(), any(), any());
+        assertThat(meterRegistry.get("titan.ledger.read_model.lag").gauge().value()).isGreaterThanOrEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Should advance past entries the repair already applied without counting them again")
+    void shouldSkipEntriesAlreadyApplied() {
+        ProjectedEntry repaired = entry(alice, "DEBIT", "2026-10-01T00:00:01Z");
+        ProjectedEntry fresh = entry(bob, "CREDIT", "2026-10-01T00:00:02Z");
+        when(checkpointStore.lock(JOB)).thenReturn(Optional.of(start));
+        when(store.loadEntries(eq(start), any(Instant.class), eq(3))).thenReturn(List.of(repaired, fresh));
+        when(store.applyEntries(List.of(repaired, fresh), 20)).thenReturn(List.of(fresh));
+
+        projector.projectBatch();
+
+        verify(store).refreshBalances(List.of(bob));
+        verify(checkpointStore).save(eq(JOB), eq(new Checkpoint(fresh.createdAt(), fresh.entryId())), any());
+        assertThat(meterRegistry.get("titan.ledger.read_model.entries").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should apply entries committed behind the checkpoint within the repair window and prune older claims")
+    void shouldRepairLateCommitsBehindCheckpoint() {
+        ProjectedEntry late = entry(alice, "CREDIT", "2026-09-30T23:58:00Z");
+        when(checkpointStore.lock(JOB)).thenReturn(Optional.of(start));
+        Instant windowStart = start.at().minus(Duration.ofHours(1));
+        when(store.loadMissedEntries(windowStart, start.at(), 3)).thenReturn(List.of(late));
+        when(store.applyEntries(List.of(late), 20)).thenReturn(List.of(late));
+
+        assertThat(projector.repairBatch()).isEqualTo(1);
+
+        verify(store).refreshBalances(List.of(alice));
+        verify(store).pruneProjected(windowStart);
+        // O reparo não mexe no checkpoint
+        verify(checkpointStore, never()).save(any(), any(), any());
+        assertThat(meterRegistry.get("titan.ledger.read_model.repaired").counter().count()).isEqualTo(1);
+    }
+
+    private static ProjectedEntry entry(UUID accountId, String type, String at) {
+        return new ProjectedEntry(UUID.randomUUID(), accountId, UUID.randomUUID(), type, new BigDecimal("10.00"),
+                new BigDecimal("100.00"), "test", Instant.parse(at));
+    }
+}
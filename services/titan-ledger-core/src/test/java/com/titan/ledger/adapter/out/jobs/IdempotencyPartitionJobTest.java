@@ -0,0 +1,86 @@
+package com.titan.ledger.adapter.out.jobs;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyPartitionJobTest {
+
+    private static final LocalDate TODAY = LocalDate.parse("2026-03-10");
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    private IdempotencyPartitionJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new IdempotencyPartitionJob(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should create the missing days ahead with UTC bounds and skip the existing ones")
+    void shouldCreateMissingPartitionsWithUtcBounds() {
+        stubPartitions("idempotency_keys_default", "idempotency_keys_20260310", "idempotency_keys_20260311");
+
+        job.maintainPartitions(TODAY);
+
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS idempotency_keys_20260312 PARTITION OF idempotency_keys"
+                + " FOR VALUES FROM ('2026-03-12 00:00:00+00') TO ('2026-03-13 00:00:00+00')");
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS idempotency_keys_20260317 "));
+        verify(jdbcTemplate, never()).execute(startsWith("CREATE TABLE IF NOT EXISTS idempotency_keys_20260310 "));
+        // Hoje + 7 dias à frente, menos as duas que já existem
+        verify(jdbcTemplate, times(6)).execute(startsWith("CREATE TABLE"));
+    }
+
+    @Test
+    @DisplayName("Should drop only the partitions entirely outside the retention window, never the default")
+    void shouldDropExpiredPartitionsOnly() {
+        stubPartitions("idempotency_keys_default", "idempotency_keys_20260301", "idempotency_keys_20260302",
+                "idempotency_keys_20260303", "idempotency_keys_legacy_copy");
+
+        job.maintainPartitions(TODAY);
+
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS idempotency_keys_20260301");
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS idempotency_keys_20260302");
+        // 03/03 = hoje - retenção: ainda tem linhas dentro da janela
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS idempotency_keys_20260303");
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS idempotency_keys_default");
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS idempotency_keys_legacy_copy");
+    }
+
+    @Test
+    @DisplayName("Should keep maintaining the other days when one partition cannot be created")
+    void shouldContinueAfterFailedCreate() {
+        stubPartitions("idempotency_keys_default", "idempotency_keys_20260201");
+        doThrow(new DataIntegrityViolationException("default partition has rows"))
+                .when(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS idempotency_keys_20260310 "));
+
+        job.maintainPartitions(TODAY);
+
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS idempotency_keys_20260317 "));
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS idempotency_keys_20260201");
+    }
+
+    private void stubPartitions(String... names) {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("idempotency_keys")))
+                .thenReturn(List.of(names));
+    }
+}
@@ -0,0 +1,105 @@
+package com.titan.ledger.adapter.out.jobs;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.titan.ledger.adapter.out.persistence.AccountRepository;
+import com.titan.ledger.adapter.out.persistence.AccountScanReader;
+import com.titan.ledger.adapter.out.persistence.JobCheckpointStore;
+import com.titan.ledger.adapter.out.persistence.JobCheckpointStore.Checkpoint;
+import com.titan.ledger.adapter.out.persistence.JobCheckpointStore.JobState;
+import com.titan.ledger.adapter.out.persistence.LedgerRepository;
+import com.titan.ledger.core.domain.model.Account;
+import com.titan.ledger.core.service.AccountShardService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReconciliationJobTest {
+
+    @Mock private LedgerRepository ledgerRepository;
+    @Mock private AccountRepository accountRepository;
+    @Mock private AccountShardService shardService;
+    @Mock private AccountScanReader accountScanReader;
+    @Mock private JobCheckpointStore checkpointStore;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReconciliationJob job;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        job = new ReconciliationJob(ledgerRepository, accountRepository, shardService, accountScanReader,
+                checkpointStore, transactionManager, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should only check accounts changed since the checkpoint, looking back by the overlap")
+    void shouldReconcileOnlyChangedAccounts() {
+        Instant lastComplete = Instant.now().minusSeconds(60);
+        when(checkpointStore.find(ReconciliationJob.JOB_NAME)).thenReturn(Optional.of(
+                new JobState(new Checkpoint(lastComplete, new UUID(0, 0)), lastComplete)));
+        Account account = account();
+        when(accountScanReader.findChangedSince(lastComplete.minusSeconds(120))).thenReturn(List.of(account.getId()));
+        when(accountRepository.findAllById(List.of(account.getId()))).thenReturn(List.of(account));
+
+        job.runReconciliation();
+
+        verify(ledgerRepository).getBalancesForAccounts(List.of(account.getId()));
+        verify(accountRepository, never()).findAll(any(Pageable.class));
+        verify(checkpointStore).save(eq(ReconciliationJob.JOB_NAME), any(Checkpoint.class), any(Instant.class));
+        assertThat(meterRegistry.get("titan.ledger.reconciliation.accounts").tag("mode", "incremental")
+                .counter().count()).isEqualTo(1);
+        // Saldo 10 na conta e nenhum lançamento: divergência registrada
+        assertThat(meterRegistry.get("titan.ledger.reconciliation.discrepancies").tag("mode", "incremental")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should fall back to a full sweep when there is no completed run to start from")
+    void shouldRunFullSweepWithoutCheckpoint() {
+        when(checkpointStore.find(ReconciliationJob.JOB_NAME)).thenReturn(Optional.of(
+                new JobState(new Checkpoint(Instant.EPOCH, new UUID(0, 0)), null)));
+        Account account = account();
+        Page<Account> page = new PageImpl<>(List.of(account), PageRequest.of(0, 1000), 1);
+        when(accountRepository.findAll(any(Pageable.class))).thenReturn(page);
+
+        job.runReconciliation();
+
+        verify(accountScanReader, never()).findChangedSince(any());
+        assertThat(meterRegistry.get("titan.ledger.reconciliation.accounts").tag("mode", "full")
+                .counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("titan.ledger.reconciliation.duration").tag("mode", "full")
+                .timer().count()).isEqualTo(1);
+    }
+
+    private Account account() {
+        Account account = new Account("client-1", "BRL");
+        account.setId(UUID.randomUUID());
+        account.setBalance(new BigDecimal("10.00"));
+        return account;
+    }
+}
@@ -0,0 +1,131 @@
+package com.titan.ledger.adapter.out.persistence;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.titan.ledger.core.domain.model.Account;
+import com.titan.ledger.core.domain.model.IdempotencyKey;
+import com.titan.ledger.core.domain.model.LedgerEntry;
+import com.titan.ledger.core.domain.model.OperationType;
+import com.titan.ledger.core.domain.model.OutboxEvent;
+import com.titan.ledger.core.domain.model.Transaction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class LedgerBatchWriterTest {
+
+    private record Statement(String sql, Object[] args) {
+    }
+
+    private final List<Statement> statements = new ArrayList<>();
+    private final ReadYourWritesTracker readYourWrites = mock(ReadYourWritesTracker.class);
+
+    private LedgerBatchWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        // Grava os statements em vez de ir ao banco
+        JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+            @Override
+            public int update(String sql, Object... args) {
+                statements.add(new Statement(sql, args));
+                return 1;
+            }
+        };
+        writer = new LedgerBatchWriter(jdbcTemplate, readYourWrites);
+    }
+
+    @Test
+    @DisplayName("Should split more than rows-per-statement rows into several multi-row INSERTs")
+    void shouldSplitLargeBatchesIntoChunks() {
+        Account account = account();
+        List<Transaction> transactions = new ArrayList<>();
+        List<LedgerEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 2001; i++) {
+            Transaction transaction = new Transaction("corr-" + i, "pix");
+            transactions.add(transaction);
+            entries.add(new LedgerEntry(transaction, account, OperationType.CREDIT, BigDecimal.ONE, BigDecimal.ONE));
+        }
+
+        writer.write(transactions, entries, List.of(), List.of());
+
+        // 1000 + 1000 + 1 por tabela; tabelas sem linhas não geram statement
+        assertThat(statements).hasSize(6);
+        assertThat(statements).extracting(s -> s.args().length)
+                .containsExactly(5000, 5000, 5, 7000, 7000, 7);
+        assertThat(statements.get(0).sql().split("\\), \\(")).hasSize(1000);
+        assertThat(statements.get(2).sql())
+                .isEqualTo("INSERT INTO transactions (id, correlation_id, description, status, created_at) VALUES (?, ?, ?, ?, ?)");
+        // A primeira linha do segundo bloco é a transação 1000
+        assertThat(statements.get(1).args()[0]).isEqualTo(transactions.get(1000).getId());
+    }
+
+    @Test
+    @DisplayName("Should bind every row in the column order of its INSERT, parents before children")
+    void shouldBindColumnsInDeclaredOrder() {
+        Account account = account();
+        Transaction transaction = new Transaction("corr", "pix");
+        LedgerEntry entry = new LedgerEntry(transaction, account, OperationType.DEBIT,
+                new BigDecimal("10.00"), new BigDecimal("90.00"));
+        OutboxEvent event = new OutboxEvent("ACCOUNT", account.getId().toString(), "TRANSFER_COMPLETED", "{}");
+        IdempotencyKey key = new IdempotencyKey("k1", 200, "{\"transactionId\":\"x\"}");
+
+        writer.write(transaction, List.of(entry), event, key);
+
+        assertThat(statements).extracting(Statement::sql).containsExactly(
+                "INSERT INTO transactions (id, correlation_id, description, status, created_at) VALUES (?, ?, ?, ?, ?)",
+                "INSERT INTO ledger_entries (id, transaction_id, account_id, operation_type, amount, balance_snapshot, created_at)"
+                        + " VALUES (?, ?, ?, ?, ?, ?, ?)",
+                "INSERT INTO outbox_events (id, aggregate_type, aggregate_id, type, payload, created_at, processed)"
+                        + " VALUES (?, ?, ?, ?, CAST(? AS jsonb), ?, ?)",
+                "INSERT INTO idempotency_keys (key, response_status, response_body, created_at)"
+                        + " VALUES (?, ?, CAST(? AS jsonb), ?)");
+
+        // IDs atribuídos no cliente antes do INSERT
+        assertThat(transaction.getId()).isNotNull();
+        assertThat(entry.getId()).isNotNull();
+
+        assertThat(statements.get(0).args()).containsExactly(transaction.getId(), "corr", "pix",
+                transaction.getStatus().name(), Timestamp.from(transaction.getCreatedAt()));
+        assertThat(statements.get(1).args()).containsExactly(entry.getId(), transaction.getId(), account.getId(),
+                "DEBIT", new BigDecimal("10.00"), new BigDecimal("90.00"), Timestamp.from(entry.getCreatedAt()));
+        assertThat(statements.get(2).args()).containsExactly(event.getId(), "ACCOUNT", account.getId().toString(),
+                "TRANSFER_COMPLETED", "{}", Timestamp.from(event.getCreatedAt()), false);
+        assertThat(statements.get(3).args()).containsExactly("k1", 200, "{\"transactionId\":\"x\"}",
+                Timestamp.from(key.getCreatedAt()));
+    }
+
+    @Test
+    @DisplayName("Should record each touched account once for read-your-writes")
+    void shouldRecordTouchedAccounts() {
+        Account alice = account();
+        Account bob = account();
+        Transaction first = new Transaction("c1", "a");
+        Transaction second = new Transaction("c2", "b");
+
+        writer.write(List.of(first, second), List.of(
+                new LedgerEntry(first, alice, OperationType.DEBIT, BigDecimal.ONE, BigDecimal.ZERO),
+                new LedgerEntry(first, bob, OperationType.CREDIT, BigDecimal.ONE, BigDecimal.ONE),
+                new LedgerEntry(second, alice, OperationType.CREDIT, BigDecimal.ONE, BigDecimal.ONE)),
+                List.of(), List.of());
+
+        verify(readYourWrites).recordWrites(new LinkedHashSet<>(List.of(alice.getId(), bob.getId())));
+    }
+
+    private static Account account() {
+        Account account = new Account("client", "BRL");
+        account.setId(UUID.randomUUID());
+        return account;
+    }
+}
@@ -0,0 +1,129 @@
+package com.titan.ledger.adapter.out.persistence;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica1 = mock(DataSource.class);
+    private final DataSource replica2 = mock(DataSource.class);
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReadYourWritesTracker tracker;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new ReadYourWritesTracker(List.of("jdbc:postgresql://replica/titan_ledger"), Duration.ofSeconds(5),
+                1000, meterRegistry);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("titan-replica-1", replica1);
+        replicas.put("titan-replica-2", replica2);
+        routing = new ReplicaRoutingDataSource(primary, replicas, Duration.ofSeconds(2), tracker, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should keep replicas out of rotation until their lag is measured")
+    void shouldUsePrimaryBeforeFirstLagCheck() {
+        assertThat(routing.route()).isSameAs(primary);
+        assertThat(meterRegistry.get("titan.ledger.datasource.routed")
+                .tags("target", "primary", "reason", "replica_lag").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should round-robin across replicas within the lag budget and skip lagging ones")
+    void shouldRouteToHealthyReplicas() {
+        routing.recordLag("titan-replica-1", 0.1);
+        routing.recordLag("titan-replica-2", 0.0);
+
+        assertThat(List.of(routing.route(), routing.route())).containsExactlyInAnyOrder(replica1, replica2);
+
+        routing.recordLag("titan-replica-2", 30.0);
+        assertThat(routing.route()).isSameAs(replica1);
+        assertThat(routing.route()).isSameAs(replica1);
+
+        routing.recordLag("titan-replica-1", Double.POSITIVE_INFINITY);
+        assertThat(routing.route()).isSameAs(primary);
+    }
+
+    @Test
+    @DisplayName("Should take a replica whose WAL receiver stopped out of rotation instead of reading lag 0")
+    void shouldDropReplicaWithStoppedReceiver() throws Exception {
+        stubLagQuery(replica1, null);
+        stubLagQuery(replica2, 0.0);
+        routing.refreshLag();
+        assertThat(List.of(routing.route(), routing.route())).containsOnly(replica2);
+
+        stubLagQuery(replica2, null);
+        routing.refreshLag();
+        assertThat(routing.route()).isSameAs(primary);
+        assertThat(meterRegistry.get("titan.ledger.datasource.replica.lag").tag("target", "titan-replica-1")
+                .gauge().value()).isInfinite();
+    }
+
+    @Test
+    @DisplayName("Should send reads of a recently written account to the primary while the pin is open")
+    void shouldPinRecentWritesToPrimary() {
+        routing.recordLag("titan-replica-1", 0.0);
+        routing.recordLag("titan-replica-2", 0.0);
+        UUID written = UUID.randomUUID();
+        tracker.recordWrites(List.of(written));
+
+        try (ReadYourWritesTracker.Pin pin = tracker.pinIfRecentlyWritten(UUID.randomUUID())) {
+            assertThat(routing.route()).isNotSameAs(primary);
+        }
+        try (ReadYourWritesTracker.Pin pin = tracker.pinIfRecentlyWritten(written)) {
+            assertThat(routing.route()).isSameAs(primary);
+        }
+        assertThat(tracker.isPinned()).isFalse();
+        assertThat(routing.route()).isNotSameAs(primary);
+    }
+
+    @Test
+    @DisplayName("Should keep cache-filling reads on the primary even without recent writes")
+    void shouldPinCacheFillsToPrimary() {
+        routing.recordLag("titan-replica-1", 0.0);
+        routing.recordLag("titan-replica-2", 0.0);
+
+        try (ReadYourWritesTracker.Pin pin = tracker.pinPrimary()) {
+            assertThat(routing.route()).isSameAs(primary);
+        }
+        assertThat(meterRegistry.get("titan.ledger.datasource.cache_fill.pins").counter().count()).isEqualTo(1);
+        assertThat(routing.route()).isNotSameAs(primary);
+    }
+
+    // NULL = o que LAG_SQL devolve sem receiver em streaming
+    private static void stubLagQuery(DataSource replica, Double lag) throws Exception {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(ReplicaRoutingDataSource.LAG_SQL)).thenReturn(rs);
+        when(rs.next()).thenReturn(true);
+        when(rs.getDouble(1)).thenReturn(lag == null ? 0.0 : lag);
+        when(rs.wasNull()).thenReturn(lag == null);
+    }
+}
@@ -0,0 +1,186 @@
+package com.titan.ledger.adapter.out.persistence;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.flywaydb.core.Flyway;
+import org.hibernate.jpa.HibernatePersistenceConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import com.titan.ledger.core.domain.model.Account;
+import com.titan.ledger.core.domain.model.LedgerEntry;
+import com.titan.ledger.core.domain.model.Transaction;
+import com.titan.ledger.core.usecase.dto.StatementEntryResponse;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Uma página do extrato: entidades com JOIN FETCH (como era o getStatement) x
+ * LedgerRepository.STATEMENT_PROJECTION (construtor do DTO no SELECT).
+ *
+ * Sobe um Postgres via Testcontainers (precisa de Docker), aplica as migrations e grava
+ * {@code entries} lançamentos numa conta. O GCProfiler já vem ligado: compare
+ * gc.alloc.rate.norm (bytes por página) além do tempo.
+ *
+ * Rodar:
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *       com.titan.ledger.adapter.out.persistence.StatementReadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatementReadBenchmark {
+
+    private static final String ENTITY_PAGE = """
+            SELECT l FROM LedgerEntry l JOIN FETCH l.transaction
+            WHERE l.account.id = :accountId
+            ORDER BY l.createdAt DESC
+            """;
+    private static final String PROJECTION_PAGE = LedgerRepository.STATEMENT_PROJECTION + " ORDER BY l.createdAt DESC";
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    @Param({"10000"})
+    private int entries;
+
+    private PostgreSQLContainer postgres;
+    private EntityManagerFactory emf;
+    private UUID accountId;
+
+    @Setup
+    public void setup() throws SQLException {
+        postgres = new PostgreSQLContainer(DockerImageName.parse("postgres:15-alpine"));
+        postgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+        seed();
+
+        emf = new HibernatePersistenceConfiguration("statement-benchmark")
+                .managedClasses(Account.class, Transaction.class, LedgerEntry.class)
+                .jdbcUrl(postgres.getJdbcUrl())
+                .jdbcCredentials(postgres.getUsername(), postgres.getPassword())
+                .createEntityManagerFactory();
+    }
+
+    @TearDown
+    public void tearDown() {
+        emf.close();
+        postgres.stop();
+    }
+
+    // Mesmo trabalho do caminho antigo: entidades + Transaction no persistence context, depois o map
+    @Benchmark
+    public List<StatementEntryResponse> entityGraph() {
+        try (EntityManager em = emf.createEntityManager()) {
+            em.getTransaction().begin();
+            List<StatementEntryResponse> page = em.createQuery(ENTITY_PAGE, LedgerEntry.class)
+                    .setParameter("accountId", accountId)
+                    .setMaxResults(pageSize)
+                    .getResultList()
+                    .stream()
+                    .map(entry -> new StatementEntryResponse(
+                            entry.getTransaction().getId(),
+                            entry.getOperationType().name(),
+                            entry.getAmount(),
+                            entry.getBalanceSnapshot(),
+                            entry.getTransaction().getDescription(),
+                            entry.getCreatedAt()))
+                    .toList();
+            // Commit dispara o flush com dirty checking das entidades carregadas
+            em.getTransaction().commit();
+            return page;
+        }
+    }
+
+    @Benchmark
+    public List<StatementEntryResponse> projection() {
+        try (EntityManager em = emf.createEntityManager()) {
+            em.getTransaction().begin();
+            List<StatementEntryResponse> page = em.createQuery(PROJECTION_PAGE, StatementEntryResponse.class)
+                    .setParameter("accountId", accountId)
+                    .setMaxResults(pageSize)
+                    .getResultList();
+            em.getTransaction().commit();
+            return page;
+        }
+    }
+
+    private void seed() throws SQLException {
+        accountId = UUID.randomUUID();
+        try (Connection connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(),
+                postgres.getPassword())) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement account = connection.prepareStatement(
+                    "INSERT INTO accounts (id, client_id, currency, balance) VALUES (?, 'bench', 'BRL', 0)")) {
+                account.setObject(1, accountId);
+                account.executeUpdate();
+            }
+            try (PreparedStatement tx = connection.prepareStatement(
+                    "INSERT INTO transactions (id, correlation_id, description, status, created_at) VALUES (?, ?, ?, 'COMPLETED', ?)");
+                    PreparedStatement entry = connection.prepareStatement(
+                    "INSERT INTO ledger_entries (id, transaction_id, account_id, operation_type, amount, balance_snapshot, created_at) "
+                            + "VALUES (?, ?, ?, 'CREDIT', ?, ?, ?)")) {
+                Instant start = Instant.now().minusSeconds(entries);
+                for (int i = 0; i < entries; i++) {
+                    UUID txId = UUID.randomUUID();
+                    Timestamp createdAt = Timestamp.from(start.plusSeconds(i));
+                    tx.setObject(1, txId);
+                    tx.setString(2, "bench-" + i);
+                    tx.setString(3, "Pix #" + i);
+                    tx.setTimestamp(4, createdAt);
+                    tx.addBatch();
+                    entry.setObject(1, UUID.randomUUID());
+                    entry.setObject(2, txId);
+                    entry.setObject(3, accountId);
+                    entry.setBigDecimal(4, BigDecimal.ONE);
+                    entry.setBigDecimal(5, BigDecimal.valueOf(i + 1L));
+                    entry.setTimestamp(6, createdAt);
+                    entry.addBatch();
+                }
+                tx.executeBatch();
+                entry.executeBatch();
+            }
+            connection.commit();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StatementReadBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,178 @@
+package com.titan.ledger.core.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import com.titan.ledger.adapter.out.cache.AccountBulkCache;
+import com.titan.ledger.adapter.out.persistence.AccountRepository;
+import com.titan.ledger.adapter.out.persistence.AccountScanReader;
+import com.titan.ledger.adapter.out.persistence.LedgerRepository;
+import com.titan.ledger.adapter.out.persistence.ReadYourWritesTracker;
+import com.titan.ledger.adapter.out.persistence.StatementRow;
+import com.titan.ledger.core.usecase.dto.AccountBalancesResponse;
+import com.titan.ledger.core.usecase.dto.AccountCursor;
+import com.titan.ledger.core.usecase.dto.AccountFilter;
+import com.titan.ledger.core.usecase.dto.AccountResponse;
+import com.titan.ledger.core.usecase.dto.AccountSliceResponse;
+import com.titan.ledger.core.usecase.dto.BalanceAtResponse;
+import com.titan.ledger.core.usecase.dto.StatementCursor;
+import com.titan.ledger.core.usecase.dto.StatementSliceResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccountQueryServiceTest {
+
+    @Mock private AccountRepository accountRepository;
+    @Mock private LedgerRepository ledgerRepository;
+    @Mock private AccountShardService shardService;
+    @Mock private AccountScanReader accountScanReader;
+    @Mock private AccountBulkCache accountBulkCache;
+    @Mock private ReadYourWritesTracker readYourWrites;
+
+    @InjectMocks
+    private AccountQueryService accountQueryService;
+
+    @Test
+    @DisplayName("Should fetch one extra row and point the next cursor at the last entry returned")
+    void shouldBuildNextCursorFromLastEntry() {
+        UUID accountId = UUID.randomUUID();
+        Instant now = Instant.parse("2026-01-10T12:00:00.123456Z");
+        List<StatementRow> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            rows.add(entry(now.minusSeconds(i)));
+        }
+        when(ledgerRepository.findStatementHead(accountId, Limit.of(3))).thenReturn(rows);
+
+        StatementSliceResponse first = accountQueryService.getStatementSlice(accountId, null, 2);
+
+        assertThat(first.content()).hasSize(2);
+        assertThat(first.hasNext()).isTrue();
+        StatementCursor cursor = StatementCursor.decode(first.nextCursor());
+        assertThat(cursor).isEqualTo(new StatementCursor(rows.get(1).createdAt(), rows.get(1).entryId()));
+
+        // Próxima página continua exatamente depois do cursor; última página não tem cursor
+        when(ledgerRepository.findStatementAfter(accountId, cursor.createdAt(), cursor.entryId(), Limit.of(3)))
+                .thenReturn(List.of(rows.get(2)));
+
+        StatementSliceResponse last = accountQueryService.getStatementSlice(accountId, first.nextCursor(), 2);
+
+        assertThat(last.content()).hasSize(1);
+        assertThat(last.hasNext()).isFalse();
+        assertThat(last.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject a tampered cursor before touching the database")
+    void shouldRejectInvalidCursor() {
+        assertThatThrownBy(() -> accountQueryService.getStatementSlice(UUID.randomUUID(), "not-a-cursor", 20))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(ledgerRepository, accountRepository);
+    }
+
+    @Test
+    @DisplayName("Should answer point-in-time balances in request order, zero before the first entry")
+    void shouldResolveBalancesAtInstant() {
+        Instant at = Instant.parse("2026-01-31T23:59:59Z");
+        UUID active = UUID.randomUUID();
+        UUID untouched = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        UUID txId = UUID.randomUUID();
+        Instant lastEntry = at.minusSeconds(3600);
+
+        LedgerRepository.BalancePoint withEntry = point(active, new BigDecimal("150.0000"), lastEntry, txId);
+        LedgerRepository.BalancePoint withoutEntry = point(untouched, null, null, null);
+        when(ledgerRepository.findBalancesAt(new LinkedHashSet<>(List.of(untouched, active, unknown)), at))
+                .thenReturn(List.of(withEntry, withoutEntry));
+
+        List<BalanceAtResponse> balances = accountQueryService.getBalancesAt(List.of(untouched, active, unknown, active), at);
+
+        assertThat(balances).containsExactly(
+                new BalanceAtResponse(untouched, at, BigDecimal.ZERO, null, null),
+                new BalanceAtResponse(active, at, new BigDecimal("150.0000"), lastEntry, txId));
+    }
+
+    @Test
+    @DisplayName("Should page accounts by id with normalized filters and resume after the cursor")
+    void shouldPageAccountsByKeyset() {
+        AccountFilter filter = AccountFilter.of("frozen", "brl", null);
+        assertThat(filter).isEqualTo(new AccountFilter("FROZEN", "BRL", null));
+
+        AccountResponse first = account();
+        AccountResponse second = account();
+        AccountResponse third = account();
+        when(accountScanReader.page(filter, null, 3)).thenReturn(List.of(first, second, third));
+        when(accountScanReader.page(filter, second.id(), 3)).thenReturn(List.of(third));
+
+        AccountSliceResponse page = accountQueryService.listPage(filter, null, 2);
+        assertThat(page.content()).containsExactly(first, second);
+        assertThat(AccountCursor.decode(page.nextCursor()).lastId()).isEqualTo(second.id());
+
+        AccountSliceResponse last = accountQueryService.listPage(filter, page.nextCursor(), 2);
+        assertThat(last.content()).containsExactly(third);
+        assertThat(last.hasNext()).isFalse();
+
+        assertThatThrownBy(() -> AccountFilter.of("DELETED", null, null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should load only cache misses with one query and write them back in bulk")
+    void shouldResolveBalancesFromCacheThenDatabase() {
+        AccountResponse cached = account();
+        UUID missId = UUID.randomUUID();
+        UUID unknownId = UUID.randomUUID();
+        AccountResponse row = new AccountResponse(missId, "client", "BRL", new BigDecimal("42.0000"), "FROZEN");
+        AccountBulkCache.Lookup lookup = new AccountBulkCache.Lookup(Map.of(cached.id(), cached),
+                Map.of(missId, "", unknownId, ""));
+        when(accountBulkCache.getAll(new LinkedHashSet<>(List.of(missId, cached.id(), unknownId))))
+                .thenReturn(lookup);
+        when(accountScanReader.findByIds(List.of(missId, unknownId))).thenReturn(List.of(row));
+
+        AccountBalancesResponse response = accountQueryService.getBalances(List.of(missId, cached.id(), unknownId));
+
+        // Mesmo valor que execute() cacheia (status fixo)
+        AccountResponse loaded = new AccountResponse(missId, "client", "BRL", new BigDecimal("42.0000"), "ACTIVE");
+        assertThat(response.accounts()).containsExactly(loaded, cached);
+        assertThat(response.notFound()).containsExactly(unknownId);
+        verify(accountBulkCache).putAllIfAbsent(lookup, List.of(loaded));
+    }
+
+    private static AccountResponse account() {
+        return new AccountResponse(UUID.randomUUID(), "client", "BRL", BigDecimal.TEN, "FROZEN");
+    }
+
+    private static LedgerRepository.BalancePoint point(UUID accountId, BigDecimal balance, Instant createdAt, UUID txId) {
+        LedgerRepository.BalancePoint point = mock(LedgerRepository.BalancePoint.class);
+        when(point.getAccountId()).thenReturn(accountId);
+        if (balance != null) {
+            when(point.getBalance()).thenReturn(balance);
+            when(point.getCreatedAt()).thenReturn(createdAt);
+            when(point.getTransactionId()).thenReturn(txId);
+        }
+        return point;
+    }
+
+    private static StatementRow entry(Instant createdAt) {
+        return new StatementRow(UUID.randomUUID(), UUID.randomUUID(), "CREDIT", BigDecimal.TEN, BigDecimal.TEN,
+                "pix", createdAt);
+    }
+}
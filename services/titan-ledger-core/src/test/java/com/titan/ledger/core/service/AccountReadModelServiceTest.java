@@ -0,0 +1,92 @@
+package com.titan.ledger.core.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.titan.ledger.adapter.out.persistence.AccountReadModelStore;
+import com.titan.ledger.adapter.out.persistence.AccountReadModelStore.BalanceView;
+import com.titan.ledger.core.usecase.dto.AccountResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccountReadModelServiceTest {
+
+    @Mock private AccountReadModelStore store;
+    @Mock private AccountQueryService accountQueryService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccountReadModelService service;
+
+    private final UUID accountId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new AccountReadModelService(store, accountQueryService, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should answer from the read model when the projection is within the accepted staleness")
+    void shouldServeFromReadModelWhenFreshEnough() {
+        AccountResponse projected = account("90.00");
+        when(store.findBalance(accountId))
+                .thenReturn(Optional.of(new BalanceView(projected, Instant.now().minusSeconds(1))));
+
+        AccountResponse response = service.getBalance(accountId, Duration.ofSeconds(5));
+
+        assertThat(response).isEqualTo(projected);
+        verifyNoInteractions(accountQueryService);
+        assertThat(meterRegistry.get("titan.ledger.read_model.reads").tag("source", "read_model").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should fall back to the regular read when the projection lags more than accepted")
+    void shouldFallBackWhenProjectionIsTooStale() {
+        when(store.findBalance(accountId))
+                .thenReturn(Optional.of(new BalanceView(account("90.00"), Instant.now().minusSeconds(30))));
+        AccountResponse current = account("120.00");
+        when(accountQueryService.execute(accountId)).thenReturn(current);
+
+        AccountResponse response = service.getBalance(accountId, Duration.ofSeconds(5));
+
+        assertThat(response).isEqualTo(current);
+        assertThat(meterRegistry.get("titan.ledger.read_model.reads").tag("source", "source_tables").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should skip the read model without a staleness bound and reject a negative one")
+    void shouldRequireExplicitStalenessBound() {
+        AccountResponse current = account("120.00");
+        when(accountQueryService.execute(accountId)).thenReturn(current);
+
+        assertThat(service.getBalance(accountId, null)).isEqualTo(current);
+        verifyNoInteractions(store);
+
+        assertThatThrownBy(() -> service.getBalance(accountId, Duration.ofSeconds(-1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(accountQueryService).execute(accountId);
+    }
+
+    private AccountResponse account(String balance) {
+        return new AccountResponse(accountId, "client-1", "BRL", new BigDecimal(balance), "ACTIVE");
+    }
+}
@@ -1,6 +1,7 @@
 package com.titan.ledger.core.service;
 
 import com.titan.ledger.adapter.out.persistence.AccountRepository;
+import com.titan.ledger.adapter.out.persistence.ReadYourWritesTracker;
 import com.titan.ledger.core.domain.model.Account;
 import com.titan.ledger.core.usecase.dto.AccountResponse;
 import com.titan.ledger.core.usecase.dto.CreateAccountCommand;
@@ -26,6 +27,9 @@ class AccountServiceTest {
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private ReadYourWritesTracker readYourWrites;
+
     // @InjectMocks pega o Mock acima e injeta dentro do Service real.
     @InjectMocks
     private AccountService accountService;
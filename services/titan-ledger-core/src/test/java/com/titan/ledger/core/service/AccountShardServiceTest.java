@@ -0,0 +1,103 @@
+package com.titan.ledger.core.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.titan.ledger.adapter.out.persistence.AccountRepository;
+import com.titan.ledger.adapter.out.persistence.AccountShardRepository;
+import com.titan.ledger.adapter.out.persistence.AccountShardRepository.ShardSlice;
+import com.titan.ledger.core.domain.exception.InsufficientFundsException;
+import com.titan.ledger.core.domain.model.Account;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccountShardServiceTest {
+
+    @Mock private AccountRepository accountRepository;
+    @Mock private AccountShardRepository shardRepository;
+
+    @InjectMocks
+    private AccountShardService shardService;
+
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        account = new Account("shop", "BRL");
+        account.setId(UUID.randomUUID());
+        account.setShardCount(3);
+    }
+
+    @Test
+    @DisplayName("Should debit the first shard that covers the amount on its own, trying shards in order")
+    void shouldDebitFirstCoveringShard() {
+        BigDecimal amount = new BigDecimal("30.00");
+        when(shardRepository.debitIfCovered(account.getId(), 0, amount)).thenReturn(0);
+        when(shardRepository.debitIfCovered(account.getId(), 1, amount)).thenReturn(1);
+        when(shardRepository.sumBalance(account.getId())).thenReturn(new BigDecimal("70.00"));
+
+        assertThat(shardService.debit(account, amount)).isEqualByComparingTo("70.00");
+
+        verify(shardRepository, never()).debitIfCovered(account.getId(), 2, amount);
+        verify(shardRepository, never()).lockAllShards(any());
+    }
+
+    @Test
+    @DisplayName("Should lock every shard and consume them in shard order when no single shard covers the debit")
+    void shouldDebitAcrossShards() {
+        BigDecimal amount = new BigDecimal("50.00");
+        when(shardRepository.debitIfCovered(eq(account.getId()), anyInt(), eq(amount))).thenReturn(0);
+        List<ShardSlice> shards = List.of(slice(0, "20.00"), slice(1, "0.00"), slice(2, "40.00"));
+        when(shardRepository.lockAllShards(account.getId())).thenReturn(shards);
+
+        assertThat(shardService.debit(account, amount)).isEqualByComparingTo("10.00");
+
+        InOrder order = inOrder(shardRepository);
+        order.verify(shardRepository).lockAllShards(account.getId());
+        order.verify(shardRepository).debitIfCovered(account.getId(), 0, new BigDecimal("20.00"));
+        order.verify(shardRepository).debitIfCovered(account.getId(), 2, new BigDecimal("30.00"));
+    }
+
+    @Test
+    @DisplayName("Should reject a debit larger than all shards together without touching any shard")
+    void shouldRejectDebitAboveShardTotal() {
+        BigDecimal amount = new BigDecimal("100.00");
+        when(shardRepository.debitIfCovered(eq(account.getId()), anyInt(), eq(amount))).thenReturn(0);
+        List<ShardSlice> shards = List.of(slice(0, "20.00"), slice(1, "30.00"), slice(2, "40.00"));
+        when(shardRepository.lockAllShards(account.getId())).thenReturn(shards);
+
+        assertThatThrownBy(() -> shardService.debit(account, amount))
+                .isInstanceOf(InsufficientFundsException.class);
+
+        verify(shardRepository, never()).debitIfCovered(eq(account.getId()), anyInt(),
+                eq(new BigDecimal("20.00")));
+    }
+
+    private ShardSlice slice(int shardNo, String balance) {
+        ShardSlice slice = mock(ShardSlice.class);
+        lenient().when(slice.getShardNo()).thenReturn(shardNo);
+        lenient().when(slice.getBalance()).thenReturn(new BigDecimal(balance));
+        return slice;
+    }
+}
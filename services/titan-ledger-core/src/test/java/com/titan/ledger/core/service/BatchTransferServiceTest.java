@@ -0,0 +1,173 @@
+package com.titan.ledger.core.service;
+
+import com.titan.ledger.adapter.out.cache.IdempotencyNearCache;
+import com.titan.ledger.adapter.out.cache.AccountCacheWriter;
+import com.titan.ledger.adapter.out.persistence.AccountRepository;
+import com.titan.ledger.adapter.out.persistence.IdempotencyRepository;
+import com.titan.ledger.adapter.out.persistence.LedgerBatchWriter;
+import com.titan.ledger.core.domain.model.Account;
+import com.titan.ledger.core.domain.model.AccountStatus;
+import com.titan.ledger.core.domain.model.IdempotencyKey;
+import com.titan.ledger.core.usecase.dto.BatchTransferItemResult.Status;
+import com.titan.ledger.core.usecase.dto.BatchTransferResult;
+import com.titan.ledger.core.usecase.dto.TransferFundsCommand;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchTransferServiceTest {
+
+    @Mock private AccountRepository accountRepository;
+    @Mock private IdempotencyRepository idempotencyRepository;
+    @Mock private LedgerBatchWriter ledgerWriter;
+    @Mock private StringRedisTemplate redisTemplate;
+    @Mock private AccountShardService shardService;
+    @Mock private IdempotencyNearCache nearCache;
+    @Mock private AccountCacheWriter cacheWriter;
+
+    @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy private TransferEventFactory eventFactory = new TransferEventFactory();
+
+    @InjectMocks private BatchTransferService batchTransferService;
+
+    private Account alice;
+    private Account bob;
+    private Account carol;
+
+    @BeforeEach
+    void setup() {
+        alice = account("11111111-1111-1111-1111-111111111111", "100.00");
+        bob = account("22222222-2222-2222-2222-222222222222", "0.00");
+        carol = account("33333333-3333-3333-3333-333333333333", "0.00");
+
+        lenient().when(accountRepository.findAllByIdForUpdate(anyList())).thenReturn(List.of(alice, bob, carol));
+        // Atribuição de IDs no cliente não depende do banco: usa a implementação real
+        lenient().doCallRealMethod().when(ledgerWriter).assignIds(anyList());
+    }
+
+    @Test
+    @DisplayName("Should apply valid items and report failures without aborting the batch")
+    void shouldReportPerItemResults() {
+        carol.setStatus(AccountStatus.FROZEN);
+
+        List<TransferFundsCommand> commands = List.of(
+                new TransferFundsCommand(alice.getId(), bob.getId(), new BigDecimal("60.00"), "ok", "k1"),
+                new TransferFundsCommand(alice.getId(), bob.getId(), new BigDecimal("60.00"), "no funds", "k2"),
+                new TransferFundsCommand(bob.getId(), carol.getId(), new BigDecimal("10.00"), "frozen", "k3"),
+                new TransferFundsCommand(bob.getId(), alice.getId(), new BigDecimal("20.00"), "ok", "k4"));
+
+        BatchTransferResult result = batchTransferService.execute(commands);
+
+        assertThat(result.items()).extracting(item -> item.status())
+                .containsExactly(Status.COMPLETED, Status.INSUFFICIENT_FUNDS, Status.ACCOUNT_BLOCKED, Status.COMPLETED);
+        assertThat(result.succeeded()).isEqualTo(2);
+        assertThat(result.failed()).isEqualTo(2);
+
+        // O segundo item enxerga o saldo já debitado pelo primeiro
+        assertThat(alice.getBalance()).isEqualByComparingTo("60.00");
+        assertThat(bob.getBalance()).isEqualByComparingTo("40.00");
+        assertThat(carol.getBalance()).isEqualByComparingTo("0.00");
+
+        verify(ledgerWriter).write(anyList(), argThat(entries -> entries.size() == 4),
+                argThat(events -> events.size() == 2), anyList());
+    }
+
+    @Test
+    @DisplayName("Should lock every involved account once in the global lock order")
+    @SuppressWarnings("unchecked")
+    void shouldLockAccountsInGlobalOrder() {
+        // Bit mais alto ligado: compareTo (com sinal) e o Postgres (sem sinal) discordam aqui
+        Account high = account("f0000000-0000-0000-0000-000000000000", "10.00");
+        when(accountRepository.findAllByIdForUpdate(anyList())).thenReturn(List.of(alice, high));
+
+        batchTransferService.execute(List.of(
+                new TransferFundsCommand(high.getId(), alice.getId(), new BigDecimal("1.00"), "a", null),
+                new TransferFundsCommand(alice.getId(), high.getId(), new BigDecimal("1.00"), "b", null)));
+
+        ArgumentCaptor<List<UUID>> captor = ArgumentCaptor.forClass(List.class);
+        verify(accountRepository, times(1)).findAllByIdForUpdate(captor.capture());
+        assertThat(captor.getValue()).containsExactly(alice.getId(), high.getId());
+    }
+
+    @Test
+    @DisplayName("Should lock every shard of debited accounts but a single shard of credit-only accounts")
+    void shouldLockOnlyTheShardsTheBatchUses() {
+        alice.setShardCount(4);
+        bob.setShardCount(4);
+        when(shardService.lockCreditShard(bob)).thenReturn(2);
+        when(shardService.debit(eq(alice), any())).thenReturn(new BigDecimal("90.00"));
+        when(shardService.credit(eq(bob), eq(2), any())).thenReturn(new BigDecimal("10.00"));
+
+        batchTransferService.execute(List.of(
+                new TransferFundsCommand(alice.getId(), bob.getId(), new BigDecimal("5.00"), "a", null),
+                new TransferFundsCommand(alice.getId(), bob.getId(), new BigDecimal("5.00"), "b", null)));
+
+        // Fatias depois das linhas principais e na ordem das contas
+        InOrder inOrder = inOrder(accountRepository, shardService);
+        inOrder.verify(accountRepository).findAllByIdForUpdate(anyList());
+        inOrder.verify(shardService).lockShards(alice.getId());
+        inOrder.verify(shardService).lockCreditShard(bob);
+        verify(shardService, never()).lockShards(bob.getId());
+        verify(shardService, times(2)).credit(bob, 2, new BigDecimal("5.00"));
+    }
+
+    @Test
+    @DisplayName("Should replay items whose idempotency key was already processed")
+    void shouldReplayProcessedKeys() {
+        UUID originalTxId = UUID.randomUUID();
+        IdempotencyKey processed = new IdempotencyKey("k1", 200, eventFactory.idempotencyResponse(originalTxId));
+        when(idempotencyRepository.findAllByKeyWithin(anyList(), any())).thenReturn(List.of(processed));
+
+        BatchTransferResult result = batchTransferService.execute(List.of(
+                new TransferFundsCommand(alice.getId(), bob.getId(), new BigDecimal("10.00"), "dup", "k1"),
+                new TransferFundsCommand(alice.getId(), bob.getId(), new BigDecimal("10.00"), "new", "k2"),
+                new TransferFundsCommand(alice.getId(), bob.getId(), new BigDecimal("10.00"), "new again", "k2")));
+
+        assertThat(result.items().get(0).status()).isEqualTo(Status.REPLAYED);
+        assertThat(result.items().get(0).transactionId()).isEqualTo(originalTxId);
+        assertThat(result.items().get(1).status()).isEqualTo(Status.COMPLETED);
+        assertThat(result.items().get(2).status()).isEqualTo(Status.REPLAYED);
+        assertThat(result.items().get(2).transactionId()).isEqualTo(result.items().get(1).transactionId());
+
+        // Apenas uma transferência de fato movimentou saldo
+        assertThat(alice.getBalance()).isEqualByComparingTo("90.00");
+        verify(ledgerWriter).write(argThat(list -> list.size() == 1), anyList(), anyList(), anyList());
+    }
+
+    @Test
+    @DisplayName("Should reject an empty batch")
+    void shouldRejectEmptyBatch() {
+        assertThatThrownBy(() -> batchTransferService.execute(List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(accountRepository, never()).findAllByIdForUpdate(any());
+    }
+
+    private static Account account(String id, String balance) {
+        Account account = new Account("client-" + id.charAt(0), "BRL");
+        account.setId(UUID.fromString(id));
+        account.setBalance(new BigDecimal(balance));
+        return account;
+    }
+}
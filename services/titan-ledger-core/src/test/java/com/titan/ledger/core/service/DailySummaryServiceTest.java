@@ -0,0 +1,83 @@
+package com.titan.ledger.core.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.titan.ledger.adapter.out.jobs.LedgerDailyRollupJob;
+import com.titan.ledger.adapter.out.persistence.AccountRepository;
+import com.titan.ledger.adapter.out.persistence.JobCheckpointStore;
+import com.titan.ledger.adapter.out.persistence.JobCheckpointStore.Checkpoint;
+import com.titan.ledger.adapter.out.persistence.JobCheckpointStore.JobState;
+import com.titan.ledger.adapter.out.persistence.LedgerDailySummaryStore;
+import com.titan.ledger.core.domain.exception.AccountNotFoundException;
+import com.titan.ledger.core.usecase.dto.DailySummaryRangeResponse;
+import com.titan.ledger.core.usecase.dto.DailySummaryResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DailySummaryServiceTest {
+
+    @Mock private LedgerDailySummaryStore summaryStore;
+    @Mock private JobCheckpointStore checkpointStore;
+    @Mock private AccountRepository accountRepository;
+
+    @InjectMocks
+    private DailySummaryService service;
+
+    private final UUID accountId = UUID.randomUUID();
+    private final LocalDate from = LocalDate.of(2026, 1, 1);
+    private final LocalDate to = LocalDate.of(2026, 12, 31);
+
+    @Test
+    @DisplayName("Should read the pre-aggregated days and report how far the rollup is complete")
+    void shouldReturnDaysWithCompleteUntil() {
+        DailySummaryResponse day = new DailySummaryResponse(LocalDate.of(2026, 3, 10),
+                new BigDecimal("100.00"), new BigDecimal("40.00"), 2, 1, new BigDecimal("60.00"));
+        Instant completeUntil = Instant.parse("2026-10-18T12:00:00Z");
+        when(summaryStore.findRange(accountId, from, to)).thenReturn(List.of(day));
+        when(checkpointStore.find(LedgerDailyRollupJob.JOB_NAME)).thenReturn(Optional.of(
+                new JobState(new Checkpoint(completeUntil.minusSeconds(5), UUID.randomUUID()), completeUntil)));
+
+        DailySummaryRangeResponse response = service.getDailySummary(accountId, from, to);
+
+        assertThat(response.days()).containsExactly(day);
+        assertThat(response.completeUntil()).isEqualTo(completeUntil);
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    @DisplayName("Should tell an empty period apart from a missing account")
+    void shouldThrowWhenAccountDoesNotExist() {
+        when(summaryStore.findRange(accountId, from, to)).thenReturn(List.of());
+        when(accountRepository.existsById(accountId)).thenReturn(false);
+
+        assertThatThrownBy(() -> service.getDailySummary(accountId, from, to))
+                .isInstanceOf(AccountNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject inverted ranges and ranges above the day limit before querying")
+    void shouldRejectInvalidRanges() {
+        assertThatThrownBy(() -> service.getDailySummary(accountId, to, from))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.getDailySummary(accountId, from, from.plusYears(2)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(summaryStore, checkpointStore, accountRepository);
+    }
+}
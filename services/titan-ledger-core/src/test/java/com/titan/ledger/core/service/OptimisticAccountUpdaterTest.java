@@ -0,0 +1,99 @@
+package com.titan.ledger.core.service;
+
+import com.titan.ledger.adapter.out.persistence.AccountRepository;
+import com.titan.ledger.adapter.out.persistence.AccountRepository.BalanceSnapshot;
+import com.titan.ledger.core.service.OptimisticAccountUpdater.Operation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OptimisticAccountUpdaterTest {
+
+    private static final UUID ACCOUNT_ID = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+    @Mock private AccountRepository accountRepository;
+
+    @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks private OptimisticAccountUpdater updater;
+
+    @Test
+    @DisplayName("Should re-read and retry when the version changed between read and write")
+    void shouldRetryOnVersionConflict() {
+        BalanceSnapshot stale = snapshot("100.00", 1L);
+        BalanceSnapshot fresh = snapshot("80.00", 2L);
+        when(accountRepository.findSnapshotById(ACCOUNT_ID)).thenReturn(Optional.of(stale), Optional.of(fresh));
+        when(accountRepository.updateBalanceIfVersion(eq(ACCOUNT_ID), any(), eq(1L), any(Instant.class))).thenReturn(0);
+        when(accountRepository.updateBalanceIfVersion(eq(ACCOUNT_ID), any(), eq(2L), any(Instant.class))).thenReturn(1);
+
+        BalanceChange result = updater.apply(ACCOUNT_ID, Operation.TRANSFER, "not found",
+                s -> s.getBalance().subtract(new BigDecimal("30.00")));
+
+        assertThat(result.balance()).isEqualByComparingTo("50.00");
+        assertThat(result.version()).isEqualTo(3L);
+        assertThat(meterRegistry.counter("titan.ledger.optimistic.conflicts", "operation", "transfer").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("titan.ledger.optimistic.retries", "operation", "transfer").count()).isEqualTo(1);
+        verify(accountRepository, never()).lockSnapshotById(any());
+    }
+
+    @Test
+    @DisplayName("Should fall back to a pessimistic lock after exhausting the retries")
+    void shouldFallBackToPessimisticLock() {
+        when(accountRepository.findSnapshotById(ACCOUNT_ID)).thenReturn(Optional.of(snapshot("100.00", 1L)));
+        when(accountRepository.updateBalanceIfVersion(eq(ACCOUNT_ID), any(), eq(1L), any(Instant.class))).thenReturn(0);
+        when(accountRepository.lockSnapshotById(ACCOUNT_ID)).thenReturn(Optional.of(snapshot("70.00", 9L)));
+        when(accountRepository.updateBalanceIfVersion(eq(ACCOUNT_ID), any(), eq(9L), any(Instant.class))).thenReturn(1);
+
+        BalanceChange result = updater.apply(ACCOUNT_ID, Operation.DEPOSIT, "not found",
+                s -> s.getBalance().add(new BigDecimal("10.00")));
+
+        assertThat(result.balance()).isEqualByComparingTo("80.00");
+        verify(accountRepository, times(4)).findSnapshotById(ACCOUNT_ID);
+        assertThat(meterRegistry.counter("titan.ledger.optimistic.fallbacks", "operation", "deposit").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should refuse to write the main row of an account sharded by another node")
+    void shouldRejectShardedSnapshot() {
+        when(accountRepository.findSnapshotById(ACCOUNT_ID)).thenReturn(Optional.of(snapshot("0.00", 5L, 4)));
+
+        assertThatThrownBy(() -> updater.apply(ACCOUNT_ID, Operation.DEPOSIT, "not found",
+                s -> s.getBalance().add(new BigDecimal("10.00"))))
+                .isInstanceOf(StaleShardRegistryException.class);
+        verify(accountRepository, never()).updateBalanceIfVersion(any(), any(), any(), any());
+    }
+
+    private BalanceSnapshot snapshot(String balance, Long version) {
+        return snapshot(balance, version, 0);
+    }
+
+    private BalanceSnapshot snapshot(String balance, Long version, int shardCount) {
+        return new BalanceSnapshot() {
+            public UUID getId() { return ACCOUNT_ID; }
+            public String getClientId() { return "client"; }
+            public String getCurrency() { return "BRL"; }
+            public BigDecimal getBalance() { return new BigDecimal(balance); }
+            public String getStatus() { return "ACTIVE"; }
+            public Long getVersion() { return version; }
+            public Integer getShardCount() { return shardCount; }
+        };
+    }
+}
@@ -0,0 +1,126 @@
+package com.titan.ledger.core.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.titan.ledger.adapter.out.cache.AccountCacheWriter;
+import com.titan.ledger.adapter.out.cache.IdempotencyNearCache;
+import com.titan.ledger.adapter.out.persistence.AccountRepository;
+import com.titan.ledger.adapter.out.persistence.IdempotencyRepository;
+import com.titan.ledger.adapter.out.persistence.LedgerBatchWriter;
+import com.titan.ledger.adapter.out.persistence.LedgerRepository;
+import com.titan.ledger.adapter.out.persistence.TransactionRepository;
+import com.titan.ledger.core.domain.model.Account;
+import com.titan.ledger.core.domain.model.LedgerEntry;
+import com.titan.ledger.core.domain.model.OperationType;
+import com.titan.ledger.core.domain.model.Transaction;
+import com.titan.ledger.core.domain.model.TransactionStatus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RevertServiceTest {
+
+    private static final UUID ALICE = UUID.fromString("11111111-1111-1111-1111-111111111111");
+    private static final UUID SHOP = UUID.fromString("22222222-2222-2222-2222-222222222222");
+
+    @Mock private TransactionRepository transactionRepository;
+    @Mock private LedgerRepository ledgerRepository;
+    @Mock private AccountRepository accountRepository;
+    @Mock private IdempotencyRepository idempotencyRepository;
+    @Mock private LedgerBatchWriter ledgerWriter;
+    @Mock private StringRedisTemplate redisTemplate;
+    @Mock private AccountShardService shardService;
+    @Mock private OptimisticAccountUpdater optimisticUpdater;
+    @Mock private IdempotencyNearCache nearCache;
+    @Mock private AccountCacheWriter cacheWriter;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private RevertService revertService;
+
+    @BeforeEach
+    void setUp() {
+        TransferMetrics metrics = new TransferMetrics(new SimpleMeterRegistry());
+        TransferEventFactory eventFactory = new TransferEventFactory();
+        TransferIdempotency idempotency = new TransferIdempotency(redisTemplate, idempotencyRepository, nearCache,
+                eventFactory, metrics);
+        TransferService transferService = new TransferService(accountRepository, idempotencyRepository, ledgerWriter,
+                metrics, eventFactory, shardService, optimisticUpdater, idempotency, cacheWriter, transactionManager);
+        ReflectionTestUtils.setField(transferService, "mode", ConcurrencyMode.ATOMIC);
+        revertService = new RevertService(transactionRepository, ledgerRepository, transferService);
+
+        // O @Transactional do estorno: a transferência só participa da transação aberta
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    @DisplayName("Should not retry the reversal inside the caller's transaction when the registry is stale")
+    void shouldRethrowStaleShardInsideOuterTransaction() {
+        Transaction original = originalTransfer(ALICE, SHOP, "30.00");
+
+        when(idempotencyRepository.reserve(anyString(), eq(200), anyString(), any())).thenReturn(1);
+        // Quem recebeu (a loja) paga o estorno, mas outro nó acabou de dividi-la em fatias
+        lenient().when(accountRepository.debitIfActiveAndCovered(SHOP, new BigDecimal("30.00"))).thenReturn(Optional.empty());
+        lenient().when(accountRepository.creditIfActive(ALICE, new BigDecimal("30.00")))
+                .thenReturn(Optional.of(mock(AccountRepository.BalanceSnapshot.class)));
+        AccountRepository.BalanceSnapshot sharded = mock(AccountRepository.BalanceSnapshot.class);
+        when(sharded.getShardCount()).thenReturn(4);
+        when(accountRepository.findSnapshotById(SHOP)).thenReturn(Optional.of(sharded));
+
+        assertThatThrownBy(() -> revertService.execute(original.getId(), "chargeback"))
+                .isInstanceOf(StaleShardRegistryException.class);
+
+        // Uma única tentativa: a segunda reencontraria a reserva da primeira na transação condenada
+        verify(idempotencyRepository, times(1)).reserve(anyString(), eq(200), anyString(), any());
+        verify(accountRepository, times(1)).debitIfActiveAndCovered(SHOP, new BigDecimal("30.00"));
+        verify(shardService).rememberSharded(SHOP);
+        verify(transactionRepository, never()).save(any());
+        assertThat(original.getStatus()).isEqualTo(TransactionStatus.COMPLETED);
+    }
+
+    private Transaction originalTransfer(UUID from, UUID to, String amount) {
+        Transaction original = new Transaction(UUID.randomUUID().toString(), "Original");
+        original.setId(UUID.randomUUID());
+        original.setStatus(TransactionStatus.COMPLETED);
+        Account sender = new Account("sender", "BRL");
+        sender.setId(from);
+        Account receiver = new Account("receiver", "BRL");
+        receiver.setId(to);
+        when(transactionRepository.findById(original.getId())).thenReturn(Optional.of(original));
+        when(ledgerRepository.findByTransaction(original)).thenReturn(List.of(
+                new LedgerEntry(original, sender, OperationType.DEBIT, new BigDecimal(amount), BigDecimal.ZERO),
+                new LedgerEntry(original, receiver, OperationType.CREDIT, new BigDecimal(amount), new BigDecimal(amount))));
+        return original;
+    }
+}
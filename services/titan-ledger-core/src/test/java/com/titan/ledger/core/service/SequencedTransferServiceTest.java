@@ -0,0 +1,120 @@
+package com.titan.ledger.core.service;
+
+import com.titan.ledger.adapter.out.cache.IdempotencyNearCache;
+import com.titan.ledger.adapter.out.persistence.IdempotencyRepository;
+import com.titan.ledger.core.domain.exception.InsufficientFundsException;
+import com.titan.ledger.core.domain.exception.TransferCommitTimeoutException;
+import com.titan.ledger.core.usecase.BatchTransferFundsUseCase;
+import com.titan.ledger.core.usecase.dto.BatchTransferItemResult;
+import com.titan.ledger.core.usecase.dto.BatchTransferItemResult.Status;
+import com.titan.ledger.core.usecase.dto.BatchTransferResult;
+import com.titan.ledger.core.usecase.dto.TransferFundsCommand;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SequencedTransferServiceTest {
+
+    @Mock private BatchTransferFundsUseCase batchTransferFundsUseCase;
+    @Mock private StringRedisTemplate redisTemplate;
+    @Mock private IdempotencyRepository idempotencyRepository;
+    @Mock private IdempotencyNearCache nearCache;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SequencedTransferService sequencer;
+
+    @BeforeEach
+    void setup() {
+        TransferMetrics metrics = new TransferMetrics(meterRegistry);
+        TransferIdempotency idempotency = new TransferIdempotency(redisTemplate, idempotencyRepository, nearCache,
+                new TransferEventFactory(), metrics);
+        sequencer = new SequencedTransferService(batchTransferFundsUseCase, idempotency, metrics, meterRegistry);
+        ReflectionTestUtils.setField(sequencer, "timeoutMs", 500L);
+        sequencer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sequencer.stop();
+    }
+
+    @Test
+    @DisplayName("Should complete the caller with the transaction id after the group commit")
+    void shouldCompleteAfterGroupCommit() {
+        UUID txId = UUID.randomUUID();
+        when(batchTransferFundsUseCase.execute(anyList())).thenReturn(new BatchTransferResult(1, 1, 0,
+                List.of(new BatchTransferItemResult(0, "k1", Status.COMPLETED, txId, null))));
+
+        UUID result = sequencer.execute(command("k1"));
+
+        assertThat(result).isEqualTo(txId);
+        assertThat(meterRegistry.get("titan.ledger.transfer.latency").tag("outcome", "success").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should replay a key known to the near cache without enqueueing it")
+    void shouldReplayFromNearCache() {
+        UUID txId = UUID.randomUUID();
+        when(nearCache.find("k1")).thenReturn(txId);
+
+        assertThat(sequencer.execute(command("k1"))).isEqualTo(txId);
+
+        verify(batchTransferFundsUseCase, never()).execute(anyList());
+    }
+
+    @Test
+    @DisplayName("Should answer with a retryable timeout when the group commit does not finish in time")
+    void shouldTimeOutWithRetryableException() {
+        CountDownLatch release = new CountDownLatch(1);
+        when(batchTransferFundsUseCase.execute(anyList())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new BatchTransferResult(1, 1, 0,
+                    List.of(new BatchTransferItemResult(0, "k1", Status.COMPLETED, UUID.randomUUID(), null)));
+        });
+
+        try {
+            assertThatThrownBy(() -> sequencer.execute(command("k1")))
+                    .isInstanceOf(TransferCommitTimeoutException.class);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should surface per-item failures as the usual domain exceptions")
+    void shouldMapItemFailures() {
+        when(batchTransferFundsUseCase.execute(anyList())).thenReturn(new BatchTransferResult(1, 0, 1,
+                List.of(new BatchTransferItemResult(0, "k1", Status.INSUFFICIENT_FUNDS, null, "Insufficient funds"))));
+
+        assertThatThrownBy(() -> sequencer.execute(command("k1")))
+                .isInstanceOf(InsufficientFundsException.class);
+    }
+
+    private TransferFundsCommand command(String key) {
+        return new TransferFundsCommand(
+            UUID.fromString("11111111-1111-1111-1111-111111111111"),
+            UUID.fromString("22222222-2222-2222-2222-222222222222"),
+            new BigDecimal("10.00"), "Test", key
+        );
+    }
+}
@@ -0,0 +1,88 @@
+package com.titan.ledger.core.service;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.titan.ledger.adapter.out.persistence.AccountRepository;
+import com.titan.ledger.adapter.out.persistence.ReadYourWritesTracker;
+import com.titan.ledger.adapter.out.persistence.StatementExportReader;
+import com.titan.ledger.core.usecase.dto.StatementEntryResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class StatementExportServiceTest {
+
+    private static final UUID ACCOUNT = UUID.randomUUID();
+    private static final Instant FROM = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2026-02-01T00:00:00Z");
+
+    @Mock private StatementExportReader reader;
+    @Mock private AccountRepository accountRepository;
+    @Mock private ReadYourWritesTracker readYourWrites;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private StatementExportService exportService;
+
+    private final UUID txId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("Should stream CSV rows with RFC 4180 quoting for descriptions")
+    void shouldExportCsv() throws Exception {
+        feed(new StatementEntryResponse(txId, "CREDIT", new BigDecimal("10.0000"), new BigDecimal("110.0000"),
+                "Pix, \"aluguel\"", Instant.parse("2026-01-05T10:00:00Z")));
+
+        String csv = export(StatementExportFormat.CSV);
+
+        assertThat(csv).isEqualTo("transaction_id,operation_type,amount,balance_after,description,timestamp\n"
+                + txId + ",CREDIT,10.0000,110.0000,\"Pix, \"\"aluguel\"\"\",2026-01-05T10:00:00Z\n");
+    }
+
+    @Test
+    @DisplayName("Should stream one JSON object per line")
+    void shouldExportNdjson() throws Exception {
+        feed(new StatementEntryResponse(txId, "DEBIT", BigDecimal.ONE, BigDecimal.TEN, "a",
+                        Instant.parse("2026-01-05T10:00:00Z")),
+                new StatementEntryResponse(txId, "CREDIT", BigDecimal.ONE, BigDecimal.TEN, "b",
+                        Instant.parse("2026-01-06T10:00:00Z")));
+
+        String[] lines = export(StatementExportFormat.NDJSON).split("\n");
+
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{").contains("\"operationType\":\"DEBIT\"")
+                .contains("\"timestamp\":\"2026-01-05T10:00:00Z\"");
+        assertThat(lines[1]).contains("\"description\":\"b\"");
+    }
+
+    private void feed(StatementEntryResponse... entries) {
+        doAnswer(invocation -> {
+            Consumer<StatementEntryResponse> sink = invocation.getArgument(3);
+            for (StatementEntryResponse entry : entries) {
+                sink.accept(entry);
+            }
+            return null;
+        }).when(reader).forEachEntry(eq(ACCOUNT), eq(FROM), eq(TO), any());
+    }
+
+    private String export(StatementExportFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(ACCOUNT, FROM, TO, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
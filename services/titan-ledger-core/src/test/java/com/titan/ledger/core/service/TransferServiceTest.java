@@ -1,14 +1,16 @@
 package com.titan.ledger.core.service;
 
+import com.titan.ledger.adapter.out.cache.AccountCacheWriter;
+import com.titan.ledger.adapter.out.cache.IdempotencyNearCache;
 import com.titan.ledger.adapter.out.persistence.AccountRepository;
 import com.titan.ledger.adapter.out.persistence.IdempotencyRepository;
-import com.titan.ledger.adapter.out.persistence.LedgerRepository;
-import com.titan.ledger.adapter.out.persistence.OutboxRepository; // Import necessário
-import com.titan.ledger.adapter.out.persistence.TransactionRepository;
+import com.titan.ledger.adapter.out.persistence.LedgerBatchWriter;
+import com.titan.ledger.core.domain.exception.AccountBlockedException;
 import com.titan.ledger.core.domain.exception.InsufficientFundsException;
 import com.titan.ledger.core.domain.model.Account;
 import com.titan.ledger.core.domain.model.AccountStatus;
 import com.titan.ledger.core.domain.model.LedgerEntry;
+import com.titan.ledger.core.domain.model.OutboxEvent;
 import com.titan.ledger.core.domain.model.Transaction;
 import com.titan.ledger.core.usecase.dto.TransferFundsCommand;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -17,16 +19,25 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -37,21 +48,32 @@ import static org.mockito.Mockito.*;
 class TransferServiceTest {
 
     @Mock private AccountRepository accountRepository;
-    @Mock private TransactionRepository transactionRepository;
-    @Mock private LedgerRepository ledgerRepository;
     @Mock private IdempotencyRepository idempotencyRepository;
+    @Mock private LedgerBatchWriter ledgerWriter;
     
     // --- NOVOS MOCKS NECESSÁRIOS PARA O SPRING BOOT 4 / VERSÃO ATUAL DO CÓDIGO ---
-    @Mock private OutboxRepository outboxRepository;
     @Mock private StringRedisTemplate redisTemplate;
     @Mock private ValueOperations<String, String> valueOperations;
+    @Mock private AccountShardService shardService;
+    @Mock private OptimisticAccountUpdater optimisticUpdater;
+    @Mock private IdempotencyNearCache nearCache;
+    @Mock private AccountCacheWriter cacheWriter;
+    @Mock private PlatformTransactionManager transactionManager;
     
-    @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy private TransferMetrics metrics = new TransferMetrics(meterRegistry);
+    @Spy private TransferEventFactory eventFactory = new TransferEventFactory();
 
-    @InjectMocks private TransferService transferService;
+    private TransferService transferService;
 
     @BeforeEach
     void setup() {
+        // Replay e single-flight de verdade, sobre os mesmos mocks de Redis, Postgres e cache local
+        TransferIdempotency idempotency = new TransferIdempotency(redisTemplate, idempotencyRepository, nearCache,
+                eventFactory, metrics);
+        transferService = new TransferService(accountRepository, idempotencyRepository, ledgerWriter, metrics,
+                eventFactory, shardService, optimisticUpdater, idempotency, cacheWriter, transactionManager);
+
         // Necessário para evitar NullPointer quando o serviço acessa o Redis
         lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
     }
@@ -73,11 +95,6 @@ class TransferServiceTest {
         when(accountRepository.findByIdForUpdate(idAlice)).thenReturn(Optional.of(alice));
         when(accountRepository.findByIdForUpdate(idBob)).thenReturn(Optional.of(bob));
 
-        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> {
-            Transaction t = invocation.getArgument(0);
-            t.setId(UUID.randomUUID());
-            return t;
-        });
 
         TransferFundsCommand command = new TransferFundsCommand(
             idAlice, idBob, new BigDecimal("50.00"), "Test", null
@@ -89,7 +106,201 @@ class TransferServiceTest {
         assertThat(alice.getBalance()).isEqualByComparingTo("50.00");
         assertThat(bob.getBalance()).isEqualByComparingTo("50.00");
 
-        verify(outboxRepository, times(1)).save(any());
+        verify(ledgerWriter, times(1)).write(any(Transaction.class), anyList(), any(OutboxEvent.class), isNull());
+    }
+
+    @Test
+    @DisplayName("Should credit a sharded account through a shard without locking its main row")
+    void shouldCreditShardedAccountThroughShard() {
+        UUID idAlice = UUID.fromString("11111111-1111-1111-1111-111111111111");
+        UUID idShop = UUID.fromString("22222222-2222-2222-2222-222222222222");
+
+        Account alice = new Account("alice", "BRL");
+        alice.setId(idAlice);
+        alice.setBalance(new BigDecimal("100.00"));
+
+        Account shop = new Account("shop", "BRL");
+        shop.setId(idShop);
+        shop.setShardCount(8);
+
+        when(shardService.isKnownSharded(any(UUID.class))).thenAnswer(inv -> idShop.equals(inv.getArgument(0)));
+        when(accountRepository.findByIdForUpdate(idAlice)).thenReturn(Optional.of(alice));
+        when(accountRepository.findById(idShop)).thenReturn(Optional.of(shop));
+        when(shardService.credit(shop, new BigDecimal("50.00"))).thenReturn(new BigDecimal("1050.00"));
+
+        TransferFundsCommand command = new TransferFundsCommand(
+            idAlice, idShop, new BigDecimal("50.00"), "Test", null
+        );
+
+        transferService.execute(command);
+
+        assertThat(alice.getBalance()).isEqualByComparingTo("50.00");
+        verify(accountRepository, never()).findByIdForUpdate(idShop);
+        verify(accountRepository, never()).save(shop);
+        verify(shardService).credit(shop, new BigDecimal("50.00"));
+    }
+
+    @Test
+    @DisplayName("Should touch the shards of two sharded accounts in the global lock order")
+    void shouldMoveShardsInLockOrder() {
+        UUID idLow = UUID.fromString("11111111-1111-1111-1111-111111111111");
+        UUID idHigh = UUID.fromString("22222222-2222-2222-2222-222222222222");
+
+        Account low = new Account("low", "BRL");
+        low.setId(idLow);
+        low.setShardCount(4);
+        Account high = new Account("high", "BRL");
+        high.setId(idHigh);
+        high.setShardCount(4);
+
+        when(shardService.isKnownSharded(any(UUID.class))).thenReturn(true);
+        when(accountRepository.findById(idLow)).thenReturn(Optional.of(low));
+        when(accountRepository.findById(idHigh)).thenReturn(Optional.of(high));
+        when(shardService.debit(high, new BigDecimal("5.00"))).thenReturn(new BigDecimal("95.00"));
+        when(shardService.credit(low, new BigDecimal("5.00"))).thenReturn(new BigDecimal("105.00"));
+
+        // Origem vem depois na ordem global: o crédito no destino precisa vir primeiro
+        transferService.execute(new TransferFundsCommand(idHigh, idLow, new BigDecimal("5.00"), "Test", null));
+
+        var inOrder = inOrder(shardService);
+        inOrder.verify(shardService).credit(low, new BigDecimal("5.00"));
+        inOrder.verify(shardService).debit(high, new BigDecimal("5.00"));
+    }
+
+    @Test
+    @DisplayName("Should move funds with conditional updates in ATOMIC mode without loading entities")
+    void shouldTransferWithAtomicUpdates() {
+        ReflectionTestUtils.setField(transferService, "mode", ConcurrencyMode.ATOMIC);
+        UUID idAlice = UUID.fromString("11111111-1111-1111-1111-111111111111");
+        UUID idBob = UUID.fromString("22222222-2222-2222-2222-222222222222");
+
+        AccountRepository.BalanceSnapshot debited = snapshot(idAlice, "50.00", 4L);
+        AccountRepository.BalanceSnapshot credited = snapshot(idBob, "150.00", 9L);
+        when(accountRepository.debitIfActiveAndCovered(idAlice, new BigDecimal("50.00"))).thenReturn(Optional.of(debited));
+        when(accountRepository.creditIfActive(idBob, new BigDecimal("50.00"))).thenReturn(Optional.of(credited));
+
+        UUID txId = transferService.execute(new TransferFundsCommand(
+            idAlice, idBob, new BigDecimal("50.00"), "Test", null
+        ));
+
+        assertThat(txId).isNotNull();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<LedgerEntry>> entries = ArgumentCaptor.forClass(List.class);
+        verify(ledgerWriter).write(any(Transaction.class), entries.capture(), any(), isNull());
+        assertThat(entries.getValue()).extracting(LedgerEntry::getBalanceSnapshot)
+                .containsExactly(new BigDecimal("50.00"), new BigDecimal("150.00"));
+        verify(accountRepository, never()).findByIdForUpdate(any());
+
+        // Write-through com a versão devolvida pelo RETURNING
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BalanceChange>> balances = ArgumentCaptor.forClass(List.class);
+        verify(cacheWriter).writeAfterCommit(eq(List.of(idAlice, idBob)), balances.capture());
+        assertThat(balances.getValue()).extracting(BalanceChange::version).containsExactly(4L, 9L);
+    }
+
+    @Test
+    @DisplayName("Should classify a rejected ATOMIC debit as insufficient funds")
+    void shouldClassifyAtomicRejection() {
+        ReflectionTestUtils.setField(transferService, "mode", ConcurrencyMode.ATOMIC);
+        UUID idAlice = UUID.fromString("11111111-1111-1111-1111-111111111111");
+        UUID idBob = UUID.fromString("22222222-2222-2222-2222-222222222222");
+
+        AccountRepository.BalanceSnapshot snapshot = mock(AccountRepository.BalanceSnapshot.class);
+        when(snapshot.getStatus()).thenReturn("ACTIVE");
+        when(accountRepository.debitIfActiveAndCovered(idAlice, new BigDecimal("50.00"))).thenReturn(Optional.empty());
+        when(accountRepository.findSnapshotById(idAlice)).thenReturn(Optional.of(snapshot));
+
+        assertThatThrownBy(() -> transferService.execute(new TransferFundsCommand(
+            idAlice, idBob, new BigDecimal("50.00"), "Test", null
+        ))).isInstanceOf(InsufficientFundsException.class);
+        verify(accountRepository, never()).creditIfActive(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should skip Redis and Postgres lookups when the Bloom filter has never seen the key")
+    void shouldSkipRemoteLookupsOnBloomNegative() {
+        UUID idAlice = UUID.fromString("11111111-1111-1111-1111-111111111111");
+        UUID idBob = UUID.fromString("22222222-2222-2222-2222-222222222222");
+        stubAccounts(idAlice, "100.00", idBob);
+        when(nearCache.mightExist("fresh-key")).thenReturn(false);
+        when(idempotencyRepository.reserve(eq("fresh-key"), eq(200), anyString(), any())).thenReturn(1);
+
+        transferService.execute(new TransferFundsCommand(
+            idAlice, idBob, new BigDecimal("10.00"), "Test", "fresh-key"
+        ));
+
+        verify(valueOperations, never()).get(anyString());
+        verify(idempotencyRepository, never()).findByKeyWithin(anyString(), any());
+        // Sem transação ativa no teste, o "after commit" roda na hora
+        verify(nearCache).remember(eq("fresh-key"), any(UUID.class));
+    }
+
+    @Test
+    @DisplayName("Should replay without touching accounts when another request already reserved the key")
+    void shouldReplayWhenReservationIsLost() {
+        UUID idAlice = UUID.fromString("11111111-1111-1111-1111-111111111111");
+        UUID idBob = UUID.fromString("22222222-2222-2222-2222-222222222222");
+        UUID originalTxId = UUID.randomUUID();
+        when(idempotencyRepository.reserve(eq("other-node-key"), eq(200), anyString(), any())).thenReturn(0);
+        when(valueOperations.get("idem::other-node-key")).thenReturn(originalTxId.toString());
+
+        UUID result = transferService.execute(new TransferFundsCommand(
+            idAlice, idBob, new BigDecimal("10.00"), "Test", "other-node-key"
+        ));
+
+        assertThat(result).isEqualTo(originalTxId);
+        verify(accountRepository, never()).findByIdForUpdate(any());
+        verify(ledgerWriter, never()).write(any(Transaction.class), anyList(), any(), any());
+        assertThat(meterRegistry.get("titan.ledger.idempotency.coalesced")
+                .tag("scope", "reservation").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("titan.ledger.transfer.latency")
+                .tag("outcome", "idempotent_replay").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should make a concurrent duplicate wait for the in-flight transfer instead of reprocessing it")
+    void shouldCoalesceConcurrentDuplicatesInNode() throws Exception {
+        UUID idAlice = UUID.fromString("11111111-1111-1111-1111-111111111111");
+        UUID idBob = UUID.fromString("22222222-2222-2222-2222-222222222222");
+        stubAccounts(idAlice, "100.00", idBob);
+        CountDownLatch reserving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(idempotencyRepository.reserve(eq("retry-key"), eq(200), anyString(), any())).thenAnswer(inv -> {
+            reserving.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 1;
+        });
+        TransferFundsCommand command = new TransferFundsCommand(
+            idAlice, idBob, new BigDecimal("10.00"), "Test", "retry-key"
+        );
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<UUID> first = executor.submit(() -> transferService.execute(command));
+            assertThat(reserving.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Thread[] follower = new Thread[1];
+            Future<UUID> second = executor.submit(() -> {
+                follower[0] = Thread.currentThread();
+                return transferService.execute(command);
+            });
+            // Só libera a primeira depois que a segunda estiver parada no future
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while ((follower[0] == null || follower[0].getState() != Thread.State.TIMED_WAITING)
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(first.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(idempotencyRepository, times(1)).reserve(eq("retry-key"), eq(200), anyString(), any());
+        verify(ledgerWriter, times(1)).write(any(Transaction.class), anyList(), any(OutboxEvent.class), isNull());
+        assertThat(meterRegistry.get("titan.ledger.idempotency.coalesced")
+                .tag("scope", "node").counter().count()).isEqualTo(1);
     }
 
     @Test
@@ -114,6 +325,10 @@ class TransferServiceTest {
 
         assertThatThrownBy(() -> transferService.execute(command))
                 .isInstanceOf(InsufficientFundsException.class);
+
+        assertThat(meterRegistry.get("titan.ledger.transfer.latency")
+                .tag("outcome", "insufficient_funds").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("titan.ledger.transfer.count").counter().count()).isZero();
     }
     
     @Test
@@ -138,6 +353,69 @@ class TransferServiceTest {
         );
 
         assertThatThrownBy(() -> transferService.execute(command))
-                .isInstanceOf(IllegalStateException.class);
+                .isInstanceOf(AccountBlockedException.class);
+        // Bloqueio é resultado de negócio, não erro
+        assertThat(meterRegistry.get("titan.ledger.transfer.latency").tag("outcome", "blocked").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should redo an ATOMIC transfer through the shards when another node sharded the source")
+    void shouldRetryThroughShardsWhenRegistryIsStale() {
+        ReflectionTestUtils.setField(transferService, "mode", ConcurrencyMode.ATOMIC);
+        UUID idAlice = UUID.fromString("11111111-1111-1111-1111-111111111111");
+        UUID idShop = UUID.fromString("22222222-2222-2222-2222-222222222222");
+
+        Account alice = new Account("alice", "BRL");
+        alice.setId(idAlice);
+        alice.setBalance(new BigDecimal("100.00"));
+        Account shop = new Account("shop", "BRL");
+        shop.setId(idShop);
+        shop.setShardCount(8);
+
+        // O registro local só descobre o sharding quando a primeira tentativa esbarra nele
+        AtomicBoolean registered = new AtomicBoolean();
+        when(shardService.isKnownSharded(any(UUID.class)))
+                .thenAnswer(inv -> registered.get() && idShop.equals(inv.getArgument(0)));
+        doAnswer(inv -> { registered.set(true); return null; }).when(shardService).rememberSharded(idShop);
+        // A ordem global decide se o débito chega a rodar antes do crédito rejeitado
+        AccountRepository.BalanceSnapshot debited = mock(AccountRepository.BalanceSnapshot.class);
+        lenient().when(debited.getBalance()).thenReturn(new BigDecimal("70.00"));
+        lenient().when(accountRepository.debitIfActiveAndCovered(idAlice, new BigDecimal("30.00")))
+                .thenReturn(Optional.of(debited));
+        when(accountRepository.creditIfActive(idShop, new BigDecimal("30.00"))).thenReturn(Optional.empty());
+        AccountRepository.BalanceSnapshot sharded = mock(AccountRepository.BalanceSnapshot.class);
+        when(sharded.getShardCount()).thenReturn(8);
+        when(accountRepository.findSnapshotById(idShop)).thenReturn(Optional.of(sharded));
+        when(accountRepository.findByIdForUpdate(idAlice)).thenReturn(Optional.of(alice));
+        when(accountRepository.findById(idShop)).thenReturn(Optional.of(shop));
+        when(shardService.credit(shop, new BigDecimal("30.00"))).thenReturn(new BigDecimal("30.00"));
+
+        UUID txId = transferService.execute(new TransferFundsCommand(
+            idAlice, idShop, new BigDecimal("30.00"), "Test", null
+        ));
+
+        assertThat(txId).isNotNull();
+        verify(shardService).rememberSharded(idShop);
+        verify(shardService).credit(shop, new BigDecimal("30.00"));
+        assertThat(alice.getBalance()).isEqualByComparingTo("70.00");
+    }
+
+    private AccountRepository.BalanceSnapshot snapshot(UUID id, String balance, long version) {
+        AccountRepository.BalanceSnapshot snapshot = mock(AccountRepository.BalanceSnapshot.class);
+        when(snapshot.getId()).thenReturn(id);
+        when(snapshot.getBalance()).thenReturn(new BigDecimal(balance));
+        when(snapshot.getVersion()).thenReturn(version);
+        return snapshot;
+    }
+
+    private void stubAccounts(UUID sourceId, String sourceBalance, UUID targetId) {
+        Account source = new Account("source", "BRL");
+        source.setId(sourceId);
+        source.setBalance(new BigDecimal(sourceBalance));
+        Account target = new Account("target", "BRL");
+        target.setId(targetId);
+        when(accountRepository.findByIdForUpdate(sourceId)).thenReturn(Optional.of(source));
+        when(accountRepository.findByIdForUpdate(targetId)).thenReturn(Optional.of(target));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+package com.titan.ledger.integration;
+
+import com.titan.ledger.AbstractIntegrationTest;
+import com.titan.ledger.adapter.out.cache.AccountCacheWriter;
+import com.titan.ledger.adapter.out.persistence.AccountRepository;
+import com.titan.ledger.core.domain.model.Account;
+import com.titan.ledger.core.service.BalanceChange;
+import com.titan.ledger.core.usecase.dto.AccountResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Roda os scripts Lua do write-through contra um Redis de verdade
+public class AccountCacheWriterIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired private AccountCacheWriter cacheWriter;
+    @Autowired private CacheManager cacheManager;
+    @Autowired private StringRedisTemplate redisTemplate;
+    @Autowired private AccountRepository accountRepository;
+
+    @Test
+    void delayedWriteThroughDoesNotOverwriteBalanceAfterVersionedInvalidation() {
+        String clientId = "client-" + UUID.randomUUID();
+        Account account = new Account(clientId, "BRL");
+        account.setBalance(new BigDecimal("100.00"));
+        account = accountRepository.save(account);
+        account.setBalance(new BigDecimal("150.00"));
+        account = accountRepository.save(account);
+        UUID id = account.getId();
+
+        // Lote commitou a versão nova e invalidou; uma leitura preencheu o cache com ela
+        cacheWriter.invalidateAfterCommit(List.of(account));
+        Cache cache = cacheManager.getCache("accounts");
+        cache.put(id, new AccountResponse(id, clientId, "BRL", new BigDecimal("150.00"), "ACTIVE"));
+
+        // afterCommit atrasado da transação que gravou a versão anterior
+        cacheWriter.writeAfterCommit(List.of(id), List.of(
+                new BalanceChange(id, clientId, "BRL", new BigDecimal("100.00"), account.getVersion() - 1)));
+
+        assertThat(cache.get(id, AccountResponse.class).balance()).isEqualByComparingTo("150.00");
+        assertThat(redisTemplate.opsForValue().get("accounts:version::" + id))
+                .isEqualTo(Long.toString(account.getVersion()));
+    }
+
+    @Test
+    void shardedInvalidationBlocksLaterWriteThroughs() {
+        UUID id = UUID.randomUUID();
+
+        cacheWriter.writeAfterCommit(List.of(id), List.of());
+        cacheWriter.writeAfterCommit(List.of(id), List.of(
+                new BalanceChange(id, "client-sharded", "BRL", new BigDecimal("10.00"), 42)));
+
+        assertThat(redisTemplate.hasKey("accounts::" + id)).isFalse();
+    }
+
+    @Test
+    void readFillDoesNotRestoreBalanceInvalidatedDuringTheLoad() {
+        UUID id = UUID.randomUUID();
+        AccountResponse stale = new AccountResponse(id, "client-late", "BRL", new BigDecimal("100.00"), "ACTIVE");
+
+        // O loader leu o banco antes do commit; o afterCommit invalida enquanto ele termina
+        AccountResponse loaded = cacheManager.getCache("accounts").get(id, () -> {
+            cacheWriter.writeAfterCommit(List.of(id), List.of());
+            return stale;
+        });
+
+        assertThat(loaded).isEqualTo(stale);
+        assertThat(redisTemplate.hasKey("accounts::" + id)).isFalse();
+    }
+
+    @Test
+    void readFillOfShardedAccountUsesShortTtl() {
+        UUID id = UUID.randomUUID();
+        cacheWriter.writeAfterCommit(List.of(id), List.of());
+
+        cacheManager.getCache("accounts").get(id,
+                () -> new AccountResponse(id, "client-sharded", "BRL", new BigDecimal("10.00"), "ACTIVE"));
+
+        Long ttl = redisTemplate.getExpire("accounts::" + id);
+        assertThat(ttl).isBetween(1L, 5L);
+    }
+}
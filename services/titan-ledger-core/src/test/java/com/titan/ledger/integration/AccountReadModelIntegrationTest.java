@@ -0,0 +1,100 @@
+package com.titan.ledger.integration;
+
+import com.titan.ledger.AbstractIntegrationTest;
+import com.titan.ledger.adapter.out.jobs.AccountReadModelProjector;
+import com.titan.ledger.adapter.out.persistence.AccountReadModelStore;
+import com.titan.ledger.adapter.out.persistence.AccountReadModelStore.BalanceView;
+import com.titan.ledger.adapter.out.persistence.AccountRepository;
+import com.titan.ledger.core.domain.model.Account;
+import com.titan.ledger.core.usecase.DepositUseCase;
+import com.titan.ledger.core.usecase.dto.DepositCommand;
+import com.titan.ledger.core.usecase.dto.MonthlyTotalResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Projetor agendado contra o Postgres de verdade: lê ledger_entries, sem evento de depósito na outbox
+@TestPropertySource(properties = {
+        "titan.ledger.read-model.settle-delay=0s",
+        "titan.ledger.read-model.poll-ms=100"
+})
+public class AccountReadModelIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired private DepositUseCase depositUseCase;
+    @Autowired private AccountRepository accountRepository;
+    @Autowired private AccountReadModelStore store;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private AccountReadModelProjector projector;
+
+    @Test
+    void depositsReachTheReadModelWithoutOutboxEvents() throws InterruptedException {
+        UUID accountId = accountRepository.save(new Account("client-" + UUID.randomUUID(), "BRL")).getId();
+        Integer outboxBefore = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events", Integer.class);
+
+        depositUseCase.execute(new DepositCommand(accountId, new BigDecimal("25.00"), "Read model test"));
+        Instant deposited = Instant.now();
+
+        BalanceView view = awaitProjection(accountId, deposited);
+        assertThat(view.account().balance()).isEqualByComparingTo("25.00");
+        assertThat(store.findRecentEntries(accountId, 20))
+                .singleElement()
+                .satisfies(entry -> assertThat(entry.amount()).isEqualByComparingTo("25.00"));
+        assertThat(store.findMonthlyTotals(accountId, LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1)))
+                .singleElement()
+                .extracting(MonthlyTotalResponse::credits)
+                .satisfies(credits -> assertThat(credits).isEqualByComparingTo("25.00"));
+        // Depósito não entra no contrato do Kafka
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events", Integer.class))
+                .isEqualTo(outboxBefore);
+    }
+
+    @Test
+    void repairAppliesEntriesCommittedBehindTheCheckpointOnlyOnce() throws InterruptedException {
+        UUID accountId = accountRepository.save(new Account("client-" + UUID.randomUUID(), "BRL")).getId();
+        depositUseCase.execute(new DepositCommand(accountId, new BigDecimal("10.00"), "On time"));
+        awaitProjection(accountId, Instant.now());
+
+        // Commit tardio: created_at de antes do checkpoint atual, visível só agora
+        UUID txId = UUID.randomUUID();
+        Instant lateCreatedAt = Instant.now().minus(Duration.ofMinutes(5));
+        jdbcTemplate.update("INSERT INTO transactions (id, correlation_id, description, status, created_at) "
+                + "VALUES (?, ?, 'Late', 'COMPLETED', ?)", txId, txId.toString(), Timestamp.from(lateCreatedAt));
+        jdbcTemplate.update("INSERT INTO ledger_entries (transaction_id, account_id, operation_type, amount, "
+                + "balance_snapshot, created_at) VALUES (?, ?, 'CREDIT', 7.00, 17.00, ?)",
+                txId, accountId, Timestamp.from(lateCreatedAt));
+
+        projector.repair();
+        projector.repair();
+
+        // Duas rodadas de reparo, uma soma só
+        assertThat(store.findRecentEntries(accountId, 20)).hasSize(2);
+        BigDecimal credits = store.findMonthlyTotals(accountId, LocalDate.of(2000, 1, 1)).stream()
+                .map(MonthlyTotalResponse::credits)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertThat(credits).isEqualByComparingTo("17.00");
+    }
+
+    private BalanceView awaitProjection(UUID accountId, Instant after) throws InterruptedException {
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(10));
+        while (Instant.now().isBefore(deadline)) {
+            Optional<BalanceView> view = store.findBalance(accountId);
+            if (view.isPresent() && view.get().watermark().isAfter(after)) {
+                return view.get();
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Read model did not catch up with the deposit on account " + accountId);
+    }
+}
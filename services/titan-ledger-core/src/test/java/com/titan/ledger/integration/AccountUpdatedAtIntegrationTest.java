@@ -0,0 +1,78 @@
+package com.titan.ledger.integration;
+
+import com.titan.ledger.AbstractIntegrationTest;
+import com.titan.ledger.adapter.out.persistence.AccountRepository;
+import com.titan.ledger.adapter.out.persistence.AccountScanReader;
+import com.titan.ledger.adapter.out.persistence.AccountShardRepository;
+import com.titan.ledger.core.domain.model.Account;
+import com.titan.ledger.core.service.AccountShardService;
+import com.titan.ledger.core.usecase.dto.AccountFilter;
+import com.titan.ledger.core.usecase.dto.AccountResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// updated_at alimenta a reconciliação incremental e o filtro updatedSince: toda escrita precisa avançá-lo
+public class AccountUpdatedAtIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired private AccountRepository accountRepository;
+    @Autowired private AccountShardRepository shardRepository;
+    @Autowired private AccountShardService shardService;
+    @Autowired private AccountScanReader scanReader;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    void entityWritesBumpUpdatedAt() {
+        UUID id = staleAccount();
+        Instant before = Instant.now().minusSeconds(1);
+
+        // Mesmo caminho do pessimista e do depósito: dirty checking da entidade
+        Account account = accountRepository.findById(id).orElseThrow();
+        account.setBalance(new BigDecimal("150.00"));
+        accountRepository.save(account);
+
+        assertThat(accountRepository.findById(id).orElseThrow().getUpdatedAt()).isAfter(before);
+    }
+
+    @Test
+    void shardingAndShardMovesAreVisibleToUpdatedSince() {
+        UUID id = staleAccount();
+        Instant before = Instant.now().minusSeconds(1);
+
+        shardService.execute(id, 2);
+        assertThat(accountRepository.findById(id).orElseThrow().getUpdatedAt()).isAfter(before);
+
+        // Só as fatias mudam numa movimentação sharded
+        makeStale(id);
+        Instant since = Instant.now().minusSeconds(1);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> shardRepository.credit(id, 0, new BigDecimal("10.00")));
+
+        assertThat(scanReader.page(new AccountFilter(null, null, since), null, 1000))
+                .extracting(AccountResponse::id)
+                .contains(id);
+    }
+
+    private UUID staleAccount() {
+        Account account = new Account("client-" + UUID.randomUUID(), "BRL");
+        account.setBalance(new BigDecimal("100.00"));
+        UUID id = accountRepository.save(account).getId();
+        makeStale(id);
+        return id;
+    }
+
+    private void makeStale(UUID id) {
+        jdbcTemplate.update("UPDATE accounts SET updated_at = ? WHERE id = ?",
+                Timestamp.from(Instant.now().minus(1, ChronoUnit.HOURS)), id);
+    }
+}
@@ -0,0 +1,135 @@
+package com.titan.ledger.integration;
+
+import com.titan.ledger.AbstractIntegrationTest;
+import com.titan.ledger.adapter.out.persistence.AccountRepository;
+import com.titan.ledger.adapter.out.persistence.JobCheckpointStore.Checkpoint;
+import com.titan.ledger.adapter.out.persistence.LedgerDailySummaryStore;
+import com.titan.ledger.adapter.out.persistence.LedgerDailySummaryStore.RollupBatch;
+import com.titan.ledger.core.domain.model.Account;
+import com.titan.ledger.core.usecase.dto.DailySummaryResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// ROLLUP_SQL contra o Postgres de verdade. O job agendado roda só no startup, antes dos
+// lançamentos daqui; cada teste usa um dia próprio no passado e chama o store direto.
+@TestPropertySource(properties = "titan.ledger.rollup.interval-ms=86400000")
+public class LedgerDailySummaryIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired private LedgerDailySummaryStore store;
+    @Autowired private AccountRepository accountRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void batchesThatSplitOneDayAddUpToTheSameTotals() {
+        UUID accountId = newAccount();
+        LocalDate day = LocalDate.of(2001, 3, 10);
+        Instant start = day.atStartOfDay().toInstant(ZoneOffset.UTC);
+        insertEntry(accountId, "CREDIT", "100.00", "100.00", start.plusSeconds(3600));
+        insertEntry(accountId, "DEBIT", "30.00", "70.00", start.plusSeconds(7200));
+        insertEntry(accountId, "CREDIT", "5.00", "75.00", start.plusSeconds(10800));
+        insertEntry(accountId, "DEBIT", "10.00", "65.00", start.plusSeconds(86400 + 3600));
+
+        Checkpoint from = new Checkpoint(start.minusSeconds(1), new UUID(0, 0));
+        Instant before = start.plusSeconds(2 * 86400);
+
+        // Lote de 2: o primeiro para no meio do dia 10, o segundo soma o resto nas mesmas linhas
+        RollupBatch first = store.rollUp(from, before, 2).orElseThrow();
+        assertThat(first.entries()).isEqualTo(2);
+        RollupBatch second = store.rollUp(first.last(), before, 2).orElseThrow();
+        assertThat(second.entries()).isEqualTo(2);
+        assertThat(store.rollUp(second.last(), before, 2)).isEmpty();
+
+        List<DailySummaryResponse> summary = store.findRange(accountId, day, day.plusDays(1));
+        assertThat(summary).hasSize(2);
+        assertDay(summary.get(0), day, "105.00", "30.00", 2, 1, "75.00");
+        assertDay(summary.get(1), day.plusDays(1), "0.00", "10.00", 0, 1, "65.00");
+    }
+
+    @Test
+    void olderEntryInALaterBatchDoesNotReplaceTheClosingBalance() {
+        UUID accountId = newAccount();
+        LocalDate day = LocalDate.of(2001, 4, 10);
+        Instant start = day.atStartOfDay().toInstant(ZoneOffset.UTC);
+        Instant before = start.plusSeconds(86400);
+
+        insertEntry(accountId, "CREDIT", "50.00", "50.00", start.plusSeconds(11 * 3600));
+        store.rollUp(new Checkpoint(start.plusSeconds(10 * 3600), new UUID(0, 0)), before, 10).orElseThrow();
+
+        // Commit tardio: lançamento das 09h agregado depois do das 11h (rodada de reparo)
+        insertEntry(accountId, "CREDIT", "20.00", "20.00", start.plusSeconds(9 * 3600));
+        RollupBatch late = store.rollUp(new Checkpoint(start, new UUID(0, 0)), start.plusSeconds(10 * 3600), 10)
+                .orElseThrow();
+        assertThat(late.entries()).isEqualTo(1);
+
+        assertThat(store.findRange(accountId, day, day))
+                .singleElement()
+                .satisfies(row -> assertDay(row, day, "70.00", "0.00", 2, 0, "50.00"));
+    }
+
+    @Test
+    void checkpointOrdersByCreatedAtThenIdWithoutSkippingTies() {
+        UUID accountId = newAccount();
+        Instant createdAt = LocalDate.of(2001, 5, 10).atStartOfDay().toInstant(ZoneOffset.UTC)
+                .plusSeconds(3600);
+        // Postgres compara uuid byte a byte, a mesma ordem do texto em hexadecimal
+        List<UUID> ids = Stream.of(
+                        insertEntry(accountId, "CREDIT", "1.00", "1.00", createdAt),
+                        insertEntry(accountId, "CREDIT", "2.00", "3.00", createdAt))
+                .sorted(Comparator.comparing(UUID::toString))
+                .toList();
+
+        Checkpoint from = new Checkpoint(createdAt.minusSeconds(1), new UUID(0, 0));
+        Instant before = createdAt.plusSeconds(1);
+
+        RollupBatch first = store.rollUp(from, before, 1).orElseThrow();
+        assertThat(first.last()).isEqualTo(new Checkpoint(createdAt, ids.get(0)));
+
+        // Mesmo created_at do checkpoint: o id desempata e o segundo lançamento não é pulado
+        RollupBatch second = store.rollUp(first.last(), before, 1).orElseThrow();
+        assertThat(second.last()).isEqualTo(new Checkpoint(createdAt, ids.get(1)));
+
+        Optional<RollupBatch> none = store.rollUp(second.last(), before, 1);
+        assertThat(none).isEmpty();
+    }
+
+    private UUID newAccount() {
+        return accountRepository.save(new Account("client-" + UUID.randomUUID(), "BRL")).getId();
+    }
+
+    private UUID insertEntry(UUID accountId, String type, String amount, String snapshot, Instant createdAt) {
+        UUID txId = UUID.randomUUID();
+        UUID entryId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO transactions (id, correlation_id, description, status, created_at) "
+                + "VALUES (?, ?, 'Rollup', 'COMPLETED', ?)", txId, txId.toString(), Timestamp.from(createdAt));
+        jdbcTemplate.update("INSERT INTO ledger_entries (id, transaction_id, account_id, operation_type, amount, "
+                + "balance_snapshot, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                entryId, txId, accountId, type, new BigDecimal(amount), new BigDecimal(snapshot),
+                Timestamp.from(createdAt));
+        return entryId;
+    }
+
+    private static void assertDay(DailySummaryResponse row, LocalDate day, String credits, String debits,
+            long creditCount, long debitCount, String closingBalance) {
+        assertThat(row.day()).isEqualTo(day);
+        assertThat(row.credits()).isEqualByComparingTo(credits);
+        assertThat(row.debits()).isEqualByComparingTo(debits);
+        assertThat(row.creditCount()).isEqualTo(creditCount);
+        assertThat(row.debitCount()).isEqualTo(debitCount);
+        assertThat(row.closingBalance()).isEqualByComparingTo(closingBalance);
+    }
+}
@@ -0,0 +1,140 @@
+package com.titan.ledger.integration;
+
+import com.titan.ledger.adapter.out.persistence.ReadYourWritesTracker;
+import com.titan.ledger.adapter.out.persistence.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Dois Postgres independentes no papel de primário e réplica: cada um responde o próprio nome
+// na tabela "node". Não há replicação, mas o caminho da conexão é o mesmo da aplicação
+// (LazyConnectionDataSourceProxy + ReplicaRoutingDataSource + transação read-only).
+public class ReplicaRoutingIntegrationTest {
+
+    static final PostgreSQLContainer<?> primaryDb = new PostgreSQLContainer<>("postgres:15-alpine");
+    static final PostgreSQLContainer<?> replicaDb = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static HikariDataSource primary;
+    private static HikariDataSource replica;
+
+    private ReadYourWritesTracker tracker;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeAll
+    static void startDatabases() {
+        primaryDb.start();
+        replicaDb.start();
+        primary = dataSource(primaryDb, "primary");
+        replica = dataSource(replicaDb, "replica");
+    }
+
+    @AfterAll
+    static void stopDatabases() {
+        primary.close();
+        replica.close();
+        primaryDb.stop();
+        replicaDb.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        tracker = new ReadYourWritesTracker(List.of(replicaDb.getJdbcUrl()), Duration.ofSeconds(5), 1000,
+                meterRegistry);
+        routing = new ReplicaRoutingDataSource(primary, Map.of("titan-replica-1", replica), Duration.ofSeconds(2),
+                tracker, meterRegistry);
+
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(routing);
+        jdbcTemplate = new JdbcTemplate(proxy);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(proxy);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void readOnlyTransactionsGoToMeasuredReplicaAndWritesToPrimary() {
+        // Antes da primeira medição a réplica fica fora da rotação
+        assertThat(nodeIn(readOnly)).isEqualTo("primary");
+
+        routing.refreshLag();
+
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+        assertThat(nodeIn(readWrite)).isEqualTo("primary");
+    }
+
+    @Test
+    void pinnedReadStaysOnPrimary() {
+        routing.refreshLag();
+
+        String node = readOnly.execute(status -> {
+            try (ReadYourWritesTracker.Pin pin = tracker.pinPrimary()) {
+                return node();
+            }
+        });
+
+        assertThat(node).isEqualTo("primary");
+    }
+
+    @Test
+    void standbyWithoutWalReceiverStaysOutOfRotation() {
+        // standby.signal sem primary_conninfo: em recovery, sem receiver, receive = replay para sempre
+        try (PostgreSQLContainer<?> orphan = new PostgreSQLContainer<>("postgres:15-alpine")
+                .withCopyToContainer(Transferable.of("touch \"$PGDATA/standby.signal\"\n"),
+                        "/docker-entrypoint-initdb.d/standby.sh")
+                .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*\\s", 1));
+                HikariDataSource orphanPool = new HikariDataSource()) {
+            orphan.start();
+            orphanPool.setJdbcUrl(orphan.getJdbcUrl());
+            orphanPool.setUsername(orphan.getUsername());
+            orphanPool.setPassword(orphan.getPassword());
+            orphanPool.setMaximumPoolSize(1);
+
+            SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+            ReplicaRoutingDataSource orphanRouting = new ReplicaRoutingDataSource(primary,
+                    Map.of("titan-replica-orphan", orphanPool), Duration.ofSeconds(2), tracker, meterRegistry);
+            orphanRouting.refreshLag();
+
+            assertThat(new JdbcTemplate(orphanPool).queryForObject("SELECT pg_is_in_recovery()", Boolean.class)).isTrue();
+            assertThat(meterRegistry.get("titan.ledger.datasource.replica.lag").gauge().value()).isInfinite();
+        }
+    }
+
+    private String nodeIn(TransactionTemplate transaction) {
+        return transaction.execute(status -> node());
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static HikariDataSource dataSource(PostgreSQLContainer<?> container, String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(container.getJdbcUrl());
+        dataSource.setUsername(container.getUsername());
+        dataSource.setPassword(container.getPassword());
+        dataSource.setMaximumPoolSize(2);
+        new JdbcTemplate(dataSource).execute("CREATE TABLE node (name TEXT); INSERT INTO node VALUES ('" + name + "')");
+        return dataSource;
+    }
+}